@@ -0,0 +1,79 @@
+package com.bmcho.benchmarks.coupon;
+
+import com.bmcho.couponservice.service.CouponCodeGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 쿠폰 코드 생성 비용 - 발급 1건마다 호출됨
+ * SecureRandom 기반 UUID 생성이 멀티 스레드에서 어떻게 늘어나는지 보기 위해 4 스레드도 함께 측정
+ * CouponCodeGenerator 의 Redis 블록 예약은 인메모리 카운터로 대체 (블록당 1회라 비용에서 제외)
+ */
+@State(Scope.Benchmark)
+public class CouponCodeBenchmark {
+
+    private CouponCodeGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = new CouponCodeGenerator(inMemoryRedisson(), "23456789ABCDEFGHJKLMNPQRSTUVWXYZ", 12, 10_000, "benchmark");
+    }
+
+    // v1 / v2 / v4 (이전 방식)
+    @Benchmark
+    public String uuidSubstring() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    // v3 (이전 방식)
+    @Benchmark
+    public String uuidUpperCase() {
+        return UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String uuidSubstring_4Threads() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Benchmark
+    public String generator() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generator_4Threads() {
+        return generator.generate();
+    }
+
+    private static RedissonClient inMemoryRedisson() {
+        AtomicLong sequence = new AtomicLong();
+        RAtomicLong atomicLong = (RAtomicLong) Proxy.newProxyInstance(
+                RAtomicLong.class.getClassLoader(), new Class<?>[]{RAtomicLong.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("addAndGet")) {
+                        return sequence.addAndGet((Long) args[0]);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        return (RedissonClient) Proxy.newProxyInstance(
+                RedissonClient.class.getClassLoader(), new Class<?>[]{RedissonClient.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getAtomicLong")) {
+                        return atomicLong;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,115 @@
+package com.bmcho.benchmarks.coupon;
+
+import com.bmcho.couponservice.config.codec.CouponPolicyCodec;
+import com.bmcho.couponservice.config.codec.CouponResponseCodec;
+import com.bmcho.couponservice.domain.Coupon;
+import com.bmcho.couponservice.domain.CouponPolicy;
+import com.bmcho.couponservice.dto.v1.CouponDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * 쿠폰 정책/쿠폰 상태 Redis 값 직렬화 비용 - JSON(ObjectMapper) vs 바이너리 코덱
+ * 값 크기(bytes on wire)는 Setup 에서 출력한다.
+ */
+@State(Scope.Thread)
+public class CouponJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private CouponPolicyCodec couponPolicyCodec;
+    private CouponResponseCodec couponResponseCodec;
+
+    private CouponPolicy policy;
+    private CouponDto.Response response;
+    private byte[] policyJson;
+    private byte[] responseJson;
+    private ByteBuf policyBinary;
+    private ByteBuf responseBinary;
+
+    @Setup
+    public void setUp() throws Exception {
+        // 애플리케이션과 같은 설정의 ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        couponPolicyCodec = new CouponPolicyCodec(objectMapper);
+        couponResponseCodec = new CouponResponseCodec(objectMapper);
+
+        LocalDateTime now = LocalDateTime.now();
+        policy = CouponPolicy.builder()
+                .id(1L)
+                .name("신규 가입 쿠폰")
+                .description("신규 가입 고객 대상 10% 할인")
+                .discountType(CouponPolicy.DiscountType.PERCENTAGE)
+                .discountValue(10)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(5000)
+                .totalQuantity(100_000)
+                .startTime(now.minusDays(1))
+                .endTime(now.plusDays(7))
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        response = CouponDto.Response.from(Coupon.builder()
+                .id(1L)
+                .couponPolicy(policy)
+                .userId(42L)
+                .couponCode("ABCD1234")
+                .build());
+
+        policyJson = objectMapper.writeValueAsBytes(policy);
+        responseJson = objectMapper.writeValueAsBytes(response);
+        policyBinary = couponPolicyCodec.getValueEncoder().encode(policy);
+        responseBinary = couponResponseCodec.getValueEncoder().encode(response);
+
+        System.out.printf("%n[bytes on wire] policy: json=%d, binary=%d / coupon state: json=%d, binary=%d%n",
+                policyJson.length, policyBinary.readableBytes(), responseJson.length, responseBinary.readableBytes());
+    }
+
+    @TearDown
+    public void tearDown() {
+        policyBinary.release();
+        responseBinary.release();
+    }
+
+    @Benchmark
+    public CouponPolicy policy_jsonRoundTrip() throws Exception {
+        return objectMapper.readValue(objectMapper.writeValueAsBytes(policy), CouponPolicy.class);
+    }
+
+    @Benchmark
+    public CouponPolicy policy_jsonDecode() throws Exception {
+        return objectMapper.readValue(policyJson, CouponPolicy.class);
+    }
+
+    @Benchmark
+    public Object policy_binaryDecode() throws Exception {
+        policyBinary.readerIndex(0);
+        return couponPolicyCodec.getValueDecoder().decode(policyBinary, null);
+    }
+
+    @Benchmark
+    public CouponDto.Response state_jsonDecode() throws Exception {
+        return objectMapper.readValue(responseJson, CouponDto.Response.class);
+    }
+
+    @Benchmark
+    public Object state_binaryDecode() throws Exception {
+        responseBinary.readerIndex(0);
+        return couponResponseCodec.getValueDecoder().decode(responseBinary, null);
+    }
+
+    @Benchmark
+    public int state_binaryEncode() throws Exception {
+        ByteBuf buf = couponResponseCodec.getValueEncoder().encode(response);
+        int size = buf.readableBytes();
+        buf.release();
+        return size;
+    }
+}
@@ -0,0 +1,91 @@
+package com.bmcho.benchmarks.coupon;
+
+import com.bmcho.couponservice.aop.CouponMetered;
+import com.bmcho.couponservice.aop.CouponMetricsAspect;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+/**
+ * CouponMetricsAspect 오버헤드
+ * - direct          : 프록시 없이 직접 호출 (기준선)
+ * - metered         : @CouponMetered 메서드를 애스펙트 프록시로 호출
+ * - metered_failure : 실패 경로 (예외는 미리 만들어 두어 예외 생성 비용은 제외)
+ * - registerPerCall : 미터를 호출마다 빌더로 등록하던 이전 방식
+ * gc 프로파일러의 gc.alloc.rate.norm(B/op) 으로 호출당 할당량을 비교한다. (프록시/조인포인트 자체 할당은 metered - direct)
+ */
+@State(Scope.Thread)
+public class CouponMetricsAspectBenchmark {
+
+    private static final IllegalStateException FAILURE = new IllegalStateException("benchmark");
+
+    private MeterRegistry registry;
+    private IssueTarget direct;
+    private IssueTarget metered;
+    private long userId;
+
+    @Setup
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        direct = new IssueTarget();
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new IssueTarget());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new CouponMetricsAspect(registry));
+        metered = factory.getProxy();
+    }
+
+    @Benchmark
+    public long direct() {
+        return direct.issueCoupon(userId++);
+    }
+
+    @Benchmark
+    public long metered() {
+        return metered.issueCoupon(userId++);
+    }
+
+    @Benchmark
+    public Object metered_failure() {
+        try {
+            return metered.failCoupon();
+        } catch (IllegalStateException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public long registerPerCall() {
+        Timer.Sample sample = Timer.start();
+        long result = direct.issueCoupon(userId++);
+        Counter.builder("coupon.operation.success")
+                .tag("version", "v4")
+                .tag("operation", "issueCoupon")
+                .register(registry)
+                .increment();
+        sample.stop(Timer.builder("coupon.operation.duration")
+                .tag("version", "v4")
+                .tag("operation", "issueCoupon")
+                .register(registry));
+        return result;
+    }
+
+    public static class IssueTarget {
+
+        @CouponMetered(version = "v4")
+        public long issueCoupon(long userId) {
+            return userId * 31;
+        }
+
+        @CouponMetered(version = "v4")
+        public long failCoupon() {
+            throw FAILURE;
+        }
+    }
+}
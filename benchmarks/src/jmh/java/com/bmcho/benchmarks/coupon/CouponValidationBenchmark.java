@@ -0,0 +1,51 @@
+package com.bmcho.benchmarks.coupon;
+
+import com.bmcho.couponservice.domain.Coupon;
+import com.bmcho.couponservice.domain.CouponPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+
+/**
+ * 쿠폰 만료/정책 기간 검증 - 호출마다 LocalDateTime.now() 를 읽는 비용 포함
+ */
+@State(Scope.Thread)
+public class CouponValidationBenchmark {
+
+    private Coupon coupon;
+    private CouponPolicy policy;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        policy = CouponPolicy.builder()
+                .id(1L)
+                .discountType(CouponPolicy.DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(1000)
+                .totalQuantity(100)
+                .startTime(now.minusDays(1))
+                .endTime(now.plusDays(7))
+                .build();
+        coupon = Coupon.builder()
+                .id(1L)
+                .couponPolicy(policy)
+                .userId(42L)
+                .couponCode("ABCD1234")
+                .build();
+    }
+
+    @Benchmark
+    public boolean couponIsExpired() {
+        return coupon.isExpired();
+    }
+
+    @Benchmark
+    public boolean policyIsValidPeriod() {
+        return policy.isValidPeriod();
+    }
+}
@@ -0,0 +1,58 @@
+package com.bmcho.benchmarks.point;
+
+import com.bmcho.pointservice.service.PointBalanceCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+
+import java.time.Duration;
+
+/**
+ * 포인트 잔액 조회 비용 - Redis 직접 조회(HGET 왕복) vs near-cache 로컬 사본 적중
+ * near-cache 의 time-to-live 를 측정 구간보다 길게 잡아 적중 경로만 측정한다.
+ *
+ * 실제 Redis 가 필요하다 : -Dbenchmark.redis.address=redis://localhost:6379 (기본값)
+ */
+@State(Scope.Benchmark)
+public class PointBalanceCacheBenchmark {
+
+    private static final long USER_ID = 999_999L;
+
+    private RedissonClient redissonClient;
+    private PointBalanceCache redisCache;
+    private PointBalanceCache nearCache;
+
+    @Setup
+    public void setUp() {
+        Config config = new Config();
+        config.useSingleServer().setAddress(System.getProperty("benchmark.redis.address", "redis://localhost:6379"));
+        redissonClient = Redisson.create(config);
+        redisCache = new PointBalanceCache(redissonClient, new SimpleMeterRegistry(), false, 10_000, Duration.ofSeconds(2));
+        nearCache = new PointBalanceCache(redissonClient, new SimpleMeterRegistry(), true, 10_000, Duration.ofHours(1));
+        redisCache.put(USER_ID, 10_000L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        nearCache.close();
+        redissonClient.getMap("point:balance:v2", StringCodec.INSTANCE).fastRemove(String.valueOf(USER_ID));
+        redissonClient.shutdown();
+    }
+
+    @Benchmark
+    public Long get_redis() {
+        return redisCache.get(USER_ID);
+    }
+
+    @Benchmark
+    public Long get_nearCache() {
+        return nearCache.get(USER_ID);
+    }
+}
@@ -0,0 +1,78 @@
+package com.bmcho.benchmarks.point;
+
+import com.bmcho.pointservice.domain.PointType;
+import com.bmcho.pointservice.service.v3.PointBalanceScript;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.redisson.Redisson;
+import org.redisson.api.RMap;
+import org.redisson.api.RStream;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+
+import java.util.Map;
+
+/**
+ * v3 포인트 적립의 Redis 왕복 비용
+ * sequential 은 잔액 조회(HGET) → 잔액 변경(HSET) → 원장 기록(XADD) 를 각각 왕복하는 방식이고 (분산락 왕복은 제외한 하한값),
+ * script 는 PointBalanceScript 가 같은 일을 Lua 스크립트 한 번으로 처리한다.
+ *
+ * 실제 Redis 가 필요하다 : -Dbenchmark.redis.address=redis://localhost:6379 (기본값)
+ * 원장 스트림(point:ledger)에 기록이 쌓이고 종료 시 스트림을 지우므로 서비스가 쓰지 않는 Redis 에서 실행한다.
+ */
+@State(Scope.Benchmark)
+public class PointBalanceScriptBenchmark {
+
+    private static final String BALANCE_KEY = "point:v3:balance";
+    private static final String LEDGER_STREAM = "point:ledger";
+    private static final long USER_ID = 999_999L;
+
+    private RedissonClient redissonClient;
+    private PointBalanceScript pointBalanceScript;
+    private RMap<String, String> balances;
+    private RStream<String, String> ledger;
+
+    @Setup
+    public void setUp() {
+        Config config = new Config();
+        config.useSingleServer().setAddress(System.getProperty("benchmark.redis.address", "redis://localhost:6379"));
+        config.setUseScriptCache(true);
+        redissonClient = Redisson.create(config);
+        pointBalanceScript = new PointBalanceScript(redissonClient);
+        balances = redissonClient.getMap(BALANCE_KEY, StringCodec.INSTANCE);
+        ledger = redissonClient.getStream(LEDGER_STREAM, StringCodec.INSTANCE);
+        balances.fastPut(String.valueOf(USER_ID), "0");
+    }
+
+    @TearDown
+    public void tearDown() {
+        balances.fastRemove(String.valueOf(USER_ID));
+        ledger.delete();
+        redissonClient.shutdown();
+    }
+
+    @Benchmark
+    public long earn_sequential() {
+        String field = String.valueOf(USER_ID);
+        long newBalance = Long.parseLong(balances.get(field)) + 100L;
+        balances.fastPut(field, String.valueOf(newBalance));
+        ledger.add(StreamAddArgs.entries(Map.of(
+                "userId", field,
+                "type", PointType.EARNED.name(),
+                "amount", "100",
+                "description", "benchmark",
+                "balance", String.valueOf(newBalance),
+                "createdAt", String.valueOf(System.currentTimeMillis()))));
+        return newBalance;
+    }
+
+    @Benchmark
+    public Long earn_script() {
+        return pointBalanceScript.apply(USER_ID, PointType.EARNED, 100L, "benchmark", null, null).balance();
+    }
+}
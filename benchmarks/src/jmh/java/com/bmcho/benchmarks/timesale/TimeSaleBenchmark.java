@@ -0,0 +1,86 @@
+package com.bmcho.benchmarks.timesale;
+
+import com.bmcho.timesaleservice.domain.Product;
+import com.bmcho.timesaleservice.domain.TimeSale;
+import com.bmcho.timesaleservice.domain.TimeSaleStatus;
+import com.bmcho.timesaleservice.exception.TimeSaleException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * 타임세일 구매 검증과 JSON 직렬화 비용
+ * soldOut 은 재고 부족 예외(스택 트레이스 포함) 생성 비용 - 매진 이후 몰리는 요청은 대부분 이 경로를 탄다.
+ */
+@State(Scope.Thread)
+public class TimeSaleBenchmark {
+
+    private ObjectMapper objectMapper;
+    private TimeSale timeSale;
+    private TimeSale soldOutTimeSale;
+    private byte[] timeSaleJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        soldOutTimeSale = timeSale(0L);
+        timeSaleJson = objectMapper.writeValueAsBytes(timeSale(100L));
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStock() {
+        timeSale = timeSale(Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public Long purchase() {
+        timeSale.purchase(1L);
+        return timeSale.getRemainingQuantity();
+    }
+
+    @Benchmark
+    public Object purchase_soldOut() {
+        try {
+            soldOutTimeSale.purchase(1L);
+            return null;
+        } catch (TimeSaleException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public TimeSale jsonRoundTrip() throws Exception {
+        return objectMapper.readValue(objectMapper.writeValueAsBytes(timeSale), TimeSale.class);
+    }
+
+    @Benchmark
+    public TimeSale jsonDecode() throws Exception {
+        return objectMapper.readValue(timeSaleJson, TimeSale.class);
+    }
+
+    private TimeSale timeSale(Long remainingQuantity) {
+        LocalDateTime now = LocalDateTime.now();
+        Product product = Product.builder()
+                .id(1L)
+                .name("한정판 운동화")
+                .price(200_000L)
+                .description("타임세일 상품")
+                .build();
+        return TimeSale.builder()
+                .id(1L)
+                .product(product)
+                .quantity(remainingQuantity)
+                .remainingQuantity(remainingQuantity)
+                .discountPrice(99_000L)
+                .startAt(now.minusHours(1))
+                .endAt(now.plusHours(1))
+                .status(TimeSaleStatus.ACTIVE)
+                .build();
+    }
+}
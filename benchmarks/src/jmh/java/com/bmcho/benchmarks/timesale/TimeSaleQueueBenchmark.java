@@ -0,0 +1,111 @@
+package com.bmcho.benchmarks.timesale;
+
+import com.bmcho.timesaleservice.domain.TimeSale;
+import com.bmcho.timesaleservice.domain.TimeSaleOrderStatus;
+import com.bmcho.timesaleservice.domain.TimeSaleStatus;
+import com.bmcho.timesaleservice.dto.PurchaseRequestMessage;
+import com.bmcho.timesaleservice.service.v2.TimeSaleStockScript;
+import com.bmcho.timesaleservice.service.v3.TimeSaleQueueScript;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.redisson.Redisson;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * v3 구매 요청 한 건의 Redis 왕복 비용 (Producer 의 재고 예약 + 대기열 등록 → Consumer 의 결과 확정)
+ * twoScripts 는 이전 방식으로 재고 예약 스크립트와 대기열 등록 스크립트를 따로 보내고 (produce 왕복 두 번),
+ * oneScript 는 TimeSaleStockScript 가 예약에 성공하면 대기열 등록까지 같은 스크립트에서 처리한다. (produce 왕복 한 번)
+ * 결과 확정(TimeSaleQueueScript.complete)은 두 방식 모두 파이프라인 한 번이다.
+ *
+ * 실제 Redis 가 필요하다 : -Dbenchmark.redis.address=redis://localhost:6379 (기본값)
+ * 주문 스트림(time-sale:orders)에 기록이 쌓이고 종료 시 스트림을 지우므로 서비스가 쓰지 않는 Redis 에서 실행한다.
+ */
+@State(Scope.Benchmark)
+public class TimeSaleQueueBenchmark {
+
+    private static final long TIME_SALE_ID = 999_999L;
+    private static final long STOCK = 1_000_000_000L;
+    private static final String ORDER_STREAM = "time-sale:orders";
+
+    // 이전 방식의 대기열 등록 스크립트
+    private static final String ENQUEUE_SCRIPT = """
+            redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3])
+            local seq = redis.call('INCR', KEYS[2])
+            redis.call('ZADD', KEYS[3], seq, ARGV[1])
+            redis.call('INCR', KEYS[4])
+            return seq
+            """;
+
+    private RedissonClient redissonClient;
+    private TimeSaleStockScript timeSaleStockScript;
+    private TimeSaleQueueScript timeSaleQueueScript;
+
+    @Setup
+    public void setUp() {
+        Config config = new Config();
+        config.useSingleServer().setAddress(System.getProperty("benchmark.redis.address", "redis://localhost:6379"));
+        config.setUseScriptCache(true);
+        redissonClient = Redisson.create(config);
+        timeSaleStockScript = new TimeSaleStockScript(redissonClient);
+        timeSaleQueueScript = new TimeSaleQueueScript(redissonClient, Duration.ofMinutes(1));
+
+        LocalDateTime now = LocalDateTime.now();
+        timeSaleStockScript.initStock(TimeSale.builder()
+                .id(TIME_SALE_ID)
+                .quantity(STOCK)
+                .remainingQuantity(STOCK)
+                .discountPrice(99_000L)
+                .startAt(now.minusHours(1))
+                .endAt(now.plusDays(1))
+                .status(TimeSaleStatus.ACTIVE)
+                .build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        redissonClient.getKeys().deleteByPattern("*" + TIME_SALE_ID);
+        redissonClient.getStream(ORDER_STREAM, StringCodec.INSTANCE).delete();
+        redissonClient.shutdown();
+    }
+
+    @Benchmark
+    public String purchase_twoScripts() {
+        String requestId = UUID.randomUUID().toString();
+        timeSaleStockScript.reserve(TIME_SALE_ID, 1L, 1L);
+        redissonClient.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, ENQUEUE_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                List.of("purchase-result:" + requestId, "time-sale-queue-seq:" + TIME_SALE_ID,
+                        "time-sale-queue:" + TIME_SALE_ID, "time-sale-total-requests:" + TIME_SALE_ID),
+                requestId, TimeSaleOrderStatus.PENDING.name(), "60");
+        timeSaleQueueScript.complete(List.of(message(requestId)), TimeSaleOrderStatus.SUCCESS);
+        return requestId;
+    }
+
+    @Benchmark
+    public String purchase_oneScript() {
+        String requestId = UUID.randomUUID().toString();
+        timeSaleStockScript.reserve(TIME_SALE_ID, 1L, 1L, timeSaleQueueScript.queueEntry(TIME_SALE_ID, requestId));
+        timeSaleQueueScript.complete(List.of(message(requestId)), TimeSaleOrderStatus.SUCCESS);
+        return requestId;
+    }
+
+    private PurchaseRequestMessage message(String requestId) {
+        return PurchaseRequestMessage.builder()
+                .requestId(requestId)
+                .timeSaleId(TIME_SALE_ID)
+                .userId(1L)
+                .quantity(1L)
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.bmcho.benchmarks.user;
+
+import com.bmcho.userservice.config.properties.JwtProperties;
+import com.bmcho.userservice.entity.User;
+import com.bmcho.userservice.service.JWTService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+
+/**
+ * JWT 발급(RS256 서명)/검증 비용 - 키 파싱을 매 호출마다 하는 현재 구현 그대로 측정
+ */
+@State(Scope.Thread)
+public class JWTServiceBenchmark {
+
+    private JWTService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setPrivateKey(Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        jwtProperties.setPublicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+
+        // 토큰 발급/검증에는 UserService, PasswordEncoder 가 쓰이지 않음
+        jwtService = new JWTService(null, null, jwtProperties);
+
+        user = new User();
+        user.setEmail("user@example.com");
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return jwtService.validateToken(token);
+    }
+}
@@ -1,6 +1,7 @@
 package com.bmcho.couponservice.config;
 
 import com.bmcho.couponservice.dto.v3.CouponDto;
+import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
@@ -20,6 +21,14 @@ public class KafkaConfig {
         private static final String BOOTSTRAP_SERVERS = "localhost:9091";
         private static final String GROUP_ID = "coupon-group";
 
+    /**
+     * 재고 보정 시 컨슈머 랙 조회용 (CouponIssueLag)
+     */
+    @Bean
+    public KafkaAdmin couponKafkaAdmin() {
+        return new KafkaAdmin(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, BOOTSTRAP_SERVERS));
+    }
+
     @Bean
     public ProducerFactory<String, CouponDto.IssueMessage> couponProducerFactory() {
         Map<String, Object> config = new HashMap<>();
@@ -76,4 +85,16 @@ public class KafkaConfig {
         factory.setConcurrency(3);
         return factory;
     }
+
+    /**
+     * 발급 메시지를 poll 단위(최대 MAX_POLL_RECORDS 건)로 한 번에 넘겨받는 batch listener 용 팩토리
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, CouponDto.IssueMessage> couponBatchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, CouponDto.IssueMessage> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(couponConsumerFactory());
+        factory.setConcurrency(3);
+        factory.setBatchListener(true);
+        return factory;
+    }
 }
@@ -24,7 +24,9 @@ public class RedisConfig {
 
         Codec codec = new JsonJacksonCodec(objectMapper);
         config.setCodec(codec);
-        return Redisson.create(); //기본값 localhost, 6379
+        // 스크립트를 EVALSHA 로 실행하고 NOSCRIPT 면 다시 로드 (RScript.eval 포함)
+        config.setUseScriptCache(true);
+        return Redisson.create(config);
     }
 
 }
@@ -0,0 +1,217 @@
+package com.bmcho.couponservice.config.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.redisson.client.codec.BaseCodec;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.handler.State;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.Encoder;
+import org.redisson.codec.Kryo5Codec;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 고정 레이아웃 바이너리 Redis 값 코덱
+ * [MAGIC(1)][VERSION(1)][null 비트마스크(2)][필드...] 순서로 기록하고, 필드 이름/텍스트 숫자 없이 바로 읽는다.
+ * MAGIC 으로 시작하지 않는 값은 이전 버전이 저장한 JSON 문자열로 보고 JSON 으로 읽는다. (마이그레이션 경로)
+ * - 순수 JSON 텍스트 ('{' 로 시작)
+ * - 기존 Redisson 기본 코덱으로 감싼 JSON 문자열
+ *
+ * @param <T> 저장할 값 타입
+ */
+public abstract class BinaryValueCodec<T> extends BaseCodec {
+
+    static final byte MAGIC = (byte) 0xB1;
+    static final byte VERSION = 1;
+
+    // RedisConfig 가 설정을 적용하지 않던 시절 RBucket<String> 을 저장한 Redisson 기본 코덱
+    static final Codec LEGACY_CODEC = new Kryo5Codec();
+
+    private final Class<T> type;
+    private final ObjectMapper objectMapper;
+    private final Codec legacyCodec;
+
+    private final Encoder encoder = this::encodeValue;
+    private final Decoder<Object> decoder = (buf, state) -> decodeValue(buf, state);
+
+    protected BinaryValueCodec(Class<T> type, ObjectMapper objectMapper, Codec legacyCodec) {
+        this.type = type;
+        this.objectMapper = objectMapper;
+        this.legacyCodec = legacyCodec;
+    }
+
+    /**
+     * 필드를 고정 순서로 기록
+     */
+    protected abstract void write(T value, Writer writer);
+
+    /**
+     * write 와 같은 순서로 필드를 읽음
+     */
+    protected abstract T read(Reader reader);
+
+    @Override
+    public Decoder<Object> getValueDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public Encoder getValueEncoder() {
+        return encoder;
+    }
+
+    private ByteBuf encodeValue(Object in) {
+        ByteBuf out = ByteBufAllocator.DEFAULT.buffer();
+        try {
+            out.writeByte(MAGIC);
+            out.writeByte(VERSION);
+            int maskIndex = out.writerIndex();
+            out.writeShort(0);
+
+            Writer writer = new Writer(out);
+            write(type.cast(in), writer);
+            out.setShort(maskIndex, writer.nullMask);
+            return out;
+        } catch (RuntimeException e) {
+            out.release();
+            throw e;
+        }
+    }
+
+    private Object decodeValue(ByteBuf buf, State state) throws IOException {
+        if (buf.readableBytes() >= 2
+                && buf.getByte(buf.readerIndex()) == MAGIC
+                && buf.getByte(buf.readerIndex() + 1) == VERSION) {
+            buf.skipBytes(2);
+            return read(new Reader(buf, buf.readUnsignedShort()));
+        }
+        return decodeLegacy(buf, state);
+    }
+
+    private T decodeLegacy(ByteBuf buf, State state) throws IOException {
+        String json;
+        if (buf.isReadable() && buf.getByte(buf.readerIndex()) == '{') {
+            json = buf.toString(StandardCharsets.UTF_8);
+            buf.skipBytes(buf.readableBytes());
+        } else {
+            json = (String) legacyCodec.getValueDecoder().decode(buf, state);
+        }
+        return objectMapper.readValue(json, type);
+    }
+
+    /**
+     * null 가능 필드는 쓰기 순서대로 비트 하나를 차지한다. (최대 16개)
+     */
+    protected static final class Writer {
+
+        private final ByteBuf out;
+        private int nullMask;
+        private int nullableIndex;
+
+        private Writer(ByteBuf out) {
+            this.out = out;
+        }
+
+        public void writeInt(int value) {
+            out.writeInt(value);
+        }
+
+        public void writeLong(Long value) {
+            if (present(value)) {
+                out.writeLong(value);
+            }
+        }
+
+        public void writeInteger(Integer value) {
+            if (present(value)) {
+                out.writeInt(value);
+            }
+        }
+
+        public void writeString(String value) {
+            if (present(value)) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeShort(bytes.length);
+                out.writeBytes(bytes);
+            }
+        }
+
+        public void writeEnum(Enum<?> value) {
+            if (present(value)) {
+                out.writeByte(value.ordinal());
+            }
+        }
+
+        public void writeDateTime(LocalDateTime value) {
+            if (present(value)) {
+                out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(value.getNano());
+            }
+        }
+
+        private boolean present(Object value) {
+            int bit = 1 << nullableIndex++;
+            if (value == null) {
+                nullMask |= bit;
+                return false;
+            }
+            return true;
+        }
+    }
+
+    protected static final class Reader {
+
+        private final ByteBuf in;
+        private final int nullMask;
+        private int nullableIndex;
+
+        private Reader(ByteBuf in, int nullMask) {
+            this.in = in;
+            this.nullMask = nullMask;
+        }
+
+        public int readInt() {
+            return in.readInt();
+        }
+
+        public Long readLong() {
+            return present() ? in.readLong() : null;
+        }
+
+        public Integer readInteger() {
+            return present() ? in.readInt() : null;
+        }
+
+        public String readString() {
+            if (!present()) {
+                return null;
+            }
+            int length = in.readUnsignedShort();
+            String value = in.toString(in.readerIndex(), length, StandardCharsets.UTF_8);
+            in.skipBytes(length);
+            return value;
+        }
+
+        public <E extends Enum<E>> E readEnum(E[] values) {
+            return present() ? values[in.readUnsignedByte()] : null;
+        }
+
+        public LocalDateTime readDateTime() {
+            if (!present()) {
+                return null;
+            }
+            long epochSecond = in.readLong();
+            int nano = in.readInt();
+            return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+        }
+
+        private boolean present() {
+            return (nullMask & (1 << nullableIndex++)) == 0;
+        }
+    }
+}
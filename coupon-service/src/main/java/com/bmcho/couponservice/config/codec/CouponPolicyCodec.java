@@ -0,0 +1,55 @@
+package com.bmcho.couponservice.config.codec;
+
+import com.bmcho.couponservice.domain.CouponPolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+/**
+ * coupon:policy:{id} 정책 스냅샷 코덱
+ * 필드 순서를 바꾸거나 enum 상수 순서를 바꾸면 VERSION 을 올려야 한다.
+ */
+@Component
+public class CouponPolicyCodec extends BinaryValueCodec<CouponPolicy> {
+
+    private static final CouponPolicy.DiscountType[] DISCOUNT_TYPES = CouponPolicy.DiscountType.values();
+
+    public CouponPolicyCodec(ObjectMapper objectMapper) {
+        super(CouponPolicy.class, objectMapper, LEGACY_CODEC);
+    }
+
+    @Override
+    protected void write(CouponPolicy value, Writer writer) {
+        writer.writeLong(value.getId());
+        writer.writeString(value.getName());
+        writer.writeString(value.getDescription());
+        writer.writeEnum(value.getDiscountType());
+        writer.writeInteger(value.getDiscountValue());
+        writer.writeInteger(value.getMinimumOrderAmount());
+        writer.writeInteger(value.getMaximumDiscountAmount());
+        writer.writeInteger(value.getTotalQuantity());
+        writer.writeInteger(value.getStockShardCount());
+        writer.writeDateTime(value.getStartTime());
+        writer.writeDateTime(value.getEndTime());
+        writer.writeDateTime(value.getCreatedAt());
+        writer.writeDateTime(value.getUpdatedAt());
+    }
+
+    @Override
+    protected CouponPolicy read(Reader reader) {
+        return CouponPolicy.builder()
+                .id(reader.readLong())
+                .name(reader.readString())
+                .description(reader.readString())
+                .discountType(reader.readEnum(DISCOUNT_TYPES))
+                .discountValue(reader.readInteger())
+                .minimumOrderAmount(reader.readInteger())
+                .maximumDiscountAmount(reader.readInteger())
+                .totalQuantity(reader.readInteger())
+                .stockShardCount(reader.readInteger())
+                .startTime(reader.readDateTime())
+                .endTime(reader.readDateTime())
+                .createdAt(reader.readDateTime())
+                .updatedAt(reader.readDateTime())
+                .build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.bmcho.couponservice.config.codec;
+
+import com.bmcho.couponservice.domain.Coupon;
+import com.bmcho.couponservice.domain.CouponPolicy;
+import com.bmcho.couponservice.dto.v1.CouponDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+/**
+ * coupon:state:{id} 값 코덱
+ * 필드 순서를 바꾸거나 enum 상수 순서를 바꾸면 VERSION 을 올려야 한다.
+ */
+@Component
+public class CouponResponseCodec extends BinaryValueCodec<CouponDto.Response> {
+
+    private static final Coupon.Status[] STATUSES = Coupon.Status.values();
+    private static final CouponPolicy.DiscountType[] DISCOUNT_TYPES = CouponPolicy.DiscountType.values();
+
+    public CouponResponseCodec(ObjectMapper objectMapper) {
+        super(CouponDto.Response.class, objectMapper, LEGACY_CODEC);
+    }
+
+    @Override
+    protected void write(CouponDto.Response value, Writer writer) {
+        writer.writeLong(value.getId());
+        writer.writeLong(value.getUserId());
+        writer.writeString(value.getCouponCode());
+        writer.writeEnum(value.getDiscountType());
+        writer.writeInt(value.getDiscountValue());
+        writer.writeInt(value.getMinimumOrderAmount());
+        writer.writeInt(value.getMaximumDiscountAmount());
+        writer.writeDateTime(value.getValidFrom());
+        writer.writeDateTime(value.getValidUntil());
+        writer.writeEnum(value.getStatus());
+        writer.writeLong(value.getOrderId());
+        writer.writeDateTime(value.getUsedAt());
+    }
+
+    @Override
+    protected CouponDto.Response read(Reader reader) {
+        return CouponDto.Response.builder()
+                .id(reader.readLong())
+                .userId(reader.readLong())
+                .couponCode(reader.readString())
+                .discountType(reader.readEnum(DISCOUNT_TYPES))
+                .discountValue(reader.readInt())
+                .minimumOrderAmount(reader.readInt())
+                .maximumDiscountAmount(reader.readInt())
+                .validFrom(reader.readDateTime())
+                .validUntil(reader.readDateTime())
+                .status(reader.readEnum(STATUSES))
+                .orderId(reader.readLong())
+                .usedAt(reader.readDateTime())
+                .build();
+    }
+}
@@ -2,7 +2,7 @@ package com.bmcho.couponservice.controller.v2;
 
 import com.bmcho.couponservice.dto.v1.CouponPolicyDto;
 import com.bmcho.couponservice.service.v2.CouponPolicyService;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,7 +18,7 @@ public class CouponPolicyController {
     private final CouponPolicyService couponPolicyService;
 
     @PostMapping
-    public ResponseEntity<CouponPolicyDto.Response> createCouponPolicy(@RequestBody CouponPolicyDto.CreateRequest request) throws JsonProcessingException {
+    public ResponseEntity<CouponPolicyDto.Response> createCouponPolicy(@RequestBody CouponPolicyDto.CreateRequest request) {
         return ResponseEntity.ok()
                 .body(CouponPolicyDto.Response.from(couponPolicyService.createCouponPolicy(request)));
     }
@@ -28,6 +28,13 @@ public class CouponPolicyController {
         return ResponseEntity.ok(CouponPolicyDto.Response.from(couponPolicyService.getCouponPolicy(id)));
     }
 
+    @PatchMapping("/{id}/end-time")
+    public ResponseEntity<CouponPolicyDto.Response> updateEndTime(
+            @PathVariable Long id,
+            @Valid @RequestBody CouponPolicyDto.UpdateEndTimeRequest request) {
+        return ResponseEntity.ok(CouponPolicyDto.Response.from(couponPolicyService.updateEndTime(id, request.getEndTime())));
+    }
+
     @GetMapping
     public ResponseEntity<List<CouponPolicyDto.Response>> getAllCouponPolicies() {
         return ResponseEntity.ok(couponPolicyService.getAllCouponPolicies().stream()
@@ -0,0 +1,20 @@
+package com.bmcho.couponservice.controller.v4;
+
+import com.bmcho.couponservice.dto.v1.CouponDto;
+import com.bmcho.couponservice.service.v4.CouponService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController("couponControllerV4")
+@RequestMapping("/api/v4/coupons")
+@RequiredArgsConstructor
+public class CouponController {
+
+    private final CouponService couponService;
+
+    @PostMapping("/issue")
+    public ResponseEntity<CouponDto.Response> issueCoupon(@RequestBody CouponDto.IssueRequest request) {
+        return ResponseEntity.ok(couponService.issueCoupon(request));
+    }
+}
@@ -17,13 +17,20 @@ import java.time.LocalDateTime;
         name = "coupon",
         uniqueConstraints = {
     @UniqueConstraint(
-            name = "uk_coupon_policy_user",
+            name = Coupon.POLICY_USER_UNIQUE_KEY,
             columnNames = {"coupon_policy_id", "user_id"}
+    ),
+    @UniqueConstraint(
+            name = Coupon.COUPON_CODE_UNIQUE_KEY,
+            columnNames = {"coupon_code"}
     )
 }
 )
 public class Coupon {
 
+    public static final String POLICY_USER_UNIQUE_KEY = "uk_coupon_policy_user";
+    public static final String COUPON_CODE_UNIQUE_KEY = "uk_coupon_code";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -35,6 +42,11 @@ public class Coupon {
     private Long userId;
 
     private String couponCode;
+
+    // v3 발급 요청 ID - Kafka 재전달로 같은 요청이 다시 처리됐는지 구분 (v1/v2/v4 발급은 null)
+    @Column(length = 36)
+    private String requestId;
+
     @Enumerated(EnumType.STRING)
     private Status status;
 
@@ -43,11 +55,12 @@ public class Coupon {
     private LocalDateTime usedAt;
     private LocalDateTime createdAt;
     @Builder
-    public Coupon(Long id, CouponPolicy couponPolicy, Long userId, String couponCode) {
+    public Coupon(Long id, CouponPolicy couponPolicy, Long userId, String couponCode, String requestId) {
         this.id = id;
         this.couponPolicy = couponPolicy;
         this.userId = userId;
         this.couponCode = couponCode;
+        this.requestId = requestId;
         this.status = Status.AVAILABLE;
     }
 
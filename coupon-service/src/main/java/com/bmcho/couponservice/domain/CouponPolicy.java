@@ -1,5 +1,6 @@
 package com.bmcho.couponservice.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -39,6 +40,10 @@ public class CouponPolicy {
     @Column(nullable = false)
     private Integer totalQuantity;
 
+    // 2 이상이면 재고를 N 개의 Redis 카운터로 나눠 관리 (초대형 정책용)
+    @Column
+    private Integer stockShardCount;
+
     @Column(nullable = false)
     private LocalDateTime startTime;
 
@@ -68,6 +73,11 @@ public class CouponPolicy {
         return !now.isBefore(startTime) && !now.isAfter(endTime);
     }
 
+    @JsonIgnore
+    public boolean isShardedStock() {
+        return stockShardCount != null && stockShardCount > 1;
+    }
+
     public enum DiscountType {
         FIXED_AMOUNT,    // 정액 할인
         PERCENTAGE      // 정률 할인
@@ -1,11 +1,14 @@
 package com.bmcho.couponservice.dto.v1;
 
 import com.bmcho.couponservice.domain.CouponPolicy;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
@@ -38,6 +41,10 @@ public class CouponPolicyDto {
         @Min(value = 1, message = "총 수량은 1 이상이어야 합니다.")
         private Integer totalQuantity;
 
+        @Min(value = 1, message = "재고 샤드 수는 1 이상이어야 합니다.")
+        @Max(value = 64, message = "재고 샤드 수는 64 이하여야 합니다.")
+        private Integer stockShardCount;
+
         @NotNull(message = "시작 시간은 필수입니다.")
         private LocalDateTime startTime;
 
@@ -53,12 +60,22 @@ public class CouponPolicyDto {
                     .minimumOrderAmount(minimumOrderAmount)
                     .maximumDiscountAmount(maximumDiscountAmount)
                     .totalQuantity(totalQuantity)
+                    .stockShardCount(stockShardCount)
                     .startTime(startTime)
                     .endTime(endTime)
                     .build();
         }
     }
 
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UpdateEndTimeRequest {
+        @NotNull(message = "종료 시간은 필수입니다.")
+        private LocalDateTime endTime;
+    }
+
     @Getter
     @Builder
     public static class Response {
@@ -71,6 +88,7 @@ public class CouponPolicyDto {
         private Integer maximumDiscountAmount;
         private Integer totalQuantity;
         private Integer issuedQuantity;
+        private Integer stockShardCount;
         private LocalDateTime startTime;
         private LocalDateTime endTime;
         private LocalDateTime createdAt;
@@ -86,6 +104,7 @@ public class CouponPolicyDto {
                     .minimumOrderAmount(couponPolicy.getMinimumOrderAmount())
                     .maximumDiscountAmount(couponPolicy.getMaximumDiscountAmount())
                     .totalQuantity(couponPolicy.getTotalQuantity())
+                    .stockShardCount(couponPolicy.getStockShardCount())
                     .startTime(couponPolicy.getStartTime())
                     .endTime(couponPolicy.getEndTime())
                     .createdAt(couponPolicy.getCreatedAt())
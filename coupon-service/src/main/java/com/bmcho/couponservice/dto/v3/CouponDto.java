@@ -8,6 +8,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class CouponDto {
     @Getter
@@ -25,6 +26,16 @@ public class CouponDto {
     public static class IssueMessage {
         private Long policyId;
         private Long userId;
+        // 발급 요청마다 고유 - 재전달된 메시지의 중복 처리/보상을 구분
+        private String requestId;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class IssueBatchResult {
+        private List<IssueMessage> issued;
+        private List<IssueMessage> duplicated;
+        private List<IssueMessage> failed;
     }
 
     @Getter
@@ -0,0 +1,129 @@
+package com.bmcho.couponservice.repository;
+
+import com.bmcho.couponservice.domain.Coupon;
+import com.bmcho.couponservice.utll.Utils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coupon 은 IDENTITY 전략이라 Hibernate insert batching 이 동작하지 않으므로
+ * 대량 발급은 JDBC multi-row insert 로 처리한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CouponJdbcRepository {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO coupon (coupon_policy_id, user_id, coupon_code, request_id, status, created_at) VALUES ";
+    private static final String INSERT_VALUES = "(?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 쿠폰 목록을 한 번의 multi-row insert 로 저장한다.
+     * 한 row 라도 UNIQUE 제약에 걸리면 문장 전체가 롤백되므로, 그때만 row 단위로 다시 insert 해 위반한 제약을 구분한다.
+     * (ON DUPLICATE KEY / INSERT IGNORE 는 어떤 제약 위반인지 알 수 없어 사용하지 않음)
+     *
+     * @param coupons 저장할 쿠폰 목록
+     * @return 쿠폰별 저장 결과 (coupons 와 같은 순서)
+     */
+    public List<InsertResult> insert(List<Coupon> coupons) {
+        if (coupons.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            insertRows(coupons, now);
+            return Collections.nCopies(coupons.size(), InsertResult.INSERTED);
+        } catch (DuplicateKeyException e) {
+            List<InsertResult> results = new ArrayList<>(coupons.size());
+            for (Coupon coupon : coupons) {
+                results.add(insertOne(coupon, now));
+            }
+            return results;
+        }
+    }
+
+    private InsertResult insertOne(Coupon coupon, Timestamp now) {
+        try {
+            insertRows(List.of(coupon), now);
+            return InsertResult.INSERTED;
+        } catch (DuplicateKeyException e) {
+            if (Utils.isDuplicateKey(e, Coupon.POLICY_USER_UNIQUE_KEY)) {
+                return InsertResult.DUPLICATED_USER;
+            }
+            if (Utils.isDuplicateKey(e, Coupon.COUPON_CODE_UNIQUE_KEY)) {
+                return InsertResult.DUPLICATED_CODE;
+            }
+            throw e;
+        }
+    }
+
+    private void insertRows(List<Coupon> coupons, Timestamp now) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + coupons.size() * (INSERT_VALUES.length() + 2));
+        sql.append(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(coupons.size() * 6);
+
+        for (int i = 0; i < coupons.size(); i++) {
+            Coupon coupon = coupons.get(i);
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(INSERT_VALUES);
+            args.add(coupon.getCouponPolicy().getId());
+            args.add(coupon.getUserId());
+            args.add(coupon.getCouponCode());
+            args.add(coupon.getRequestId());
+            args.add(coupon.getStatus().name());
+            args.add(now);
+        }
+
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    /**
+     * 이미 발급된 쿠폰의 발급 요청 ID 조회
+     *
+     * @param coupons (정책, 유저) 중복으로 저장되지 못한 쿠폰
+     * @return "policyId:userId" -> 기존 쿠폰의 요청 ID (요청 ID 없이 발급된 쿠폰은 포함되지 않음)
+     */
+    public Map<String, String> findRequestIds(List<Coupon> coupons) {
+        if (coupons.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(coupons.size(), "(?, ?)"));
+        List<Object> args = new ArrayList<>(coupons.size() * 2);
+        coupons.forEach(coupon -> {
+            args.add(coupon.getCouponPolicy().getId());
+            args.add(coupon.getUserId());
+        });
+
+        Map<String, String> requestIds = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT coupon_policy_id, user_id, request_id FROM coupon"
+                        + " WHERE (coupon_policy_id, user_id) IN (" + placeholders + ") AND request_id IS NOT NULL",
+                rs -> {
+                    requestIds.put(rs.getLong("coupon_policy_id") + ":" + rs.getLong("user_id"), rs.getString("request_id"));
+                },
+                args.toArray());
+        return requestIds;
+    }
+
+    public enum InsertResult {
+        INSERTED,
+        DUPLICATED_USER,    // UNIQUE (coupon_policy_id, user_id) - 이미 발급된 유저
+        DUPLICATED_CODE     // UNIQUE (coupon_code) - 코드 충돌, 새 코드로 다시 저장해야 함
+    }
+}
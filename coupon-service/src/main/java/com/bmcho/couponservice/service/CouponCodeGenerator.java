@@ -0,0 +1,179 @@
+package com.bmcho.couponservice.service;
+
+import com.bmcho.couponservice.exception.CouponIssueException;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 쿠폰 코드 생성기 (모든 버전 공통)
+ * 1. Redis 시퀀스(coupon:code:sequence)에서 blockSize 만큼 번호를 미리 예약하고, 인스턴스 안에서는 AtomicLong 으로 나눠 씀
+ * 2. 시퀀스 번호를 비밀키 기반 Feistel 네트워크로 [0, alphabet^length) 안에서 섞음 (format-preserving, cycle-walking)
+ * 3. alphabet 진법으로 고정 길이 문자열 변환
+ * Feistel 은 전단사 함수이므로 시퀀스가 겹치지 않는 한 코드도 절대 겹치지 않고, 키를 모르면 다음 코드를 추측할 수 없다.
+ * coupon.coupon_code 의 unique 인덱스는 시퀀스 키가 유실되는 경우를 위한 최후 방어선이다.
+ */
+@Component
+public class CouponCodeGenerator {
+
+    private static final String SEQUENCE_KEY = "coupon:code:sequence";
+    private static final int ROUNDS = 6;
+    private static final long MAX_SPACE = 1L << 62;
+
+    private final RedissonClient redissonClient;
+    private final char[] alphabet;
+    private final int length;
+    private final long blockSize;
+    private final long space;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] roundKeys;
+
+    private final Object refillLock = new Object();
+    private volatile Block block = new Block(0, 0);
+
+    public CouponCodeGenerator(RedissonClient redissonClient,
+                               @Value("${coupon.code.alphabet:23456789ABCDEFGHJKLMNPQRSTUVWXYZ}") String alphabet,
+                               @Value("${coupon.code.length:12}") int length,
+                               @Value("${coupon.code.block-size:1000}") long blockSize,
+                               @Value("${coupon.code.secret}") String secret) {
+        if (alphabet.length() < 2 || alphabet.chars().distinct().count() != alphabet.length()) {
+            throw new IllegalArgumentException("coupon.code.alphabet 은 서로 다른 문자 2개 이상이어야 합니다.");
+        }
+        if (length < 1 || blockSize < 1) {
+            throw new IllegalArgumentException("coupon.code.length, coupon.code.block-size 는 1 이상이어야 합니다.");
+        }
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("coupon.code.secret (COUPON_CODE_SECRET) 이 설정되지 않았습니다.");
+        }
+
+        this.redissonClient = redissonClient;
+        this.alphabet = alphabet.toCharArray();
+        this.length = length;
+        this.blockSize = blockSize;
+        this.space = codeSpace(alphabet.length(), length);
+
+        // Feistel 은 짝수 비트 도메인에서 동작하므로 코드 공간을 덮는 가장 작은 짝수 비트 수를 사용
+        int bits = Math.max(64 - Long.numberOfLeadingZeros(space - 1), 2);
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+        this.roundKeys = roundKeys(secret);
+    }
+
+    /**
+     * 쿠폰 코드 생성 (thread-safe, 블록 소진 시에만 Redis 호출)
+     *
+     * @return 고정 길이 쿠폰 코드
+     */
+    public String generate() {
+        while (true) {
+            Block current = block;
+            long sequence = current.next.getAndIncrement();
+            if (sequence < current.end) {
+                return encode(scramble(sequence));
+            }
+            refill(current);
+        }
+    }
+
+    /**
+     * 생성 가능한 코드 수 (alphabet^length)
+     */
+    public long capacity() {
+        return space;
+    }
+
+    private void refill(Block exhausted) {
+        synchronized (refillLock) {
+            // 다른 스레드가 이미 새 블록을 받아왔으면 그대로 사용
+            if (block != exhausted) {
+                return;
+            }
+            long end = redissonClient.getAtomicLong(SEQUENCE_KEY).addAndGet(blockSize);
+            if (end > space) {
+                throw new CouponIssueException("쿠폰 코드를 더 이상 생성할 수 없습니다. coupon.code.length 를 늘려주세요.");
+            }
+            block = new Block(end - blockSize, end);
+        }
+    }
+
+    /**
+     * [0, space) 위의 순열 - 도메인 밖으로 나간 값은 다시 들어올 때까지 반복 적용 (cycle-walking)
+     */
+    long scramble(long sequence) {
+        long value = sequence;
+        do {
+            value = feistel(value);
+        } while (value >= space);
+        return value;
+    }
+
+    private long feistel(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (long roundKey : roundKeys) {
+            long next = left ^ (mix(right ^ roundKey) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private String encode(long value) {
+        char[] code = new char[length];
+        int radix = alphabet.length;
+        for (int i = length - 1; i >= 0; i--) {
+            code[i] = alphabet[(int) (value % radix)];
+            value /= radix;
+        }
+        return new String(code);
+    }
+
+    private static long codeSpace(int radix, int length) {
+        long space = 1;
+        for (int i = 0; i < length; i++) {
+            if (space > MAX_SPACE / radix) {
+                throw new IllegalArgumentException("coupon.code 공간(alphabet^length)은 2^62 이하여야 합니다.");
+            }
+            space *= radix;
+        }
+        return space;
+    }
+
+    private static long[] roundKeys(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            long[] keys = new long[ROUNDS];
+            for (int i = 0; i < ROUNDS; i++) {
+                keys[i] = mix(buffer.getLong((i % 4) * Long.BYTES) + i * 0x9E3779B97F4A7C15L);
+            }
+            return keys;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // MurmurHash3 fmix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
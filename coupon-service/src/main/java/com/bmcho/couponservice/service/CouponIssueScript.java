@@ -0,0 +1,291 @@
+package com.bmcho.couponservice.service;
+
+import com.bmcho.couponservice.domain.CouponPolicy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 쿠폰 발급 가능 여부 확인과 재고 차감을 하나의 Lua 스크립트로 처리한다.
+ * 기간 체크 → 중복 발급 체크 → 재고 차감 → 발급 유저 기록이 Redis 서버에서 원자적으로 실행되므로 분산락이 필요 없다.
+ *
+ * 샤딩 재고 정책(stockShardCount > 1)은 재고를 N 개의 카운터로 나누고, 유저는 userId 해시로 정해진 홈 샤드를 사용한다.
+ * 홈 샤드가 소진되면 유저를 홈 샤드에 먼저 기록(중복 차단)한 뒤 다른 샤드에서 재고를 가져온다.
+ * 모든 차감은 샤드 단위로 "0 보다 클 때만 DECR" 이고 샤드 합계 = totalQuantity 이므로 초과 발급은 발생하지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponIssueScript {
+
+    private static final String COUPON_QUANTITY_KEY = "coupon:quantity:";
+    private static final String COUPON_ISSUED_KEY = "coupon:issued:";
+    // 발급 유저 Set 은 정책 종료 후 하루 뒤 만료
+    private static final long ISSUED_KEY_TTL_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private static final long NOT_IN_PERIOD = -1;
+    private static final long ALREADY_ISSUED = -2;
+    private static final long OUT_OF_STOCK = -3;
+    private static final long NOT_INITIALIZED = -4;
+
+    /*
+        KEYS[1] = 재고 카운터, KEYS[2] = 발급 유저 Set
+        ARGV[1] = userId, ARGV[2] = startTime, ARGV[3] = endTime, ARGV[4] = issued set 만료 시각 (epoch millis)
+        ARGV[5] = 1 이면 재고가 없어도 유저를 기록하고 -3 반환 (샤딩 재고의 다른 샤드 탐색용)
+        현재 시각은 Redis 서버 시각(TIME) - 앱 서버 간 시계 차이가 발급 기간 판정에 영향을 주지 않음
+        성공 시 남은 수량(0 이상), 실패 시 음수 코드 반환
+     */
+    private static final String RESERVE_SCRIPT = """
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            if now < tonumber(ARGV[2]) or now > tonumber(ARGV[3]) then
+                return -1
+            end
+            if redis.call('SISMEMBER', KEYS[2], ARGV[1]) == 1 then
+                return -2
+            end
+            local remaining = redis.call('GET', KEYS[1])
+            if not remaining then
+                return -4
+            end
+            if tonumber(remaining) <= 0 then
+                if ARGV[5] == '1' then
+                    redis.call('SADD', KEYS[2], ARGV[1])
+                    redis.call('PEXPIREAT', KEYS[2], ARGV[4])
+                end
+                return -3
+            end
+            remaining = redis.call('DECR', KEYS[1])
+            redis.call('SADD', KEYS[2], ARGV[1])
+            redis.call('PEXPIREAT', KEYS[2], ARGV[4])
+            return remaining
+            """;
+
+    /*
+        KEYS[1] = 재고 카운터, ARGV[1] = 최대 차감 수량
+        0 보다 큰 만큼만 차감하고 실제 차감한 수량 반환
+     */
+    private static final String TAKE_SCRIPT = """
+            local remaining = tonumber(redis.call('GET', KEYS[1]) or '0')
+            local take = math.min(remaining, tonumber(ARGV[1]))
+            if take > 0 then
+                redis.call('DECRBY', KEYS[1], take)
+                return take
+            end
+            return 0
+            """;
+
+    /*
+        발급 확정에 실패한 경우 예약을 되돌린다. 유저가 Set 에 있을 때만 재고를 복구해 중복 복구를 막는다.
+        ARGV[2] = 0 이면 유저 기록만 제거 (샤딩 재고에서 모든 샤드가 비어 있던 경우)
+     */
+    private static final String RELEASE_SCRIPT = """
+            if redis.call('SREM', KEYS[2], ARGV[1]) == 1 and ARGV[2] ~= '0' then
+                return redis.call('INCR', KEYS[1])
+            end
+            return -1
+            """;
+
+    private final RedissonClient redissonClient;
+
+    /**
+     * 정책 생성 시 Redis 재고 초기화
+     *
+     * @param couponPolicy 저장된 쿠폰 정책
+     */
+    public void initStock(CouponPolicy couponPolicy) {
+        if (!couponPolicy.isShardedStock()) {
+            redissonClient.getAtomicLong(COUPON_QUANTITY_KEY + couponPolicy.getId()).set(couponPolicy.getTotalQuantity());
+            return;
+        }
+
+        int shardCount = couponPolicy.getStockShardCount();
+        int total = couponPolicy.getTotalQuantity();
+        for (int shard = 0; shard < shardCount; shard++) {
+            // 나머지는 앞쪽 샤드에 1 개씩 배분 → 합계 = totalQuantity
+            long quantity = total / shardCount + (shard < total % shardCount ? 1 : 0);
+            redissonClient.getAtomicLong(shardQuantityKey(couponPolicy.getId(), shard)).set(quantity);
+        }
+    }
+
+    /**
+     * 쿠폰 발급 예약 (기간/중복/재고 체크 + 재고 차감)
+     *
+     * @param couponPolicy 발급할 쿠폰 정책
+     * @param userId       발급 받을 유저 ID
+     * @return 예약 결과
+     */
+    public ReserveResult reserve(CouponPolicy couponPolicy, Long userId) {
+        if (!couponPolicy.isShardedStock()) {
+            return toReserveResult(evalReserve(couponPolicy, userId, keys(couponPolicy.getId()), false));
+        }
+
+        int shardCount = couponPolicy.getStockShardCount();
+        int home = homeShard(userId, shardCount);
+        long result = evalReserve(couponPolicy, userId, shardKeys(couponPolicy.getId(), home), true);
+        if (result != OUT_OF_STOCK) {
+            return toReserveResult(result);
+        }
+
+        // 홈 샤드 소진 - 유저는 홈 샤드에 기록된 상태이므로 다른 샤드에서 재고를 가져온다
+        for (int i = 1; i < shardCount; i++) {
+            int shard = (home + i) % shardCount;
+            Long taken = eval(TAKE_SCRIPT, List.of(shardQuantityKey(couponPolicy.getId(), shard)), "1");
+            if (taken > 0) {
+                return ReserveResult.RESERVED;
+            }
+        }
+
+        eval(RELEASE_SCRIPT, shardKeys(couponPolicy.getId(), home), String.valueOf(userId), "0");
+        return ReserveResult.OUT_OF_STOCK;
+    }
+
+    /**
+     * 예약 취소 (재고 복구 + 발급 유저 기록 제거)
+     *
+     * @param couponPolicy 쿠폰 정책
+     * @param userId       유저 ID
+     */
+    public void release(CouponPolicy couponPolicy, Long userId) {
+        List<Object> keys = couponPolicy.isShardedStock()
+                ? shardKeys(couponPolicy.getId(), homeShard(userId, couponPolicy.getStockShardCount()))
+                : keys(couponPolicy.getId());
+        eval(RELEASE_SCRIPT, keys, String.valueOf(userId), "1");
+        log.info("Coupon reservation released: policyId={}, userId={}", couponPolicy.getId(), userId);
+    }
+
+    /**
+     * 재고만 복구 (이미 발급된 유저는 Set 에 그대로 남겨 다음 요청을 Redis 에서 바로 거절)
+     *
+     * @param couponPolicy 쿠폰 정책
+     */
+    public void restoreStock(CouponPolicy couponPolicy) {
+        String quantityKey = couponPolicy.isShardedStock()
+                ? shardQuantityKey(couponPolicy.getId(), ThreadLocalRandom.current().nextInt(couponPolicy.getStockShardCount()))
+                : COUPON_QUANTITY_KEY + couponPolicy.getId();
+        redissonClient.getAtomicLong(quantityKey).incrementAndGet();
+    }
+
+    /**
+     * Redis 에 남은 재고 합계
+     *
+     * @param couponPolicy 쿠폰 정책
+     * @return 남은 재고, 재고가 초기화되지 않았으면 null
+     */
+    public Long getRemainingStock(CouponPolicy couponPolicy) {
+        if (!couponPolicy.isShardedStock()) {
+            RAtomicLong atomicQuantity = redissonClient.getAtomicLong(COUPON_QUANTITY_KEY + couponPolicy.getId());
+            return atomicQuantity.isExists() ? atomicQuantity.get() : null;
+        }
+
+        long remaining = 0;
+        for (int shard = 0; shard < couponPolicy.getStockShardCount(); shard++) {
+            RAtomicLong atomicQuantity = redissonClient.getAtomicLong(shardQuantityKey(couponPolicy.getId(), shard));
+            if (!atomicQuantity.isExists()) {
+                return null;
+            }
+            remaining += atomicQuantity.get();
+        }
+        return remaining;
+    }
+
+    /**
+     * 재고 보정 (양수면 추가, 음수면 남은 재고 범위 안에서 차감)
+     *
+     * @param couponPolicy 쿠폰 정책
+     * @param delta        보정 수량
+     * @return 실제 보정된 수량
+     */
+    public long adjustStock(CouponPolicy couponPolicy, long delta) {
+        if (!couponPolicy.isShardedStock()) {
+            redissonClient.getAtomicLong(COUPON_QUANTITY_KEY + couponPolicy.getId()).addAndGet(delta);
+            return delta;
+        }
+
+        int shardCount = couponPolicy.getStockShardCount();
+        if (delta > 0) {
+            for (int shard = 0; shard < shardCount; shard++) {
+                long quantity = delta / shardCount + (shard < delta % shardCount ? 1 : 0);
+                if (quantity > 0) {
+                    redissonClient.getAtomicLong(shardQuantityKey(couponPolicy.getId(), shard)).addAndGet(quantity);
+                }
+            }
+            return delta;
+        }
+
+        long toRemove = -delta;
+        for (int shard = 0; shard < shardCount && toRemove > 0; shard++) {
+            toRemove -= eval(TAKE_SCRIPT, List.of(shardQuantityKey(couponPolicy.getId(), shard)), String.valueOf(toRemove));
+        }
+        return delta + toRemove;
+    }
+
+    private long evalReserve(CouponPolicy couponPolicy, Long userId, List<Object> keys, boolean claimOnEmpty) {
+        long expireAt = toEpochMillis(couponPolicy.getEndTime()) + ISSUED_KEY_TTL_MILLIS;
+        return eval(RESERVE_SCRIPT, keys,
+                String.valueOf(userId),
+                String.valueOf(toEpochMillis(couponPolicy.getStartTime())),
+                String.valueOf(toEpochMillis(couponPolicy.getEndTime())),
+                String.valueOf(expireAt),
+                claimOnEmpty ? "1" : "0");
+    }
+
+    private ReserveResult toReserveResult(long result) {
+        if (result >= 0) {
+            return ReserveResult.RESERVED;
+        } else if (result == NOT_IN_PERIOD) {
+            return ReserveResult.NOT_IN_PERIOD;
+        } else if (result == ALREADY_ISSUED) {
+            return ReserveResult.ALREADY_ISSUED;
+        } else if (result == OUT_OF_STOCK) {
+            return ReserveResult.OUT_OF_STOCK;
+        } else if (result == NOT_INITIALIZED) {
+            return ReserveResult.NOT_INITIALIZED;
+        }
+        throw new IllegalStateException("Unexpected reserve script result: " + result);
+    }
+
+    private Long eval(String script, List<Object> keys, Object... args) {
+        // RedisConfig.useScriptCache - EVALSHA 로 실행되고 스크립트 캐시가 비워졌으면 Redisson 이 다시 로드
+        return redissonClient.getScript(StringCodec.INSTANCE)
+                .eval(RScript.Mode.READ_WRITE, script, RScript.ReturnType.INTEGER, keys, args);
+    }
+
+    private List<Object> keys(Long policyId) {
+        return List.of(COUPON_QUANTITY_KEY + policyId, COUPON_ISSUED_KEY + policyId);
+    }
+
+    // 샤드의 재고 카운터와 발급 유저 Set 은 같은 hash tag 를 사용해 클러스터에서도 같은 슬롯에 위치
+    private List<Object> shardKeys(Long policyId, int shard) {
+        return List.of(shardQuantityKey(policyId, shard), COUPON_ISSUED_KEY + "{" + policyId + ":" + shard + "}");
+    }
+
+    private String shardQuantityKey(Long policyId, int shard) {
+        return COUPON_QUANTITY_KEY + "{" + policyId + ":" + shard + "}";
+    }
+
+    static int homeShard(Long userId, int shardCount) {
+        return Math.floorMod(Long.hashCode(userId), shardCount);
+    }
+
+    private long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public enum ReserveResult {
+        RESERVED,
+        NOT_IN_PERIOD,
+        ALREADY_ISSUED,
+        OUT_OF_STOCK,
+        NOT_INITIALIZED
+    }
+}
@@ -8,6 +8,7 @@ import com.bmcho.couponservice.dto.v1.CouponDto;
 import com.bmcho.couponservice.exception.*;
 import com.bmcho.couponservice.repository.CouponPolicyRepository;
 import com.bmcho.couponservice.repository.CouponRepository;
+import com.bmcho.couponservice.service.CouponCodeGenerator;
 import com.bmcho.couponservice.utll.Utils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,7 +21,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.sql.SQLIntegrityConstraintViolationException;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 
 @Slf4j
 @Service
@@ -29,10 +29,7 @@ public class CouponService {
 
     private final CouponRepository couponRepository;
     private final CouponPolicyRepository couponPolicyRepository;
-
-    private String generateCouponCode() {
-        return UUID.randomUUID().toString().substring(0, 8);
-    }
+    private final CouponCodeGenerator couponCodeGenerator;
 
     /**
      * 1. Race Condition 발생 가능성
@@ -73,7 +70,7 @@ public class CouponService {
             Coupon coupon = Coupon.builder()
                     .couponPolicy(couponPolicy)
                     .userId(UserIdInterceptor.getCurrentUserId())
-                    .couponCode(generateCouponCode())
+                    .couponCode(couponCodeGenerator.generate())
                     .build();
 
             couponRepository.save(coupon);
@@ -82,7 +79,7 @@ public class CouponService {
             return coupon;
         } catch (DataIntegrityViolationException e) {
             // UNIQUE (coupon_policy_id, user_id) 위반이면 → 이미 발급된 케이스 (멱등)
-            if (Utils.isDuplicateKey(e)) {
+            if (Utils.isDuplicateKey(e, Coupon.POLICY_USER_UNIQUE_KEY)) {
                 log.info("Coupon already issued (idempotent): policyId={}, userId={}",
                         couponPolicy.getId(), UserIdInterceptor.getCurrentUserId());
 
@@ -0,0 +1,85 @@
+package com.bmcho.couponservice.service.v2;
+
+import com.bmcho.couponservice.domain.CouponPolicy;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * 쿠폰 정책 로컬(L1) 캐시
+ * 정책은 캠페인 중 거의 바뀌지 않으므로 발급 경로에서 Redis GET + JSON 역직렬화 없이 메모리에서 조회한다.
+ * 정책 생성/종료시간 변경 시 Redis pub/sub 으로 모든 인스턴스의 캐시를 무효화한다.
+ */
+@Slf4j
+@Component
+public class CouponPolicyCache {
+
+    private static final String INVALIDATE_TOPIC = "coupon:policy:invalidate";
+
+    private final RedissonClient redissonClient;
+    private final Cache<Long, CouponPolicy> cache;
+    private int listenerId;
+
+    public CouponPolicyCache(RedissonClient redissonClient,
+                             MeterRegistry registry,
+                             @Value("${coupon.policy-cache.maximum-size:1000}") long maximumSize,
+                             @Value("${coupon.policy-cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.redissonClient = redissonClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "couponPolicy");
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerId = topic().addListener(Long.class, (channel, policyId) -> {
+            cache.invalidate(policyId);
+            log.info("Coupon policy cache invalidated: policyId={}", policyId);
+        });
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        topic().removeListener(listenerId);
+    }
+
+    /**
+     * 캐시에서 정책 조회, 없으면 loader 로 조회 후 저장 (loader 예외는 캐시하지 않음)
+     *
+     * @param policyId 쿠폰 정책 ID
+     * @param loader   캐시 미스 시 정책 조회 함수
+     * @return 쿠폰 정책
+     */
+    public CouponPolicy get(Long policyId, Function<Long, CouponPolicy> loader) {
+        return cache.get(policyId, loader);
+    }
+
+    /**
+     * 모든 인스턴스의 정책 캐시 무효화
+     *
+     * @param policyId 쿠폰 정책 ID
+     */
+    public void invalidate(Long policyId) {
+        cache.invalidate(policyId);
+        topic().publish(policyId);
+    }
+
+    private RTopic topic() {
+        return redissonClient.getTopic(INVALIDATE_TOPIC, LongCodec.INSTANCE);
+    }
+}
@@ -1,20 +1,19 @@
 package com.bmcho.couponservice.service.v2;
 
+import com.bmcho.couponservice.config.codec.CouponPolicyCodec;
 import com.bmcho.couponservice.domain.CouponPolicy;
 import com.bmcho.couponservice.dto.v1.CouponPolicyDto;
-import com.bmcho.couponservice.exception.CouponIssueException;
 import com.bmcho.couponservice.exception.CouponPolicyNotFoundException;
 import com.bmcho.couponservice.repository.CouponPolicyRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.bmcho.couponservice.service.CouponIssueScript;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RAtomicLong;
 import org.redisson.api.RBucket;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service("couponPolicyServiceV2")
@@ -24,59 +23,70 @@ public class CouponPolicyService {
 
     private final CouponPolicyRepository couponPolicyRepository;
     private final RedissonClient redissonClient;
-    private final ObjectMapper objectMapper;
+    private final CouponPolicyCodec couponPolicyCodec;
+    private final CouponIssueScript couponIssueScript;
+    private final CouponPolicyCache couponPolicyCache;
 
-    private static final String COUPON_QUANTITY_KEY = "coupon:quantity:";
     private static final String COUPON_POLICY_KEY = "coupon:policy:";
 
     @Transactional
-    public CouponPolicy createCouponPolicy(CouponPolicyDto.CreateRequest request) throws JsonProcessingException {
+    public CouponPolicy createCouponPolicy(CouponPolicyDto.CreateRequest request) {
 
         CouponPolicy couponPolicy = request.toEntity();
         CouponPolicy savedPolicy = couponPolicyRepository.save(couponPolicy);
 
-        // Redis에 초기 수량 설정
-        String quantityKey = COUPON_QUANTITY_KEY + savedPolicy.getId();
-        RAtomicLong atomicQuantity = redissonClient.getAtomicLong(quantityKey);
-        atomicQuantity.set(savedPolicy.getTotalQuantity());
+        // Redis에 초기 수량 설정 (샤딩 재고 정책은 샤드별로 나눠 설정)
+        couponIssueScript.initStock(savedPolicy);
 
         // Redis에 정책 정보 저장
-        String policyKey = COUPON_POLICY_KEY + savedPolicy.getId();
-        String policyJson = objectMapper.writeValueAsString(CouponPolicyDto.Response.from(savedPolicy));
-        RBucket<String> bucket = redissonClient.getBucket(policyKey);
-        bucket.set(policyJson);
+        policyBucket(savedPolicy.getId()).set(savedPolicy);
+        couponPolicyCache.invalidate(savedPolicy.getId());
+
+        return savedPolicy;
+    }
+
+    /**
+     * 쿠폰 정책 종료 시간 변경 - Redis 정책 정보를 갱신하고 모든 인스턴스의 로컬 캐시를 무효화
+     */
+    @Transactional
+    public CouponPolicy updateEndTime(Long id, LocalDateTime endTime) {
+        CouponPolicy couponPolicy = couponPolicyRepository.findByIdWithLock(id)
+                .orElseThrow(() -> new CouponPolicyNotFoundException(id));
+        couponPolicy.setEndTime(endTime);
+        CouponPolicy savedPolicy = couponPolicyRepository.saveAndFlush(couponPolicy);
+
+        policyBucket(id).set(savedPolicy);
+        couponPolicyCache.invalidate(id);
 
         return savedPolicy;
     }
 
     public CouponPolicy getCouponPolicy(Long id) {
-        String policyKey = COUPON_POLICY_KEY + id;
-        RBucket<String> bucket = redissonClient.getBucket(policyKey);
-        String policyJson = bucket.get();
-        if (policyJson != null) {
-            try {
-                return objectMapper.readValue(policyJson, CouponPolicy.class);
-            } catch (JsonProcessingException e) {
-                log.error("쿠폰 정책 정보를 역질렬화 하는 중 오류가 발생했습니다.", e);
-                throw new CouponIssueException(e.getMessage());
-            }
+        return couponPolicyCache.get(id, this::loadCouponPolicy);
+    }
+
+    private CouponPolicy loadCouponPolicy(Long id) {
+        RBucket<CouponPolicy> bucket = policyBucket(id);
+        CouponPolicy cachedPolicy = bucket.get();
+        if (cachedPolicy != null) {
+            return cachedPolicy;
         }
 
         CouponPolicy couponPolicy = couponPolicyRepository.findById(id)
                 .orElseThrow(() -> new CouponPolicyNotFoundException("쿠폰 정책을 찾을 수 없습니다."));
 
-        try {
-            //없으면 새로 저장
-            policyJson = objectMapper.writeValueAsString(couponPolicy);
-            bucket.set(policyJson);
-        } catch (JsonProcessingException e) {
-            log.error("쿠폰 정책 정보를 직렬화 하는 중 오류가 발생했습니다.", e);
-            throw new CouponIssueException(e.getMessage());
-        }
-
+        //없으면 새로 저장
+        bucket.set(couponPolicy);
         return couponPolicy;
     }
 
+    /**
+     * 정책 스냅샷 버킷 - 바이너리 코덱으로 저장하고, 이전 JSON 값도 읽을 수 있음
+     */
+    private RBucket<CouponPolicy> policyBucket(Long id) {
+        return redissonClient.getBucket(COUPON_POLICY_KEY + id, couponPolicyCodec);
+    }
+
     @Transactional(readOnly = true)
     public List<CouponPolicy> getAllCouponPolicies() {
         return couponPolicyRepository.findAll();
@@ -10,6 +10,7 @@ import com.bmcho.couponservice.exception.CouponIssueException;
 import com.bmcho.couponservice.exception.CouponIssueNotAvailableException;
 import com.bmcho.couponservice.exception.CouponIssueTooManyRequestsException;
 import com.bmcho.couponservice.repository.CouponRepository;
+import com.bmcho.couponservice.service.CouponCodeGenerator;
 import com.bmcho.couponservice.utll.Utils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +18,7 @@ import org.redisson.api.RAtomicLong;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,6 +34,7 @@ public class CouponRedisService {
     private final RedissonClient redissonClient;
     private final CouponRepository couponRepository;
     private final CouponPolicyService couponPolicyService;
+    private final CouponCodeGenerator couponCodeGenerator;
 
     private static final String COUPON_QUANTITY_KEY = "coupon:quantity:";
     private static final String COUPON_LOCK_KEY = "coupon:lock:";
@@ -53,6 +56,13 @@ public class CouponRedisService {
 
             couponPolicy = couponPolicyService.getCouponPolicy(request.getCouponPolicyId());
 
+            // 재고가 샤드 키로 나뉜 정책은 단일 수량 키가 없으므로 v2 로 차감하면 엉뚱한 키만 음수로 만든다.
+            if (couponPolicy.isShardedStock()) {
+                throw new CouponIssueException(
+                        "재고가 분산된 쿠폰 정책은 v3 발급 API 로만 발급할 수 있습니다: " + couponPolicy.getId(),
+                        HttpStatus.BAD_REQUEST);
+            }
+
             LocalDateTime now = LocalDateTime.now();
             if (now.isBefore(couponPolicy.getStartTime()) || now.isAfter(couponPolicy.getEndTime())) {
                 throw new CouponIssueNotAvailableException();
@@ -71,7 +81,7 @@ public class CouponRedisService {
             return couponRepository.save(Coupon.builder()
                     .couponPolicy(couponPolicy)
                     .userId(UserIdInterceptor.getCurrentUserId())
-                    .couponCode(generateCouponCode())
+                    .couponCode(couponCodeGenerator.generate())
                     .build());
 
         } catch (InterruptedException e) {
@@ -79,7 +89,7 @@ public class CouponRedisService {
             throw new CouponIssueException();
         } catch (DataIntegrityViolationException e) {
             // UNIQUE (coupon_policy_id, user_id) 위반이면 → 이미 발급된 케이스 (멱등)
-            if (Utils.isDuplicateKey(e)) {
+            if (Utils.isDuplicateKey(e, Coupon.POLICY_USER_UNIQUE_KEY)) {
                 log.info("Coupon already issued (idempotent): policyId={}, userId={}",
                         Objects.requireNonNull(couponPolicy).getId(), UserIdInterceptor.getCurrentUserId());
 
@@ -94,8 +104,4 @@ public class CouponRedisService {
             }
         }
     }
-
-    private String generateCouponCode() {
-        return java.util.UUID.randomUUID().toString().substring(0, 8);
-    }
-}
\ No newline at end of file
+}
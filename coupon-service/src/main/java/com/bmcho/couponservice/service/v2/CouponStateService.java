@@ -1,9 +1,9 @@
 package com.bmcho.couponservice.service.v2;
 
+import com.bmcho.couponservice.config.codec.CouponResponseCodec;
 import com.bmcho.couponservice.domain.Coupon;
 import com.bmcho.couponservice.dto.v1.CouponDto;
 import com.bmcho.couponservice.exception.CouponIssueException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RBucket;
@@ -16,7 +16,7 @@ import org.springframework.stereotype.Service;
 public class CouponStateService {
 
     private final RedissonClient redissonClient;
-    private final ObjectMapper objectMapper;
+    private final CouponResponseCodec couponResponseCodec;
 
     private static final String COUPON_STATE_KEY = "coupon:state:";
 
@@ -28,9 +28,8 @@ public class CouponStateService {
     public void updateCouponState(Coupon coupon) {
         try {
             String stateKey = COUPON_STATE_KEY + coupon.getId();
-            String couponJson = objectMapper.writeValueAsString(CouponDto.Response.from(coupon));
-            RBucket<String> bucket = redissonClient.getBucket(stateKey);
-            bucket.set(couponJson);
+            RBucket<CouponDto.Response> bucket = redissonClient.getBucket(stateKey, couponResponseCodec);
+            bucket.set(CouponDto.Response.from(coupon));
 
             log.info("Coupon state updated: {}", coupon.getId());
 
@@ -49,14 +48,8 @@ public class CouponStateService {
     public CouponDto.Response getCouponState(Long couponId) {
         try {
             String stateKey = COUPON_STATE_KEY + couponId;
-            RBucket<String> bucket = redissonClient.getBucket(stateKey);
-            String couponJson = bucket.get();
-
-            if (couponJson == null) {
-                return null;
-            }
-
-            return objectMapper.readValue(couponJson, CouponDto.Response.class);
+            RBucket<CouponDto.Response> bucket = redissonClient.getBucket(stateKey, couponResponseCodec);
+            return bucket.get();
         } catch (Exception e) {
             log.error("Error getting coupon state: {}", e.getMessage(), e);
             throw new CouponIssueException("쿠폰 상태 조회 중 오류가 발생했습니다." + e.getMessage());
@@ -0,0 +1,152 @@
+package com.bmcho.couponservice.service.v3;
+
+import com.bmcho.couponservice.dto.v3.CouponDto;
+import com.bmcho.couponservice.service.CouponIssueScript;
+import com.bmcho.couponservice.service.v2.CouponPolicyService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * v3 는 요청 시점에 Redis 재고를 먼저 차감하므로, Kafka 이후 발급에 실패한 메시지는 재고를 되돌려야 한다.
+ * - 재시도 불가 실패 (중복 발급) : 즉시 재고 복구, 정책 없음 : DLT 로 보관
+ * - 재시도 가능 실패 (DB 에러 등) : DLT 로 보내 한 번 더 처리, 그래도 실패하거나 DLT 전송이 실패하면 재고 복구
+ *
+ * 재고 복구는 요청 ID 당 한 번만 한다. 중복 발급 메시지가 Kafka 에서 다시 전달돼도 재고가 두 번 늘지 않는다.
+ */
+@Slf4j
+@Service
+public class CouponCompensationService {
+
+    public static final String DEAD_LETTER_TOPIC = "coupon-issue-requests.DLT";
+    public static final String FAILURE_REASON_HEADER = "coupon-failure-reason";
+
+    private static final String COMPENSATED_KEY = "coupon:compensated:";
+    // 재전달은 offset 커밋 전 재시작/리밸런싱에서 생기므로 하루면 충분
+    private static final long COMPENSATED_KEY_TTL_HOURS = 24;
+
+    private final KafkaTemplate<String, CouponDto.IssueMessage> kafkaTemplate;
+    private final RedissonClient redissonClient;
+    private final CouponIssueScript couponIssueScript;
+    private final CouponPolicyService couponPolicyService;
+    private final Counter duplicatedCounter;
+    private final Counter policyNotFoundCounter;
+    private final Counter deadLetterCounter;
+    private final Counter abandonedCounter;
+
+    public CouponCompensationService(KafkaTemplate<String, CouponDto.IssueMessage> kafkaTemplate,
+                                     RedissonClient redissonClient,
+                                     CouponIssueScript couponIssueScript,
+                                     CouponPolicyService couponPolicyService,
+                                     MeterRegistry registry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.redissonClient = redissonClient;
+        this.couponIssueScript = couponIssueScript;
+        this.couponPolicyService = couponPolicyService;
+        this.duplicatedCounter = compensationCounter(registry, "duplicated");
+        this.policyNotFoundCounter = compensationCounter(registry, "policy_not_found");
+        this.deadLetterCounter = compensationCounter(registry, "dead_letter");
+        this.abandonedCounter = compensationCounter(registry, "abandoned");
+    }
+
+    /**
+     * 배치 발급 결과 중 발급되지 못한 메시지의 재고를 복구
+     *
+     * @param result 배치 발급 결과
+     */
+    public void compensate(CouponDto.IssueBatchResult result) {
+        // 이미 발급된 유저 : 유저 기록은 유지하고 재고만 복구
+        for (CouponDto.IssueMessage message : result.getDuplicated()) {
+            if (!markCompensated(message)) {
+                log.info("Coupon stock already restored for request: {}", message.getRequestId());
+                continue;
+            }
+            couponIssueScript.restoreStock(couponPolicyService.getCouponPolicy(message.getPolicyId()));
+            duplicatedCounter.increment();
+        }
+
+        // 정책 없음 : 복구할 재고가 없으므로 DLT 로 보관만 함
+        for (CouponDto.IssueMessage message : result.getFailed()) {
+            policyNotFoundCounter.increment();
+            sendToDeadLetter(message, FailureReason.NON_RETRYABLE);
+        }
+    }
+
+    /**
+     * 재시도 가능한 실패 - DLT 로 전송 (전송이 실패하면 다시 처리할 곳이 없으므로 예약을 취소)
+     *
+     * @param messages 처리하지 못한 메시지
+     */
+    public void sendToDeadLetter(List<CouponDto.IssueMessage> messages) {
+        messages.forEach(message -> sendToDeadLetter(message, FailureReason.RETRYABLE));
+        deadLetterCounter.increment(messages.size());
+    }
+
+    /**
+     * DLT 재처리까지 실패한 메시지 - 예약을 취소해 재고를 복구
+     *
+     * @param message 포기할 메시지
+     */
+    public void abandon(CouponDto.IssueMessage message) {
+        couponIssueScript.release(couponPolicyService.getCouponPolicy(message.getPolicyId()), message.getUserId());
+        abandonedCounter.increment();
+        log.warn("Coupon issue abandoned, reservation released: policyId={}, userId={}",
+                message.getPolicyId(), message.getUserId());
+    }
+
+    /**
+     * 요청 ID 별 재고 복구 기록 - 처음 기록한 경우에만 true (요청 ID 가 없는 이전 메시지는 항상 true)
+     */
+    private boolean markCompensated(CouponDto.IssueMessage message) {
+        if (message.getRequestId() == null) {
+            return true;
+        }
+        return redissonClient.<String>getBucket(COMPENSATED_KEY + message.getRequestId(), StringCodec.INSTANCE)
+                .trySet("1", COMPENSATED_KEY_TTL_HOURS, TimeUnit.HOURS);
+    }
+
+    private void sendToDeadLetter(CouponDto.IssueMessage message, FailureReason reason) {
+        ProducerRecord<String, CouponDto.IssueMessage> record =
+                new ProducerRecord<>(DEAD_LETTER_TOPIC, String.valueOf(message.getPolicyId()), message);
+        record.headers().add(FAILURE_REASON_HEADER, reason.name().getBytes(StandardCharsets.UTF_8));
+
+        kafkaTemplate.send(record)
+                .whenComplete((sendResult, ex) -> {
+                    if (ex != null) {
+                        log.error("Unable to send dead letter=[{}] due to : {}", message, ex.getMessage());
+                        if (reason == FailureReason.RETRYABLE) {
+                            abandonSafely(message);
+                        }
+                    }
+                });
+    }
+
+    private void abandonSafely(CouponDto.IssueMessage message) {
+        try {
+            abandon(message);
+        } catch (RuntimeException e) {
+            log.error("Failed to release coupon reservation: policyId={}, userId={}",
+                    message.getPolicyId(), message.getUserId(), e);
+        }
+    }
+
+    private Counter compensationCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("coupon.stock.compensation")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    public enum FailureReason {
+        RETRYABLE,
+        NON_RETRYABLE
+    }
+}
@@ -1,26 +1,56 @@
 package com.bmcho.couponservice.service.v3;
 
-import com.bmcho.couponservice.aop.CouponMetered;
 import com.bmcho.couponservice.dto.v3.CouponDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class CouponConsumer {
 
+    static final String GROUP_ID = "coupon-service";
+    static final String DEAD_LETTER_GROUP_ID = "coupon-service-dlt";
+
     private final CouponService couponService;
+    private final CouponCompensationService couponCompensationService;
+
+    @KafkaListener(topics = CouponProducer.TOPIC, groupId = GROUP_ID, containerFactory = "couponBatchKafkaListenerContainerFactory")
+    public void consumeCouponIssueRequests(List<CouponDto.IssueMessage> messages) {
+        CouponDto.IssueBatchResult result;
+        try {
+            log.info("Received coupon issue requests: size={}", messages.size());
+            result = couponService.issueCoupons(messages);
+        } catch (Exception e) {
+            // DB 에러 등 재시도 가능한 실패 → DLT 에서 한 번 더 처리
+            log.error("Failed to process coupon issue requests: {}", e.getMessage(), e);
+            couponCompensationService.sendToDeadLetter(messages);
+            return;
+        }
+        couponCompensationService.compensate(result);
+    }
+
+    @KafkaListener(topics = CouponCompensationService.DEAD_LETTER_TOPIC, groupId = DEAD_LETTER_GROUP_ID, containerFactory = "couponKafkaListenerContainerFactory")
+    public void consumeDeadLetter(CouponDto.IssueMessage message,
+                                  @Header(name = CouponCompensationService.FAILURE_REASON_HEADER, required = false) byte[] reason) {
+        if (reason == null || !CouponCompensationService.FailureReason.RETRYABLE.name()
+                .equals(new String(reason, StandardCharsets.UTF_8))) {
+            // 재시도 불가 메시지는 이미 보상 처리됨 - 기록만 남김
+            log.warn("Dead letter (non-retryable): {}", message);
+            return;
+        }
 
-    @KafkaListener(topics = "coupon-issue-requests", groupId = "coupon-service", containerFactory = "couponKafkaListenerContainerFactory")
-    public void consumeCouponIssueRequest(CouponDto.IssueMessage message) {
         try {
-            log.info("Received coupon issue request: {}", message);
-            couponService.issueCoupon(message);
+            couponCompensationService.compensate(couponService.issueCoupons(List.of(message)));
         } catch (Exception e) {
-            log.error("Failed to process coupon issue request: {}", e.getMessage(), e);
+            log.error("Failed to retry dead letter: {}", e.getMessage(), e);
+            couponCompensationService.abandon(message);
         }
     }
-}
\ No newline at end of file
+}
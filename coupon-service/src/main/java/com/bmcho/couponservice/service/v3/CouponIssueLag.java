@@ -0,0 +1,85 @@
+package com.bmcho.couponservice.service.v3;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 발급 요청 토픽과 DLT 에 컨슈머가 아직 처리(커밋)하지 않은 메시지가 남아 있는지 조회한다.
+ * 재고 보정기는 랙이 0 일 때만 부족한 재고를 복구한다 - Kafka 에 남은 메시지는 나중에 발급되기 때문.
+ */
+@Slf4j
+@Component
+public class CouponIssueLag {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final AdminClient adminClient;
+
+    public CouponIssueLag(KafkaAdmin couponKafkaAdmin) {
+        this.adminClient = AdminClient.create(couponKafkaAdmin.getConfigurationProperties());
+    }
+
+    /**
+     * @return 두 토픽 모두 처리할 메시지가 없으면 true, 조회에 실패하면 false
+     */
+    public boolean isDrained() {
+        try {
+            return lag(CouponProducer.TOPIC, CouponConsumer.GROUP_ID) == 0
+                    && lag(CouponCompensationService.DEAD_LETTER_TOPIC, CouponConsumer.DEAD_LETTER_GROUP_ID) == 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.warn("Failed to read coupon consumer lag: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        adminClient.close();
+    }
+
+    private long lag(String topic, String groupId) throws Exception {
+        TopicDescription description;
+        try {
+            description = adminClient.describeTopics(List.of(topic)).allTopicNames()
+                    .get(TIMEOUT_SECONDS, TimeUnit.SECONDS).get(topic);
+        } catch (ExecutionException e) {
+            // 아직 한 번도 사용되지 않은 토픽(DLT)은 처리할 메시지도 없음
+            if (e.getCause() instanceof UnknownTopicOrPartitionException) {
+                return 0;
+            }
+            throw e;
+        }
+
+        Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+        description.partitions().forEach(partition -> latest.put(new TopicPartition(topic, partition.partition()), OffsetSpec.latest()));
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets =
+                adminClient.listOffsets(latest).all().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(groupId)
+                .partitionsToOffsetAndMetadata().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        long lag = 0;
+        for (Map.Entry<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> entry : endOffsets.entrySet()) {
+            OffsetAndMetadata offset = committed.get(entry.getKey());
+            lag += entry.getValue().offset() - (offset == null ? 0 : offset.offset());
+        }
+        return lag;
+    }
+}
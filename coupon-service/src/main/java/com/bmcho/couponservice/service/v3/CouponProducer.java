@@ -4,17 +4,23 @@ import com.bmcho.couponservice.dto.v3.CouponDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class CouponProducer {
-    private static final String TOPIC = "coupon-issue-requests";
+    static final String TOPIC = "coupon-issue-requests";
     private final KafkaTemplate<String, CouponDto.IssueMessage> kafkaTemplate;
 
-    public void sendCouponIssueRequest(CouponDto.IssueMessage message) {
-        kafkaTemplate.send(TOPIC, String.valueOf(message.getPolicyId()), message)
+    /**
+     * 발급 요청 전송. 전송은 비동기로 끝나므로 실패 처리(재고 예약 취소 등)는 반환된 future 에 이어서 한다.
+     */
+    public CompletableFuture<SendResult<String, CouponDto.IssueMessage>> sendCouponIssueRequest(CouponDto.IssueMessage message) {
+        return kafkaTemplate.send(TOPIC, String.valueOf(message.getPolicyId()), message)
             .whenComplete((result, ex) -> {
                 if (ex == null) {
                     log.info("Sent message=[{}] with offset=[{}]", message, result.getRecordMetadata().offset());
@@ -6,122 +6,179 @@ import com.bmcho.couponservice.domain.Coupon;
 import com.bmcho.couponservice.domain.CouponPolicy;
 import com.bmcho.couponservice.dto.v3.CouponDto;
 import com.bmcho.couponservice.exception.*;
+import com.bmcho.couponservice.repository.CouponJdbcRepository;
 import com.bmcho.couponservice.repository.CouponRepository;
+import com.bmcho.couponservice.service.CouponCodeGenerator;
+import com.bmcho.couponservice.service.CouponIssueScript;
 import com.bmcho.couponservice.service.v2.CouponPolicyService;
 import com.bmcho.couponservice.service.v2.CouponStateService;
-import com.bmcho.couponservice.utll.Utils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RAtomicLong;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
-import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.*;
 
 @Slf4j
 @Service("couponServiceV3")
 @RequiredArgsConstructor
 public class CouponService {
 
-    private final RedissonClient redissonClient;
+    // 쿠폰 코드 충돌 시 새 코드로 다시 저장하는 최대 횟수
+    private static final int MAX_CODE_ATTEMPTS = 3;
+
     private final CouponRepository couponRepository;
+    private final CouponJdbcRepository couponJdbcRepository;
     private final CouponPolicyService couponPolicyService;
     private final CouponStateService couponStateService;
     private final CouponProducer couponProducer;
+    private final CouponIssueScript couponIssueScript;
+    private final CouponCodeGenerator couponCodeGenerator;
 
-    private static final String COUPON_QUANTITY_KEY = "coupon:quantity:";
-    private static final String COUPON_LOCK_KEY = "coupon:lock:";
-    private static final long LOCK_WAIT_TIME = 3;
-    private static final long LOCK_LEASE_TIME = 5;
-
+    /**
+     * 발급 요청 접수. 중복 발급 체크와 재고 차감을 Lua 스크립트로 함께 처리해
+     * 이미 발급받은 유저의 요청은 재고/Kafka/DB 를 소비하지 않고 바로 거절한다.
+     */
     @Transactional(readOnly = true)
     public void requestCouponIssue(CouponDto.IssueRequest request) {
-        String quantityKey = COUPON_QUANTITY_KEY + request.getCouponPolicyId();
-        String lockKey = COUPON_LOCK_KEY + request.getCouponPolicyId();
-        RLock lock = redissonClient.getLock(lockKey);
-
-        try {
-            boolean isLocked = lock.tryLock(LOCK_WAIT_TIME, LOCK_LEASE_TIME, TimeUnit.SECONDS);
-            if (!isLocked) {
-                throw new CouponIssueTooManyRequestsException();
-            }
-
-            CouponPolicy couponPolicy = couponPolicyService.getCouponPolicy(request.getCouponPolicyId());
-            if (couponPolicy == null) {
-                throw new CouponPolicyNotFoundException(request.getCouponPolicyId());
-            }
-
-            LocalDateTime now = LocalDateTime.now();
-            if (now.isBefore(couponPolicy.getStartTime()) || now.isAfter(couponPolicy.getEndTime())) {
-                throw new CouponIssueNotAvailableException();
-            }
-
-            RAtomicLong atomicQuantity = redissonClient.getAtomicLong(quantityKey);
-            long remainingQuantity = atomicQuantity.decrementAndGet();
+        Long userId = UserIdInterceptor.getCurrentUserId();
+        CouponPolicy couponPolicy = couponPolicyService.getCouponPolicy(request.getCouponPolicyId());
+        if (couponPolicy == null) {
+            throw new CouponPolicyNotFoundException(request.getCouponPolicyId());
+        }
 
-            if (remainingQuantity < 0) {
-                atomicQuantity.incrementAndGet();
-                throw new CouponOutOfStockException();
+        switch (couponIssueScript.reserve(couponPolicy, userId)) {
+            case NOT_IN_PERIOD -> throw new CouponIssueNotAvailableException();
+            case ALREADY_ISSUED -> throw new CouponAlreadyIssuedException(couponPolicy.getId(), userId);
+            case OUT_OF_STOCK -> throw new CouponOutOfStockException();
+            case NOT_INITIALIZED -> throw new CouponIssueException("쿠폰 재고 정보가 존재하지 않습니다: " + couponPolicy.getId());
+            default -> {
             }
+        }
 
+        try {
             couponProducer.sendCouponIssueRequest(
                     CouponDto.IssueMessage.builder()
-                            .policyId(request.getCouponPolicyId())
-                            .userId(UserIdInterceptor.getCurrentUserId())
+                            .policyId(couponPolicy.getId())
+                            .userId(userId)
+                            .requestId(UUID.randomUUID().toString())
                             .build()
-            );
-
+            ).whenComplete((result, e) -> {
+                // 브로커 전송이 비동기로 실패하면 Consumer 가 발급할 일이 없으므로 예약을 되돌린다.
+                // (전송은 됐는데 응답만 실패한 경우의 중복 반환은 CouponStockReconciler 가 DB 기준으로 맞춘다)
+                if (e != null) {
+                    releaseReservation(couponPolicy, userId);
+                }
+            });
+        } catch (RuntimeException e) {
+            couponIssueScript.release(couponPolicy, userId);
+            throw e;
+        }
+    }
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new CouponIssueException();
-        } finally {
-            if (lock.isHeldByCurrentThread()) {
-                lock.unlock();
-            }
+    private void releaseReservation(CouponPolicy couponPolicy, Long userId) {
+        try {
+            couponIssueScript.release(couponPolicy, userId);
+        } catch (RuntimeException e) {
+            log.error("Failed to release coupon reservation: policyId={}, userId={}", couponPolicy.getId(), userId, e);
         }
     }
 
+    /**
+     * Kafka batch listener 로 받은 발급 메시지를 한 번에 저장
+     * multi-row insert 1회로 배치 전체를 처리하고, 제약 위반이 있을 때만 row 단위로 결과를 구분한다.
+     * - (정책, 유저) 중복 : 기존 쿠폰이 같은 요청 ID 로 발급됐으면 재전달된 메시지이므로 발급 완료로, 아니면 중복 발급으로 분류
+     * - 쿠폰 코드 충돌 : 새 코드로 다시 저장 (코드 시퀀스 유실 등)
+     */
     @CouponMetered(version = "v3")
     @Transactional
-    public void issueCoupon(CouponDto.IssueMessage message) {
-        try {
-            CouponPolicy policy = couponPolicyService.getCouponPolicy(message.getPolicyId());
-            if (policy == null) {
-                throw new CouponPolicyNotFoundException(message.getPolicyId());
+    public CouponDto.IssueBatchResult issueCoupons(List<CouponDto.IssueMessage> messages) {
+        Map<Long, CouponPolicy> policies = new HashMap<>();
+        Map<String, String> requested = new HashMap<>();
+        List<Coupon> coupons = new ArrayList<>(messages.size());
+        List<CouponDto.IssueMessage> couponMessages = new ArrayList<>(messages.size());
+        List<CouponDto.IssueMessage> issued = new ArrayList<>(messages.size());
+        List<CouponDto.IssueMessage> duplicated = new ArrayList<>();
+        List<CouponDto.IssueMessage> failed = new ArrayList<>();
+        List<Coupon> duplicatedCoupons = new ArrayList<>();
+        List<CouponDto.IssueMessage> duplicatedMessages = new ArrayList<>();
+
+        for (CouponDto.IssueMessage message : messages) {
+            // 같은 배치 안의 중복 요청 - 같은 요청 ID 면 재전달된 사본이므로 결과에 넣지 않음
+            String key = message.getPolicyId() + ":" + message.getUserId();
+            if (requested.containsKey(key)) {
+                if (!isSameRequest(requested.get(key), message)) {
+                    duplicated.add(message);
+                }
+                continue;
             }
-            Coupon coupon = Coupon.builder()
-                    .couponPolicy(policy)
-                    .userId(message.getUserId())
-                    .couponCode(generateCouponCode()) // 병민님이 이미 가진 util 메서드
-                    .build();
+            requested.put(key, message.getRequestId());
 
-            couponRepository.save(coupon);
+            CouponPolicy policy = policies.computeIfAbsent(message.getPolicyId(), this::findCouponPolicy);
+            if (policy == null) {
+                failed.add(message);
+                continue;
+            }
 
-            log.info("Coupon issued successfully: policyId={}, userId={}", message.getPolicyId(), message.getUserId());
+            coupons.add(newCoupon(policy, message));
+            couponMessages.add(message);
+        }
 
-        } catch (DataIntegrityViolationException e) {
-            // UNIQUE (coupon_policy_id, user_id) 위반이면 → 이미 발급된 케이스 (멱등)
-            if (Utils.isDuplicateKey(e)) {
-                log.info("Coupon already issued (idempotent): policyId={}, userId={}",
-                        message.getPolicyId(), message.getUserId());
+        for (int attempt = 1; !coupons.isEmpty(); attempt++) {
+            List<CouponJdbcRepository.InsertResult> results = couponJdbcRepository.insert(coupons);
+            List<Coupon> retryCoupons = new ArrayList<>();
+            List<CouponDto.IssueMessage> retryMessages = new ArrayList<>();
+
+            for (int i = 0; i < coupons.size(); i++) {
+                CouponDto.IssueMessage message = couponMessages.get(i);
+                switch (results.get(i)) {
+                    case INSERTED -> issued.add(message);
+                    case DUPLICATED_USER -> {
+                        duplicatedCoupons.add(coupons.get(i));
+                        duplicatedMessages.add(message);
+                    }
+                    case DUPLICATED_CODE -> {
+                        if (attempt >= MAX_CODE_ATTEMPTS) {
+                            // 재고는 그대로 두고 상위(DLT 재처리)로 넘긴다
+                            throw new CouponIssueException("쿠폰 코드 생성에 반복해서 실패했습니다: policyId=" + message.getPolicyId());
+                        }
+                        log.warn("Coupon code collision, regenerating: policyId={}, userId={}", message.getPolicyId(), message.getUserId());
+                        retryCoupons.add(newCoupon(coupons.get(i).getCouponPolicy(), message));
+                        retryMessages.add(message);
+                    }
+                }
+            }
+            coupons = retryCoupons;
+            couponMessages = retryMessages;
+        }
 
-                throw new CouponAlreadyIssuedException(message.getPolicyId(), message.getUserId());
-                // 예외를 다시 던지지 않음 → 정상 처리로 간주
+        // 이미 발급된 유저 - 이 요청으로 발급된 쿠폰인지 확인 (offset 커밋 전 재시작 등으로 재전달된 경우)
+        Map<String, String> issuedRequestIds = couponJdbcRepository.findRequestIds(duplicatedCoupons);
+        for (CouponDto.IssueMessage message : duplicatedMessages) {
+            if (isSameRequest(issuedRequestIds.get(message.getPolicyId() + ":" + message.getUserId()), message)) {
+                issued.add(message);
             } else {
-                log.error("Failed to issue coupon (DB error): {}", e.getMessage(), e);
-                throw new CouponIssueException(e.getMessage());
+                duplicated.add(message);
             }
-        } catch (Exception e) {
-            log.error("Failed to issue coupon: {}", e.getMessage());
-            throw new CouponIssueException(e.getMessage());
         }
+
+        log.info("Coupon batch issued: requested={}, issued={}, duplicated={}, failed={}",
+                messages.size(), issued.size(), duplicated.size(), failed.size());
+        return new CouponDto.IssueBatchResult(issued, duplicated, failed);
+    }
+
+    private Coupon newCoupon(CouponPolicy policy, CouponDto.IssueMessage message) {
+        return Coupon.builder()
+                .couponPolicy(policy)
+                .userId(message.getUserId())
+                .couponCode(couponCodeGenerator.generate())
+                .requestId(message.getRequestId())
+                .build();
+    }
+
+    private boolean isSameRequest(String requestId, CouponDto.IssueMessage message) {
+        return requestId != null && requestId.equals(message.getRequestId());
     }
 
     @Transactional
@@ -150,8 +207,12 @@ public class CouponService {
         return coupon;
     }
 
-    private String generateCouponCode() {
-        return UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
+    private CouponPolicy findCouponPolicy(Long policyId) {
+        try {
+            return couponPolicyService.getCouponPolicy(policyId);
+        } catch (CouponPolicyNotFoundException e) {
+            log.error("Coupon policy not found: policyId={}", policyId);
+            return null;
+        }
     }
-
 }
@@ -0,0 +1,119 @@
+package com.bmcho.couponservice.service.v3;
+
+import com.bmcho.couponservice.domain.CouponPolicy;
+import com.bmcho.couponservice.repository.CouponPolicyRepository;
+import com.bmcho.couponservice.repository.CouponRepository;
+import com.bmcho.couponservice.service.CouponIssueScript;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis 재고(coupon:quantity, 샤딩 재고는 샤드 합계)와 DB 발급 수를 주기적으로 비교해 어긋난 재고를 복구한다.
+ * 기대 잔여 수량 = totalQuantity - DB 발급 수
+ * - Redis 재고가 더 많음 : 초과 발급 위험이므로 즉시 차감
+ * - Redis 재고가 더 적음 : Kafka 에 처리 중인 메시지일 수 있으므로 두 번 연속 같은 차이가 관측되고,
+ *   그 사이 발급 수가 변하지 않았고, 발급 요청/DLT 컨슈머 랙이 0 일 때만 복구
+ *   (컨슈머가 멈춰 있으면 발급 수도 변하지 않으므로 랙 확인 없이는 Kafka 에 남은 메시지만큼 초과 발급된다)
+ */
+@Slf4j
+@Component
+public class CouponStockReconciler {
+
+    private static final String RECONCILE_LOCK_KEY = "coupon:lock:reconcile";
+
+    private final RedissonClient redissonClient;
+    private final CouponRepository couponRepository;
+    private final CouponPolicyRepository couponPolicyRepository;
+    private final CouponIssueScript couponIssueScript;
+    private final CouponIssueLag couponIssueLag;
+    private final Counter restoredCounter;
+    private final Counter removedCounter;
+
+    // policyId -> 이전 실행에서 관측한 (발급 수, 부족 수량)
+    private final Map<Long, Drift> pendingDrifts = new ConcurrentHashMap<>();
+
+    public CouponStockReconciler(RedissonClient redissonClient,
+                                 CouponRepository couponRepository,
+                                 CouponPolicyRepository couponPolicyRepository,
+                                 CouponIssueScript couponIssueScript,
+                                 CouponIssueLag couponIssueLag,
+                                 MeterRegistry registry) {
+        this.redissonClient = redissonClient;
+        this.couponRepository = couponRepository;
+        this.couponPolicyRepository = couponPolicyRepository;
+        this.couponIssueScript = couponIssueScript;
+        this.couponIssueLag = couponIssueLag;
+        this.restoredCounter = Counter.builder("coupon.stock.reconcile.repaired")
+                .tag("direction", "restored")
+                .register(registry);
+        this.removedCounter = Counter.builder("coupon.stock.reconcile.repaired")
+                .tag("direction", "removed")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.stock.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        // 여러 인스턴스가 동시에 보정하지 않도록 한 인스턴스만 실행
+        RLock lock = redissonClient.getLock(RECONCILE_LOCK_KEY);
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            for (CouponPolicy policy : couponPolicyRepository.findAll()) {
+                if (policy.isValidPeriod()) {
+                    reconcile(policy);
+                } else {
+                    pendingDrifts.remove(policy.getId());
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to reconcile coupon stock: {}", e.getMessage(), e);
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    void reconcile(CouponPolicy policy) {
+        Long remaining = couponIssueScript.getRemainingStock(policy);
+        if (remaining == null) {
+            return;
+        }
+
+        long issued = couponRepository.countByCouponPolicyId(policy.getId());
+        long expected = Math.max(policy.getTotalQuantity() - issued, 0);
+        long drift = expected - remaining;
+
+        if (drift == 0) {
+            pendingDrifts.remove(policy.getId());
+            return;
+        }
+
+        if (drift < 0) {
+            removedCounter.increment(-couponIssueScript.adjustStock(policy, drift));
+            pendingDrifts.remove(policy.getId());
+            log.warn("Coupon stock reconciled (removed): policyId={}, expected={}, redis={}", policy.getId(), expected, remaining);
+            return;
+        }
+
+        Drift previous = pendingDrifts.put(policy.getId(), new Drift(issued, drift));
+        if (previous != null && previous.issued() == issued && previous.drift() == drift
+                && couponIssueLag.isDrained()) {
+            restoredCounter.increment(couponIssueScript.adjustStock(policy, drift));
+            pendingDrifts.remove(policy.getId());
+            log.warn("Coupon stock reconciled (restored): policyId={}, expected={}, redis={}", policy.getId(), expected, remaining);
+        }
+    }
+
+    private record Drift(long issued, long drift) {
+    }
+}
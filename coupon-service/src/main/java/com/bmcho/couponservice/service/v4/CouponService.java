@@ -0,0 +1,123 @@
+package com.bmcho.couponservice.service.v4;
+
+import com.bmcho.couponservice.aop.CouponMetered;
+import com.bmcho.couponservice.config.interceptor.UserIdInterceptor;
+import com.bmcho.couponservice.domain.Coupon;
+import com.bmcho.couponservice.domain.CouponPolicy;
+import com.bmcho.couponservice.dto.v1.CouponDto;
+import com.bmcho.couponservice.exception.*;
+import com.bmcho.couponservice.repository.CouponRepository;
+import com.bmcho.couponservice.service.CouponCodeGenerator;
+import com.bmcho.couponservice.service.CouponIssueScript;
+import com.bmcho.couponservice.service.v2.CouponPolicyService;
+import com.bmcho.couponservice.service.v2.CouponStateService;
+import com.bmcho.couponservice.utll.Utils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+
+@Slf4j
+@Service("couponServiceV4")
+@RequiredArgsConstructor
+public class CouponService {
+
+    private final CouponRepository couponRepository;
+    private final CouponPolicyService couponPolicyService;
+    private final CouponStateService couponStateService;
+    private final CouponIssueScript couponIssueScript;
+    private final CouponCodeGenerator couponCodeGenerator;
+
+    /**
+     * 분산락 없이 Lua 스크립트 한 번으로 기간/중복/재고를 검사하고 쿠폰을 발급
+     */
+    @Transactional
+    @CouponMetered(version = "v4")
+    public CouponDto.Response issueCoupon(CouponDto.IssueRequest request) {
+        Long userId = UserIdInterceptor.getCurrentUserId();
+        CouponPolicy couponPolicy = couponPolicyService.getCouponPolicy(request.getCouponPolicyId());
+
+        switch (couponIssueScript.reserve(couponPolicy, userId)) {
+            case NOT_IN_PERIOD -> throw new CouponIssueNotAvailableException();
+            case ALREADY_ISSUED -> throw new CouponAlreadyIssuedException(couponPolicy.getId(), userId);
+            case OUT_OF_STOCK -> throw new CouponOutOfStockException();
+            case NOT_INITIALIZED -> throw new CouponIssueException("쿠폰 재고 정보가 존재하지 않습니다: " + couponPolicy.getId());
+            default -> {
+            }
+        }
+
+        // 트랜잭션이 커밋되지 않으면(커밋 시점 실패 포함) 예약을 되돌린다
+        ReservationRelease reservation = new ReservationRelease(couponPolicy, userId);
+        boolean deferred = TransactionSynchronizationManager.isSynchronizationActive();
+        if (deferred) {
+            TransactionSynchronizationManager.registerSynchronization(reservation);
+        }
+
+        try {
+            return saveCoupon(couponPolicy, userId, reservation);
+        } catch (RuntimeException e) {
+            if (!deferred) {
+                reservation.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+            throw e;
+        }
+    }
+
+    private CouponDto.Response saveCoupon(CouponPolicy couponPolicy, Long userId, ReservationRelease reservation) {
+        try {
+            Coupon coupon = couponRepository.save(Coupon.builder()
+                    .couponPolicy(couponPolicy)
+                    .userId(userId)
+                    .couponCode(couponCodeGenerator.generate())
+                    .build());
+            couponStateService.updateCouponState(coupon);
+            return CouponDto.Response.from(coupon);
+
+        } catch (DataIntegrityViolationException e) {
+            // UNIQUE (coupon_policy_id, user_id) 위반이면 → v2/v3 로 이미 발급된 케이스, 유저 기록은 남기고 재고만 복구
+            if (Utils.isDuplicateKey(e, Coupon.POLICY_USER_UNIQUE_KEY)) {
+                reservation.keepIssuedUser();
+                log.info("Coupon already issued (idempotent): policyId={}, userId={}", couponPolicy.getId(), userId);
+                throw new CouponAlreadyIssuedException(couponPolicy.getId(), userId);
+            }
+            log.error("Failed to issue coupon (DB error): {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * 트랜잭션 완료 후 커밋되지 않았으면 Redis 예약을 되돌린다.
+     * 이미 발급된 유저(DB 유니크 위반)는 유저 기록을 남기고 재고만 복구한다.
+     */
+    private class ReservationRelease implements TransactionSynchronization {
+
+        private final CouponPolicy couponPolicy;
+        private final Long userId;
+        private boolean keepIssuedUser;
+
+        ReservationRelease(CouponPolicy couponPolicy, Long userId) {
+            this.couponPolicy = couponPolicy;
+            this.userId = userId;
+        }
+
+        void keepIssuedUser() {
+            keepIssuedUser = true;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+                return;
+            }
+            if (keepIssuedUser) {
+                couponIssueScript.restoreStock(couponPolicy);
+            } else {
+                couponIssueScript.release(couponPolicy, userId);
+            }
+        }
+    }
+}
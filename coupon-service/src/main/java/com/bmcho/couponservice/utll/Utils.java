@@ -14,4 +14,20 @@ public class Utils {
 
         return e.getCause() instanceof SQLIntegrityConstraintViolationException;
     }
+
+    /**
+     * 지정한 UNIQUE 제약 위반인지 확인 - 쿠폰은 (정책, 유저)와 쿠폰 코드 두 개의 UNIQUE 제약이 있어 구분이 필요하다.
+     * MySQL 은 제약 이름을 "Duplicate entry '..' for key 'coupon.uk_coupon_code'" 형태로 알려준다.
+     */
+    public static boolean isDuplicateKey(DataIntegrityViolationException e, String constraintName) {
+        if (!isDuplicateKey(e)) {
+            return false;
+        }
+        if (e.getCause() instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+            return violation.getConstraintName().contains(constraintName);
+        }
+
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.contains(constraintName);
+    }
 }
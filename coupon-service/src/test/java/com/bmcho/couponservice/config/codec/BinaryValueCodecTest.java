@@ -0,0 +1,165 @@
+package com.bmcho.couponservice.config.codec;
+
+import com.bmcho.couponservice.domain.Coupon;
+import com.bmcho.couponservice.domain.CouponPolicy;
+import com.bmcho.couponservice.dto.v1.CouponDto;
+import com.bmcho.couponservice.dto.v1.CouponPolicyDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class BinaryValueCodecTest {
+
+    private ObjectMapper objectMapper;
+    private CouponResponseCodec couponResponseCodec;
+    private CouponPolicyCodec couponPolicyCodec;
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 10, 0, 0, 123_456_000);
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        couponResponseCodec = new CouponResponseCodec(objectMapper);
+        couponPolicyCodec = new CouponPolicyCodec(objectMapper);
+    }
+
+    @Test
+    @DisplayName("쿠폰 상태 바이너리 인코딩/디코딩 - null 필드 포함 모든 필드 보존")
+    void couponResponse_RoundTrip() throws Exception {
+        // Given
+        CouponDto.Response response = response(null, null);
+
+        // When
+        CouponDto.Response decoded = decode(couponResponseCodec, encode(couponResponseCodec, response));
+
+        // Then
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(response);
+    }
+
+    @Test
+    @DisplayName("쿠폰 정책 바이너리 인코딩/디코딩 - 모든 필드 보존")
+    void couponPolicy_RoundTrip() throws Exception {
+        // Given
+        CouponPolicy policy = policy();
+
+        // When
+        CouponPolicy decoded = decode(couponPolicyCodec, encode(couponPolicyCodec, policy));
+
+        // Then
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(policy);
+    }
+
+    @Test
+    @DisplayName("마이그레이션 - 이전 버전이 저장한 JSON 문자열(기본 코덱/순수 텍스트)도 읽을 수 있음")
+    void decode_LegacyJson() throws Exception {
+        // Given
+        CouponPolicy policy = policy();
+        String legacyJson = objectMapper.writeValueAsString(CouponPolicyDto.Response.from(policy));
+        ByteBuf wrapped = BinaryValueCodec.LEGACY_CODEC.getValueEncoder().encode(legacyJson);
+        ByteBuf plain = Unpooled.copiedBuffer(legacyJson, StandardCharsets.UTF_8);
+
+        // When
+        CouponPolicy fromWrapped = decode(couponPolicyCodec, wrapped);
+        CouponPolicy fromPlain = decode(couponPolicyCodec, plain);
+
+        // Then
+        assertThat(fromWrapped.getId()).isEqualTo(policy.getId());
+        assertThat(fromWrapped.getEndTime()).isEqualTo(policy.getEndTime());
+        assertThat(fromPlain.getTotalQuantity()).isEqualTo(policy.getTotalQuantity());
+    }
+
+    @Test
+    @DisplayName("바이너리 값이 JSON 의 절반 이하 크기 (바이트 수/디코딩 ns per op 기록)")
+    void binary_SmallerThanJson() throws Exception {
+        // Given
+        CouponDto.Response response = response(1001L, NOW.plusHours(1));
+        byte[] json = objectMapper.writeValueAsBytes(response);
+        ByteBuf binary = encode(couponResponseCodec, response);
+        int binaryBytes = binary.readableBytes();
+
+        // When
+        long jsonNanos = measure(() -> objectMapper.readValue(json, CouponDto.Response.class));
+        long binaryNanos = measure(() -> {
+            binary.readerIndex(0);
+            return couponResponseCodec.getValueDecoder().decode(binary, null);
+        });
+        log.info("coupon state: json={} bytes, {} ns/op / binary={} bytes, {} ns/op",
+                json.length, jsonNanos, binaryBytes, binaryNanos);
+
+        // Then
+        assertThat(binaryBytes).isLessThan(json.length / 2);
+    }
+
+    private <T> ByteBuf encode(BinaryValueCodec<T> codec, T value) throws Exception {
+        return codec.getValueEncoder().encode(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T decode(BinaryValueCodec<T> codec, ByteBuf buf) throws Exception {
+        return (T) codec.getValueDecoder().decode(buf, null);
+    }
+
+    // 워밍업 후 평균 ns/op - 정밀 측정은 benchmarks 모듈의 JMH 로 확인
+    private long measure(ThrowingSupplier supplier) throws Exception {
+        int iterations = 20_000;
+        for (int i = 0; i < iterations; i++) {
+            supplier.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            supplier.get();
+        }
+        return (System.nanoTime() - start) / iterations;
+    }
+
+    private CouponDto.Response response(Long orderId, LocalDateTime usedAt) {
+        return CouponDto.Response.builder()
+                .id(1L)
+                .userId(42L)
+                .couponCode("ABCD1234")
+                .discountType(CouponPolicy.DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(1000)
+                .validFrom(NOW)
+                .validUntil(NOW.plusDays(7))
+                .status(orderId == null ? Coupon.Status.AVAILABLE : Coupon.Status.USED)
+                .orderId(orderId)
+                .usedAt(usedAt)
+                .build();
+    }
+
+    private CouponPolicy policy() {
+        return CouponPolicy.builder()
+                .id(1L)
+                .name("신규 가입 쿠폰")
+                .description(null)
+                .discountType(CouponPolicy.DiscountType.PERCENTAGE)
+                .discountValue(10)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(5000)
+                .totalQuantity(100)
+                .stockShardCount(4)
+                .startTime(NOW)
+                .endTime(NOW.plusDays(7))
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface ThrowingSupplier {
+        Object get() throws Exception;
+    }
+}
@@ -0,0 +1,123 @@
+package com.bmcho.couponservice.service;
+
+import com.bmcho.couponservice.exception.CouponIssueException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class CouponCodeGeneratorTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RAtomicLong sequence;
+
+    private final AtomicLong redisSequence = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redissonClient.getAtomicLong(anyString())).thenReturn(sequence);
+        lenient().when(sequence.addAndGet(anyLong())).thenAnswer(invocation -> redisSequence.addAndGet(invocation.getArgument(0)));
+    }
+
+    @Test
+    @DisplayName("비밀키가 설정되지 않으면 생성 실패")
+    void create_Fail_BlankSecret() {
+        // When & Then
+        assertThatThrownBy(() -> new CouponCodeGenerator(redissonClient, "ABC", 4, 10, ""))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CouponCodeGenerator(redissonClient, "ABC", 4, 10, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("작은 코드 공간 전체를 겹치지 않게 생성하고, 공간이 소진되면 예외")
+    void generate_PermutesWholeSpace() {
+        // Given - 3^4 = 81 개, 블록 크기 10
+        CouponCodeGenerator generator = new CouponCodeGenerator(redissonClient, "ABC", 4, 10, "secret");
+        long capacity = generator.capacity();
+
+        // When
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 80; i++) {
+            codes.add(generator.generate());
+        }
+
+        // Then
+        assertThat(capacity).isEqualTo(81);
+        assertThat(codes).hasSize(80)
+                .allMatch(code -> code.matches("[ABC]{4}"));
+        // 마지막 블록(80~90)은 공간(81)을 넘으므로 예약 불가
+        assertThatThrownBy(generator::generate).isInstanceOf(CouponIssueException.class);
+    }
+
+    @Test
+    @DisplayName("시퀀스 순서대로 생성해도 코드는 순서대로 나오지 않음 (키에 따라 다른 순열)")
+    void generate_ScramblesSequence() {
+        // Given
+        CouponCodeGenerator generator = new CouponCodeGenerator(redissonClient, "0123456789", 8, 1000, "secret");
+        CouponCodeGenerator otherKey = new CouponCodeGenerator(redissonClient, "0123456789", 8, 1000, "other-secret");
+
+        // When
+        long first = generator.scramble(0);
+        long second = generator.scramble(1);
+
+        // Then
+        assertThat(first).isBetween(0L, generator.capacity() - 1);
+        assertThat(Math.abs(second - first)).isGreaterThan(1);
+        assertThat(otherKey.scramble(0)).isNotEqualTo(first);
+    }
+
+    @Test
+    @DisplayName("여러 스레드와 여러 인스턴스(같은 Redis 시퀀스)가 동시에 생성해도 중복 없음")
+    void generate_ConcurrentUnique() throws Exception {
+        // Given - 인스턴스 2개가 같은 시퀀스를 공유
+        CouponCodeGenerator instance1 = new CouponCodeGenerator(redissonClient, "23456789ABCDEFGHJKLMNPQRSTUVWXYZ", 12, 100, "secret");
+        CouponCodeGenerator instance2 = new CouponCodeGenerator(redissonClient, "23456789ABCDEFGHJKLMNPQRSTUVWXYZ", 12, 100, "secret");
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 20_000;
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            CouponCodeGenerator generator = t % 2 == 0 ? instance1 : instance2;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    codes.add(generator.generate());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(codes).hasSize(threads * perThread)
+                .allMatch(code -> code.length() == 12);
+    }
+}
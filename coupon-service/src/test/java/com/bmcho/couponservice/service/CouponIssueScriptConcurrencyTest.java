@@ -0,0 +1,156 @@
+package com.bmcho.couponservice.service;
+
+import com.bmcho.couponservice.domain.CouponPolicy;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 샤딩 재고의 정확성 검증 - 재고보다 훨씬 많은 요청이 동시에 몰려도 발급 수는 totalQuantity 를 넘지 않아야 한다.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class CouponIssueScriptConcurrencyTest {
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static RedissonClient redissonClient;
+    private static CouponIssueScript couponIssueScript;
+
+    private static final int TOTAL_QUANTITY = 1_000;
+    private static final int SHARD_COUNT = 8;
+    private static final int USER_COUNT = 5_000;
+    private static final int THREAD_COUNT = 64;
+
+    @BeforeAll
+    static void setUp() {
+        Config config = new Config();
+        config.useSingleServer()
+                .setAddress("redis://" + REDIS.getHost() + ":" + REDIS.getMappedPort(6379));
+        redissonClient = Redisson.create(config);
+        couponIssueScript = new CouponIssueScript(redissonClient);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        redissonClient.shutdown();
+    }
+
+    @Test
+    @DisplayName("샤딩 재고 - 동시 요청에도 초과 발급/중복 발급 없이 재고를 정확히 소진")
+    void reserve_ShardedStock_NeverExceedsTotalQuantity() throws InterruptedException {
+        CouponPolicy policy = policy(1L, SHARD_COUNT);
+        couponIssueScript.initStock(policy);
+
+        Set<Long> issuedUsers = ConcurrentHashMap.newKeySet();
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger duplicated = new AtomicInteger();
+
+        runConcurrently(userId -> {
+            // 같은 유저가 두 번씩 요청
+            for (int i = 0; i < 2; i++) {
+                CouponIssueScript.ReserveResult result = couponIssueScript.reserve(policy, userId);
+                if (result == CouponIssueScript.ReserveResult.RESERVED) {
+                    reserved.incrementAndGet();
+                    if (!issuedUsers.add(userId)) {
+                        duplicated.incrementAndGet();
+                    }
+                }
+            }
+        });
+
+        assertThat(reserved.get()).isEqualTo(TOTAL_QUANTITY);
+        assertThat(duplicated.get()).isZero();
+        assertThat(couponIssueScript.getRemainingStock(policy)).isZero();
+    }
+
+    @Test
+    @DisplayName("샤딩 재고 - 예약 취소 후 재고 합계가 보존되고 다른 샤드에서도 다시 발급 가능")
+    void release_ShardedStock_KeepsTotal() throws InterruptedException {
+        CouponPolicy policy = policy(2L, SHARD_COUNT);
+        couponIssueScript.initStock(policy);
+
+        Set<Long> issuedUsers = ConcurrentHashMap.newKeySet();
+        runConcurrently(userId -> {
+            if (couponIssueScript.reserve(policy, userId) == CouponIssueScript.ReserveResult.RESERVED) {
+                issuedUsers.add(userId);
+            }
+        });
+        assertThat(issuedUsers).hasSize(TOTAL_QUANTITY);
+
+        // 절반 취소 → 남은 재고 = 취소 수
+        issuedUsers.stream().limit(TOTAL_QUANTITY / 2).forEach(userId -> couponIssueScript.release(policy, userId));
+        assertThat(couponIssueScript.getRemainingStock(policy)).isEqualTo(TOTAL_QUANTITY / 2);
+
+        AtomicInteger reissued = new AtomicInteger();
+        runConcurrently(userId -> {
+            if (couponIssueScript.reserve(policy, userId + USER_COUNT) == CouponIssueScript.ReserveResult.RESERVED) {
+                reissued.incrementAndGet();
+            }
+        });
+        assertThat(reissued.get()).isEqualTo(TOTAL_QUANTITY / 2);
+        assertThat(couponIssueScript.getRemainingStock(policy)).isZero();
+    }
+
+    private void runConcurrently(UserTask task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(USER_COUNT);
+        for (long userId = 1; userId <= USER_COUNT; userId++) {
+            long id = userId;
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    task.run(id);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertThat(done.await(60, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+    }
+
+    private CouponPolicy policy(Long id, int shardCount) {
+        return CouponPolicy.builder()
+                .id(id)
+                .name("샤딩 재고 쿠폰")
+                .discountType(CouponPolicy.DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(1000)
+                .totalQuantity(TOTAL_QUANTITY)
+                .stockShardCount(shardCount)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface UserTask {
+        void run(Long userId);
+    }
+}
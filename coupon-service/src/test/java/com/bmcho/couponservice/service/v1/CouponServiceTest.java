@@ -7,6 +7,7 @@ import com.bmcho.couponservice.dto.v1.CouponDto;
 import com.bmcho.couponservice.exception.CouponNotFoundException;
 import com.bmcho.couponservice.repository.CouponPolicyRepository;
 import com.bmcho.couponservice.repository.CouponRepository;
+import com.bmcho.couponservice.service.CouponCodeGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -41,6 +42,8 @@ class CouponServiceTest {
 
     @Mock
     private CouponPolicyRepository couponPolicyRepository;
+    @Mock
+    private CouponCodeGenerator couponCodeGenerator;
 
     private CouponPolicy couponPolicy;
     private Coupon coupon;
@@ -0,0 +1,84 @@
+package com.bmcho.couponservice.service.v2;
+
+import com.bmcho.couponservice.domain.CouponPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponPolicyCacheTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RTopic topic;
+
+    private SimpleMeterRegistry registry;
+    private CouponPolicyCache couponPolicyCache;
+    private static final Long TEST_POLICY_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        couponPolicyCache = new CouponPolicyCache(redissonClient, registry, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("캐시 히트 시 loader 를 호출하지 않고 히트/미스가 메트릭으로 기록됨")
+    void get_CachesPolicy() {
+        AtomicInteger loads = new AtomicInteger();
+        CouponPolicy policy = CouponPolicy.builder().id(TEST_POLICY_ID).build();
+
+        couponPolicyCache.get(TEST_POLICY_ID, id -> {
+            loads.incrementAndGet();
+            return policy;
+        });
+        CouponPolicy cached = couponPolicyCache.get(TEST_POLICY_ID, id -> {
+            loads.incrementAndGet();
+            return policy;
+        });
+
+        assertThat(cached).isSameAs(policy);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "couponPolicy").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "couponPolicy").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("무효화 시 로컬 캐시를 비우고 다른 인스턴스에 브로드캐스트")
+    void invalidate_EvictsAndPublishes() {
+        when(redissonClient.getTopic(anyString(), eq(LongCodec.INSTANCE))).thenReturn(topic);
+        AtomicInteger loads = new AtomicInteger();
+        CouponPolicy policy = CouponPolicy.builder().id(TEST_POLICY_ID).build();
+
+        couponPolicyCache.get(TEST_POLICY_ID, id -> {
+            loads.incrementAndGet();
+            return policy;
+        });
+        couponPolicyCache.invalidate(TEST_POLICY_ID);
+        couponPolicyCache.get(TEST_POLICY_ID, id -> {
+            loads.incrementAndGet();
+            return policy;
+        });
+
+        assertThat(loads.get()).isEqualTo(2);
+        verify(topic).publish(TEST_POLICY_ID);
+    }
+}
@@ -6,6 +6,7 @@ import com.bmcho.couponservice.domain.CouponPolicy;
 import com.bmcho.couponservice.dto.v1.CouponDto;
 import com.bmcho.couponservice.exception.CouponIssueException;
 import com.bmcho.couponservice.repository.CouponRepository;
+import com.bmcho.couponservice.service.CouponCodeGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -37,6 +38,8 @@ class CouponRedisServiceTest {
     private CouponRepository couponRepository;
     @Mock
     private CouponPolicyService couponPolicyService;
+    @Mock
+    private CouponCodeGenerator couponCodeGenerator;
 
     @Mock
     private RLock rLock;
@@ -142,6 +145,36 @@ class CouponRedisServiceTest {
         verify(rLock).unlock();
     }
 
+    @Test
+    @DisplayName("쿠폰 발급 실패 - 재고가 분산된 정책은 수량 키를 건드리지 않고 거절")
+    void issueCoupon_Fail_ShardedStock() throws InterruptedException {
+        // Given
+        CouponDto.IssueRequest request = CouponDto.IssueRequest.builder()
+                .couponPolicyId(TEST_POLICY_ID)
+                .build();
+
+        CouponPolicy shardedPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .stockShardCount(4)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+
+        when(redissonClient.getLock(anyString())).thenReturn(rLock);
+        when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
+        when(rLock.isHeldByCurrentThread()).thenReturn(true);
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(shardedPolicy);
+
+        // When & Then
+        assertThatThrownBy(() -> couponRedisService.issueCoupon(request))
+                .isInstanceOf(CouponIssueException.class)
+                .hasMessageContaining("v3");
+
+        verify(redissonClient, never()).getAtomicLong(anyString());
+        verifyNoInteractions(couponRepository);
+        verify(rLock).unlock();
+    }
+
     @Test
     @DisplayName("쿠폰 발급 실패 - 발급 기간 아님")
     void issueCoupon_Fail_InvalidPeriod() throws InterruptedException {
@@ -0,0 +1,155 @@
+package com.bmcho.couponservice.service.v3;
+
+import com.bmcho.couponservice.domain.CouponPolicy;
+import com.bmcho.couponservice.dto.v3.CouponDto;
+import com.bmcho.couponservice.service.CouponIssueScript;
+import com.bmcho.couponservice.service.v2.CouponPolicyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponCompensationServiceTest {
+
+    @Mock
+    private KafkaTemplate<String, CouponDto.IssueMessage> kafkaTemplate;
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RBucket<Object> compensatedBucket;
+    @Mock
+    private CouponIssueScript couponIssueScript;
+    @Mock
+    private CouponPolicyService couponPolicyService;
+
+    private CouponCompensationService couponCompensationService;
+    private CouponPolicy couponPolicy;
+
+    private static final Long TEST_POLICY_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        couponCompensationService = new CouponCompensationService(kafkaTemplate, redissonClient, couponIssueScript,
+                couponPolicyService, new SimpleMeterRegistry());
+        couponPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .name("테스트 쿠폰")
+                .discountType(CouponPolicy.DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(1000)
+                .totalQuantity(100)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+    }
+
+    @Test
+    @DisplayName("중복 발급 보상 - 요청 ID 당 한 번만 재고 복구 (재전달된 메시지는 건너뜀)")
+    void compensate_Duplicated_RestoreOncePerRequest() {
+        // Given
+        CouponDto.IssueMessage message = message(2L, "request-1");
+        when(redissonClient.getBucket(eq("coupon:compensated:request-1"), any(Codec.class))).thenReturn(compensatedBucket);
+        when(compensatedBucket.trySet(anyString(), anyLong(), eq(TimeUnit.HOURS))).thenReturn(true, false);
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+
+        // When
+        couponCompensationService.compensate(new CouponDto.IssueBatchResult(List.of(), List.of(message), List.of()));
+        couponCompensationService.compensate(new CouponDto.IssueBatchResult(List.of(), List.of(message), List.of()));
+
+        // Then
+        verify(couponIssueScript, times(1)).restoreStock(couponPolicy);
+    }
+
+    @Test
+    @DisplayName("정책 없음 - 재고 복구 없이 재시도 불가로 DLT 에 보관")
+    void compensate_Failed_SendNonRetryableDeadLetter() {
+        // Given
+        CouponDto.IssueMessage message = message(2L, "request-1");
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(new CompletableFuture<>());
+
+        // When
+        couponCompensationService.compensate(new CouponDto.IssueBatchResult(List.of(), List.of(), List.of(message)));
+
+        // Then
+        ArgumentCaptor<ProducerRecord<String, CouponDto.IssueMessage>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(captor.capture());
+        assertThat(captor.getValue().topic()).isEqualTo(CouponCompensationService.DEAD_LETTER_TOPIC);
+        assertThat(new String(captor.getValue().headers().lastHeader(CouponCompensationService.FAILURE_REASON_HEADER).value(),
+                StandardCharsets.UTF_8)).isEqualTo(CouponCompensationService.FailureReason.NON_RETRYABLE.name());
+        verifyNoInteractions(couponIssueScript);
+    }
+
+    @Test
+    @DisplayName("재시도 가능 실패 - DLT 전송까지 실패하면 예약 취소로 재고 복구")
+    void sendToDeadLetter_SendFailed_ReleaseReservation() {
+        // Given
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("broker down")));
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+
+        // When
+        couponCompensationService.sendToDeadLetter(List.of(message(2L, "request-1")));
+
+        // Then
+        verify(couponIssueScript).release(couponPolicy, 2L);
+    }
+
+    @Test
+    @DisplayName("재시도 가능 실패 - DLT 전송에 성공하면 예약을 유지")
+    void sendToDeadLetter_Sent_KeepReservation() {
+        // Given
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        couponCompensationService.sendToDeadLetter(List.of(message(2L, "request-1")));
+
+        // Then
+        verifyNoInteractions(couponIssueScript);
+    }
+
+    @Test
+    @DisplayName("DLT 재처리까지 실패 - 예약 취소로 재고 복구")
+    void abandon_ReleaseReservation() {
+        // Given
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+
+        // When
+        couponCompensationService.abandon(message(2L, "request-1"));
+
+        // Then
+        verify(couponIssueScript).release(couponPolicy, 2L);
+    }
+
+    private CouponDto.IssueMessage message(Long userId, String requestId) {
+        return CouponDto.IssueMessage.builder()
+                .policyId(TEST_POLICY_ID)
+                .userId(userId)
+                .requestId(requestId)
+                .build();
+    }
+}
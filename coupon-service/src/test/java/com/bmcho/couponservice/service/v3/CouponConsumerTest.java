@@ -0,0 +1,105 @@
+package com.bmcho.couponservice.service.v3;
+
+import com.bmcho.couponservice.dto.v3.CouponDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponConsumerTest {
+
+    @InjectMocks
+    private CouponConsumer couponConsumer;
+    @Mock
+    private CouponService couponService;
+    @Mock
+    private CouponCompensationService couponCompensationService;
+
+    private final CouponDto.IssueMessage message = CouponDto.IssueMessage.builder()
+            .policyId(1L)
+            .userId(1L)
+            .requestId("request-1")
+            .build();
+
+    @Test
+    @DisplayName("배치 발급 성공 - 발급 결과로 보상 처리")
+    void consumeCouponIssueRequests_Success() {
+        // Given
+        CouponDto.IssueBatchResult result = new CouponDto.IssueBatchResult(List.of(message), List.of(), List.of());
+        when(couponService.issueCoupons(List.of(message))).thenReturn(result);
+
+        // When
+        couponConsumer.consumeCouponIssueRequests(List.of(message));
+
+        // Then
+        verify(couponCompensationService).compensate(result);
+        verify(couponCompensationService, never()).sendToDeadLetter(any());
+    }
+
+    @Test
+    @DisplayName("배치 발급 실패 - 재시도 가능한 실패는 배치 전체를 DLT 로 전송")
+    void consumeCouponIssueRequests_Fail_SendToDeadLetter() {
+        // Given
+        when(couponService.issueCoupons(List.of(message))).thenThrow(new DataAccessResourceFailureException("db down"));
+
+        // When
+        couponConsumer.consumeCouponIssueRequests(List.of(message));
+
+        // Then
+        verify(couponCompensationService).sendToDeadLetter(List.of(message));
+        verify(couponCompensationService, never()).compensate(any());
+    }
+
+    @Test
+    @DisplayName("DLT - 재시도 불가 메시지는 다시 처리하지 않음")
+    void consumeDeadLetter_NonRetryable_Skip() {
+        // When
+        couponConsumer.consumeDeadLetter(message, reason(CouponCompensationService.FailureReason.NON_RETRYABLE));
+        couponConsumer.consumeDeadLetter(message, null);
+
+        // Then
+        verifyNoInteractions(couponService, couponCompensationService);
+    }
+
+    @Test
+    @DisplayName("DLT - 재시도 가능 메시지는 한 번 더 발급하고 결과로 보상 처리")
+    void consumeDeadLetter_Retryable_Reissue() {
+        // Given
+        CouponDto.IssueBatchResult result = new CouponDto.IssueBatchResult(List.of(message), List.of(), List.of());
+        when(couponService.issueCoupons(List.of(message))).thenReturn(result);
+
+        // When
+        couponConsumer.consumeDeadLetter(message, reason(CouponCompensationService.FailureReason.RETRYABLE));
+
+        // Then
+        verify(couponCompensationService).compensate(result);
+        verify(couponCompensationService, never()).abandon(any());
+    }
+
+    @Test
+    @DisplayName("DLT - 재처리도 실패하면 예약을 포기하고 재고 복구")
+    void consumeDeadLetter_RetryFailed_Abandon() {
+        // Given
+        when(couponService.issueCoupons(List.of(message))).thenThrow(new DataAccessResourceFailureException("db down"));
+
+        // When
+        couponConsumer.consumeDeadLetter(message, reason(CouponCompensationService.FailureReason.RETRYABLE));
+
+        // Then
+        verify(couponCompensationService).abandon(message);
+    }
+
+    private byte[] reason(CouponCompensationService.FailureReason reason) {
+        return reason.name().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,273 @@
+package com.bmcho.couponservice.service.v3;
+
+import com.bmcho.couponservice.config.interceptor.UserIdInterceptor;
+import com.bmcho.couponservice.domain.Coupon;
+import com.bmcho.couponservice.domain.CouponPolicy;
+import com.bmcho.couponservice.dto.v3.CouponDto;
+import com.bmcho.couponservice.exception.CouponAlreadyIssuedException;
+import com.bmcho.couponservice.exception.CouponOutOfStockException;
+import com.bmcho.couponservice.exception.CouponPolicyNotFoundException;
+import com.bmcho.couponservice.repository.CouponJdbcRepository;
+import com.bmcho.couponservice.repository.CouponRepository;
+import com.bmcho.couponservice.service.CouponCodeGenerator;
+import com.bmcho.couponservice.service.CouponIssueScript;
+import com.bmcho.couponservice.service.v2.CouponPolicyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.KafkaException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponServiceTest {
+
+    @InjectMocks
+    private CouponService couponService;
+    @Mock
+    private CouponRepository couponRepository;
+    @Mock
+    private CouponJdbcRepository couponJdbcRepository;
+    @Mock
+    private CouponPolicyService couponPolicyService;
+    @Mock
+    private CouponCodeGenerator couponCodeGenerator;
+    @Mock
+    private CouponIssueScript couponIssueScript;
+    @Mock
+    private CouponProducer couponProducer;
+
+    private CouponPolicy couponPolicy;
+    private static final Long TEST_USER_ID = 1L;
+    private static final Long TEST_POLICY_ID = 1L;
+    private static final Long UNKNOWN_POLICY_ID = 99L;
+
+    @BeforeEach
+    void setUp() {
+        couponPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .name("테스트 쿠폰")
+                .discountType(CouponPolicy.DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(1000)
+                .totalQuantity(100)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+    }
+
+    @Test
+    @DisplayName("발급 요청 - 스크립트 예약 후 Kafka 로 전송")
+    void requestCouponIssue_Success() {
+        // Given
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponIssueScript.reserve(couponPolicy, TEST_USER_ID)).thenReturn(CouponIssueScript.ReserveResult.RESERVED);
+        when(couponProducer.sendCouponIssueRequest(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        try (MockedStatic<UserIdInterceptor> userId = mockUserId()) {
+            couponService.requestCouponIssue(issueRequest());
+        }
+
+        // Then
+        verify(couponProducer).sendCouponIssueRequest(argThat(message ->
+                message.getPolicyId().equals(TEST_POLICY_ID) && message.getUserId().equals(TEST_USER_ID)
+                        && message.getRequestId() != null));
+        verify(couponIssueScript, never()).release(any(), any());
+    }
+
+    @Test
+    @DisplayName("발급 요청 실패 - 이미 발급된 유저는 재고/Kafka 를 거치지 않고 바로 거절")
+    void requestCouponIssue_Fail_AlreadyIssued() {
+        // Given
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponIssueScript.reserve(couponPolicy, TEST_USER_ID)).thenReturn(CouponIssueScript.ReserveResult.ALREADY_ISSUED);
+
+        // When & Then
+        try (MockedStatic<UserIdInterceptor> userId = mockUserId()) {
+            assertThatThrownBy(() -> couponService.requestCouponIssue(issueRequest()))
+                    .isInstanceOf(CouponAlreadyIssuedException.class);
+        }
+        verifyNoInteractions(couponProducer);
+        verify(couponIssueScript, never()).release(any(), any());
+    }
+
+    @Test
+    @DisplayName("발급 요청 실패 - 재고 소진 시 Kafka 로 보내지 않음")
+    void requestCouponIssue_Fail_OutOfStock() {
+        // Given
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponIssueScript.reserve(couponPolicy, TEST_USER_ID)).thenReturn(CouponIssueScript.ReserveResult.OUT_OF_STOCK);
+
+        // When & Then
+        try (MockedStatic<UserIdInterceptor> userId = mockUserId()) {
+            assertThatThrownBy(() -> couponService.requestCouponIssue(issueRequest()))
+                    .isInstanceOf(CouponOutOfStockException.class);
+        }
+        verifyNoInteractions(couponProducer);
+    }
+
+    @Test
+    @DisplayName("발급 요청 실패 - Kafka 전송 실패 시 예약 취소")
+    void requestCouponIssue_Fail_SendError_Release() {
+        // Given
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponIssueScript.reserve(couponPolicy, TEST_USER_ID)).thenReturn(CouponIssueScript.ReserveResult.RESERVED);
+        doThrow(new KafkaException("broker down")).when(couponProducer).sendCouponIssueRequest(any());
+
+        // When & Then
+        try (MockedStatic<UserIdInterceptor> userId = mockUserId()) {
+            assertThatThrownBy(() -> couponService.requestCouponIssue(issueRequest()))
+                    .isInstanceOf(KafkaException.class);
+        }
+        verify(couponIssueScript).release(couponPolicy, TEST_USER_ID);
+    }
+
+    @Test
+    @DisplayName("발급 요청 실패 - Kafka 전송이 비동기로 실패해도 예약 취소")
+    void requestCouponIssue_Fail_AsyncSendError_Release() {
+        // Given
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponIssueScript.reserve(couponPolicy, TEST_USER_ID)).thenReturn(CouponIssueScript.ReserveResult.RESERVED);
+        when(couponProducer.sendCouponIssueRequest(any()))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("broker down")));
+
+        // When
+        try (MockedStatic<UserIdInterceptor> userId = mockUserId()) {
+            couponService.requestCouponIssue(issueRequest());
+        }
+
+        // Then
+        verify(couponIssueScript).release(couponPolicy, TEST_USER_ID);
+    }
+
+    @Test
+    @DisplayName("배치 발급 - 한 번의 insert 로 저장하고 중복/정책없음 메시지는 개별적으로 걸러냄")
+    void issueCoupons_Batch() {
+        // Given
+        CouponDto.IssueMessage user1 = message(TEST_POLICY_ID, 1L);
+        CouponDto.IssueMessage user1Again = message(TEST_POLICY_ID, 1L);
+        CouponDto.IssueMessage user2 = message(TEST_POLICY_ID, 2L);
+        CouponDto.IssueMessage user3 = message(TEST_POLICY_ID, 3L);
+        CouponDto.IssueMessage unknownPolicy = message(UNKNOWN_POLICY_ID, 4L);
+
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponPolicyService.getCouponPolicy(UNKNOWN_POLICY_ID)).thenThrow(new CouponPolicyNotFoundException(UNKNOWN_POLICY_ID));
+        when(couponCodeGenerator.generate()).thenReturn("CODE00000001", "CODE00000002", "CODE00000003");
+
+        // user3 는 이미 DB 에 발급되어 있어 (정책, 유저) 제약에 걸린 상황
+        ArgumentCaptor<List<Coupon>> couponsCaptor = ArgumentCaptor.forClass(List.class);
+        when(couponJdbcRepository.insert(couponsCaptor.capture())).thenReturn(List.of(
+                CouponJdbcRepository.InsertResult.INSERTED,
+                CouponJdbcRepository.InsertResult.INSERTED,
+                CouponJdbcRepository.InsertResult.DUPLICATED_USER));
+
+        // When
+        CouponDto.IssueBatchResult result = couponService.issueCoupons(
+                List.of(user1, user1Again, user2, user3, unknownPolicy));
+
+        // Then
+        assertThat(couponsCaptor.getValue()).hasSize(3);
+        assertThat(result.getIssued()).containsExactly(user1, user2);
+        assertThat(result.getDuplicated()).containsExactlyInAnyOrder(user1Again, user3);
+        assertThat(result.getFailed()).containsExactly(unknownPolicy);
+        verify(couponJdbcRepository, times(1)).insert(anyList());
+        verify(couponRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("배치 발급 - 쿠폰 코드 충돌은 중복 발급이 아니므로 새 코드로 다시 저장")
+    void issueCoupons_CodeCollision_Regenerate() {
+        // Given
+        CouponDto.IssueMessage user1 = message(TEST_POLICY_ID, 1L);
+        CouponDto.IssueMessage user2 = message(TEST_POLICY_ID, 2L);
+
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponCodeGenerator.generate()).thenReturn("CODE00000001", "CODE00000002", "CODE00000003");
+
+        List<List<String>> insertedCodes = new ArrayList<>();
+        when(couponJdbcRepository.insert(anyList())).thenAnswer(invocation -> {
+            List<Coupon> coupons = invocation.getArgument(0);
+            insertedCodes.add(coupons.stream().map(Coupon::getCouponCode).toList());
+            return insertedCodes.size() == 1
+                    ? List.of(CouponJdbcRepository.InsertResult.INSERTED, CouponJdbcRepository.InsertResult.DUPLICATED_CODE)
+                    : List.of(CouponJdbcRepository.InsertResult.INSERTED);
+        });
+
+        // When
+        CouponDto.IssueBatchResult result = couponService.issueCoupons(List.of(user1, user2));
+
+        // Then
+        assertThat(insertedCodes).containsExactly(
+                List.of("CODE00000001", "CODE00000002"),
+                List.of("CODE00000003"));
+        assertThat(result.getIssued()).containsExactly(user1, user2);
+        assertThat(result.getDuplicated()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("배치 발급 - 이미 처리된 요청이 재전달되면 중복 발급이 아닌 발급 완료로 분류 (보상 대상 아님)")
+    void issueCoupons_Redelivered_NotDuplicated() {
+        // Given
+        CouponDto.IssueMessage redelivered = message(TEST_POLICY_ID, 1L, "request-1");
+        CouponDto.IssueMessage redeliveredCopy = message(TEST_POLICY_ID, 1L, "request-1");
+        CouponDto.IssueMessage otherRequest = message(TEST_POLICY_ID, 2L, "request-2");
+
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponCodeGenerator.generate()).thenReturn("CODE00000001", "CODE00000002");
+        when(couponJdbcRepository.insert(anyList())).thenReturn(List.of(
+                CouponJdbcRepository.InsertResult.DUPLICATED_USER,
+                CouponJdbcRepository.InsertResult.DUPLICATED_USER));
+        // user1 은 같은 요청으로, user2 는 다른 요청(v1/v2 등)으로 이미 발급됨
+        when(couponJdbcRepository.findRequestIds(anyList())).thenReturn(Map.of(
+                TEST_POLICY_ID + ":1", "request-1",
+                TEST_POLICY_ID + ":2", "request-other"));
+
+        // When
+        CouponDto.IssueBatchResult result = couponService.issueCoupons(List.of(redelivered, redeliveredCopy, otherRequest));
+
+        // Then
+        assertThat(result.getIssued()).containsExactly(redelivered);
+        assertThat(result.getDuplicated()).containsExactly(otherRequest);
+    }
+
+    private MockedStatic<UserIdInterceptor> mockUserId() {
+        MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class);
+        mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+        return mockedStatic;
+    }
+
+    private CouponDto.IssueRequest issueRequest() {
+        return CouponDto.IssueRequest.builder()
+                .couponPolicyId(TEST_POLICY_ID)
+                .build();
+    }
+
+    private CouponDto.IssueMessage message(Long policyId, Long userId) {
+        return message(policyId, userId, null);
+    }
+
+    private CouponDto.IssueMessage message(Long policyId, Long userId, String requestId) {
+        return CouponDto.IssueMessage.builder()
+                .policyId(policyId)
+                .userId(userId)
+                .requestId(requestId)
+                .build();
+    }
+}
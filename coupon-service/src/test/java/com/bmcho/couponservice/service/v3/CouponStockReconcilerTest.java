@@ -0,0 +1,107 @@
+package com.bmcho.couponservice.service.v3;
+
+import com.bmcho.couponservice.domain.CouponPolicy;
+import com.bmcho.couponservice.repository.CouponPolicyRepository;
+import com.bmcho.couponservice.repository.CouponRepository;
+import com.bmcho.couponservice.service.CouponIssueScript;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RedissonClient;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponStockReconcilerTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private CouponRepository couponRepository;
+    @Mock
+    private CouponPolicyRepository couponPolicyRepository;
+    @Mock
+    private CouponIssueScript couponIssueScript;
+    @Mock
+    private CouponIssueLag couponIssueLag;
+
+    private CouponStockReconciler couponStockReconciler;
+    private CouponPolicy couponPolicy;
+
+    private static final Long TEST_POLICY_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        couponStockReconciler = new CouponStockReconciler(redissonClient, couponRepository, couponPolicyRepository,
+                couponIssueScript, couponIssueLag, new SimpleMeterRegistry());
+        couponPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .name("테스트 쿠폰")
+                .discountType(CouponPolicy.DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(1000)
+                .totalQuantity(100)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Redis 재고가 기대보다 많으면 초과 발급 위험이므로 즉시 차감")
+    void reconcile_ExcessStock_RemoveImmediately() {
+        // Given - 발급 30 건, 기대 잔여 70, Redis 75
+        when(couponIssueScript.getRemainingStock(couponPolicy)).thenReturn(75L);
+        when(couponRepository.countByCouponPolicyId(TEST_POLICY_ID)).thenReturn(30L);
+        when(couponIssueScript.adjustStock(couponPolicy, -5L)).thenReturn(-5L);
+
+        // When
+        couponStockReconciler.reconcile(couponPolicy);
+
+        // Then
+        verify(couponIssueScript).adjustStock(couponPolicy, -5L);
+        verifyNoInteractions(couponIssueLag);
+    }
+
+    @Test
+    @DisplayName("Redis 재고 부족 - 같은 차이가 두 번 관측돼도 컨슈머 랙이 남아 있으면 복구하지 않음")
+    void reconcile_MissingStock_ConsumerLagging_NotRestored() {
+        // Given - 발급 30 건, 기대 잔여 70, Redis 60 (10 건이 아직 Kafka 에 있음)
+        when(couponIssueScript.getRemainingStock(couponPolicy)).thenReturn(60L);
+        when(couponRepository.countByCouponPolicyId(TEST_POLICY_ID)).thenReturn(30L);
+        when(couponIssueLag.isDrained()).thenReturn(false);
+
+        // When
+        couponStockReconciler.reconcile(couponPolicy);
+        couponStockReconciler.reconcile(couponPolicy);
+        couponStockReconciler.reconcile(couponPolicy);
+
+        // Then
+        verify(couponIssueScript, never()).adjustStock(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Redis 재고 부족 - 두 번 연속 같은 차이 + 컨슈머 랙 0 이면 복구")
+    void reconcile_MissingStock_Drained_Restored() {
+        // Given
+        when(couponIssueScript.getRemainingStock(couponPolicy)).thenReturn(60L);
+        when(couponRepository.countByCouponPolicyId(TEST_POLICY_ID)).thenReturn(30L);
+        when(couponIssueLag.isDrained()).thenReturn(true);
+        when(couponIssueScript.adjustStock(couponPolicy, 10L)).thenReturn(10L);
+
+        // When
+        couponStockReconciler.reconcile(couponPolicy);
+        verify(couponIssueScript, never()).adjustStock(any(), anyLong());
+        couponStockReconciler.reconcile(couponPolicy);
+
+        // Then
+        verify(couponIssueScript, times(1)).adjustStock(couponPolicy, 10L);
+    }
+}
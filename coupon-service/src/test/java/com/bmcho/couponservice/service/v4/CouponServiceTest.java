@@ -0,0 +1,177 @@
+package com.bmcho.couponservice.service.v4;
+
+import com.bmcho.couponservice.config.interceptor.UserIdInterceptor;
+import com.bmcho.couponservice.domain.Coupon;
+import com.bmcho.couponservice.domain.CouponPolicy;
+import com.bmcho.couponservice.dto.v1.CouponDto;
+import com.bmcho.couponservice.exception.CouponAlreadyIssuedException;
+import com.bmcho.couponservice.exception.CouponIssueNotAvailableException;
+import com.bmcho.couponservice.exception.CouponOutOfStockException;
+import com.bmcho.couponservice.repository.CouponRepository;
+import com.bmcho.couponservice.service.CouponCodeGenerator;
+import com.bmcho.couponservice.service.CouponIssueScript;
+import com.bmcho.couponservice.service.v2.CouponPolicyService;
+import com.bmcho.couponservice.service.v2.CouponStateService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponServiceTest {
+
+    @InjectMocks
+    private CouponService couponService;
+    @Mock
+    private CouponRepository couponRepository;
+    @Mock
+    private CouponPolicyService couponPolicyService;
+    @Mock
+    private CouponStateService couponStateService;
+    @Mock
+    private CouponIssueScript couponIssueScript;
+    @Mock
+    private CouponCodeGenerator couponCodeGenerator;
+
+    private MockedStatic<UserIdInterceptor> mockedStatic;
+    private CouponPolicy couponPolicy;
+    private CouponDto.IssueRequest request;
+    private static final Long TEST_USER_ID = 1L;
+    private static final Long TEST_POLICY_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        couponPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .name("테스트 쿠폰")
+                .discountType(CouponPolicy.DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(1000)
+                .totalQuantity(100)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+
+        request = CouponDto.IssueRequest.builder()
+                .couponPolicyId(TEST_POLICY_ID)
+                .build();
+
+        mockedStatic = mockStatic(UserIdInterceptor.class);
+        mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockedStatic.close();
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 성공 - 락 없이 스크립트 예약 후 저장")
+    void issueCoupon_Success() {
+        // Given
+        when(couponIssueScript.reserve(couponPolicy, TEST_USER_ID)).thenReturn(CouponIssueScript.ReserveResult.RESERVED);
+        when(couponRepository.save(any(Coupon.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        CouponDto.Response response = couponService.issueCoupon(request);
+
+        // Then
+        assertThat(response.getUserId()).isEqualTo(TEST_USER_ID);
+        verify(couponRepository).save(any(Coupon.class));
+        verify(couponStateService).updateCouponState(any(Coupon.class));
+        verify(couponIssueScript, never()).release(any(), any());
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 실패 - 발급 기간 아님")
+    void issueCoupon_Fail_NotInPeriod() {
+        when(couponIssueScript.reserve(couponPolicy, TEST_USER_ID)).thenReturn(CouponIssueScript.ReserveResult.NOT_IN_PERIOD);
+
+        assertThatThrownBy(() -> couponService.issueCoupon(request))
+                .isInstanceOf(CouponIssueNotAvailableException.class);
+        verify(couponRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 실패 - 이미 발급된 유저는 DB 접근 없이 거절")
+    void issueCoupon_Fail_AlreadyIssued() {
+        when(couponIssueScript.reserve(couponPolicy, TEST_USER_ID)).thenReturn(CouponIssueScript.ReserveResult.ALREADY_ISSUED);
+
+        assertThatThrownBy(() -> couponService.issueCoupon(request))
+                .isInstanceOf(CouponAlreadyIssuedException.class);
+        verify(couponRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 실패 - 수량 소진")
+    void issueCoupon_Fail_OutOfStock() {
+        when(couponIssueScript.reserve(couponPolicy, TEST_USER_ID)).thenReturn(CouponIssueScript.ReserveResult.OUT_OF_STOCK);
+
+        assertThatThrownBy(() -> couponService.issueCoupon(request))
+                .isInstanceOf(CouponOutOfStockException.class);
+        verify(couponRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 실패 - DB 유니크 제약 위반 시 재고만 복구")
+    void issueCoupon_Fail_DuplicateKey_RestoreStock() {
+        when(couponIssueScript.reserve(couponPolicy, TEST_USER_ID)).thenReturn(CouponIssueScript.ReserveResult.RESERVED);
+        when(couponRepository.save(any(Coupon.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+                new SQLIntegrityConstraintViolationException("uk_coupon_policy_user")));
+
+        assertThatThrownBy(() -> couponService.issueCoupon(request))
+                .isInstanceOf(CouponAlreadyIssuedException.class);
+        verify(couponIssueScript).restoreStock(couponPolicy);
+        verify(couponIssueScript, never()).release(any(), any());
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 실패 - 저장 중 오류 시 예약 취소")
+    void issueCoupon_Fail_SaveError_Release() {
+        when(couponIssueScript.reserve(couponPolicy, TEST_USER_ID)).thenReturn(CouponIssueScript.ReserveResult.RESERVED);
+        when(couponRepository.save(any(Coupon.class))).thenThrow(new IllegalStateException("db down"));
+
+        assertThatThrownBy(() -> couponService.issueCoupon(request))
+                .isInstanceOf(IllegalStateException.class);
+        verify(couponIssueScript).release(couponPolicy, TEST_USER_ID);
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 실패 - 저장 후 커밋 시점에 실패해도 트랜잭션 완료 후 예약 취소")
+    void issueCoupon_Fail_CommitError_ReleaseAfterCompletion() {
+        when(couponIssueScript.reserve(couponPolicy, TEST_USER_ID)).thenReturn(CouponIssueScript.ReserveResult.RESERVED);
+        when(couponRepository.save(any(Coupon.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            couponService.issueCoupon(request);
+            verify(couponIssueScript, never()).release(any(), any());
+
+            // 커밋 실패로 롤백
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(couponIssueScript).release(couponPolicy, TEST_USER_ID);
+    }
+}
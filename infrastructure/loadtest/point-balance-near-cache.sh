@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# 포인트 잔액 조회 부하 테스트 1회 실행 후 README 결과 표에 붙일 한 줄을 출력한다.
+# point-service 를 point.balance.near-cache.enabled=false / true 로 각각 띄운 뒤 라벨(off/on)을 바꿔 두 번 실행한다.
+#
+#   ./infrastructure/loadtest/point-balance-near-cache.sh off
+#   ./infrastructure/loadtest/point-balance-near-cache.sh on
+#
+# 환경 변수: REDIS_CLI(기본 redis-cli), ACTUATOR(기본 http://localhost:8083/actuator/prometheus), JMETER_ARGS(추가 -J 옵션)
+set -euo pipefail
+
+LABEL=${1:?usage: $0 <off|on>}
+ROOT=$(cd "$(dirname "$0")/../.." && pwd)
+PLAN="$ROOT/포인트 잔액 조회 성능 테스트.jmx"
+RESULT="$ROOT/infrastructure/loadtest/results-$LABEL.jtl"
+REDIS_CLI=${REDIS_CLI:-redis-cli}
+ACTUATOR=${ACTUATOR:-http://localhost:8083/actuator/prometheus}
+
+hget_calls() {
+  $REDIS_CLI INFO commandstats | tr -d '\r' | awk -F'[=,]' '/^cmdstat_hget:/ {print $2}'
+}
+
+near_hits() {
+  curl -s "$ACTUATOR" | awk '/^point_balance_near_cache_requests_total\{.*result="hit"/ {sum += $NF} END {printf "%d", sum}'
+}
+
+rm -f "$RESULT"
+hget_before=$(hget_calls)
+hits_before=$(near_hits)
+
+# shellcheck disable=SC2086
+jmeter -n -t "$PLAN" -l "$RESULT" -Jjmeter.save.saveservice.output_format=csv ${JMETER_ARGS:-}
+
+hget_after=$(hget_calls)
+hits_after=$(near_hits)
+
+# 잔액 조회 샘플만 집계 : 요청 수, 처리량, 평균/p95 응답 시간, 오류율
+read -r count tps avg error < <(awk -F',' 'NR > 1 && $3 == "잔액 조회" {
+    n++; sum += $2
+    if ($8 != "true") err++
+    if (first == 0 || $1 < first) first = $1
+    if ($1 > last) last = $1
+  } END {
+    secs = (last - first) / 1000; if (secs <= 0) secs = 1
+    printf "%d %.1f %.1f %.2f\n", n, n / secs, sum / n, err * 100 / n
+  }' "$RESULT")
+p95=$(awk -F',' 'NR > 1 && $3 == "잔액 조회" {print $2}' "$RESULT" | sort -n \
+  | awk -v n="$count" 'NR == int(n * 0.95 + 0.5) {print; exit}')
+
+echo "| $LABEL | $count | $tps | $avg | $p95 | $error% | $((hget_after - hget_before)) | $((hits_after - hits_before)) |"
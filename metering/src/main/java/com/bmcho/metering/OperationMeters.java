@@ -0,0 +1,78 @@
+package com.bmcho.metering;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 한 operation(메서드 + 버전)의 미리 등록된 미터
+ * 기록 시 빌더/태그 배열/Timer.Sample 을 만들지 않는다.
+ * 실패 카운터는 예외 타입마다 한 번만 등록한다. (error 태그 = 예외 클래스 simple name)
+ */
+public final class OperationMeters {
+
+    private final MeterRegistry registry;
+    private final Clock clock;
+    private final String failureName;
+    private final Tags tags;
+    private final Counter success;
+    private final Timer duration;
+    private final Map<Class<?>, Counter> failures = new ConcurrentHashMap<>();
+
+    OperationMeters(MeterRegistry registry, String prefix, String version, String operation) {
+        this.registry = registry;
+        this.clock = registry.config().clock();
+        this.failureName = prefix + ".failure";
+        this.tags = Tags.of("version", version, "operation", operation);
+        this.success = Counter.builder(prefix + ".success")
+                .tags(tags)
+                .register(registry);
+        this.duration = Timer.builder(prefix + ".duration")
+                .tags(tags)
+                .register(registry);
+    }
+
+    /**
+     * @return 측정 시작 시각 (monotonic ns)
+     */
+    public long start() {
+        return clock.monotonicTime();
+    }
+
+    /**
+     * 성공 카운트와 처리 시간 기록
+     *
+     * @param start start() 반환값
+     */
+    public void success(long start) {
+        success.increment();
+        duration.record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 실패 카운트 기록
+     *
+     * @param e 발생한 예외
+     */
+    public void failure(Throwable e) {
+        Class<?> type = e.getClass();
+        Counter counter = failures.get(type);
+        if (counter == null) {
+            counter = failures.computeIfAbsent(type, this::registerFailure);
+        }
+        counter.increment();
+    }
+
+    private Counter registerFailure(Class<?> type) {
+        return Counter.builder(failureName)
+                .tags(tags)
+                .tag("error", type.getSimpleName())
+                .register(registry);
+    }
+}
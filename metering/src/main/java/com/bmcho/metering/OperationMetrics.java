@@ -0,0 +1,63 @@
+package com.bmcho.metering;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 메서드 단위 operation 메트릭 모음
+ * {prefix}.success / {prefix}.failure / {prefix}.duration 미터를 (메서드, 버전) 마다 한 번만 등록하고 재사용한다.
+ * 버전은 메서드 애노테이션에서 고정되므로 메서드를 키로 캐시한다.
+ *
+ * <pre>
+ * OperationMeters meters = operationMetrics.meters(method);
+ * long start = meters.start();
+ * try {
+ *     Object result = joinPoint.proceed();
+ *     meters.success(start);
+ *     return result;
+ * } catch (Exception e) {
+ *     meters.failure(e);
+ *     throw e;
+ * }
+ * </pre>
+ */
+public class OperationMetrics {
+
+    private final MeterRegistry registry;
+    private final String prefix;
+    private final Function<Method, String> versionResolver;
+    private final Map<Method, OperationMeters> meters = new ConcurrentHashMap<>();
+
+    /**
+     * @param registry        미터 레지스트리
+     * @param prefix          메트릭 이름 접두사 (예: coupon.operation)
+     * @param versionResolver 메서드의 version 태그 값 (메서드당 한 번만 호출됨)
+     */
+    public OperationMetrics(MeterRegistry registry, String prefix, Function<Method, String> versionResolver) {
+        this.registry = registry;
+        this.prefix = prefix;
+        this.versionResolver = versionResolver;
+    }
+
+    /**
+     * 메서드의 미터 조회, 처음 호출된 메서드만 등록
+     *
+     * @param method 측정 대상 메서드
+     * @return 등록된 미터
+     */
+    public OperationMeters meters(Method method) {
+        OperationMeters cached = meters.get(method);
+        if (cached != null) {
+            return cached;
+        }
+        return meters.computeIfAbsent(method, this::register);
+    }
+
+    private OperationMeters register(Method method) {
+        return new OperationMeters(registry, prefix, versionResolver.apply(method), method.getName());
+    }
+}
@@ -0,0 +1,85 @@
+package com.bmcho.metering;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OperationMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private AtomicInteger versionLookups;
+    private OperationMetrics operationMetrics;
+    private Method method;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        registry = new SimpleMeterRegistry();
+        versionLookups = new AtomicInteger();
+        operationMetrics = new OperationMetrics(registry, "coupon.operation", m -> {
+            versionLookups.incrementAndGet();
+            return "v4";
+        });
+        method = OperationMetricsTest.class.getDeclaredMethod("issueCoupon");
+    }
+
+    @Test
+    @DisplayName("같은 메서드는 한 번만 등록되고 같은 미터를 재사용")
+    void meters_RegisteredOncePerMethod() {
+        // When
+        OperationMeters first = operationMetrics.meters(method);
+        OperationMeters second = operationMetrics.meters(method);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(versionLookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("성공 - 기존과 같은 이름/태그로 카운터와 타이머 기록")
+    void success_RecordsCounterAndTimer() {
+        // Given
+        OperationMeters meters = operationMetrics.meters(method);
+
+        // When
+        meters.success(meters.start());
+        meters.success(meters.start());
+
+        // Then
+        assertThat(registry.get("coupon.operation.success")
+                .tag("version", "v4").tag("operation", "issueCoupon")
+                .counter().count()).isEqualTo(2);
+        assertThat(registry.get("coupon.operation.duration")
+                .tag("version", "v4").tag("operation", "issueCoupon")
+                .timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("실패 - 예외 타입별 error 태그로 카운트")
+    void failure_CountsByExceptionType() {
+        // Given
+        OperationMeters meters = operationMetrics.meters(method);
+
+        // When
+        meters.failure(new IllegalStateException());
+        meters.failure(new IllegalStateException());
+        meters.failure(new IllegalArgumentException());
+
+        // Then
+        assertThat(registry.get("coupon.operation.failure")
+                .tag("error", "IllegalStateException")
+                .counter().count()).isEqualTo(2);
+        assertThat(registry.get("coupon.operation.failure")
+                .tag("error", "IllegalArgumentException")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @SuppressWarnings("unused")
+    private void issueCoupon() {
+    }
+}
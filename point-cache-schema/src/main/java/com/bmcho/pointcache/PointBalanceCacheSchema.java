@@ -0,0 +1,64 @@
+package com.bmcho.pointcache;
+
+import org.redisson.api.RBatch;
+import org.redisson.api.RMap;
+import org.redisson.api.RMapAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.codec.CompositeCodec;
+
+/**
+ * 포인트 잔액 캐시(point:balance) 스키마
+ * point-service 와 point-service-batch 가 같은 맵 이름 / 필드 형식 / 코덱을 쓰도록 한 곳에서 정의한다.
+ *
+ * - 맵 이름 : point:balance:v2
+ * - 필드   : userId 10진수 문자열 (예: "42")
+ * - 값     : 잔액 10진수 문자열 (LongCodec) - redis-cli 로 바로 확인 가능하고 HINCRBY 로도 갱신 가능
+ *
+ * 이전 맵(point:balance)은 기본 코덱(Kryo)으로 값을 저장해 새 코덱으로 읽을 수 없으므로 맵 이름에 스키마 버전을 붙였다.
+ *
+ * write-behind 대기 변화량 해시 ({point:balance}:pending)
+ * - point-service 가 point_balances 에 아직 반영하지 않은 유저별 잔액 변화량 (필드/값 형식은 잔액 캐시와 같음)
+ * - DB 잔액 + 대기 변화량 = 실제 잔액이므로 배치가 DB 잔액을 검증할 때 함께 읽는다.
+ */
+public final class PointBalanceCacheSchema {
+
+    public static final String MAP_NAME = "point:balance:v2";
+
+    public static final String LEGACY_MAP_NAME = "point:balance";
+
+    // 대기 해시와 가장 오래된 적재 시각 키를 Lua 스크립트 하나에서 함께 다루므로 같은 hash tag 사용
+    public static final String PENDING_MAP_NAME = "{point:balance}:pending";
+
+    public static final String PENDING_SINCE_KEY = "{point:balance}:pending:since";
+
+    public static final Codec CODEC = new CompositeCodec(StringCodec.INSTANCE, LongCodec.INSTANCE, LongCodec.INSTANCE);
+
+    private PointBalanceCacheSchema() {
+    }
+
+    public static RMap<String, Long> map(RedissonClient redissonClient) {
+        return redissonClient.getMap(MAP_NAME, CODEC);
+    }
+
+    /**
+     * 파이프라인(RBatch)에 쌓을 때 사용하는 같은 맵
+     */
+    public static RMapAsync<String, Long> map(RBatch batch) {
+        return batch.getMap(MAP_NAME, CODEC);
+    }
+
+    public static RMap<String, Long> pendingMap(RedissonClient redissonClient) {
+        return redissonClient.getMap(PENDING_MAP_NAME, CODEC);
+    }
+
+    public static String field(Long userId) {
+        return Long.toString(userId);
+    }
+
+    public static Long userId(String field) {
+        return Long.parseLong(field);
+    }
+}
@@ -0,0 +1,34 @@
+package com.bmcho.pointcache;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PointBalanceCacheSchemaTest {
+
+    @Test
+    @DisplayName("필드는 userId 10진수 문자열")
+    void fieldFormat() {
+        assertThat(PointBalanceCacheSchema.field(42L)).isEqualTo("42");
+        assertThat(PointBalanceCacheSchema.userId("42")).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("필드/값 모두 문자열로 인코딩되고 그대로 디코딩")
+    void codecRoundTrip() throws Exception {
+        ByteBuf key = PointBalanceCacheSchema.CODEC.getMapKeyEncoder().encode(PointBalanceCacheSchema.field(42L));
+        ByteBuf value = PointBalanceCacheSchema.CODEC.getMapValueEncoder().encode(1500L);
+        try {
+            assertThat(key.toString(StandardCharsets.UTF_8)).isEqualTo("42");
+            assertThat(value.toString(StandardCharsets.UTF_8)).isEqualTo("1500");
+            assertThat(PointBalanceCacheSchema.CODEC.getMapValueDecoder().decode(value, null)).isEqualTo(1500L);
+        } finally {
+            key.release();
+            value.release();
+        }
+    }
+}
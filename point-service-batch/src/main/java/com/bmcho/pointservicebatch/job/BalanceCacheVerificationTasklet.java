@@ -0,0 +1,163 @@
+package com.bmcho.pointservicebatch.job;
+
+import com.bmcho.pointcache.PointBalanceCacheSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * 잔액 캐시 warm-up 검증
+ * - 임의 위치부터 point_balances 를 sample-size 건 읽어 캐시에서 같은 필드로 조회
+ * - 기대값은 DB 잔액 + write-behind 대기 변화량({point:balance}:pending) 이다.
+ * - 적중률(hitRatio)과 값 불일치 건수(mismatchCount)를 Step ExecutionContext 에 남기고,
+ *   적중률이 min-hit-ratio 미만이면 종료 코드를 LOW_HIT_RATIO 로 표시 (Job 은 계속 진행)
+ * - 불일치는 캐시가 잘못된 잔액을 보여주고 있다는 뜻이므로 종료 코드를 CACHE_MISMATCH 로 표시하고,
+ *   읽은 값이 그대로인 필드만 지워 다음 조회 때 DB 에서 다시 채우게 한다.
+ *   (샘플을 읽는 사이 잔액이 바뀐 유저도 불일치로 잡힐 수 있지만, 지워도 캐시 미스가 될 뿐이다)
+ */
+@Slf4j
+@Component
+public class BalanceCacheVerificationTasklet implements Tasklet {
+
+    static final String LOW_HIT_RATIO = "LOW_HIT_RATIO";
+    static final String CACHE_MISMATCH = "CACHE_MISMATCH";
+
+    // 로그에 남길 불일치 유저 수
+    private static final int MISMATCH_LOG_LIMIT = 20;
+
+    /*
+        KEYS[1] = 잔액 캐시, ARGV = field, 검증 때 읽은 값 쌍
+        값이 그대로인 필드만 HDEL - 그 사이 point-service 가 새로 쓴 값은 지우지 않음
+        반환 : 지운 필드 수
+     */
+    private static final String EVICT_IF_UNCHANGED_SCRIPT = """
+            local removed = 0
+            for i = 1, #ARGV, 2 do
+                if redis.call('HGET', KEYS[1], ARGV[i]) == ARGV[i + 1] then
+                    redis.call('HDEL', KEYS[1], ARGV[i])
+                    removed = removed + 1
+                end
+            end
+            return removed
+            """;
+
+    private static final String SELECT_ID_RANGE = "SELECT MIN(id), MAX(id) FROM point_balances";
+    private static final String SELECT_FROM = "SELECT user_id, balance FROM point_balances WHERE id >= ? ORDER BY id LIMIT ?";
+    private static final String SELECT_BEFORE = "SELECT user_id, balance FROM point_balances WHERE id < ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RedissonClient redissonClient;
+    private final int sampleSize;
+    private final double minHitRatio;
+
+    public BalanceCacheVerificationTasklet(JdbcTemplate jdbcTemplate,
+                                           RedissonClient redissonClient,
+                                           @Value("${point.cache.verify.sample-size:1000}") int sampleSize,
+                                           @Value("${point.cache.verify.min-hit-ratio:0.99}") double minHitRatio) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redissonClient = redissonClient;
+        this.sampleSize = sampleSize;
+        this.minHitRatio = minHitRatio;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        List<Map.Entry<Long, Long>> sample = sample();
+        ExecutionContext context = contribution.getStepExecution().getExecutionContext();
+        context.putInt("sampleSize", sample.size());
+        if (sample.isEmpty()) {
+            log.info("balance cache verification skipped - no balances");
+            return RepeatStatus.FINISHED;
+        }
+
+        Set<String> fields = sample.stream()
+                .map(entry -> PointBalanceCacheSchema.field(entry.getKey()))
+                .collect(Collectors.toSet());
+        Map<String, Long> cached = PointBalanceCacheSchema.map(redissonClient).getAll(fields);
+        Map<String, Long> pending = PointBalanceCacheSchema.pendingMap(redissonClient).getAll(fields);
+
+        Map<String, Long> mismatched = new LinkedHashMap<>();
+        for (Map.Entry<Long, Long> entry : sample) {
+            String field = PointBalanceCacheSchema.field(entry.getKey());
+            Long value = cached.get(field);
+            long expected = entry.getValue() + pending.getOrDefault(field, 0L);
+            if (value != null && value != expected) {
+                mismatched.put(field, value);
+            }
+        }
+        double hitRatio = (double) cached.size() / sample.size();
+
+        context.putDouble("hitRatio", hitRatio);
+        context.putLong("mismatchCount", mismatched.size());
+        log.info("balance cache verification - sample: {}, hitRatio: {}, mismatches: {}",
+                sample.size(), String.format("%.4f", hitRatio), mismatched.size());
+
+        if (hitRatio < minHitRatio) {
+            log.warn("balance cache hit ratio {} is below {}", String.format("%.4f", hitRatio), minHitRatio);
+            contribution.setExitStatus(new ExitStatus(LOW_HIT_RATIO,
+                    "hitRatio=%.4f, minHitRatio=%.4f".formatted(hitRatio, minHitRatio)));
+        }
+        if (!mismatched.isEmpty()) {
+            long evicted = evictIfUnchanged(mismatched);
+            context.putLong("evictedCount", evicted);
+            log.warn("balance cache mismatch - mismatches: {}, evicted: {}, userIds: {}", mismatched.size(), evicted,
+                    mismatched.keySet().stream().limit(MISMATCH_LOG_LIMIT).toList());
+            // 잘못된 잔액 노출이 적중률 저하보다 심각하므로 함께 발생하면 CACHE_MISMATCH 로 표시
+            contribution.setExitStatus(new ExitStatus(CACHE_MISMATCH,
+                    "mismatchCount=%d, evictedCount=%d, hitRatio=%.4f".formatted(mismatched.size(), evicted, hitRatio)));
+        }
+        return RepeatStatus.FINISHED;
+    }
+
+    private long evictIfUnchanged(Map<String, Long> mismatched) {
+        Object[] args = new Object[mismatched.size() * 2];
+        int i = 0;
+        for (Map.Entry<String, Long> entry : mismatched.entrySet()) {
+            args[i++] = entry.getKey();
+            args[i++] = String.valueOf(entry.getValue());
+        }
+        Long removed = redissonClient.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE,
+                EVICT_IF_UNCHANGED_SCRIPT, RScript.ReturnType.INTEGER,
+                List.<Object>of(PointBalanceCacheSchema.MAP_NAME), args);
+        return removed == null ? 0 : removed;
+    }
+
+    /**
+     * 임의 id 부터 id 순으로 읽고, 끝에 닿으면 앞부분에서 나머지를 채운다. (OFFSET / ORDER BY RAND() 없이 인덱스 범위 조회)
+     */
+    private List<Map.Entry<Long, Long>> sample() {
+        Long[] range = jdbcTemplate.queryForObject(SELECT_ID_RANGE, (rs, rowNum) ->
+                new Long[]{rs.getObject(1, Long.class), rs.getObject(2, Long.class)});
+        if (range == null || range[0] == null) {
+            return List.of();
+        }
+
+        long startId = ThreadLocalRandom.current().nextLong(range[0], range[1] + 1);
+        List<Map.Entry<Long, Long>> sample = new ArrayList<>(jdbcTemplate.query(SELECT_FROM,
+                (rs, rowNum) -> Map.entry(rs.getLong("user_id"), rs.getLong("balance")), startId, sampleSize));
+        if (sample.size() < sampleSize) {
+            sample.addAll(jdbcTemplate.query(SELECT_BEFORE,
+                    (rs, rowNum) -> Map.entry(rs.getLong("user_id"), rs.getLong("balance")),
+                    startId, sampleSize - sample.size()));
+        }
+        return sample;
+    }
+}
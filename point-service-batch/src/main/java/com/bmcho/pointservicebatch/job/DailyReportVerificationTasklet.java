@@ -0,0 +1,99 @@
+package com.bmcho.pointservicebatch.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * 일별 리포트 검증(마감)
+ * - point-service 가 하루 동안 daily_point_reports 에 실시간으로 누적한 합계를 points 와 비교한다.
+ * - 비교는 날짜 전체의 유형별 합계와 유저 수 한 줄씩이라 created_at 인덱스 범위 집계 한 번으로 끝난다.
+ * - 일치하면 그대로 마감하고, 어긋나거나(반영 전 종료 등) 실시간 집계를 끈 경우 REBUILD 로 끝내
+ *   generateDailyReportStep 이 그 날짜만 points 에서 다시 집계해 덮어쓰게 한다.
+ * - point-service 는 전일 합계를 자정 + point.report.incremental.cut-off(기본 30분)까지만 누적하므로 Job 은 그 이후에 실행한다.
+ *   (그 전에 실행하면 늦게 누적된 합계가 재집계로 덮어쓴 리포트에 더해질 수 있음)
+ */
+@Slf4j
+@Component
+@StepScope
+public class DailyReportVerificationTasklet implements Tasklet {
+
+    static final String REBUILD = "REBUILD";
+
+    private static final String SELECT_POINT_TOTALS = """
+            SELECT COALESCE(SUM(CASE WHEN type = 'EARNED' THEN amount ELSE 0 END), 0),
+                   COALESCE(SUM(CASE WHEN type = 'USED' THEN amount ELSE 0 END), 0),
+                   COALESCE(SUM(CASE WHEN type = 'CANCELED' THEN amount ELSE 0 END), 0),
+                   COUNT(DISTINCT user_id)
+            FROM points
+            WHERE created_at >= ? AND created_at < ?
+            """;
+
+    private static final String SELECT_REPORT_TOTALS = """
+            SELECT COALESCE(SUM(earn_amount), 0),
+                   COALESCE(SUM(use_amount), 0),
+                   COALESCE(SUM(cancel_amount), 0),
+                   COUNT(*)
+            FROM daily_point_reports
+            WHERE report_date = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean incremental;
+    private final String reportDateStr;
+
+    public DailyReportVerificationTasklet(JdbcTemplate jdbcTemplate,
+                                          @Value("${point.report.incremental:true}") boolean incremental,
+                                          @Value("#{jobParameters['reportDate']}") String reportDateStr) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.incremental = incremental;
+        this.reportDateStr = reportDateStr;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        if (!incremental) {
+            contribution.setExitStatus(new ExitStatus(REBUILD, "incremental report disabled"));
+            return RepeatStatus.FINISHED;
+        }
+
+        LocalDate reportDate = pointBalanceSyncJobConfig.reportDate(reportDateStr);
+        Totals points = jdbcTemplate.queryForObject(SELECT_POINT_TOTALS, Totals.MAPPER,
+                Timestamp.valueOf(reportDate.atStartOfDay()), Timestamp.valueOf(reportDate.plusDays(1).atStartOfDay()));
+        Totals reports = jdbcTemplate.queryForObject(SELECT_REPORT_TOTALS, Totals.MAPPER, Date.valueOf(reportDate));
+
+        ExecutionContext context = contribution.getStepExecution().getExecutionContext();
+        context.putString("reportDate", reportDate.toString());
+        context.putString("points", String.valueOf(points));
+        context.putString("reports", String.valueOf(reports));
+
+        if (points != null && points.equals(reports)) {
+            log.info("daily point report verified - date: {}, totals: {}", reportDate, reports);
+            return RepeatStatus.FINISHED;
+        }
+
+        log.warn("daily point report mismatch, rebuilding - date: {}, points: {}, reports: {}",
+                reportDate, points, reports);
+        contribution.setExitStatus(new ExitStatus(REBUILD, "points=%s, reports=%s".formatted(points, reports)));
+        return RepeatStatus.FINISHED;
+    }
+
+    private record Totals(long earn, long use, long cancel, long users) {
+
+        static final RowMapper<Totals> MAPPER = (rs, rowNum) ->
+                new Totals(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4));
+    }
+}
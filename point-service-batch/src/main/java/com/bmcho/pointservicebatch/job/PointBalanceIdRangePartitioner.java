@@ -0,0 +1,50 @@
+package com.bmcho.pointservicebatch.job;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * point_balances 를 id 구간으로 나누는 Partitioner
+ * - id 는 AUTO_INCREMENT 라 MIN~MAX 를 gridSize 개의 연속 구간으로 자르면 구간별 행 수가 거의 같다.
+ * - 각 파티션 ExecutionContext 에 minId / maxId (양끝 포함)를 넣는다.
+ * - 테이블이 비어 있으면 파티션을 만들지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PointBalanceIdRangePartitioner implements Partitioner {
+
+    static final String MIN_ID = "minId";
+    static final String MAX_ID = "maxId";
+
+    private static final String SELECT_ID_RANGE = "SELECT MIN(id), MAX(id) FROM point_balances";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Long[] range = jdbcTemplate.queryForObject(SELECT_ID_RANGE, (rs, rowNum) ->
+                new Long[]{rs.getObject(1, Long.class), rs.getObject(2, Long.class)});
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        if (range == null || range[0] == null) {
+            return partitions;
+        }
+
+        long minId = range[0];
+        long maxId = range[1];
+        long size = Math.max(1, (maxId - minId) / gridSize + 1);
+        int partitionNo = 0;
+        for (long start = minId; start <= maxId; start += size) {
+            ExecutionContext context = new ExecutionContext();
+            context.putLong(MIN_ID, start);
+            context.putLong(MAX_ID, Math.min(maxId, start + size - 1));
+            partitions.put("partition" + partitionNo++, context);
+        }
+        return partitions;
+    }
+}
@@ -1,15 +1,13 @@
 package com.bmcho.pointservicebatch.job;
 
-import com.bmcho.pointservicebatch.domain.DailyPointReport;
+import com.bmcho.pointcache.PointBalanceCacheSchema;
 import com.bmcho.pointservicebatch.domain.DailyPointSummary;
-import com.bmcho.pointservicebatch.domain.Point;
-import com.bmcho.pointservicebatch.domain.PointBalance;
 import com.bmcho.pointservicebatch.listener.JobCompletionNotificationListener;
-import com.bmcho.pointservicebatch.repository.DailyPointReportRepository;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
+import org.redisson.api.RMapAsync;
 import org.redisson.api.RedissonClient;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
@@ -17,24 +15,28 @@ import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemWriter;
-import org.springframework.batch.item.database.JpaPagingItemReader;
-import org.springframework.batch.item.database.builder.JpaPagingItemReaderBuilder;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.Order;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import javax.sql.DataSource;
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
-import static java.time.LocalDate.now;
-
 @Slf4j
 @Configuration
 @RequiredArgsConstructor
@@ -42,33 +44,51 @@ public class pointBalanceSyncJobConfig {
 
     private final JobRepository jobRepository;
     private final PlatformTransactionManager transactionManager;
-    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
     private final RedissonClient redissonClient;
-    private final DailyPointReportRepository dailyPointReportRepository;
     private final JobCompletionNotificationListener jobCompletionNotificationListener;
-
-    @Bean
-    @StepScope
-    public EntityManager entityManager() {
-        return entityManagerFactory.createEntityManager();
-    }
-
+    private final BalanceCacheVerificationTasklet balanceCacheVerificationTasklet;
+    private final PointBalanceReconciliationTasklet pointBalanceReconciliationTasklet;
 
     /*
-     * 포인트 잔액 동기화 및 일별 리포트 생성 Job
+     * 포인트 잔액 동기화 및 일별 리포트 마감 Job
      *
      * 실행 순서:
-     * 1. syncPointBalanceStep: DB의 포인트 잔액을 Redis 캐시에 동기화
-     * 2. generateDailyReportStep: 전일 포인트 트랜잭션을 집계하여 일별 리포트 생성
+     * 1. reconcilePointBalanceStep: point_balances 를 유저별 마지막 포인트 이력 잔액과 비교해 어긋난 유저를 보고 (보정하지 않음)
+     * 2. syncPointBalanceStep: DB의 포인트 잔액을 Redis 캐시에 동기화
+     * 3. verifyBalanceCacheStep: 샘플 유저로 캐시 적중률 확인, 잔액과 다른 캐시 값은 지우고 CACHE_MISMATCH 로 표시
+     * 4. verifyDailyReportStep: point-service 가 실시간으로 쌓은 전일 리포트 합계를 points 와 비교
+     * 5. generateDailyReportStep: 4 에서 어긋난 경우(REBUILD)에만 전일 포인트 트랜잭션을 다시 집계하여 덮어씀
      */
     @Bean
     public Job pointBalanceSyncJob(
+            Step reconcilePointBalanceStep,
             Step syncPointBalanceRedisStep,
+            Step verifyBalanceCacheStep,
+            Step verifyDailyReportStep,
             Step generateDailyReportStep) {
         return new JobBuilder("pointBalanceSyncJob", jobRepository)
                 .listener(jobCompletionNotificationListener)
-                .start(syncPointBalanceRedisStep)
-                .next(generateDailyReportStep)
+                .start(reconcilePointBalanceStep)
+                .next(syncPointBalanceRedisStep)
+                .next(verifyBalanceCacheStep)
+                .on("*").to(verifyDailyReportStep)
+                .from(verifyDailyReportStep).on(DailyReportVerificationTasklet.REBUILD).to(generateDailyReportStep)
+                .from(verifyDailyReportStep).on("*").end()
+                .end()
+                .build();
+    }
+
+    /**
+     * 잔액 정합성 검증 Step
+     * <p>
+     * write-behind 반영 유실 등으로 point_balances 가 포인트 이력과 어긋난 유저를 찾아 보고한다.
+     * 대량 적립 snapshot 이 대기 변화량을 포함하지 않아 snapshot 이 틀릴 수 있으므로 잔액은 고치지 않는다.
+     */
+    @Bean
+    public Step reconcilePointBalanceStep() {
+        return new StepBuilder("reconcilePointBalanceStep", jobRepository)
+                .tasklet(pointBalanceReconciliationTasklet, transactionManager)
                 .build();
     }
 
@@ -76,41 +96,91 @@ public class pointBalanceSyncJobConfig {
      * 포인트 잔액 동기화 Step
      * <p>
      * DB의 포인트 잔액 정보를 Redis 캐시에 동기화하는 Step
-     * - Reader: JPA를 통해 포인트 잔액 조회
-     * - Processor: 캐시 키 생성
-     * - Writer: Redis에 포인트 잔액 저장
+     * - point_balances 를 id 구간으로 나눠 파티션별 worker step 을 TaskExecutor 에서 병렬 실행
+     * - 건수가 늘어도 파티션 하나가 읽는 양만 늘어나고, 각 worker 는 한 페이지(청크)만 메모리에 둔다.
      */
     @Bean
     public Step syncPointBalanceRedisStep(
-            JpaPagingItemReader<PointBalance> pointBalanceRedisReader,
-            ItemProcessor<PointBalance, Map.Entry<String, Long>> pointBalanceRedisProcessor,
-            ItemWriter<Map.Entry<String, Long>> pointBalanceRedisWriter
+            Step syncPointBalanceRedisWorkerStep,
+            PointBalanceIdRangePartitioner pointBalanceIdRangePartitioner,
+            TaskExecutor pointBalanceSyncTaskExecutor,
+            @Value("${point.sync.partitions:8}") int partitions
     ) {
         return new StepBuilder("syncPointBalanceRedisStep", jobRepository)
-                .<PointBalance, Map.Entry<String, Long>>chunk(1000, transactionManager)
+                .partitioner("syncPointBalanceRedisWorkerStep", pointBalanceIdRangePartitioner)
+                .step(syncPointBalanceRedisWorkerStep)
+                .gridSize(partitions)
+                .taskExecutor(pointBalanceSyncTaskExecutor)
+                .build();
+    }
+
+    /**
+     * 포인트 잔액 동기화 worker Step (파티션 하나)
+     * - Reader: id 구간 안을 id keyset 으로 페이지 조회
+     * - Writer: 청크를 Redis 파이프라인 한 번으로 저장
+     */
+    @Bean
+    public Step syncPointBalanceRedisWorkerStep(
+            JdbcPagingItemReader<Map.Entry<String, Long>> pointBalanceRedisReader,
+            ItemWriter<Map.Entry<String, Long>> pointBalanceRedisWriter,
+            @Value("${point.sync.chunk-size:5000}") int chunkSize
+    ) {
+        return new StepBuilder("syncPointBalanceRedisWorkerStep", jobRepository)
+                .<Map.Entry<String, Long>, Map.Entry<String, Long>>chunk(chunkSize, transactionManager)
                 .reader(pointBalanceRedisReader)
-                .processor(pointBalanceRedisProcessor)
                 .writer(pointBalanceRedisWriter)
                 .build();
     }
 
+    @Bean
+    public TaskExecutor pointBalanceSyncTaskExecutor(@Value("${point.sync.partitions:8}") int partitions) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(partitions);
+        executor.setMaxPoolSize(partitions);
+        executor.setThreadNamePrefix("point-balance-sync-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 캐시 warm-up 검증 Step
+     * <p>
+     * 동기화 직후 DB 잔액 샘플을 캐시에서 조회해 적중률/불일치 건수를 기록
+     * 종료 코드(LOW_HIT_RATIO / CACHE_MISMATCH)와 관계없이 리포트 검증으로 넘어간다.
+     */
+    @Bean
+    public Step verifyBalanceCacheStep() {
+        return new StepBuilder("verifyBalanceCacheStep", jobRepository)
+                .tasklet(balanceCacheVerificationTasklet, transactionManager)
+                .build();
+    }
+
+    /**
+     * 일별 리포트 검증 Step
+     * <p>
+     * 실시간 집계 결과가 points 합계와 같으면 마감, 다르면 REBUILD 로 끝나 generateDailyReportStep 으로 이어진다.
+     */
+    @Bean
+    public Step verifyDailyReportStep(DailyReportVerificationTasklet dailyReportVerificationTasklet) {
+        return new StepBuilder("verifyDailyReportStep", jobRepository)
+                .tasklet(dailyReportVerificationTasklet, transactionManager)
+                .build();
+    }
 
     /* 일별 리포트 생성 Step
      *
-     * 전일 포인트 트랜잭션을 집계하여 일별 리포트를 생성하는 Step
-     * - Reader: JPA를 통해 전일 포인트 트랜잭션 조회
-     * - Processor: 포인트 트랜잭션을 사용자별로 집계
-     * - Writer: 일별 리포트를 DB에 저장
+     * 전일 포인트 트랜잭션을 유저별로 집계하여 일별 리포트를 생성하는 Step
+     * - Reader: DB 에서 GROUP BY user_id 로 집계한 결과를 커서로 조회 (유저당 1건)
+     * - Writer: (user_id, report_date) 기준 JDBC 배치 upsert - 재실행해도 같은 값으로 덮어쓴다.
      */
     @Bean
     public Step generateDailyReportStep(
-            JpaPagingItemReader<Point> pointReader,
-            ItemProcessor<Point, DailyPointSummary> pointToDailyReportProcessor,
-            ItemWriter<DailyPointSummary> reportWriter) {
+            JdbcCursorItemReader<DailyPointSummary> dailyPointSummaryReader,
+            JdbcBatchItemWriter<DailyPointSummary> reportWriter) {
         return new StepBuilder("generateDailyReportStep", jobRepository)
-                .<Point, DailyPointSummary>chunk(1000, transactionManager)
-                .reader(pointReader)
-                .processor(pointToDailyReportProcessor)
+                .<DailyPointSummary, DailyPointSummary>chunk(1000, transactionManager)
+                .reader(dailyPointSummaryReader)
                 .writer(reportWriter)
                 .build();
     }
@@ -118,135 +188,138 @@ public class pointBalanceSyncJobConfig {
     /**
      * 포인트 잔액 Reader
      * <p>
-     * JPA를 사용하여 DB에서 포인트 잔액 정보를 조회
+     * 파티션의 id 구간 [minId, maxId] 를 id 순으로 조회
+     * JdbcPagingItemReader 는 OFFSET 대신 마지막으로 읽은 id 이후(WHERE id > ?)를 읽는 keyset 페이징이라
+     * 페이지 깊이와 무관하게 PK 범위 조회 한 번이고, 재시작 시 마지막 id 부터 이어서 읽는다.
+     * 엔티티 대신 캐시에 쓸 (필드, 잔액) 쌍으로 바로 매핑한다. (필드 형식은 point-service 와 공유하는 PointBalanceCacheSchema 기준)
      */
     @Bean
     @StepScope
-    public JpaPagingItemReader<PointBalance> pointBalanceRedisReader() {
-        return new JpaPagingItemReaderBuilder<PointBalance>()
+    public JdbcPagingItemReader<Map.Entry<String, Long>> pointBalanceRedisReader(
+            @Value("#{stepExecutionContext['minId']}") Long minId,
+            @Value("#{stepExecutionContext['maxId']}") Long maxId,
+            @Value("${point.sync.chunk-size:5000}") int pageSize
+    ) {
+        return new JdbcPagingItemReaderBuilder<Map.Entry<String, Long>>()
                 .name("pointBalanceReader")
-                .entityManagerFactory(entityManagerFactory)
-                .pageSize(1000)
-                .queryString("SELECT pb FROM PointBalance pb")
+                .dataSource(dataSource)
+                .selectClause("SELECT id, user_id, balance")
+                .fromClause("FROM point_balances")
+                .whereClause("WHERE id BETWEEN :minId AND :maxId")
+                .sortKeys(Map.of("id", Order.ASCENDING))
+                .parameterValues(Map.of("minId", minId, "maxId", maxId))
+                .pageSize(pageSize)
+                .fetchSize(pageSize)
+                .rowMapper((rs, rowNum) -> Map.entry(
+                        PointBalanceCacheSchema.field(rs.getLong("user_id")),
+                        rs.getLong("balance")))
                 .build();
     }
 
-    /**
-     * 포인트 잔액 Processor
-     * <p>
-     * 포인트 잔액을 Redis 캐시 키-값 쌍으로 변환
-     */
-    @Bean
-    @StepScope
-    public ItemProcessor<PointBalance, Map.Entry<String, Long>> pointBalanceRedisProcessor() {
-        return pointBalance -> Map.entry(
-                String.format("point:balance:%d", pointBalance.getUserId()),
-                pointBalance.getBalance()
-        );
-    }
-
     /**
      * 포인트 잔액 Writer
      * <p>
-     * Redis 캐시에 포인트 잔액 저장
+     * 청크의 필드를 HSETNX 명령으로 RBatch 에 쌓아 한 번에 전송 (왕복은 한 번)
+     * 읽은 잔액은 그 사이 point-service 가 갱신했을 수 있고 write-behind 대기 변화량도 빠져 있으므로,
+     * 캐시에 없는 유저만 채우고 이미 있는 값은 덮어쓰지 않는다. (어긋난 값은 verifyBalanceCacheStep 이 찾아 지움)
      */
     @Bean
     @StepScope
     public ItemWriter<Map.Entry<String, Long>> pointBalanceRedisWriter() {
         return items -> {
-            var balanceMap = redissonClient.getMap("point:balance");
-            Map<String, Long> bulk = new HashMap<>(items.size());
+            RBatch batch = redissonClient.createBatch(BatchOptions.defaults().skipResult());
+            RMapAsync<String, Long> balanceMap = PointBalanceCacheSchema.map(batch);
             for (Map.Entry<String, Long> entry : items) {
-                bulk.put(entry.getKey(), entry.getValue());
+                balanceMap.fastPutIfAbsentAsync(entry.getKey(), entry.getValue());
             }
-            balanceMap.putAll(bulk);
+            batch.execute();
         };
     }
 
     /**
-     * 포인트 트랜잭션 Reader
+     * 유저별 일 집계 Reader
      * <p>
-     * 전일의 포인트 트랜잭션을 조회
-     * 전일 범위를 "LocalDate reportDate"로 고정.
+     * 리포트 날짜 [00:00, 다음날 00:00) 의 포인트 이력을 유형별로 합산해 유저당 한 행으로 읽는다.
+     * 집계는 DB 가 하므로 애플리케이션으로는 유저 수만큼의 행만 넘어오고, fetchSize 단위로 스트리밍한다.
+     * (MySQL 은 datasource url 의 useCursorFetch=true 로 서버 커서 사용)
      * jobParameters['reportDate']가 없으면 기본값: 어제
      */
     @Bean
     @StepScope
-    public JpaPagingItemReader<Point> pointReader(
+    public JdbcCursorItemReader<DailyPointSummary> dailyPointSummaryReader(
             @Value("#{jobParameters['reportDate']}") String reportDateStr
     ) {
-        LocalDate reportDate = (reportDateStr ==  null)
-                ? LocalDate.now().minusDays(1)
-                : LocalDate.parse(reportDateStr);
-
-        LocalDateTime start = reportDate.atStartOfDay();
-        LocalDateTime end = reportDate.plusDays(1).atStartOfDay();
-
-        Map<String, Object> parameters = new HashMap<>();
-        parameters.put("startTime", start);
-        parameters.put("endTime", end);
-
-        return new JpaPagingItemReaderBuilder<Point>()
-                .name("pointReader")
-                .entityManagerFactory(entityManagerFactory)
-                .pageSize(1000)
-                .queryString("SELECT p FROM Point p WHERE p.createdAt BETWEEN :startTime AND :endTime")
-                .parameterValues(parameters)
+        LocalDate reportDate = reportDate(reportDateStr);
+
+        return new JdbcCursorItemReaderBuilder<DailyPointSummary>()
+                .name("dailyPointSummaryReader")
+                .dataSource(dataSource)
+                .sql("""
+                        SELECT user_id,
+                               SUM(CASE WHEN type = 'EARNED' THEN amount ELSE 0 END)   AS earn_amount,
+                               SUM(CASE WHEN type = 'USED' THEN amount ELSE 0 END)     AS use_amount,
+                               SUM(CASE WHEN type = 'CANCELED' THEN amount ELSE 0 END) AS cancel_amount
+                        FROM points
+                        WHERE created_at >= ? AND created_at < ?
+                        GROUP BY user_id
+                        """)
+                .queryArguments(Timestamp.valueOf(reportDate.atStartOfDay()),
+                        Timestamp.valueOf(reportDate.plusDays(1).atStartOfDay()))
+                .fetchSize(1000)
+                .rowMapper((rs, rowNum) -> DailyPointSummary.builder()
+                        .userId(rs.getLong("user_id"))
+                        .earnAmount(rs.getLong("earn_amount"))
+                        .useAmount(rs.getLong("use_amount"))
+                        .cancelAmount(rs.getLong("cancel_amount"))
+                        .build())
                 .build();
     }
 
     /**
-     * 포인트 트랜잭션 Processor
-     * <p>
-     * 포인트 트랜잭션을 사용자별로 집계하여 PointSummary 생성
-     * SRP: Processor는 "변환"만 수행.
+     * 일별 리포트 Writer
      * <p>
-     * 주의: 지금 로직은 '집계'가 아니라 '건별 변환'입니다.
-     * 진짜 사용자별 집계가 필요하면 이 구조만으론 부족(아래 설명 참고).
+     * 청크를 INSERT ... ON DUPLICATE KEY UPDATE 배치 한 번으로 저장 (rewriteBatchedStatements=true 로 multi-row 전송)
+     * uk_daily_point_report(user_id, report_date) 기준으로 합계를 덮어쓰므로 같은 날짜를 다시 돌려도 행이 늘지 않는다.
      */
     @Bean
     @StepScope
-    public ItemProcessor<Point, DailyPointSummary> pointToDailyReportProcessor() {
-        return point -> {
-            long earned = 0L, used = 0L, canceled = 0L;
-
-            switch (point.getType()) {
-                case EARNED -> earned = point.getAmount();
-                case USED -> used = point.getAmount();
-                case CANCELED -> canceled = point.getAmount();
-                default -> {
-                    return null;
-                }
-            }
-            return new DailyPointSummary(point.getUserId(), earned, used, canceled);
-        };
+    public JdbcBatchItemWriter<DailyPointSummary> reportWriter(
+            @Value("#{jobParameters['reportDate']}") String reportDateStr
+    ) {
+        LocalDate reportDate = reportDate(reportDateStr);
+
+        return new JdbcBatchItemWriterBuilder<DailyPointSummary>()
+                .dataSource(dataSource)
+                .sql("""
+                        INSERT INTO daily_point_reports (user_id, report_date, earn_amount, use_amount, cancel_amount,
+                                                         net_amount, created_at, updated_at)
+                        VALUES (:userId, :reportDate, :earnAmount, :useAmount, :cancelAmount, :netAmount, :now, :now)
+                        ON DUPLICATE KEY UPDATE earn_amount   = VALUES(earn_amount),
+                                                use_amount    = VALUES(use_amount),
+                                                cancel_amount = VALUES(cancel_amount),
+                                                net_amount    = VALUES(net_amount),
+                                                updated_at    = VALUES(updated_at)
+                        """)
+                .itemSqlParameterSourceProvider(summary -> new MapSqlParameterSource()
+                        .addValue("userId", summary.getUserId())
+                        .addValue("reportDate", reportDate)
+                        .addValue("earnAmount", summary.getEarnAmount())
+                        .addValue("useAmount", summary.getUseAmount())
+                        .addValue("cancelAmount", summary.getCancelAmount())
+                        .addValue("netAmount", summary.getEarnAmount() - summary.getUseAmount() + summary.getCancelAmount())
+                        .addValue("now", Timestamp.valueOf(LocalDateTime.now())))
+                .assertUpdates(false)
+                .build();
     }
 
     /**
-     * 일별 리포트 Writer
-     * <p>
-     * 집계된 포인트 트랜잭션을 일별 리포트로 변환하여 DB에 저장
+     * reportDate 파라미터(yyyy-MM-dd, 날짜-시간 문자열이면 날짜 부분) - 없으면 어제
      */
-    @Bean
-    @StepScope
-    public ItemWriter<DailyPointSummary> reportWriter(EntityManager em) {
-        return summaries -> {
-            List<DailyPointReport> reports = new ArrayList<>();
-            for (DailyPointSummary summary : summaries) {
-                DailyPointReport report = DailyPointReport.builder()
-                        .userId(summary.getUserId())
-                        .reportDate(now().minusDays(1))  // 전일 데이터
-                        .earnAmount(summary.getEarnAmount())
-                        .useAmount(summary.getUseAmount())
-                        .cancelAmount(summary.getCancelAmount())
-                        .build();
-                reports.add(report);
-            }
-
-            dailyPointReportRepository.saveAll(reports);
-            dailyPointReportRepository.flush(); // JpaRepository면 가능
-            em.clear();
-        };
+    static LocalDate reportDate(String reportDateStr) {
+        if (reportDateStr == null) {
+            return LocalDate.now().minusDays(1);
+        }
+        return LocalDate.parse(reportDateStr.length() > 10 ? reportDateStr.substring(0, 10) : reportDateStr);
     }
 
 }
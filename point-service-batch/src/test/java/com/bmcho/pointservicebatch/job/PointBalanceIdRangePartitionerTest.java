@@ -0,0 +1,81 @@
+package com.bmcho.pointservicebatch.job;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PointBalanceIdRangePartitionerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private PointBalanceIdRangePartitioner partitioner;
+
+    @Test
+    @DisplayName("id 구간을 겹치지 않고 빠짐없이 나눔")
+    void partitionCoversWholeRange() {
+        // given
+        givenIdRange(1L, 100L);
+
+        // when
+        Map<String, ExecutionContext> partitions = partitioner.partition(8);
+
+        // then
+        List<ExecutionContext> contexts = List.copyOf(partitions.values());
+        assertThat(contexts).hasSize(8);
+        assertThat(contexts.get(0).getLong(PointBalanceIdRangePartitioner.MIN_ID)).isEqualTo(1L);
+        assertThat(contexts.get(contexts.size() - 1).getLong(PointBalanceIdRangePartitioner.MAX_ID)).isEqualTo(100L);
+        for (int i = 1; i < contexts.size(); i++) {
+            assertThat(contexts.get(i).getLong(PointBalanceIdRangePartitioner.MIN_ID))
+                    .isEqualTo(contexts.get(i - 1).getLong(PointBalanceIdRangePartitioner.MAX_ID) + 1);
+        }
+    }
+
+    @Test
+    @DisplayName("행 수가 파티션 수보다 적으면 행 수만큼만 나눔")
+    void partitionSmallTable() {
+        // given
+        givenIdRange(5L, 7L);
+
+        // when
+        Map<String, ExecutionContext> partitions = partitioner.partition(8);
+
+        // then
+        assertThat(partitions).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("테이블이 비어 있으면 파티션 없음")
+    void partitionEmptyTable() {
+        // given
+        givenIdRange(null, null);
+
+        // when
+        Map<String, ExecutionContext> partitions = partitioner.partition(8);
+
+        // then
+        assertThat(partitions).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenIdRange(Long minId, Long maxId) {
+        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class)))
+                .thenReturn(new Long[]{minId, maxId});
+    }
+}
@@ -1,5 +1,7 @@
 package com.bmcho.pointservicebatch.job;
 
+import com.bmcho.pointcache.PointBalanceCacheSchema;
+import com.bmcho.pointservicebatch.domain.DailyPointReport;
 import com.bmcho.pointservicebatch.domain.Point;
 import com.bmcho.pointservicebatch.domain.PointBalance;
 import com.bmcho.pointservicebatch.domain.PointType;
@@ -10,25 +12,35 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.redisson.api.RMap;
+import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.StringCodec;
 import org.springframework.batch.core.*;
 import org.springframework.batch.test.JobLauncherTestUtils;
 import org.springframework.batch.test.context.SpringBatchTest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.TestPropertySources;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 @SpringBatchTest
@@ -51,6 +63,9 @@ class pointBalanceSyncJobConfigTest {
     @Autowired
     private DailyPointReportRepository dailyPointReportRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @MockitoBean
     private RedissonClient redissonClient;
 
@@ -60,7 +75,7 @@ class pointBalanceSyncJobConfigTest {
     @BeforeEach
     void setUp() {
         // Redis mock 설정
-        when(redissonClient.<String, Long>getMap(anyString())).thenReturn(balanceMap);
+        when(redissonClient.<String, Long>getMap(anyString(), any(Codec.class))).thenReturn(balanceMap);
 
         // 테스트 데이터 초기화
         dailyPointReportRepository.deleteAll();
@@ -141,6 +156,160 @@ class pointBalanceSyncJobConfigTest {
         assertThat(stepExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
     }
 
+    @Test
+    @DisplayName("일별 리포트는 유저당 한 행으로 집계되고 재실행해도 행이 늘지 않음")
+    void generateDailyReportAggregatesPerUser() throws Exception {
+        // given
+        LocalDate reportDate = LocalDate.now().minusDays(1);
+        LocalDateTime createdAt = reportDate.atTime(10, 0);
+        jdbcTemplate.update("DELETE FROM points");
+        insertPoint(1L, 1000L, PointType.EARNED, createdAt);
+        insertPoint(1L, 300L, PointType.USED, createdAt.plusHours(1));
+        insertPoint(1L, 100L, PointType.CANCELED, createdAt.plusHours(2));
+        insertPoint(2L, 500L, PointType.EARNED, createdAt);
+        // 다음날 00:00 이력은 포함하지 않음
+        insertPoint(2L, 700L, PointType.EARNED, reportDate.plusDays(1).atStartOfDay());
+
+        // when
+        for (long run = 1; run <= 2; run++) {
+            JobExecution jobExecution = jobLauncherTestUtils.launchStep("generateDailyReportStep",
+                    new JobParametersBuilder()
+                            .addString("reportDate", reportDate.toString())
+                            .addLong("run", run)
+                            .toJobParameters());
+            assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        }
+
+        // then
+        List<DailyPointReport> reports = dailyPointReportRepository.findByReportDate(reportDate);
+        assertThat(reports).hasSize(2);
+        DailyPointReport user1 = reports.stream().filter(r -> r.getUserId() == 1L).findFirst().orElseThrow();
+        assertThat(user1.getEarnAmount()).isEqualTo(1000L);
+        assertThat(user1.getUseAmount()).isEqualTo(300L);
+        assertThat(user1.getCancelAmount()).isEqualTo(100L);
+        assertThat(user1.getNetAmount()).isEqualTo(800L);
+        DailyPointReport user2 = reports.stream().filter(r -> r.getUserId() == 2L).findFirst().orElseThrow();
+        assertThat(user2.getEarnAmount()).isEqualTo(500L);
+
+        jdbcTemplate.update("DELETE FROM points");
+    }
+
+    @Test
+    @DisplayName("실시간 집계 리포트가 points 합계와 다르면 REBUILD, 같으면 COMPLETED 로 끝남")
+    void verifyDailyReportStepTest() throws Exception {
+        // given
+        LocalDate reportDate = LocalDate.now().minusDays(1);
+        jdbcTemplate.update("DELETE FROM points");
+        insertPoint(1L, 1000L, PointType.EARNED, reportDate.atTime(10, 0));
+
+        // when - 실시간 집계가 반영되지 않은 상태
+        JobExecution mismatched = jobLauncherTestUtils.launchStep("verifyDailyReportStep",
+                new JobParametersBuilder()
+                        .addString("reportDate", reportDate.toString())
+                        .addLong("run", 1L)
+                        .toJobParameters());
+        jobLauncherTestUtils.launchStep("generateDailyReportStep",
+                new JobParametersBuilder()
+                        .addString("reportDate", reportDate.toString())
+                        .addLong("run", 2L)
+                        .toJobParameters());
+        JobExecution verified = jobLauncherTestUtils.launchStep("verifyDailyReportStep",
+                new JobParametersBuilder()
+                        .addString("reportDate", reportDate.toString())
+                        .addLong("run", 3L)
+                        .toJobParameters());
+
+        // then
+        assertThat(mismatched.getExitStatus().getExitCode()).isEqualTo(DailyReportVerificationTasklet.REBUILD);
+        assertThat(verified.getExitStatus().getExitCode()).isEqualTo(ExitStatus.COMPLETED.getExitCode());
+
+        jdbcTemplate.update("DELETE FROM points");
+    }
+
+    @Test
+    @DisplayName("잔액이 마지막 이력 잔액과 다르면 보고만 하고 잔액은 고치지 않음, 최근 이력이 있는 유저는 검사하지 않음")
+    void reconcilePointBalanceStepTest() throws Exception {
+        // given
+        jdbcTemplate.update("DELETE FROM points");
+        jdbcTemplate.update("DELETE FROM point_balances");
+        LocalDateTime old = LocalDateTime.now().minusHours(1);
+        // 유저 1 - 반영 유실로 잔액이 300 모자람
+        insertBalance(1L, 700L);
+        insertPoint(1L, 1000L, PointType.EARNED, 1000L, old);
+        // 유저 2 - 일치
+        insertBalance(2L, 500L);
+        insertPoint(2L, 500L, PointType.EARNED, 500L, old);
+        // 유저 3 - 방금 적립되어 아직 반영 대기 중일 수 있음
+        insertBalance(3L, 0L);
+        insertPoint(3L, 100L, PointType.EARNED, 100L, LocalDateTime.now());
+
+        // when
+        JobExecution jobExecution = jobLauncherTestUtils.launchStep("reconcilePointBalanceStep");
+
+        // then
+        StepExecution stepExecution = jobExecution.getStepExecutions().iterator().next();
+        assertThat(stepExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(stepExecution.getExecutionContext().getLong("checked")).isEqualTo(2L);
+        assertThat(stepExecution.getExecutionContext().getLong("mismatchCount")).isEqualTo(1L);
+        assertThat(balanceOf(1L)).isEqualTo(700L);
+        assertThat(balanceOf(2L)).isEqualTo(500L);
+        assertThat(balanceOf(3L)).isZero();
+
+        jdbcTemplate.update("DELETE FROM points");
+        jdbcTemplate.update("DELETE FROM point_balances");
+    }
+
+    @Test
+    @DisplayName("캐시 잔액이 DB 잔액 + 대기 변화량과 다르면 CACHE_MISMATCH 로 끝나고 해당 필드를 지움")
+    @SuppressWarnings("unchecked")
+    void verifyBalanceCacheStepTest() throws Exception {
+        // given
+        jdbcTemplate.update("DELETE FROM point_balances");
+        insertBalance(1L, 1000L);
+        insertBalance(2L, 500L);
+        RMap<String, Long> pendingMap = mock(RMap.class);
+        RScript script = mock(RScript.class);
+        when(redissonClient.<String, Long>getMap(eq(PointBalanceCacheSchema.PENDING_MAP_NAME), any(Codec.class)))
+                .thenReturn(pendingMap);
+        // 유저 1 - 캐시가 100 모자람, 유저 2 - 대기 변화량 100 을 더하면 일치
+        when(balanceMap.getAll(any())).thenReturn(Map.of("1", 900L, "2", 600L));
+        when(pendingMap.getAll(any())).thenReturn(Map.of("2", 100L));
+        when(redissonClient.getScript(StringCodec.INSTANCE)).thenReturn(script);
+        when(script.<Long>eval(eq(RScript.Mode.READ_WRITE), anyString(), eq(RScript.ReturnType.INTEGER), anyList(),
+                eq("1"), eq("900"))).thenReturn(1L);
+
+        // when
+        JobExecution jobExecution = jobLauncherTestUtils.launchStep("verifyBalanceCacheStep");
+
+        // then
+        StepExecution stepExecution = jobExecution.getStepExecutions().iterator().next();
+        assertThat(stepExecution.getExitStatus().getExitCode()).isEqualTo(BalanceCacheVerificationTasklet.CACHE_MISMATCH);
+        assertThat(stepExecution.getExecutionContext().getLong("mismatchCount")).isEqualTo(1L);
+        assertThat(stepExecution.getExecutionContext().getLong("evictedCount")).isEqualTo(1L);
+
+        jdbcTemplate.update("DELETE FROM point_balances");
+    }
+
+    private void insertBalance(Long userId, Long balance) {
+        jdbcTemplate.update("INSERT INTO point_balances (user_id, balance) VALUES (?, ?)", userId, balance);
+    }
+
+    private Long balanceOf(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM point_balances WHERE user_id = ?", Long.class, userId);
+    }
+
+    private void insertPoint(Long userId, Long amount, PointType type, LocalDateTime createdAt) {
+        insertPoint(userId, amount, type, 0L, createdAt);
+    }
+
+    private void insertPoint(Long userId, Long amount, PointType type, Long balanceSnapshot, LocalDateTime createdAt) {
+        jdbcTemplate.update("""
+                        INSERT INTO points (user_id, amount, type, description, balance_snapshot, created_at, updated_at)
+                        VALUES (?, ?, ?, 'test', ?, ?, ?)
+                        """,
+                userId, amount, type.name(), balanceSnapshot, Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt));
+    }
+
     private void createTestData() {
         // 테스트 데이터 설정
         LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
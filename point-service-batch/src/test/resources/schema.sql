@@ -18,6 +18,7 @@ CREATE TABLE point_balances (
                                 id BIGINT AUTO_INCREMENT,
                                 user_id BIGINT NOT NULL,
                                 balance BIGINT NOT NULL DEFAULT 0,
+                                version BIGINT NOT NULL DEFAULT 0,
                                 created_at TIMESTAMP,
                                 updated_at TIMESTAMP,
                                 PRIMARY KEY (id),
@@ -0,0 +1,24 @@
+package com.bmcho.pointservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class PointBulkConfig {
+
+    /**
+     * 대량 적립 파티션 처리용 스레드 풀 - 파티션 하나를 스레드 하나가 순서대로 처리
+     */
+    @Bean
+    public ThreadPoolTaskExecutor pointBulkExecutor(@Value("${point.bulk.parallelism:4}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix("point-bulk-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -2,6 +2,7 @@ package com.bmcho.pointservice.config;
 
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -10,7 +11,12 @@ public class RedisConfig {
 
     @Bean
     public RedissonClient redissonClient() {
-        return Redisson.create(); //기본값 localhost, 6379
+        Config config = new Config();
+        config.useSingleServer()
+                .setAddress("redis://127.0.0.1:6379");
+        // 스크립트를 EVALSHA 로 실행하고 NOSCRIPT 면 다시 로드 (RScript.eval 포함)
+        config.setUseScriptCache(true);
+        return Redisson.create(config);
     }
 
 }
@@ -1,5 +1,6 @@
 package com.bmcho.pointservice.config;
 
+import com.bmcho.pointservice.config.interceptor.AdminTokenInterceptor;
 import com.bmcho.pointservice.config.interceptor.UserIdInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
@@ -11,10 +12,14 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebMvcConfig implements WebMvcConfigurer {
 
     private final UserIdInterceptor userIdInterceptor;
+    private final AdminTokenInterceptor adminTokenInterceptor;
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(userIdInterceptor)
-                .addPathPatterns("/api/**/coupons/**");
+                .addPathPatterns("/api/**/points/**")
+                .excludePathPatterns("/api/**/points/users/**");
+        registry.addInterceptor(adminTokenInterceptor)
+                .addPathPatterns("/internal/**");
     }
-}
\ No newline at end of file
+}
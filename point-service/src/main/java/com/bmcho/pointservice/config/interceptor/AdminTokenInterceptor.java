@@ -0,0 +1,41 @@
+package com.bmcho.pointservice.config.interceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * 운영자 전용 API(/internal/**) 인증
+ * - 게이트웨이를 거치지 않는 내부 경로이며, X-ADMIN-TOKEN 헤더가 point.admin.token 과 같을 때만 통과시킨다.
+ * - 토큰이 없거나 다르면 403 으로 응답한다.
+ */
+@Component
+public class AdminTokenInterceptor implements HandlerInterceptor {
+    private static final String ADMIN_TOKEN_HEADER = "X-ADMIN-TOKEN";
+
+    private final byte[] adminToken;
+
+    public AdminTokenInterceptor(@Value("${point.admin.token}") String adminToken) {
+        if (adminToken == null || adminToken.isBlank()) {
+            throw new IllegalArgumentException("point.admin.token must not be blank");
+        }
+        this.adminToken = adminToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String token = request.getHeader(ADMIN_TOKEN_HEADER);
+        // 비교 시간으로 토큰을 추측할 수 없도록 고정 시간 비교
+        if (token != null && MessageDigest.isEqual(adminToken, token.getBytes(StandardCharsets.UTF_8))) {
+            return true;
+        }
+        response.setStatus(HttpStatus.FORBIDDEN.value());
+        return false;
+    }
+}
@@ -0,0 +1,52 @@
+package com.bmcho.pointservice.controller.v2;
+
+import com.bmcho.pointservice.dto.PointDto;
+import com.bmcho.pointservice.service.v2.PointBulkEarnService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 캠페인 대량 적립 - 운영자 전용 (AdminTokenInterceptor 로 X-ADMIN-TOKEN 검증)
+ */
+@RestController
+@RequestMapping("/internal/v2/points/bulk-earn")
+@RequiredArgsConstructor
+public class PointBulkEarnController {
+
+    private final PointBulkEarnService pointBulkEarnService;
+
+    /**
+     * 대량 적립 - CSV 파일 업로드 (userId,amount,description)
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<PointDto.BulkEarnReport> bulkEarnFile(@RequestPart("file") MultipartFile file) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(pointBulkEarnService.submit(input));
+        }
+    }
+
+    /**
+     * 대량 적립 - CSV 본문 스트리밍 (파일 크기 제한 없이 읽으면서 적재)
+     */
+    @PostMapping(consumes = "text/csv")
+    public ResponseEntity<PointDto.BulkEarnReport> bulkEarnStream(InputStream body) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(pointBulkEarnService.submit(body));
+    }
+
+    @GetMapping("/{batchId}")
+    public ResponseEntity<PointDto.BulkEarnReport> getBulkEarnReport(@PathVariable Long batchId) {
+        return ResponseEntity.ok(pointBulkEarnService.getReport(batchId));
+    }
+
+    @PostMapping("/{batchId}/resume")
+    public ResponseEntity<PointDto.BulkEarnReport> resumeBulkEarn(@PathVariable Long batchId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(pointBulkEarnService.resume(batchId));
+    }
+}
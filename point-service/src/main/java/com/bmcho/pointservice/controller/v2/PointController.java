@@ -6,19 +6,19 @@ import com.bmcho.pointservice.dto.PointDto;
 import com.bmcho.pointservice.service.v2.PointRedisService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+
 @RestController("PointControllerV2")
 @RequestMapping("/api/v2/points")
 @RequiredArgsConstructor
 public class PointController {
     
     private final PointRedisService pointRedisService;
-    private final com.bmcho.pointservice.controller.v1.PointController pointControllerV1;
 
     
     @PostMapping("/earn")
@@ -52,10 +52,11 @@ public class PointController {
     }
 
     @GetMapping("/users/{userId}/history")
-    public ResponseEntity<Page<PointDto.Response>> getPointHistory(
+    public ResponseEntity<PointDto.HistoryPage> getPointHistory(
             @PathVariable Long userId,
-            Pageable pageable) {
-        // v1 컨트롤러로 위임
-        return pointControllerV1.getPointHistory(userId, pageable);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorCreatedAt,
+            @RequestParam(required = false) Long cursorId,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(pointRedisService.getPointHistory(userId, cursorCreatedAt, cursorId, size));
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.bmcho.pointservice.controller.v3;
+
+import com.bmcho.pointservice.config.interceptor.UserIdInterceptor;
+import com.bmcho.pointservice.dto.PointDto;
+import com.bmcho.pointservice.service.v3.PointService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController("PointControllerV3")
+@RequestMapping("/api/v3/points")
+@RequiredArgsConstructor
+public class PointController {
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private final PointService pointService;
+
+    @PostMapping("/earn")
+    public ResponseEntity<PointDto.LedgerResponse> earnPoints(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody PointDto.EarnRequest request) {
+        Long userId = UserIdInterceptor.getCurrentUserId();
+        PointDto.LedgerResponse response = pointService.earnPoints(userId, request.getAmount(),
+                request.getDescription(), idempotencyKey);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @PostMapping("/use")
+    public ResponseEntity<PointDto.LedgerResponse> usePoints(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody PointDto.UseRequest request) {
+        Long userId = UserIdInterceptor.getCurrentUserId();
+        PointDto.LedgerResponse response = pointService.usePoints(userId, request.getAmount(),
+                request.getDescription(), idempotencyKey);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping("/users/{userId}/balance")
+    public ResponseEntity<PointDto.BalanceResponse> getBalance(@PathVariable Long userId) {
+        Long balance = pointService.getBalance(userId);
+        return ResponseEntity.ok(PointDto.BalanceResponse.of(userId, balance));
+    }
+}
@@ -12,7 +12,12 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "points")
+@Table(name = "points", indexes = {
+        // 유저별 이력 keyset 페이징 (user_id = ? AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC)
+        @Index(name = "idx_points_user_created_id", columnList = "user_id, created_at, id"),
+        // 배치의 일별 합계 검증 (created_at >= ? AND created_at < ?)
+        @Index(name = "idx_points_created_at", columnList = "created_at")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @EntityListeners(AuditingEntityListener.class)
@@ -38,6 +43,10 @@ public class Point {
     @Column(nullable = false)
     private Long balanceSnapshot;
 
+    // v3 원장 스트림 ID - 배치 반영 시 중복 저장 방지 (v1/v2 는 null)
+    @Column(unique = true, length = 32)
+    private String ledgerId;
+
     @Version
     private Long version;
 
@@ -0,0 +1,68 @@
+package com.bmcho.pointservice.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * 대량 포인트 적립 배치
+ * - 업로드된 (userId, amount, description) 은 point_bulk_items 에 파티션별로 적재되고
+ * - 파티션별 진행 상황은 point_bulk_partitions 에 기록된다.
+ */
+@Entity
+@Table(name = "point_bulk_batches")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@EntityListeners(AuditingEntityListener.class)
+public class PointBulkBatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PointBulkStatus status;
+
+    @Column(nullable = false)
+    private Integer partitions;
+
+    @Column(nullable = false)
+    private Long totalCount;
+
+    @Column(nullable = false)
+    private Long rejectedCount;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public static PointBulkBatch receive(int partitions) {
+        PointBulkBatch batch = new PointBulkBatch();
+        batch.status = PointBulkStatus.RECEIVING;
+        batch.partitions = partitions;
+        batch.totalCount = 0L;
+        batch.rejectedCount = 0L;
+        return batch;
+    }
+
+    public void ready(long totalCount, long rejectedCount) {
+        this.status = PointBulkStatus.READY;
+        this.totalCount = totalCount;
+        this.rejectedCount = rejectedCount;
+    }
+
+    public void changeStatus(PointBulkStatus status) {
+        this.status = status;
+    }
+}
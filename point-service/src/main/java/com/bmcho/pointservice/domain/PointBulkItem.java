@@ -0,0 +1,43 @@
+package com.bmcho.pointservice.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 대량 적립 대상 한 건 (적재용 테이블)
+ * - 같은 유저는 항상 같은 파티션에 들어가므로 파티션끼리 같은 잔액 행을 두고 경합하지 않는다.
+ * - seq 는 파티션 안에서의 순번이며 처리 커서로 사용한다.
+ * - 적재/조회는 PointBulkJdbcRepository 가 JDBC 로 수행하고, 엔티티는 스키마 정의용이다.
+ */
+@Entity
+@Table(name = "point_bulk_items", indexes = {
+        @Index(name = "uk_point_bulk_items_partition_seq", columnList = "batch_id, partition_no, seq", unique = true)
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class PointBulkItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long batchId;
+
+    @Column(nullable = false)
+    private Integer partitionNo;
+
+    @Column(nullable = false)
+    private Long seq;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long amount;
+
+    @Column(nullable = false)
+    private String description;
+}
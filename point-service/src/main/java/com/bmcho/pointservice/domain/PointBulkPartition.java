@@ -0,0 +1,52 @@
+package com.bmcho.pointservice.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 대량 적립 파티션별 진행 상황
+ * - lastSeq 는 청크 반영과 같은 트랜잭션에서 갱신되므로, 중단 후 재개 시 lastSeq 다음부터 처리하면 중복/누락이 없다.
+ */
+@Entity
+@Table(name = "point_bulk_partitions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_point_bulk_partitions", columnNames = {"batch_id", "partition_no"})
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class PointBulkPartition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long batchId;
+
+    @Column(nullable = false)
+    private Integer partitionNo;
+
+    @Column(nullable = false)
+    private Long totalCount;
+
+    @Column(nullable = false)
+    private Long processedCount;
+
+    @Column(nullable = false)
+    private Long lastSeq;
+
+    @Builder
+    public PointBulkPartition(Long batchId, Integer partitionNo, Long totalCount) {
+        this.batchId = batchId;
+        this.partitionNo = partitionNo;
+        this.totalCount = totalCount;
+        this.processedCount = 0L;
+        this.lastSeq = 0L;
+    }
+
+    public boolean isDone() {
+        return processedCount >= totalCount;
+    }
+}
@@ -0,0 +1,9 @@
+package com.bmcho.pointservice.domain;
+
+public enum PointBulkStatus {
+    RECEIVING,   // 업로드 파일 적재 중
+    READY,       // 적재 완료, 처리 대기
+    RUNNING,     // 처리 중
+    COMPLETED,   // 모든 파티션 처리 완료
+    FAILED       // 처리 중 실패 - resume 으로 이어서 처리
+}
@@ -0,0 +1,29 @@
+package com.bmcho.pointservice.domain;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+/**
+ * 원장 스트림(point:ledger) 한 건
+ * - ledgerId 는 Redis Stream ID 이며 points.ledger_id 에 그대로 저장되어 중복 반영을 막는다.
+ *
+ * @param balance 반영 후 잔액 (스트림 기록 시점의 절대값)
+ */
+public record PointLedgerEntry(String ledgerId, Long userId, PointType type, Long amount,
+                               String description, Long balance, LocalDateTime createdAt) {
+
+    public static PointLedgerEntry of(String ledgerId, Map<String, String> fields) {
+        return new PointLedgerEntry(
+                ledgerId,
+                Long.parseLong(fields.get("userId")),
+                PointType.valueOf(fields.get("type")),
+                Long.parseLong(fields.get("amount")),
+                fields.get("description"),
+                Long.parseLong(fields.get("balance")),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(fields.get("createdAt"))),
+                        ZoneId.systemDefault())
+        );
+    }
+}
@@ -1,14 +1,19 @@
 package com.bmcho.pointservice.dto;
 
 import com.bmcho.pointservice.domain.Point;
+import com.bmcho.pointservice.domain.PointBulkBatch;
+import com.bmcho.pointservice.domain.PointBulkPartition;
+import com.bmcho.pointservice.domain.PointBulkStatus;
 import com.bmcho.pointservice.domain.PointType;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class PointDto {
 
@@ -83,4 +88,96 @@ public class PointDto {
                     .build();
         }
     }
+
+    @Getter
+    @Builder
+    public static class LedgerResponse {
+        private String ledgerId;
+        private Long userId;
+        private Long amount;
+        private PointType type;
+        private Long balance;
+        private boolean replayed;
+    }
+
+    /**
+     * 이력 조회용 프로젝션 - 엔티티/잔액 조인 없이 필요한 컬럼만 조회
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class HistoryResponse {
+        private Long id;
+        private Long amount;
+        private PointType type;
+        private String description;
+        private Long balanceSnapshot;
+        private LocalDateTime createdAt;
+    }
+
+    /**
+     * keyset 페이지 - 다음 페이지는 nextCursorCreatedAt, nextCursorId 로 요청 (count 조회 없음)
+     */
+    @Getter
+    @Builder
+    public static class HistoryPage {
+        private List<HistoryResponse> items;
+        private boolean hasNext;
+        private LocalDateTime nextCursorCreatedAt;
+        private Long nextCursorId;
+
+        public static HistoryPage of(List<HistoryResponse> rows, int size) {
+            boolean hasNext = rows.size() > size;
+            List<HistoryResponse> items = hasNext ? rows.subList(0, size) : rows;
+            HistoryResponse last = hasNext ? items.get(items.size() - 1) : null;
+            return HistoryPage.builder()
+                    .items(items)
+                    .hasNext(hasNext)
+                    .nextCursorCreatedAt(last == null ? null : last.getCreatedAt())
+                    .nextCursorId(last == null ? null : last.getId())
+                    .build();
+        }
+    }
+
+    /**
+     * 대량 적립 배치 처리 결과 - processedCount 가 totalCount 에 도달하면 완료
+     */
+    @Getter
+    @Builder
+    public static class BulkEarnReport {
+        private Long batchId;
+        private PointBulkStatus status;
+        private Long totalCount;
+        private Long rejectedCount;
+        private Long processedCount;
+        private List<BulkPartitionReport> partitions;
+
+        public static BulkEarnReport of(PointBulkBatch batch, List<PointBulkPartition> partitions) {
+            return BulkEarnReport.builder()
+                    .batchId(batch.getId())
+                    .status(batch.getStatus())
+                    .totalCount(batch.getTotalCount())
+                    .rejectedCount(batch.getRejectedCount())
+                    .processedCount(partitions.stream().mapToLong(PointBulkPartition::getProcessedCount).sum())
+                    .partitions(partitions.stream().map(BulkPartitionReport::from).toList())
+                    .build();
+        }
+    }
+
+    @Getter
+    @Builder
+    public static class BulkPartitionReport {
+        private Integer partitionNo;
+        private Long totalCount;
+        private Long processedCount;
+        private Long lastSeq;
+
+        public static BulkPartitionReport from(PointBulkPartition partition) {
+            return BulkPartitionReport.builder()
+                    .partitionNo(partition.getPartitionNo())
+                    .totalCount(partition.getTotalCount())
+                    .processedCount(partition.getProcessedCount())
+                    .lastSeq(partition.getLastSeq())
+                    .build();
+        }
+    }
 }
@@ -0,0 +1,7 @@
+package com.bmcho.pointservice.repository;
+
+import com.bmcho.pointservice.domain.PointBulkBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PointBulkBatchRepository extends JpaRepository<PointBulkBatch, Long> {
+}
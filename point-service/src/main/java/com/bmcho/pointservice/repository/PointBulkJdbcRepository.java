@@ -0,0 +1,149 @@
+package com.bmcho.pointservice.repository;
+
+import com.bmcho.pointservice.exception.PointBasicException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 대량 포인트 적립 JDBC 처리
+ * - batchUpdate 는 rewriteBatchedStatements=true 설정으로 multi-row INSERT 한 번으로 전송된다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PointBulkJdbcRepository {
+
+    private static final String INSERT_ITEM = """
+            INSERT INTO point_bulk_items (batch_id, partition_no, seq, user_id, amount, description)
+            VALUES (:batchId, :partitionNo, :seq, :userId, :amount, :description)
+            """;
+
+    private static final String SELECT_ITEMS = """
+            SELECT seq, user_id, amount, description
+            FROM point_bulk_items
+            WHERE batch_id = :batchId AND partition_no = :partitionNo AND seq > :afterSeq
+            ORDER BY seq
+            LIMIT :limit
+            """;
+
+    private static final String UPSERT_BALANCE = """
+            INSERT INTO point_balances (user_id, balance, version, created_at, updated_at)
+            VALUES (:userId, :amount, 0, :now, :now)
+            ON DUPLICATE KEY UPDATE balance = balance + VALUES(balance), version = version + 1, updated_at = VALUES(updated_at)
+            """;
+
+    private static final String SELECT_BALANCES = """
+            SELECT id, user_id, balance FROM point_balances WHERE user_id IN (:userIds)
+            """;
+
+    private static final String INSERT_POINT = """
+            INSERT INTO points (user_id, amount, type, description, balance_snapshot, point_balance_id,
+                                version, created_at, updated_at)
+            VALUES (:userId, :amount, 'EARNED', :description, :balanceSnapshot, :pointBalanceId, 0, :now, :now)
+            """;
+
+    private static final String ADVANCE_PARTITION = """
+            UPDATE point_bulk_partitions
+            SET last_seq = :lastSeq, processed_count = processed_count + :count
+            WHERE batch_id = :batchId AND partition_no = :partitionNo AND last_seq = :afterSeq
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void insertItems(Long batchId, List<ItemRow> rows) {
+        MapSqlParameterSource[] params = rows.stream()
+                .map(row -> new MapSqlParameterSource()
+                        .addValue("batchId", batchId)
+                        .addValue("partitionNo", row.partitionNo())
+                        .addValue("seq", row.seq())
+                        .addValue("userId", row.userId())
+                        .addValue("amount", row.amount())
+                        .addValue("description", row.description()))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_ITEM, params);
+    }
+
+    public List<ItemRow> findItems(Long batchId, int partitionNo, long afterSeq, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("batchId", batchId)
+                .addValue("partitionNo", partitionNo)
+                .addValue("afterSeq", afterSeq)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(SELECT_ITEMS, params, (rs, rowNum) -> new ItemRow(
+                partitionNo,
+                rs.getLong("seq"),
+                rs.getLong("user_id"),
+                rs.getLong("amount"),
+                rs.getString("description")));
+    }
+
+    /**
+     * 청크 하나를 한 트랜잭션으로 반영한다.
+     * 1. 파티션 커서 전진 - 이미 다른 작업자가 반영한 청크면 예외로 롤백
+     * 2. 유저별 합계로 point_balances upsert (user_id 순서로 잠가 교착 방지)
+     * 3. 반영 후 잔액으로 건별 balance_snapshot 계산 후 points 일괄 저장
+     *
+     * @return 유저별 청크 적립 합계 (캐시 증분 반영용)
+     */
+    @Transactional
+    public Map<Long, Long> applyChunk(Long batchId, int partitionNo, long afterSeq, List<ItemRow> items) {
+        // 파티션 행을 먼저 잠가 같은 청크를 두 작업자가 동시에 반영하지 못하게 함
+        int advanced = jdbcTemplate.update(ADVANCE_PARTITION, new MapSqlParameterSource()
+                .addValue("lastSeq", items.get(items.size() - 1).seq())
+                .addValue("count", items.size())
+                .addValue("batchId", batchId)
+                .addValue("partitionNo", partitionNo)
+                .addValue("afterSeq", afterSeq));
+        if (advanced == 0) {
+            throw new PointBasicException("Bulk partition already advanced - batchId: %d, partition: %d, afterSeq: %d"
+                    .formatted(batchId, partitionNo, afterSeq));
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<Long, Long> totals = new TreeMap<>();
+        items.forEach(item -> totals.merge(item.userId(), item.amount(), Long::sum));
+
+        MapSqlParameterSource[] balanceParams = totals.entrySet().stream()
+                .map(e -> new MapSqlParameterSource()
+                        .addValue("userId", e.getKey())
+                        .addValue("amount", e.getValue())
+                        .addValue("now", now))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPSERT_BALANCE, balanceParams);
+
+        Map<Long, Long> balanceIds = new HashMap<>();
+        Map<Long, Long> balances = new HashMap<>();
+        jdbcTemplate.query(SELECT_BALANCES, Map.of("userIds", totals.keySet()), rs -> {
+            balanceIds.put(rs.getLong("user_id"), rs.getLong("id"));
+            balances.put(rs.getLong("user_id"), rs.getLong("balance"));
+        });
+
+        // 청크 반영 전 잔액에서 시작해 건별로 누적한 값이 스냅샷
+        Map<Long, Long> running = new HashMap<>();
+        totals.forEach((userId, total) -> running.put(userId, balances.get(userId) - total));
+        MapSqlParameterSource[] pointParams = items.stream()
+                .map(item -> new MapSqlParameterSource()
+                        .addValue("userId", item.userId())
+                        .addValue("amount", item.amount())
+                        .addValue("description", item.description())
+                        .addValue("balanceSnapshot", running.merge(item.userId(), item.amount(), Long::sum))
+                        .addValue("pointBalanceId", balanceIds.get(item.userId()))
+                        .addValue("now", now))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_POINT, pointParams);
+
+        return totals;
+    }
+
+    public record ItemRow(int partitionNo, long seq, Long userId, Long amount, String description) {
+    }
+}
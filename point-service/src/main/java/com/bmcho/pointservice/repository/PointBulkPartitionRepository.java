@@ -0,0 +1,11 @@
+package com.bmcho.pointservice.repository;
+
+import com.bmcho.pointservice.domain.PointBulkPartition;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface PointBulkPartitionRepository extends JpaRepository<PointBulkPartition, Long> {
+
+    List<PointBulkPartition> findByBatchIdOrderByPartitionNo(Long batchId);
+}
@@ -0,0 +1,109 @@
+package com.bmcho.pointservice.repository;
+
+import com.bmcho.pointservice.domain.PointLedgerEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * v3 원장 스트림을 DB 에 일괄 반영한다.
+ * 엔티티 단위 save 대신 JDBC batch 로 한 트랜잭션에 point_balances upsert + points insert 를 수행한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PointLedgerJdbcRepository {
+
+    private static final String SELECT_EXISTING_LEDGER_IDS = """
+            SELECT ledger_id FROM points WHERE ledger_id IN (:ledgerIds)
+            """;
+
+    // 잔액은 스트림에 기록된 절대값이므로 같은 배치를 다시 반영해도 결과가 같다
+    private static final String UPSERT_BALANCE = """
+            INSERT INTO point_balances (user_id, balance, version, created_at, updated_at)
+            VALUES (:userId, :balance, 0, :now, :now)
+            ON DUPLICATE KEY UPDATE balance = VALUES(balance), version = version + 1, updated_at = VALUES(updated_at)
+            """;
+
+    private static final String SELECT_BALANCE_IDS = """
+            SELECT id, user_id FROM point_balances WHERE user_id IN (:userIds)
+            """;
+
+    private static final String INSERT_POINT = """
+            INSERT INTO points (user_id, amount, type, description, balance_snapshot, ledger_id,
+                                point_balance_id, version, created_at, updated_at)
+            VALUES (:userId, :amount, :type, :description, :balance, :ledgerId,
+                    :pointBalanceId, 0, :createdAt, :createdAt)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * 원장 배치 반영
+     *
+     * @param entries 스트림 순서대로 정렬된 원장
+     * @return 실제로 저장된 원장 (이미 반영된 원장은 제외)
+     */
+    @Transactional
+    public List<PointLedgerEntry> persist(List<PointLedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+
+        // 1. ack 전에 장애가 나서 다시 읽힌 원장은 제외
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(SELECT_EXISTING_LEDGER_IDS,
+                Map.of("ledgerIds", entries.stream().map(PointLedgerEntry::ledgerId).toList()), String.class));
+        List<PointLedgerEntry> pending = entries.stream()
+                .filter(entry -> !existing.contains(entry.ledgerId()))
+                .toList();
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+
+        // 2. 유저별 마지막 잔액만 반영 (스트림 순서 = 적용 순서)
+        Map<Long, Long> latestBalances = new LinkedHashMap<>();
+        pending.forEach(entry -> latestBalances.put(entry.userId(), entry.balance()));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        MapSqlParameterSource[] balanceParams = latestBalances.entrySet().stream()
+                .map(e -> new MapSqlParameterSource()
+                        .addValue("userId", e.getKey())
+                        .addValue("balance", e.getValue())
+                        .addValue("now", now))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPSERT_BALANCE, balanceParams);
+
+        // 3. points.point_balance_id 연결
+        Map<Long, Long> balanceIds = jdbcTemplate.query(SELECT_BALANCE_IDS,
+                        Map.of("userIds", latestBalances.keySet()),
+                        (rs, rowNum) -> Map.entry(rs.getLong("user_id"), rs.getLong("id")))
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        // 4. 포인트 이력 일괄 저장
+        MapSqlParameterSource[] pointParams = pending.stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("userId", entry.userId())
+                        .addValue("amount", entry.amount())
+                        .addValue("type", entry.type().name())
+                        .addValue("description", entry.description())
+                        .addValue("balance", entry.balance())
+                        .addValue("ledgerId", entry.ledgerId())
+                        .addValue("pointBalanceId", balanceIds.get(entry.userId()))
+                        .addValue("createdAt", Timestamp.valueOf(entry.createdAt())))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_POINT, pointParams);
+
+        return pending;
+    }
+}
@@ -1,12 +1,15 @@
 package com.bmcho.pointservice.repository;
 
 import com.bmcho.pointservice.domain.Point;
+import com.bmcho.pointservice.dto.PointDto;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface PointRepository extends JpaRepository<Point, Long> {
@@ -18,4 +21,23 @@ public interface PointRepository extends JpaRepository<Point, Long> {
            "WHERE p.userId = :userId " +
            "ORDER BY p.createdAt DESC")
     Page<Point> findByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId, Pageable pageable);
-}
\ No newline at end of file
+
+    // keyset 페이징 - idx_points_user_created_id 를 역순으로 읽고 limit 건에서 멈춤
+    @Query("SELECT new com.bmcho.pointservice.dto.PointDto$HistoryResponse(" +
+           "p.id, p.amount, p.type, p.description, p.balanceSnapshot, p.createdAt) " +
+           "FROM Point p " +
+           "WHERE p.userId = :userId " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PointDto.HistoryResponse> findHistoryFirstPage(@Param("userId") Long userId, Limit limit);
+
+    @Query("SELECT new com.bmcho.pointservice.dto.PointDto$HistoryResponse(" +
+           "p.id, p.amount, p.type, p.description, p.balanceSnapshot, p.createdAt) " +
+           "FROM Point p " +
+           "WHERE p.userId = :userId " +
+           "AND (p.createdAt < :cursorCreatedAt OR (p.createdAt = :cursorCreatedAt AND p.id < :cursorId)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PointDto.HistoryResponse> findHistoryAfter(@Param("userId") Long userId,
+                                                    @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                                    @Param("cursorId") Long cursorId,
+                                                    Limit limit);
+}
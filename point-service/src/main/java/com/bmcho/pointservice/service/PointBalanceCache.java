@@ -0,0 +1,133 @@
+package com.bmcho.pointservice.service;
+
+import com.bmcho.pointcache.PointBalanceCacheSchema;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.redisson.api.LocalCachedMapOptions;
+import org.redisson.api.RLocalCachedMap;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 포인트 잔액 캐시 접근 - 키/코덱은 point-cache-schema 모듈이 정의한 것만 사용
+ * 조회 적중/미스를 point.balance.cache.requests{result=hit|miss} 로 기록해 배치 warm-up 효과를 확인할 수 있게 한다.
+ *
+ * near-cache (point.balance.near-cache.enabled)
+ * - 잔액 조회(get)는 Redisson RLocalCachedMap 의 로컬 사본에서 먼저 찾고, 없을 때만 Redis 로 간다.
+ * - 쓰기(put)는 같은 맵을 통해 Redis 에 반영되고, 다른 인스턴스의 로컬 사본은 pub/sub 무효화 메시지로 지워진다.
+ * - 무효화 메시지가 유실되거나 배치처럼 로컬 캐시를 거치지 않고 쓰는 경우에도 time-to-live 가 지나면 Redis 값을 다시 읽으므로
+ *   다른 인스턴스가 오래된 잔액을 보여주는 시간은 time-to-live 이내로 제한된다.
+ * - 잔액을 바꾸는 경로는 오래된 값으로 계산하면 안 되므로 getLatest 로 로컬 사본을 거치지 않고 Redis 를 직접 읽는다.
+ * - 로컬 적중/미스는 point.balance.near_cache.requests{result=hit|miss} 로 기록한다.
+ */
+@Component
+public class PointBalanceCache {
+
+    private final RedissonClient redissonClient;
+    private final RLocalCachedMap<String, Long> nearCache;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter nearHits;
+    private final Counter nearMisses;
+
+    public PointBalanceCache(RedissonClient redissonClient,
+                             MeterRegistry meterRegistry,
+                             @Value("${point.balance.near-cache.enabled:false}") boolean nearCacheEnabled,
+                             @Value("${point.balance.near-cache.maximum-size:10000}") int maximumSize,
+                             @Value("${point.balance.near-cache.time-to-live:2s}") Duration timeToLive) {
+        this.redissonClient = redissonClient;
+        this.nearCache = nearCacheEnabled
+                ? redissonClient.getLocalCachedMap(PointBalanceCacheSchema.MAP_NAME, PointBalanceCacheSchema.CODEC,
+                        LocalCachedMapOptions.<String, Long>defaults()
+                                .cacheSize(maximumSize)
+                                .evictionPolicy(LocalCachedMapOptions.EvictionPolicy.LRU)
+                                .timeToLive(timeToLive.toMillis(), TimeUnit.MILLISECONDS)
+                                .syncStrategy(LocalCachedMapOptions.SyncStrategy.INVALIDATE)
+                                .reconnectionStrategy(LocalCachedMapOptions.ReconnectionStrategy.CLEAR))
+                : null;
+        this.hits = Counter.builder("point.balance.cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("point.balance.cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.nearHits = Counter.builder("point.balance.near_cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.nearMisses = Counter.builder("point.balance.near_cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (nearCache != null) {
+            nearCache.destroy();
+        }
+    }
+
+    /**
+     * 잔액 조회 - near-cache 가 켜져 있으면 로컬 사본을 먼저 사용 (최대 time-to-live 만큼 늦을 수 있음)
+     *
+     * @return 캐시된 잔액, 없으면 null
+     */
+    public Long get(Long userId) {
+        if (nearCache == null) {
+            return getLatest(userId);
+        }
+
+        String field = PointBalanceCacheSchema.field(userId);
+        Long local = nearCache.getCachedMap().get(field);
+        if (local != null) {
+            nearHits.increment();
+            return local;
+        }
+        nearMisses.increment();
+
+        // 미스면 Redis 에서 읽고 로컬 사본에 채운다.
+        return record(nearCache.get(field));
+    }
+
+    /**
+     * 잔액 변경 경로용 조회 - 로컬 사본을 거치지 않고 Redis 값을 읽는다.
+     *
+     * @return 캐시된 잔액, 없으면 null
+     */
+    public Long getLatest(Long userId) {
+        return record(remote().get(PointBalanceCacheSchema.field(userId)));
+    }
+
+    public void put(Long userId, Long balance) {
+        map().fastPut(PointBalanceCacheSchema.field(userId), balance);
+    }
+
+    /**
+     * 캐시된 잔액 삭제 - near-cache 를 통해 지우므로 다른 인스턴스의 로컬 사본도 무효화된다.
+     */
+    public void evict(Collection<Long> userIds) {
+        map().fastRemove(userIds.stream().map(PointBalanceCacheSchema::field).toArray(String[]::new));
+    }
+
+    private Long record(Long balance) {
+        (balance == null ? misses : hits).increment();
+        return balance;
+    }
+
+    /**
+     * 쓰기는 near-cache 를 통해야 다른 인스턴스에 무효화 메시지가 발행된다.
+     */
+    private RMap<String, Long> map() {
+        return nearCache != null ? nearCache : remote();
+    }
+
+    private RMap<String, Long> remote() {
+        return PointBalanceCacheSchema.map(redissonClient);
+    }
+}
@@ -0,0 +1,190 @@
+package com.bmcho.pointservice.service;
+
+import com.bmcho.pointcache.PointBalanceCacheSchema;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * PointBalance write-behind
+ * - 적립/사용마다 point_balances 행을 save 하지 않고, 유저별 잔액 변화량(delta)을 Redis 대기 해시({point:balance}:pending)에
+ *   HINCRBY 로 모아 주기적으로 한 번씩 UPDATE 한다.
+ * - 대기 변화량이 Redis 에 있으므로 모든 인스턴스가 같은 값을 보고(pendingDelta), 인스턴스가 죽어도 남는다.
+ * - 반영은 아무 인스턴스나 대기 해시를 원자적으로 꺼내(HGETALL + DEL) UPDATE 하고, 실패하면 다시 HINCRBY 한다. (RedisDeltaBuffer)
+ *   꺼낸 뒤 커밋 전에 프로세스가 죽은 경우의 유실은 point-service-batch 의 잔액 정합성 검증이 points 기준으로 바로잡는다.
+ * - UPDATE 는 balance = balance + delta 이므로 여러 인스턴스가 같은 유저를 반영해도 순서와 무관하게 합이 맞는다.
+ * - delta 는 트랜잭션 커밋 후에만 쌓이므로 롤백된 요청은 반영되지 않는다.
+ * - 포인트 이력(points)은 지금처럼 요청마다 저장한다.
+ */
+@Slf4j
+@Component
+public class PointBalanceCoalescer {
+
+    private static final String UPDATE_BALANCE = """
+            UPDATE point_balances
+            SET balance = balance + ?, version = version + 1, updated_at = ?
+            WHERE user_id = ?
+            """;
+
+    private final RedisDeltaBuffer buffer;
+    private final RedissonClient redissonClient;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxPendingUsers;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "point-balance-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PointBalanceCoalescer(RedissonClient redissonClient,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${point.balance.write-behind.max-pending-users:10000}") int maxPendingUsers) {
+        this.buffer = new RedisDeltaBuffer(redissonClient,
+                PointBalanceCacheSchema.PENDING_MAP_NAME, PointBalanceCacheSchema.PENDING_SINCE_KEY);
+        this.redissonClient = redissonClient;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxPendingUsers = maxPendingUsers;
+
+        // 모든 인스턴스가 같은 대기 해시를 보므로 게이지도 Redis 값 기준
+        Gauge.builder("point.balance.write_behind.queue.depth", buffer, RedisDeltaBuffer::size)
+                .description("DB 반영을 기다리는 유저 수")
+                .register(meterRegistry);
+        Gauge.builder("point.balance.write_behind.flush.lag", buffer, RedisDeltaBuffer::lagSeconds)
+                .description("가장 오래 기다린 delta 의 대기 시간")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 잔액 변화량 적재 - 트랜잭션 안이면 커밋 후에 적재한다.
+     */
+    public void add(Long userId, long delta) {
+        RedisDeltaBuffer.afterCommit(() -> enqueue(Map.of(userId, delta)));
+    }
+
+    /**
+     * 아직 DB 에 반영되지 않은 변화량 - 잔액 조회 시 point_balances.balance 에 더해서 사용
+     */
+    public long pendingDelta(Long userId) {
+        Long delta = PointBalanceCacheSchema.pendingMap(redissonClient).get(PointBalanceCacheSchema.field(userId));
+        return delta == null ? 0L : delta;
+    }
+
+    /**
+     * 한 유저의 변화량을 현재 트랜잭션 안에서 바로 반영한다.
+     * point_balances 행을 읽어 잔액을 검증하는 경로(v1 사용/취소)가 호출 전에 사용하며, 트랜잭션이 롤백되면 변화량을 되돌려 놓는다.
+     */
+    public void flushUser(Long userId) {
+        long delta = buffer.take(PointBalanceCacheSchema.field(userId));
+        if (delta == 0) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.update(UPDATE_BALANCE, delta, Timestamp.valueOf(LocalDateTime.now()), userId);
+        } catch (RuntimeException e) {
+            enqueue(Map.of(userId, delta));
+            throw e;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        enqueue(Map.of(userId, delta));
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 쌓인 변화량을 유저당 UPDATE 한 번으로 반영한다.
+     * 실패하면 꺼낸 변화량을 다시 넣어 다음 주기에 재시도한다.
+     */
+    @Scheduled(fixedDelayString = "${point.balance.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            buffer.flush(this::write);
+        } catch (RuntimeException e) {
+            log.error("point balance drain failed", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 대기 변화량은 Redis 에 남아 다른 인스턴스가 이어서 반영하므로, 종료 시에는 지연만 줄이기 위해 한 번 반영한다.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        flush();
+    }
+
+    private void write(Map<String, Long> drained) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> params = new ArrayList<>(drained.size());
+        drained.forEach((field, delta) -> params.add(new Object[]{delta, now, PointBalanceCacheSchema.userId(field)}));
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_BALANCE, params));
+        log.debug("point balance flushed - users: {}", drained.size());
+    }
+
+    /**
+     * 대기 해시에 변화량을 더한다. 실패하면 그 변화량은 point_balances 에 반영되지 않으므로 로그를 남기고
+     * 배치의 잔액 정합성 검증이 바로잡게 둔다. (이미 커밋된 요청을 실패로 돌리지 않음)
+     */
+    private void enqueue(Map<Long, Long> deltas) {
+        Map<String, Long> fields = new LinkedHashMap<>(deltas.size());
+        deltas.forEach((userId, delta) -> fields.put(PointBalanceCacheSchema.field(userId), delta));
+
+        long size;
+        try {
+            size = buffer.add(fields);
+        } catch (RuntimeException e) {
+            log.error("point balance delta enqueue failed - deltas: {}", deltas, e);
+            return;
+        }
+
+        // 쌓인 유저 수가 임계치를 넘으면 주기를 기다리지 않고 비동기로 반영
+        if (size >= maxPendingUsers && flushRequested.compareAndSet(false, true)) {
+            try {
+                flushExecutor.execute(this::flush);
+            } catch (RuntimeException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.bmcho.pointservice.service;
+
+import com.bmcho.pointservice.domain.Point;
+import com.bmcho.pointservice.domain.PointType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 일별 포인트 리포트 실시간 집계
+ * - 포인트 이력이 저장(커밋)될 때마다 (유저, 날짜, 유형)별 합계를 Redis 대기 해시({point:report}:pending)에 더해 두고,
+ *   주기적으로 daily_point_reports 에 누적 upsert 한다. (earn_amount = earn_amount + ?, 버퍼는 RedisDeltaBuffer)
+ * - 누적 UPDATE 라 여러 인스턴스가 같은 유저/날짜를 반영해도 합이 맞고, 리포트는 flush 주기만큼만 늦는다.
+ * - 날짜는 이력의 created_at 기준이라 자정 직전 이력이 다음날로 넘어가지 않는다.
+ * - 날짜 D 의 합계는 D+1 00:00 + cut-off 까지만 반영하고, 그 뒤에 꺼낸 합계는 버린다. (point.report.incremental.dropped)
+ *   point-service-batch 의 리포트 검증/재집계(REBUILD)는 cut-off 이후에 실행하므로, 재집계로 덮어쓴 리포트에
+ *   늦게 꺼낸 합계가 다시 더해지지 않고, 버린 합계는 검증이 points 와 비교해 재집계로 채운다.
+ * - 꺼낸 뒤 반영 전에 프로세스가 죽어 유실된 합계도 같은 검증이 바로잡는다.
+ */
+@Slf4j
+@Component
+public class PointDailyReportAccumulator {
+
+    static final String PENDING_KEY = "{point:report}:pending";
+    static final String PENDING_SINCE_KEY = "{point:report}:pending:since";
+
+    private static final String UPSERT_REPORT = """
+            INSERT INTO daily_point_reports (user_id, report_date, earn_amount, use_amount, cancel_amount,
+                                             net_amount, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE earn_amount   = earn_amount + VALUES(earn_amount),
+                                    use_amount    = use_amount + VALUES(use_amount),
+                                    cancel_amount = cancel_amount + VALUES(cancel_amount),
+                                    net_amount    = net_amount + VALUES(net_amount),
+                                    updated_at    = VALUES(updated_at)
+            """;
+
+    private final RedisDeltaBuffer buffer;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration cutOff;
+    private final Clock clock;
+    private final Counter dropped;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Autowired
+    public PointDailyReportAccumulator(RedissonClient redissonClient,
+                                       JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${point.report.incremental.enabled:true}") boolean enabled,
+                                       @Value("${point.report.incremental.cut-off:30m}") Duration cutOff) {
+        this(redissonClient, jdbcTemplate, transactionManager, meterRegistry, enabled, cutOff, Clock.systemDefaultZone());
+    }
+
+    PointDailyReportAccumulator(RedissonClient redissonClient,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                boolean enabled,
+                                Duration cutOff,
+                                Clock clock) {
+        this.buffer = new RedisDeltaBuffer(redissonClient, PENDING_KEY, PENDING_SINCE_KEY);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.cutOff = cutOff;
+        this.clock = clock;
+
+        Gauge.builder("point.report.incremental.queue.depth", buffer, RedisDeltaBuffer::size)
+                .description("daily_point_reports 반영을 기다리는 (유저, 날짜, 유형) 합계 수")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("point.report.incremental.dropped")
+                .description("cut-off 가 지나 반영하지 않은 (유저, 날짜, 유형) 합계 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 저장된 포인트 이력 반영 - 트랜잭션 안이면 커밋 후에 적재한다.
+     */
+    public void add(Point point) {
+        add(point.getUserId(), point.getType(), point.getAmount(), point.getCreatedAt());
+    }
+
+    public void add(Long userId, PointType type, Long amount, LocalDateTime createdAt) {
+        add(type, Map.of(userId, amount), createdAt);
+    }
+
+    /**
+     * 같은 유형/시각의 유저별 금액을 한 번에 반영 (대량 적립 청크용)
+     */
+    public void add(PointType type, Map<Long, Long> amounts, LocalDateTime createdAt) {
+        if (!enabled || amounts.isEmpty()) {
+            return;
+        }
+
+        LocalDate date = createdAt == null ? LocalDate.now(clock) : createdAt.toLocalDate();
+        Map<String, Long> fields = new LinkedHashMap<>(amounts.size());
+        amounts.forEach((userId, amount) -> fields.put(TotalsField.of(userId, date, type).encode(), amount));
+        RedisDeltaBuffer.afterCommit(() -> enqueue(fields));
+    }
+
+    /**
+     * 쌓인 합계를 (유저, 날짜)당 upsert 한 번으로 반영한다.
+     * 실패하면 꺼낸 합계를 다시 넣어 다음 주기에 재시도한다.
+     */
+    @Scheduled(fixedDelayString = "${point.report.incremental.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            buffer.flush(this::write);
+        } catch (RuntimeException e) {
+            log.error("daily point report drain failed", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 대기 합계는 Redis 에 남아 다른 인스턴스가 이어서 반영하므로, 종료 시에는 지연만 줄이기 위해 한 번 반영한다.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(Map<String, Long> drained) {
+        // cut-off 가 지난 날짜는 배치가 마감(검증/재집계)하므로 누적하지 않음
+        LocalDate oldestOpenDate = LocalDateTime.now(clock).minus(cutOff).toLocalDate();
+        Map<DayKey, long[]> reports = new LinkedHashMap<>();
+        drained.forEach((encoded, amount) -> {
+            TotalsField field = TotalsField.decode(encoded);
+            if (field.date().isBefore(oldestOpenDate)) {
+                log.warn("daily point report total dropped after cut-off - field: {}, amount: {}", encoded, amount);
+                dropped.increment();
+                return;
+            }
+            long[] totals = reports.computeIfAbsent(new DayKey(field.userId(), field.date()),
+                    key -> new long[PointType.values().length]);
+            totals[field.type().ordinal()] += amount;
+        });
+        if (reports.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now(clock));
+        List<Object[]> params = new ArrayList<>(reports.size());
+        reports.forEach((key, totals) -> {
+            long earn = totals[PointType.EARNED.ordinal()];
+            long use = totals[PointType.USED.ordinal()];
+            long cancel = totals[PointType.CANCELED.ordinal()];
+            // 배치 리포트와 같은 정의 (DailyPointReport.netAmount)
+            long net = earn - use + cancel;
+            params.add(new Object[]{key.userId(), Date.valueOf(key.date()), earn, use, cancel, net, now, now});
+        });
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT_REPORT, params));
+        log.debug("daily point report flushed - keys: {}", reports.size());
+    }
+
+    /**
+     * 대기 해시에 합계를 더한다. 실패하면 로그를 남기고 배치의 리포트 검증이 바로잡게 둔다. (이미 커밋된 요청을 실패로 돌리지 않음)
+     */
+    private void enqueue(Map<String, Long> fields) {
+        try {
+            buffer.add(fields);
+        } catch (RuntimeException e) {
+            log.error("daily point report enqueue failed - fields: {}", fields, e);
+        }
+    }
+
+    private record DayKey(Long userId, LocalDate date) {
+    }
+
+    /**
+     * 대기 해시 필드 - "{userId}:{yyyy-MM-dd}:{PointType}"
+     */
+    private record TotalsField(Long userId, LocalDate date, PointType type) {
+
+        static TotalsField of(Long userId, LocalDate date, PointType type) {
+            return new TotalsField(userId, date, type);
+        }
+
+        static TotalsField decode(String field) {
+            String[] parts = field.split(":", 3);
+            return new TotalsField(Long.parseLong(parts[0]), LocalDate.parse(parts[1]), PointType.valueOf(parts[2]));
+        }
+
+        String encode() {
+            return userId + ":" + date + ":" + type.name();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.bmcho.pointservice.service;
+
+import com.bmcho.pointservice.exception.LockAcquisitionFailedException;
+import com.bmcho.pointservice.exception.PointBasicException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 유저 단위 포인트 변경 직렬화
+ * - 같은 인스턴스로 들어온 같은 유저 요청은 JVM 안의 유저별 공정 락으로 먼저 줄을 세운다. (Redis 로 경합하지 않음)
+ * - 인스턴스 간 직렬화는 Redisson 분산 락이 담당하되, 로컬에 같은 유저 요청이 줄 서 있으면 락을 풀지 않고 다음 요청에 넘긴다.
+ *   userId 기준 sticky 라우팅이면 연속 요청은 분산 락을 한 번만 잡고 처리된다.
+ * - 넘겨주기는 max-handoffs 회 또는 max-hold-time 까지만 하고, 넘으면 분산 락을 풀고 다시 잡는다.
+ *   한 인스턴스에 같은 유저 요청이 계속 들어와도 다른 인스턴스의 같은 유저 요청이 wait-time 안에 락을 얻을 기회를 준다.
+ * - 분산 락 소유자는 스레드가 아니라 유저 슬롯(ownerId)이라 넘겨받은 스레드가 그대로 이어서 쓰고, 마지막 요청이 빠질 때 해제한다.
+ * - 분산 락은 lease 를 고정하지 않고 watchdog 으로 연장하므로 DB 지연으로 트랜잭션이 길어져도 중간에 풀리지 않는다.
+ * - 작업은 락 안에서 트랜잭션으로 실행하므로 커밋이 끝난 뒤에 락이 풀린다.
+ */
+@Slf4j
+@Component
+public class PointUserLock {
+
+    private static final String POINT_LOCK_PREFIX = "point:lock";
+    // Redisson 은 threadId 로 락 소유자를 구분하므로 실제 스레드 id(양수)와 겹치지 않게 음수 사용
+    private static final AtomicLong OWNER_SEQUENCE = new AtomicLong();
+
+    private final RedissonClient redissonClient;
+    private final TransactionTemplate transactionTemplate;
+    private final long waitMillis;
+    private final int maxHandoffs;
+    private final long maxHoldNanos;
+    private final Map<Long, UserSlot> slots = new ConcurrentHashMap<>();
+    private final Counter distributedAcquires;
+    private final Counter handoffs;
+    private final Counter yields;
+
+    public PointUserLock(RedissonClient redissonClient,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${point.lock.wait-time:3s}") Duration waitTime,
+                         @Value("${point.lock.max-handoffs:50}") int maxHandoffs,
+                         @Value("${point.lock.max-hold-time:500ms}") Duration maxHoldTime) {
+        this.redissonClient = redissonClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.waitMillis = waitTime.toMillis();
+        this.maxHandoffs = maxHandoffs;
+        this.maxHoldNanos = maxHoldTime.toNanos();
+        this.distributedAcquires = Counter.builder("point.lock.acquisitions")
+                .tag("type", "distributed")
+                .register(meterRegistry);
+        this.handoffs = Counter.builder("point.lock.acquisitions")
+                .tag("type", "handoff")
+                .register(meterRegistry);
+        this.yields = Counter.builder("point.lock.yields")
+                .description("넘겨주기 한도를 넘어 분산 락을 풀고 다시 잡은 횟수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 유저 락을 잡고 action 을 트랜잭션 안에서 실행한다.
+     *
+     * @throws LockAcquisitionFailedException wait-time 안에 락을 얻지 못한 경우
+     */
+    public <T> T execute(Long userId, Supplier<T> action) {
+        String lockKey = POINT_LOCK_PREFIX + ":" + userId;
+        UserSlot slot = slots.compute(userId, (id, current) -> {
+            UserSlot joined = current == null ? new UserSlot(redissonClient.getLock(lockKey)) : current;
+            joined.requests++;
+            return joined;
+        });
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        try {
+            if (!slot.local.tryLock(waitMillis, TimeUnit.MILLISECONDS)) {
+                throw new LockAcquisitionFailedException(lockKey);
+            }
+            try {
+                acquireDistributed(slot, lockKey, deadline);
+                return transactionTemplate.execute(status -> action.get());
+            } finally {
+                slot.local.unlock();
+            }
+        } catch (InterruptedException e) {
+            // 락 획득 중 인터럽트 발생
+            Thread.currentThread().interrupt();
+            throw new PointBasicException("Lock acquisition was interrupted", e.getCause());
+        } finally {
+            leave(userId);
+        }
+    }
+
+    /**
+     * 로컬 락을 잡은 상태에서 호출 - 앞 요청이 넘겨준 분산 락이 있으면 한도 안에서 그대로 사용
+     */
+    private void acquireDistributed(UserSlot slot, String lockKey, long deadline) throws InterruptedException {
+        if (slot.distributedHeld) {
+            if (slot.handoffs < maxHandoffs && System.nanoTime() - slot.acquiredAt < maxHoldNanos) {
+                slot.handoffs++;
+                handoffs.increment();
+                return;
+            }
+            yieldDistributed(slot, lockKey);
+        }
+
+        long remaining = Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+        boolean locked;
+        try {
+            locked = slot.distributed.tryLockAsync(remaining, -1, TimeUnit.MILLISECONDS, slot.ownerId).get();
+        } catch (ExecutionException e) {
+            throw new PointBasicException("Lock acquisition failed for " + lockKey, e.getCause());
+        }
+        if (!locked) {
+            throw new LockAcquisitionFailedException(lockKey);
+        }
+        slot.distributedHeld = true;
+        slot.handoffs = 0;
+        slot.acquiredAt = System.nanoTime();
+        distributedAcquires.increment();
+    }
+
+    /**
+     * 넘겨주기 한도를 넘은 분산 락을 해제한다. 로컬 락을 잡고 있으므로 이 슬롯에서 락을 쓰는 다른 요청은 없다.
+     * 해제가 실패하면 이 요청은 실패시키고, 보유 상태는 그대로 두어 마지막 요청이 빠질 때 다시 해제를 시도한다.
+     */
+    private void yieldDistributed(UserSlot slot, String lockKey) throws InterruptedException {
+        try {
+            slot.distributed.unlockAsync(slot.ownerId).get();
+        } catch (ExecutionException e) {
+            throw new PointBasicException("Lock release failed for " + lockKey, e.getCause());
+        }
+        slot.distributedHeld = false;
+        yields.increment();
+    }
+
+    /**
+     * 마지막 요청이 빠질 때만 분산 락을 해제하고 슬롯을 정리한다.
+     * 대기 중 타임아웃으로 빠지는 요청도 여기서 세므로 넘겨받을 요청이 없는 락이 남지 않는다.
+     */
+    private void leave(Long userId) {
+        slots.computeIfPresent(userId, (id, slot) -> {
+            if (--slot.requests > 0) {
+                return slot;
+            }
+            if (slot.distributedHeld) {
+                slot.distributedHeld = false;
+                slot.distributed.unlockAsync(slot.ownerId).whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.warn("point user lock release failed - userId: {}", userId, e);
+                    }
+                });
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 처리 중이거나 로컬에서 기다리는 같은 유저 요청 수
+     */
+    int pendingRequests(Long userId) {
+        UserSlot slot = slots.get(userId);
+        return slot == null ? 0 : slot.requests;
+    }
+
+    private static final class UserSlot {
+
+        private final ReentrantLock local = new ReentrantLock(true);
+        private final RLock distributed;
+        private final long ownerId = -OWNER_SEQUENCE.incrementAndGet();
+        // requests 는 slots.compute 안에서만, distributedHeld 는 로컬 락 또는 마지막 요청만 변경
+        private volatile int requests;
+        private volatile boolean distributedHeld;
+        // 로컬 락 안에서만 변경 - 분산 락을 잡은 뒤 넘겨준 횟수 / 잡은 시각
+        private int handoffs;
+        private long acquiredAt;
+
+        private UserSlot(RLock distributed) {
+            this.distributed = distributed;
+        }
+    }
+}
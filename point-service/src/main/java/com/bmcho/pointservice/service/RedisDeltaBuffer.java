@@ -0,0 +1,177 @@
+package com.bmcho.pointservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Redis 해시 기반 write-behind 버퍼 (PointBalanceCoalescer / PointDailyReportAccumulator 공용)
+ * - 필드별 정수 변화량을 HINCRBY 로 모으고 (합이 0 이 되면 필드 삭제), 반영할 때는 전체를 원자적으로 꺼낸다. (HGETALL + DEL)
+ * - 대기 해시는 모든 인스턴스가 공유하므로 어느 인스턴스가 꺼내도 같은 변화량이 두 번 반영되지 않고, 인스턴스가 죽어도 남는다.
+ * - 반영에 실패하면 꺼낸 변화량을 다시 더해 다음 주기에 재시도한다.
+ * - 대기 해시와 가장 오래된 적재 시각 키는 스크립트 하나에서 함께 다루므로 같은 hash tag 를 써야 한다.
+ */
+@Slf4j
+public class RedisDeltaBuffer {
+
+    /*
+        KEYS[1] = 대기 해시, KEYS[2] = 가장 오래된 적재 시각
+        ARGV[1] = 현재 시각 (epoch millis), ARGV[2..] = field, delta 쌍
+        반환 : 대기 중인 필드 수
+     */
+    private static final String ADD_SCRIPT = """
+            for i = 2, #ARGV, 2 do
+                if redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1]) == 0 then
+                    redis.call('HDEL', KEYS[1], ARGV[i])
+                end
+            end
+            local size = redis.call('HLEN', KEYS[1])
+            if size > 0 then
+                redis.call('SET', KEYS[2], ARGV[1], 'NX')
+            end
+            return size
+            """;
+
+    // 반환 : {field, delta, field, delta, ...}
+    private static final String DRAIN_SCRIPT = """
+            local pending = redis.call('HGETALL', KEYS[1])
+            redis.call('DEL', KEYS[1], KEYS[2])
+            return pending
+            """;
+
+    // ARGV[1] = field, 반환 : 꺼낸 delta (없으면 nil)
+    private static final String TAKE_SCRIPT = """
+            local delta = redis.call('HGET', KEYS[1], ARGV[1])
+            if delta then
+                redis.call('HDEL', KEYS[1], ARGV[1])
+            end
+            return delta
+            """;
+
+    private final RedissonClient redissonClient;
+    private final String pendingKey;
+    private final String sinceKey;
+    private final List<Object> keys;
+
+    public RedisDeltaBuffer(RedissonClient redissonClient, String pendingKey, String sinceKey) {
+        this.redissonClient = redissonClient;
+        this.pendingKey = pendingKey;
+        this.sinceKey = sinceKey;
+        this.keys = List.of(pendingKey, sinceKey);
+    }
+
+    /**
+     * 트랜잭션 안이면 커밋 후에, 아니면 바로 실행한다. (롤백된 요청의 변화량은 쌓지 않음)
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * 변화량을 더한다.
+     *
+     * @return 대기 중인 필드 수
+     */
+    public long add(Map<String, Long> deltas) {
+        Object[] args = new Object[deltas.size() * 2 + 1];
+        args[0] = String.valueOf(System.currentTimeMillis());
+        int i = 1;
+        for (Map.Entry<String, Long> entry : deltas.entrySet()) {
+            args[i++] = entry.getKey();
+            args[i++] = String.valueOf(entry.getValue());
+        }
+        Long size = script().eval(RScript.Mode.READ_WRITE, ADD_SCRIPT, RScript.ReturnType.INTEGER, keys, args);
+        return size == null ? 0 : size;
+    }
+
+    /**
+     * 대기 중인 변화량 전체를 꺼낸다.
+     */
+    public Map<String, Long> drain() {
+        List<Object> pending = script().eval(RScript.Mode.READ_WRITE, DRAIN_SCRIPT, RScript.ReturnType.MULTI, keys);
+        Map<String, Long> drained = new LinkedHashMap<>(pending.size() / 2);
+        for (int i = 0; i + 1 < pending.size(); i += 2) {
+            long delta = Long.parseLong((String) pending.get(i + 1));
+            if (delta != 0) {
+                drained.put((String) pending.get(i), delta);
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * 필드 하나의 변화량을 꺼낸다.
+     *
+     * @return 꺼낸 변화량, 없으면 0
+     */
+    public long take(String field) {
+        String taken = script().eval(RScript.Mode.READ_WRITE, TAKE_SCRIPT, RScript.ReturnType.VALUE, keys, field);
+        return taken == null ? 0L : Long.parseLong(taken);
+    }
+
+    /**
+     * 꺼낸 변화량을 writer 로 반영하고, 실패하면 다시 더해 다음 주기에 재시도한다.
+     *
+     * @return 반영한 필드 수 (없거나 실패하면 0)
+     */
+    public int flush(Consumer<Map<String, Long>> writer) {
+        Map<String, Long> drained = drain();
+        if (drained.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            writer.accept(drained);
+            return drained.size();
+        } catch (RuntimeException e) {
+            log.error("write-behind flush failed - key: {}, fields: {}", pendingKey, drained.size(), e);
+            restore(drained);
+            return 0;
+        }
+    }
+
+    /**
+     * 꺼냈지만 반영하지 못한 변화량을 되돌린다. 되돌리기도 실패하면 로그만 남긴다. (배치 검증이 바로잡음)
+     */
+    public void restore(Map<String, Long> deltas) {
+        try {
+            add(deltas);
+        } catch (RuntimeException e) {
+            log.error("write-behind restore failed - key: {}, deltas: {}", pendingKey, deltas, e);
+        }
+    }
+
+    public int size() {
+        return redissonClient.getMap(pendingKey, StringCodec.INSTANCE).size();
+    }
+
+    /**
+     * 가장 오래 기다린 변화량의 대기 시간 (초)
+     */
+    public double lagSeconds() {
+        String since = redissonClient.<String>getBucket(sinceKey, StringCodec.INSTANCE).get();
+        return since == null ? 0 : (System.currentTimeMillis() - Long.parseLong(since)) / 1000.0;
+    }
+
+    private RScript script() {
+        // RedisConfig.useScriptCache - EVALSHA 로 실행되고 스크립트 캐시가 비워졌으면 Redisson 이 다시 로드
+        return redissonClient.getScript(StringCodec.INSTANCE);
+    }
+}
@@ -5,11 +5,14 @@ import com.bmcho.pointservice.domain.Point;
 import com.bmcho.pointservice.domain.PointBalance;
 import com.bmcho.pointservice.domain.PointType;
 import com.bmcho.pointservice.exception.InsufficientPointBalanceException;
+import com.bmcho.pointservice.exception.InvalidPointAmountException;
 import com.bmcho.pointservice.exception.PointAlreadyCanceled;
 import com.bmcho.pointservice.exception.PointNotFound;
 import com.bmcho.pointservice.exception.UserNotFound;
 import com.bmcho.pointservice.repository.PointBalanceRepository;
 import com.bmcho.pointservice.repository.PointRepository;
+import com.bmcho.pointservice.service.PointBalanceCoalescer;
+import com.bmcho.pointservice.service.PointDailyReportAccumulator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -25,34 +28,43 @@ public class PointService {
 
     private final PointRepository pointRepository;
     private final PointBalanceRepository pointBalanceRepository;
+    private final PointBalanceCoalescer pointBalanceCoalescer;
+    private final PointDailyReportAccumulator pointDailyReportAccumulator;
 
     @PointMetered
     @Transactional(isolation = Isolation.REPEATABLE_READ)
     public Point earnPoints(Long userId, Long amount, String description) {
+        if (amount <= 0) {
+            throw new InvalidPointAmountException(amount);
+        }
+
         PointBalance balance = pointBalanceRepository.findByUserId(userId)
-                .orElseGet(() -> PointBalance.builder()
+                .orElseGet(() -> pointBalanceRepository.save(PointBalance.builder()
                         .userId(userId)
                         .balance(0L)
-                        .build());
+                        .build()));
 
-        balance.addBalance(amount);
-        balance = pointBalanceRepository.save(balance);
+        // 잔액 행은 매번 save 하지 않고 write-behind 로 모아서 반영
+        Long newBalance = balance.getBalance() + pointBalanceCoalescer.pendingDelta(userId) + amount;
+        pointBalanceCoalescer.add(userId, amount);
 
         Point point = Point.builder()
                 .userId(userId)
                 .amount(amount)
                 .type(PointType.EARNED)
                 .description(description)
-                .balanceSnapshot(balance.getBalance())
+                .balanceSnapshot(newBalance)
                 .pointBalance(balance)
                 .build();
 
-        return pointRepository.save(point);
+        return savePoint(point);
     }
 
     @PointMetered
     @Transactional
     public Point usePoints(Long userId, Long amount, String description) {
+        // 잔액 검증은 DB 행 기준이므로 쌓여 있는 적립분을 먼저 반영
+        pointBalanceCoalescer.flushUser(userId);
         PointBalance balance = pointBalanceRepository.findByUserId(userId)
                 .orElseThrow(() -> new UserNotFound(userId));
 
@@ -68,7 +80,7 @@ public class PointService {
                 .pointBalance(balance)
                 .build();
 
-        return pointRepository.save(point);
+        return savePoint(point);
     }
 
     @Transactional(isolation = Isolation.REPEATABLE_READ)
@@ -80,6 +92,7 @@ public class PointService {
             throw new PointAlreadyCanceled(pointId);
         }
 
+        pointBalanceCoalescer.flushUser(originalPoint.getUserId());
         PointBalance balance = pointBalanceRepository.findByUserId(originalPoint.getUserId())
                 .orElseThrow(() -> new UserNotFound(originalPoint.getUserId()));
 
@@ -108,18 +121,27 @@ public class PointService {
                 .pointBalance(balance)
                 .build();
 
-        return pointRepository.save(cancelPoint);
+        return savePoint(cancelPoint);
     }
 
     @Transactional(readOnly = true)
     public Long getBalance(Long userId) {
         return pointBalanceRepository.findByUserId(userId)
                 .map(PointBalance::getBalance)
-                .orElse(0L);
+                .orElse(0L) + pointBalanceCoalescer.pendingDelta(userId);
     }
 
     @Transactional(readOnly = true)
     public Page<Point> getPointHistory(Long userId, Pageable pageable) {
         return pointRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
     }
+
+    /**
+     * 포인트 이력 저장 - 커밋되면 일별 리포트 실시간 집계에 반영
+     */
+    private Point savePoint(Point point) {
+        Point saved = pointRepository.save(point);
+        pointDailyReportAccumulator.add(saved);
+        return saved;
+    }
 }
@@ -0,0 +1,257 @@
+package com.bmcho.pointservice.service.v2;
+
+import com.bmcho.pointservice.domain.PointBulkBatch;
+import com.bmcho.pointservice.domain.PointBulkPartition;
+import com.bmcho.pointservice.domain.PointBulkStatus;
+import com.bmcho.pointservice.domain.PointType;
+import com.bmcho.pointservice.dto.PointDto;
+import com.bmcho.pointservice.exception.PointBasicException;
+import com.bmcho.pointservice.repository.PointBulkBatchRepository;
+import com.bmcho.pointservice.repository.PointBulkJdbcRepository;
+import com.bmcho.pointservice.repository.PointBulkPartitionRepository;
+import com.bmcho.pointservice.service.PointBalanceCache;
+import com.bmcho.pointservice.service.PointDailyReportAccumulator;
+import com.bmcho.pointservice.service.PointUserLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 캠페인 대량 포인트 적립
+ * 1. 업로드(CSV: userId,amount,description)를 스트리밍으로 읽어 userId 기준 파티션으로 나눠 적재
+ * 2. 파티션별로 병렬 처리 - 청크마다 잔액 upsert + 포인트 이력 multi-row insert + 커서 전진을 한 트랜잭션으로 반영
+ * 3. 청크 반영 후 적립된 유저의 잔액 캐시를 유저 락 안에서 지움 (다음 조회/변경 시 DB 에서 다시 채움)
+ * 중단되면 resume 으로 파티션 커서 다음부터 이어서 처리한다.
+ */
+@Slf4j
+@Service
+public class PointBulkEarnService {
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final String DEFAULT_DESCRIPTION = "bulk earn";
+
+    private final PointBulkBatchRepository pointBulkBatchRepository;
+    private final PointBulkPartitionRepository pointBulkPartitionRepository;
+    private final PointBulkJdbcRepository pointBulkJdbcRepository;
+    private final PointBalanceCache pointBalanceCache;
+    private final PointDailyReportAccumulator pointDailyReportAccumulator;
+    private final PointUserLock pointUserLock;
+    private final ThreadPoolTaskExecutor pointBulkExecutor;
+    private final int partitions;
+    private final int chunkSize;
+
+    private final Set<Long> runningBatches = ConcurrentHashMap.newKeySet();
+
+    public PointBulkEarnService(PointBulkBatchRepository pointBulkBatchRepository,
+                                PointBulkPartitionRepository pointBulkPartitionRepository,
+                                PointBulkJdbcRepository pointBulkJdbcRepository,
+                                PointBalanceCache pointBalanceCache,
+                                PointDailyReportAccumulator pointDailyReportAccumulator,
+                                PointUserLock pointUserLock,
+                                @Qualifier("pointBulkExecutor") ThreadPoolTaskExecutor pointBulkExecutor,
+                                @Value("${point.bulk.partitions:8}") int partitions,
+                                @Value("${point.bulk.chunk-size:1000}") int chunkSize) {
+        this.pointBulkBatchRepository = pointBulkBatchRepository;
+        this.pointBulkPartitionRepository = pointBulkPartitionRepository;
+        this.pointBulkJdbcRepository = pointBulkJdbcRepository;
+        this.pointBalanceCache = pointBalanceCache;
+        this.pointDailyReportAccumulator = pointDailyReportAccumulator;
+        this.pointUserLock = pointUserLock;
+        this.pointBulkExecutor = pointBulkExecutor;
+        this.partitions = partitions;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 업로드 적재 후 비동기 처리 시작
+     * - 형식이 잘못된 줄(숫자 아님, 0 이하 금액)은 건너뛰고 rejectedCount 로 보고
+     */
+    public PointDto.BulkEarnReport submit(InputStream input) {
+        PointBulkBatch batch = pointBulkBatchRepository.save(PointBulkBatch.receive(partitions));
+        Long batchId = batch.getId();
+
+        long[] partitionCounts = new long[partitions];
+        long rejected = 0;
+        List<PointBulkJdbcRepository.ItemRow> buffer = new ArrayList<>(INSERT_BATCH_SIZE);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                String[] fields = line.split(",", 3);
+                Long userId = parseLong(fields[0]);
+                Long amount = fields.length < 2 ? null : parseLong(fields[1]);
+                if (userId == null || amount == null || amount <= 0) {
+                    // 첫 줄은 헤더로 간주
+                    if (lineNo > 1) {
+                        rejected++;
+                        log.warn("bulk earn line rejected - batchId: {}, line: {}", batchId, lineNo);
+                    }
+                    continue;
+                }
+
+                String description = fields.length == 3 && !fields[2].isBlank() ? fields[2].trim() : DEFAULT_DESCRIPTION;
+                int partitionNo = (int) Math.floorMod(userId, (long) partitions);
+                buffer.add(new PointBulkJdbcRepository.ItemRow(partitionNo, ++partitionCounts[partitionNo],
+                        userId, amount, description));
+                if (buffer.size() >= INSERT_BATCH_SIZE) {
+                    pointBulkJdbcRepository.insertItems(batchId, buffer);
+                    buffer.clear();
+                }
+            }
+            if (!buffer.isEmpty()) {
+                pointBulkJdbcRepository.insertItems(batchId, buffer);
+            }
+        } catch (IOException | RuntimeException e) {
+            batch.changeStatus(PointBulkStatus.FAILED);
+            pointBulkBatchRepository.save(batch);
+            throw new PointBasicException("Failed to read bulk earn input - batchId: %d".formatted(batchId), e);
+        }
+
+        long total = 0;
+        List<PointBulkPartition> partitionRows = new ArrayList<>(partitions);
+        for (int partitionNo = 0; partitionNo < partitions; partitionNo++) {
+            total += partitionCounts[partitionNo];
+            partitionRows.add(PointBulkPartition.builder()
+                    .batchId(batchId)
+                    .partitionNo(partitionNo)
+                    .totalCount(partitionCounts[partitionNo])
+                    .build());
+        }
+        pointBulkPartitionRepository.saveAll(partitionRows);
+
+        batch.ready(total, rejected);
+        pointBulkBatchRepository.save(batch);
+        log.info("bulk earn received - batchId: {}, total: {}, rejected: {}", batchId, total, rejected);
+
+        start(batch);
+        return getReport(batchId);
+    }
+
+    /**
+     * 중단되었거나 실패한 배치를 파티션 커서 다음부터 다시 처리
+     */
+    public PointDto.BulkEarnReport resume(Long batchId) {
+        PointBulkBatch batch = findBatch(batchId);
+        if (batch.getStatus() == PointBulkStatus.RECEIVING) {
+            throw new PointBasicException("Bulk batch was not fully received - batchId: %d".formatted(batchId),
+                    HttpStatus.BAD_REQUEST);
+        }
+        if (batch.getStatus() != PointBulkStatus.COMPLETED) {
+            start(batch);
+        }
+        return getReport(batchId);
+    }
+
+    public PointDto.BulkEarnReport getReport(Long batchId) {
+        return PointDto.BulkEarnReport.of(findBatch(batchId),
+                pointBulkPartitionRepository.findByBatchIdOrderByPartitionNo(batchId));
+    }
+
+    private void start(PointBulkBatch batch) {
+        Long batchId = batch.getId();
+        if (!runningBatches.add(batchId)) {
+            throw new PointBasicException("Bulk batch is already running - batchId: %d".formatted(batchId),
+                    HttpStatus.CONFLICT);
+        }
+
+        batch.changeStatus(PointBulkStatus.RUNNING);
+        pointBulkBatchRepository.save(batch);
+
+        CompletableFuture<?>[] futures = pointBulkPartitionRepository.findByBatchIdOrderByPartitionNo(batchId).stream()
+                .filter(partition -> !partition.isDone())
+                .map(partition -> CompletableFuture.runAsync(
+                        () -> runPartition(batchId, partition.getPartitionNo(), partition.getLastSeq()),
+                        pointBulkExecutor))
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(futures).whenComplete((ignored, e) -> {
+            try {
+                PointBulkBatch finished = findBatch(batchId);
+                finished.changeStatus(e == null ? PointBulkStatus.COMPLETED : PointBulkStatus.FAILED);
+                pointBulkBatchRepository.save(finished);
+                if (e != null) {
+                    log.error("bulk earn failed - batchId: {}", batchId, e);
+                } else {
+                    log.info("bulk earn completed - batchId: {}", batchId);
+                }
+            } finally {
+                runningBatches.remove(batchId);
+            }
+        });
+    }
+
+    private void runPartition(Long batchId, int partitionNo, long lastSeq) {
+        long afterSeq = lastSeq;
+        List<PointBulkJdbcRepository.ItemRow> items;
+        while (!(items = pointBulkJdbcRepository.findItems(batchId, partitionNo, afterSeq, chunkSize)).isEmpty()) {
+            Map<Long, Long> totals = pointBulkJdbcRepository.applyChunk(batchId, partitionNo, afterSeq, items);
+            refreshBalanceCache(totals.keySet());
+            // applyChunk 는 커밋까지 끝난 뒤 반환되고, 같은 청크는 두 번 반영되지 않는다.
+            pointDailyReportAccumulator.add(PointType.EARNED, totals, LocalDateTime.now());
+            afterSeq = items.get(items.size() - 1).seq();
+        }
+    }
+
+    /**
+     * 청크가 커밋된 뒤 적립된 유저의 캐시된 잔액을 유저 락 안에서 지운다.
+     * v2 적립/사용/취소는 락 안에서 캐시 잔액을 읽고 절대값으로 쓰므로, 락 밖에서 반영하면 그 사이의 쓰기가 대량 적립분을 덮어쓴다.
+     * 증분 대신 삭제하는 이유 - 커밋 이후 락 안에서 DB 로 캐시를 채운 요청이 있으면 증분은 같은 적립을 두 번 더하게 된다.
+     * 락을 얻지 못하거나 삭제가 실패해도 DB 반영과는 무관하므로 로그만 남긴다.
+     */
+    private void refreshBalanceCache(Set<Long> userIds) {
+        for (Long userId : userIds) {
+            try {
+                pointUserLock.execute(userId, () -> {
+                    pointBalanceCache.evict(List.of(userId));
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                log.warn("bulk earn cache refresh failed under user lock - userId: {}", userId, e);
+                evictBalanceCache(userId);
+            }
+        }
+    }
+
+    private void evictBalanceCache(Long userId) {
+        try {
+            pointBalanceCache.evict(List.of(userId));
+        } catch (RuntimeException e) {
+            log.error("bulk earn cache evict failed - userId: {}", userId, e);
+        }
+    }
+
+    private PointBulkBatch findBatch(Long batchId) {
+        return pointBulkBatchRepository.findById(batchId)
+                .orElseThrow(() -> new PointBasicException("Bulk batch not found - batchId: %d".formatted(batchId),
+                        HttpStatus.NOT_FOUND));
+    }
+
+    private static Long parseLong(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
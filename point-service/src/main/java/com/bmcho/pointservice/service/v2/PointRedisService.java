@@ -4,114 +4,100 @@ import com.bmcho.pointservice.aop.PointMetered;
 import com.bmcho.pointservice.domain.Point;
 import com.bmcho.pointservice.domain.PointBalance;
 import com.bmcho.pointservice.domain.PointType;
+import com.bmcho.pointservice.dto.PointDto;
 import com.bmcho.pointservice.exception.*;
 import com.bmcho.pointservice.repository.PointBalanceRepository;
 import com.bmcho.pointservice.repository.PointRepository;
+import com.bmcho.pointservice.service.PointBalanceCache;
+import com.bmcho.pointservice.service.PointBalanceCoalescer;
+import com.bmcho.pointservice.service.PointDailyReportAccumulator;
+import com.bmcho.pointservice.service.PointUserLock;
 import lombok.RequiredArgsConstructor;
-import org.redisson.api.RLock;
-import org.redisson.api.RMap;
-import org.redisson.api.RedissonClient;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.concurrent.TimeUnit;
+import java.time.LocalDateTime;
+import java.util.List;
 
 
 /**
  * Redis를 활용한 포인트 서비스 V2 구현
- * - Redisson 분산 락을 통한 동시성 제어
+ * - 유저 단위 로컬 락 + Redisson 분산 락(PointUserLock)을 통한 동시성 제어, 커밋 후 락 해제
  * - Redis 캐시를 통한 성능 최적화
+ * - 락 안에서는 캐시 잔액이 기준이며, point_balances 행은 PointBalanceCoalescer 가 모아서 반영
  */
 @Service
 @RequiredArgsConstructor
 public class PointRedisService {
 
-    private static final String POINT_BALANCE_MAP = "point:balance";
-    private static final String POINT_LOCK_PREFIX = "point:lock";
-    private static final Long LOCK_WAIT_TIME = 3L;
-    private static final Long LOCK_LEASE_TIME = 3L;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
 
     private final PointRepository pointRepository;
     private final PointBalanceRepository pointBalanceRepository;
-    private final RedissonClient redissonClient;
+    private final PointBalanceCoalescer pointBalanceCoalescer;
+    private final PointDailyReportAccumulator pointDailyReportAccumulator;
+    private final PointBalanceCache pointBalanceCache;
+    private final PointUserLock pointUserLock;
 
     /**
      * 포인트 적립 처리
-     * 1. 분산 락 획득
+     * 1. 유저 락 획득
      * 2. 캐시된 잔액 조회 (없으면 DB에서 조회)
      * 3. 포인트 잔액 증가
-     * 4. DB 저장 및 캐시 업데이트
+     * 4. 캐시 업데이트 및 DB 반영 예약 (write-behind)
      * 5. 포인트 이력 저장
      */
     @PointMetered("v2")
-    @Transactional
     public Point earnPoints(Long userId, Long amount, String description) {
-        //분산락
-        String lockKey = POINT_LOCK_PREFIX + ":" + userId;
-        RLock lock = redissonClient.getLock(lockKey);
-        try {
-            boolean locked = lock.tryLock(LOCK_WAIT_TIME, LOCK_LEASE_TIME, TimeUnit.SECONDS);
-            if (!locked) {
-                throw new LockAcquisitionFailedException(lockKey);
+        return pointUserLock.execute(userId, () -> {
+            if (amount <= 0) {
+                throw new InvalidPointAmountException(amount);
             }
 
-            Long currentBalance = getBalance(userId);
+            Long currentBalance = getLatestBalance(userId);
 
-            // 포인트 잔액 증가
+            // 포인트 잔액 증가 - 신규 유저만 잔액 행을 만들고, 이후 변화량은 write-behind 로 반영
             PointBalance pointBalance = pointBalanceRepository.findByUserId(userId)
-                    .orElseGet(() -> PointBalance.builder()
+                    .orElseGet(() -> pointBalanceRepository.save(PointBalance.builder()
                             .userId(userId)
                             .balance(0L)
-                            .build());
+                            .build()));
 
-            pointBalance.addBalance(amount);
-            pointBalance = pointBalanceRepository.save(pointBalance);
-            updateBalanceCache(userId, pointBalance.getBalance());
+            Long newBalance = currentBalance + amount;
+            updateBalanceCache(userId, newBalance);
+            pointBalanceCoalescer.add(userId, amount);
 
             Point point = Point.builder()
                     .userId(userId)
                     .amount(amount)
                     .type(PointType.EARNED)
                     .description(description)
-                    .balanceSnapshot(pointBalance.getBalance())
+                    .balanceSnapshot(newBalance)
                     .pointBalance(pointBalance)
                     .build();
 
-            return pointRepository.save(point);
-
-        } catch (InterruptedException e) {
-            // 락 획득 중 인터럽트 발생
-            Thread.currentThread().interrupt();
-            throw new PointBasicException("Lock acquisition was interrupted", e.getCause());
-        } finally {
-            // 락 해제
-            if (lock.isHeldByCurrentThread()) {
-                lock.unlock();
-            }
-        }
+            return savePoint(point);
+        });
     }
 
     /**
      * 포인트 사용 처리
-     * 1. 분산 락 획득
+     * 1. 유저 락 획득
      * 2. 캐시된 잔액 조회 (없으면 DB에서 조회)
      * 3. 잔액 체크
      * 4. 포인트 잔액 감소
-     * 5. DB 저장 및 캐시 업데이트
+     * 5. 캐시 업데이트 및 DB 반영 예약 (write-behind)
      * 6. 포인트 이력 저장
      */
     @PointMetered("v2")
-    @Transactional
     public Point usePoints(Long userId, Long amount, String description) {
-        String lockKey = POINT_LOCK_PREFIX + ":" + userId;
-        RLock lock = redissonClient.getLock(lockKey);
-        try {
-            boolean locked = lock.tryLock(LOCK_WAIT_TIME, LOCK_LEASE_TIME, TimeUnit.SECONDS);
-            if (!locked) {
-                throw new LockAcquisitionFailedException(lockKey);
+        return pointUserLock.execute(userId, () -> {
+            if (amount <= 0) {
+                throw new InvalidPointAmountException(amount);
             }
 
-            Long currentBalance = getBalance(userId);
+            Long currentBalance = getLatestBalance(userId);
 
             if (currentBalance < amount) {
                 throw new InsufficientPointBalanceException(currentBalance, amount);
@@ -120,57 +106,38 @@ public class PointRedisService {
             PointBalance pointBalance = pointBalanceRepository.findByUserId(userId)
                     .orElseThrow(() -> new UserNotFound(userId));
 
-            pointBalance.subtractBalance(amount);
-            pointBalance = pointBalanceRepository.save(pointBalance);
-            updateBalanceCache(userId, pointBalance.getBalance());
+            Long newBalance = currentBalance - amount;
+            updateBalanceCache(userId, newBalance);
+            pointBalanceCoalescer.add(userId, -amount);
 
             Point point = Point.builder()
                     .userId(userId)
                     .amount(amount)
                     .type(PointType.USED)
                     .description(description)
-                    .balanceSnapshot(pointBalance.getBalance())
+                    .balanceSnapshot(newBalance)
                     .pointBalance(pointBalance)
                     .build();
 
-            return pointRepository.save(point);
-
-        } catch (InterruptedException e) {
-            // 락 획득 중 인터럽트 발생
-            Thread.currentThread().interrupt();
-            throw new PointBasicException("Lock acquisition was interrupted", e.getCause());
-        } finally {
-            // 락 해제
-            if (lock.isHeldByCurrentThread()) {
-                lock.unlock();
-            }
-        }
+            return savePoint(point);
+        });
     }
 
     /**
      * 포인트 취소 처리
      * 1. 원본 포인트 이력 조회
-     * 2. 분산 락 획득
+     * 2. 유저 락 획득
      * 3. 취소 가능 여부 확인
      * 4. 포인트 잔액 원복 (적립 취소는 차감, 사용 취소는 증가)
-     * 5. DB 저장 및 캐시 업데이트
+     * 5. 캐시 업데이트 및 DB 반영 예약 (write-behind)
      * 6. 취소 이력 저장
      */
-    @Transactional
     public Point cancelPoints(Long pointId, String description) {
         Point originalPoint = pointRepository.findById(pointId)
                 .orElseThrow(() -> new PointNotFound(pointId));
 
         Long userId = originalPoint.getUserId();
-        String lockKey = POINT_LOCK_PREFIX + ":" + userId;
-        RLock lock = redissonClient.getLock(lockKey);
-
-        try {
-            boolean locked = lock.tryLock(LOCK_WAIT_TIME, LOCK_LEASE_TIME, TimeUnit.SECONDS);
-            if (!locked) {
-                throw new LockAcquisitionFailedException(lockKey);
-            }
-
+        return pointUserLock.execute(userId, () -> {
             if (originalPoint.getType() == PointType.CANCELED) {
                 throw new PointAlreadyCanceled(pointId);
             }
@@ -178,37 +145,33 @@ public class PointRedisService {
             PointBalance pointBalance = pointBalanceRepository.findByUserId(userId)
                     .orElseThrow(() -> new UserNotFound(userId));
 
+            Long currentBalance = getLatestBalance(userId);
+            long delta;
             if (originalPoint.getType() == PointType.EARNED) {
-                pointBalance.subtractBalance(originalPoint.getAmount());
+                if (currentBalance < originalPoint.getAmount()) {
+                    throw new InsufficientPointBalanceException("Cannot cancel earned points by insufficient balance",
+                            currentBalance, originalPoint.getAmount());
+                }
+                delta = -originalPoint.getAmount();
             } else {
-                pointBalance.addBalance(originalPoint.getAmount());
+                delta = originalPoint.getAmount();
             }
 
-            pointBalance = pointBalanceRepository.save(pointBalance);
-            updateBalanceCache(userId, pointBalance.getBalance());
+            Long newBalance = currentBalance + delta;
+            updateBalanceCache(userId, newBalance);
+            pointBalanceCoalescer.add(userId, delta);
 
             Point point = Point.builder()
                     .userId(userId)
                     .amount(originalPoint.getAmount())
                     .type(PointType.CANCELED)
                     .description(description)
-                    .balanceSnapshot(pointBalance.getBalance())
+                    .balanceSnapshot(newBalance)
                     .pointBalance(pointBalance)
                     .build();
 
-            return pointRepository.save(point);
-
-        } catch (InterruptedException e) {
-            // 락 획득 중 인터럽트 발생
-            Thread.currentThread().interrupt();
-            throw new PointBasicException("Lock acquisition was interrupted", e.getCause());
-        } finally {
-            // 락 해제
-            if (lock.isHeldByCurrentThread()) {
-                lock.unlock();
-            }
-        }
-
+            return savePoint(point);
+        });
     }
 
     @Transactional(readOnly = true)
@@ -223,24 +186,62 @@ public class PointRedisService {
         return dbBalance;
     }
 
+    /**
+     * 잔액 변경 경로용 조회 - near-cache 의 로컬 사본은 다른 인스턴스의 변경을 늦게 볼 수 있으므로 Redis 값으로 계산
+     */
+    private Long getLatestBalance(Long userId) {
+        Long cachedBalance = pointBalanceCache.getLatest(userId);
+        if (cachedBalance != null) {
+            return cachedBalance;
+        }
+
+        Long dbBalance = getBalanceFromDB(userId);
+        updateBalanceCache(userId, dbBalance);
+        return dbBalance;
+    }
+
+    /**
+     * 포인트 이력 keyset 페이징 조회
+     * - (created_at, id) 커서 이후 size 건만 인덱스로 읽으므로 페이지 깊이와 무관하게 비용이 일정
+     * - 다음 페이지 존재 여부는 size + 1 건 조회로 판단 (count 쿼리 없음)
+     *
+     * @param cursorCreatedAt 이전 페이지 마지막 항목의 createdAt (첫 페이지는 null)
+     * @param cursorId        이전 페이지 마지막 항목의 id (첫 페이지는 null)
+     */
+    @Transactional(readOnly = true)
+    public PointDto.HistoryPage getPointHistory(Long userId, LocalDateTime cursorCreatedAt, Long cursorId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<PointDto.HistoryResponse> rows = cursorCreatedAt == null || cursorId == null
+                ? pointRepository.findHistoryFirstPage(userId, limit)
+                : pointRepository.findHistoryAfter(userId, cursorCreatedAt, cursorId, limit);
+        return PointDto.HistoryPage.of(rows, pageSize);
+    }
+
     /**
      * Redis 캐시에서 잔액 조회
      */
     private Long getBalanceFromCache(Long userId) {
-        RMap<String, Long> balanceMap = redissonClient.getMap(POINT_BALANCE_MAP);
-        return balanceMap.get(String.valueOf(userId));
+        return pointBalanceCache.get(userId);
     }
 
     private void updateBalanceCache(Long userId, Long currentBalance) {
-        RMap<String, Long> balanceMap = redissonClient.getMap(POINT_BALANCE_MAP);
-        balanceMap.fastPut(String.valueOf(userId), currentBalance);
+        pointBalanceCache.put(userId, currentBalance);
     }
 
     private Long getBalanceFromDB(Long userId) {
         return pointBalanceRepository.findByUserId(userId)
                 .map(PointBalance::getBalance)
-                .orElse(0L);
+                .orElse(0L) + pointBalanceCoalescer.pendingDelta(userId);
     }
 
-
+    /**
+     * 포인트 이력 저장 - 커밋되면 일별 리포트 실시간 집계에 반영
+     */
+    private Point savePoint(Point point) {
+        Point saved = pointRepository.save(point);
+        pointDailyReportAccumulator.add(saved);
+        return saved;
+    }
 }
@@ -0,0 +1,149 @@
+package com.bmcho.pointservice.service.v3;
+
+import com.bmcho.pointservice.domain.PointType;
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 포인트 잔액 확인/변경과 원장(ledger) 기록을 하나의 Lua 스크립트로 처리한다.
+ * 멱등키 확인 → 잔액 조회 → 잔액 체크 → 잔액 변경 → 원장 스트림 XADD 가 Redis 서버에서 원자적으로 실행되므로 분산락이 필요 없다.
+ *
+ * v3 잔액 해시(point:v3:balance)는 한 번 초기화된 유저에 대해서는 원본(source of truth)이고,
+ * DB(points, point_balances)는 PointLedgerWriter 가 원장 스트림을 읽어 뒤따라 반영한다.
+ * 같은 유저에 대해 v2 API 로 DB 를 직접 바꾸면 v3 잔액과 어긋나므로 v2/v3 를 섞어 쓰지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PointBalanceScript {
+
+    static final String BALANCE_KEY = "point:v3:balance";
+    static final String LEDGER_STREAM = "point:ledger";
+    private static final String IDEMPOTENCY_KEY_PREFIX = "point:idempotency:";
+    private static final Duration IDEMPOTENCY_TTL = Duration.ofDays(1);
+
+    private static final long APPLIED = 0;
+    private static final long REPLAYED = 1;
+    private static final long NOT_LOADED = -1;
+    private static final long INSUFFICIENT = -2;
+
+    /*
+        KEYS[1] = 잔액 해시, KEYS[2] = 원장 스트림, KEYS[3] = 멱등키 (선택)
+        ARGV[1] = userId, ARGV[2] = 잔액 변화량(사용은 음수), ARGV[3] = type, ARGV[4] = amount, ARGV[5] = description
+        ARGV[6] = createdAt (epoch millis), ARGV[7] = 해시에 잔액이 없을 때 사용할 DB 잔액 ('' 이면 -1 반환), ARGV[8] = 멱등키 TTL (초)
+        반환 : {상태 코드, "원장ID|잔액"} - 잔액 부족 시 {-2, 현재 잔액}
+     */
+    private static final String APPLY_SCRIPT = """
+            local idempotent = #KEYS == 3
+            if idempotent then
+                local done = redis.call('GET', KEYS[3])
+                if done then
+                    return {1, done}
+                end
+            end
+            local balance = redis.call('HGET', KEYS[1], ARGV[1])
+            if not balance then
+                if ARGV[7] == '' then
+                    return {-1, ''}
+                end
+                balance = ARGV[7]
+            end
+            local newBalance = tonumber(balance) + tonumber(ARGV[2])
+            if newBalance < 0 then
+                return {-2, balance}
+            end
+            redis.call('HSET', KEYS[1], ARGV[1], newBalance)
+            local ledgerId = redis.call('XADD', KEYS[2], '*',
+                'userId', ARGV[1], 'type', ARGV[3], 'amount', ARGV[4], 'description', ARGV[5],
+                'balance', newBalance, 'createdAt', ARGV[6])
+            local result = ledgerId .. '|' .. newBalance
+            if idempotent then
+                redis.call('SET', KEYS[3], result, 'EX', ARGV[8])
+            end
+            return {0, result}
+            """;
+
+    private final RedissonClient redissonClient;
+
+    /**
+     * 잔액 변경 + 원장 기록
+     *
+     * @param userId         유저 ID
+     * @param type           EARNED 또는 USED
+     * @param amount         변경 금액 (양수)
+     * @param description    설명
+     * @param idempotencyKey 멱등키 (null 이면 재시도 보호 없음)
+     * @param seedBalance    해시에 잔액이 없을 때 사용할 DB 잔액 (null 이면 NOT_LOADED 반환)
+     * @return 처리 결과
+     */
+    public Result apply(Long userId, PointType type, long amount, String description,
+                        String idempotencyKey, Long seedBalance) {
+        List<Object> keys = new ArrayList<>(3);
+        keys.add(BALANCE_KEY);
+        keys.add(LEDGER_STREAM);
+        if (idempotencyKey != null) {
+            keys.add(IDEMPOTENCY_KEY_PREFIX + userId + ":" + idempotencyKey);
+        }
+
+        long delta = type == PointType.USED ? -amount : amount;
+        List<Object> reply = eval(keys,
+                String.valueOf(userId), String.valueOf(delta), type.name(), String.valueOf(amount), description,
+                String.valueOf(System.currentTimeMillis()), seedBalance == null ? "" : String.valueOf(seedBalance),
+                String.valueOf(IDEMPOTENCY_TTL.toSeconds()));
+        return toResult(reply);
+    }
+
+    /**
+     * v3 잔액 조회
+     *
+     * @return 잔액, 아직 초기화되지 않은 유저는 null
+     */
+    public Long getBalance(Long userId) {
+        String balance = redissonClient.<String, String>getMap(BALANCE_KEY, StringCodec.INSTANCE)
+                .get(String.valueOf(userId));
+        return balance == null ? null : Long.parseLong(balance);
+    }
+
+    private Result toResult(List<Object> reply) {
+        long code = (Long) reply.get(0);
+        String value = (String) reply.get(1);
+        if (code == NOT_LOADED) {
+            return new Result(Status.NOT_LOADED, null, null);
+        }
+        if (code == INSUFFICIENT) {
+            return new Result(Status.INSUFFICIENT, null, Long.parseLong(value));
+        }
+
+        int separator = value.lastIndexOf('|');
+        String ledgerId = value.substring(0, separator);
+        Long balance = Long.parseLong(value.substring(separator + 1));
+        return new Result(code == REPLAYED ? Status.REPLAYED : Status.APPLIED, ledgerId, balance);
+    }
+
+    private List<Object> eval(List<Object> keys, Object... args) {
+        // RedisConfig.useScriptCache - EVALSHA 로 실행되고 스크립트 캐시가 비워졌으면 Redisson 이 다시 로드
+        return redissonClient.getScript(StringCodec.INSTANCE)
+                .eval(RScript.Mode.READ_WRITE, APPLY_SCRIPT, RScript.ReturnType.MULTI, keys, args);
+    }
+
+    /**
+     * @param status   처리 상태
+     * @param ledgerId 원장 스트림 ID (APPLIED / REPLAYED)
+     * @param balance  변경 후 잔액 (INSUFFICIENT 는 현재 잔액)
+     */
+    public record Result(Status status, String ledgerId, Long balance) {
+    }
+
+    public enum Status {
+        APPLIED,
+        REPLAYED,       // 같은 멱등키로 이미 처리된 요청 - 처음 결과를 그대로 반환
+        NOT_LOADED,     // 해시에 잔액이 없음 - DB 잔액으로 다시 호출 필요
+        INSUFFICIENT
+    }
+}
@@ -0,0 +1,187 @@
+package com.bmcho.pointservice.service.v3;
+
+import com.bmcho.pointservice.domain.PointLedgerEntry;
+import com.bmcho.pointservice.repository.PointLedgerJdbcRepository;
+import com.bmcho.pointservice.service.PointDailyReportAccumulator;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.PendingEntry;
+import org.redisson.api.RLock;
+import org.redisson.api.RStream;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.api.stream.StreamCreateGroupArgs;
+import org.redisson.api.stream.StreamReadGroupArgs;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 원장 스트림(point:ledger)을 읽어 DB 에 배치 반영한다.
+ * - 여러 인스턴스 중 락을 잡은 하나만 반영하므로 같은 유저의 잔액 upsert 순서가 스트림 순서와 같다.
+ * - 반영 후 ack/삭제하며, ack 전에 죽으면 다음 실행에서 pending 부터 다시 읽는다. (ledger_id 로 중복 제거)
+ * - 배치 반영이 실패하면 한 건씩 스트림 순서대로 반영하고, 실패한 원장에서 멈춰 뒤의 원장은 pending 으로 남긴다.
+ *   (뒤의 원장이 먼저 반영되면 실패한 원장이 나중에 재시도될 때 잔액 절대값을 과거로 되돌리므로)
+ * - 같은 원장이 max-deliveries 번 전달되고도 실패하면 dead-letter 스트림(point:ledger:dead-letter)으로 옮기고 ack 한다.
+ *   이후 원장의 잔액 절대값에는 옮긴 원장의 변화량이 이미 포함되어 있으므로, points 이력만 수동으로 보정하면 된다.
+ */
+@Slf4j
+@Component
+public class PointLedgerWriter {
+
+    static final String CONSUMER_GROUP = "point-ledger-writer";
+    private static final String CONSUMER_NAME = "writer";
+    private static final String WRITER_LOCK = "point:lock:ledger-writer";
+    static final String DEAD_LETTER_STREAM = "point:ledger:dead-letter";
+
+    private final RedissonClient redissonClient;
+    private final PointLedgerJdbcRepository pointLedgerJdbcRepository;
+    private final PointDailyReportAccumulator pointDailyReportAccumulator;
+    private final int batchSize;
+    private final long maxDeliveries;
+
+    public PointLedgerWriter(RedissonClient redissonClient,
+                             PointLedgerJdbcRepository pointLedgerJdbcRepository,
+                             PointDailyReportAccumulator pointDailyReportAccumulator,
+                             @Value("${point.ledger.batch-size:500}") int batchSize,
+                             @Value("${point.ledger.max-deliveries:5}") long maxDeliveries) {
+        this.redissonClient = redissonClient;
+        this.pointLedgerJdbcRepository = pointLedgerJdbcRepository;
+        this.pointDailyReportAccumulator = pointDailyReportAccumulator;
+        this.batchSize = batchSize;
+        this.maxDeliveries = maxDeliveries;
+    }
+
+    @PostConstruct
+    void createGroup() {
+        try {
+            ledgerStream().createGroup(StreamCreateGroupArgs.name(CONSUMER_GROUP)
+                    .id(StreamMessageId.ALL)
+                    .makeStream());
+        } catch (RedisException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${point.ledger.flush-interval-ms:200}")
+    public void flush() {
+        RLock lock = redissonClient.getLock(WRITER_LOCK);
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            // 이전 실행에서 ack 하지 못한 원장부터 처리 - 남은 원장이 있으면 새 원장이 앞지르지 않도록 다음 실행으로 미룸
+            if (drainAll(StreamReadGroupArgs.greaterThan(new StreamMessageId(0, 0)).count(batchSize))) {
+                drainAll(StreamReadGroupArgs.neverDelivered().count(batchSize));
+            }
+        } catch (Exception e) {
+            log.error("point ledger flush failed", e);
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @return 읽은 원장을 모두 처리했으면 true, 실패한 원장이 pending 으로 남았으면 false
+     */
+    private boolean drainAll(StreamReadGroupArgs args) {
+        DrainResult result = DrainResult.MORE;
+        while (result == DrainResult.MORE) {
+            result = drain(args);
+        }
+        return result == DrainResult.DONE;
+    }
+
+    private DrainResult drain(StreamReadGroupArgs args) {
+        RStream<String, String> stream = ledgerStream();
+        Map<StreamMessageId, Map<String, String>> messages = stream.readGroup(CONSUMER_GROUP, CONSUMER_NAME, args);
+        if (messages == null || messages.isEmpty()) {
+            return DrainResult.DONE;
+        }
+
+        try {
+            persist(messages);
+            StreamMessageId[] ids = messages.keySet().toArray(StreamMessageId[]::new);
+            stream.ack(CONSUMER_GROUP, ids);
+            stream.remove(ids);
+        } catch (RuntimeException e) {
+            log.warn("point ledger batch flush failed, retrying one by one - size: {}", messages.size(), e);
+            if (!drainOneByOne(stream, messages)) {
+                return DrainResult.BLOCKED;
+            }
+        }
+
+        return messages.size() >= batchSize ? DrainResult.MORE : DrainResult.DONE;
+    }
+
+    /**
+     * 스트림 순서대로 한 건씩 반영하고, 재시도 여지가 있는 실패에서 멈춘다.
+     *
+     * @return 모두 반영(또는 dead-letter)했으면 true
+     */
+    private boolean drainOneByOne(RStream<String, String> stream, Map<StreamMessageId, Map<String, String>> messages) {
+        for (Map.Entry<StreamMessageId, Map<String, String>> message : messages.entrySet()) {
+            StreamMessageId id = message.getKey();
+            try {
+                persist(Map.of(id, message.getValue()));
+            } catch (RuntimeException e) {
+                long deliveries = deliveryCount(stream, id);
+                if (deliveries < maxDeliveries) {
+                    log.warn("point ledger entry flush failed - id: {}, deliveries: {}", id, deliveries, e);
+                    return false;
+                }
+                deadLetter(id, message.getValue(), e);
+            }
+            stream.ack(CONSUMER_GROUP, id);
+            stream.remove(id);
+        }
+        return true;
+    }
+
+    private void persist(Map<StreamMessageId, Map<String, String>> messages) {
+        List<PointLedgerEntry> entries = messages.entrySet().stream()
+                .map(e -> PointLedgerEntry.of(e.getKey().toString(), e.getValue()))
+                .toList();
+        List<PointLedgerEntry> persisted = pointLedgerJdbcRepository.persist(entries);
+        // 이미 반영됐던 원장은 제외되므로 재처리돼도 리포트에 두 번 더해지지 않음
+        persisted.forEach(entry -> pointDailyReportAccumulator.add(
+                entry.userId(), entry.type(), entry.amount(), entry.createdAt()));
+        log.debug("point ledger flushed - read: {}, persisted: {}", entries.size(), persisted.size());
+    }
+
+    private long deliveryCount(RStream<String, String> stream, StreamMessageId id) {
+        List<PendingEntry> pending = stream.listPending(CONSUMER_GROUP, id, id, 1);
+        // PendingEntry.lastTimeDelivered 는 XPENDING 의 전달 횟수
+        return pending.isEmpty() ? 0 : pending.get(0).getLastTimeDelivered();
+    }
+
+    private void deadLetter(StreamMessageId id, Map<String, String> fields, RuntimeException cause) {
+        Map<String, String> deadLetter = new LinkedHashMap<>(fields);
+        deadLetter.put("ledgerId", id.toString());
+        deadLetter.put("error", String.valueOf(cause.getMessage()));
+        redissonClient.<String, String>getStream(DEAD_LETTER_STREAM, StringCodec.INSTANCE)
+                .add(StreamAddArgs.entries(deadLetter));
+        log.error("point ledger entry moved to dead-letter - id: {}, fields: {}", id, fields, cause);
+    }
+
+    private RStream<String, String> ledgerStream() {
+        return redissonClient.getStream(PointBalanceScript.LEDGER_STREAM, StringCodec.INSTANCE);
+    }
+
+    private enum DrainResult {
+        MORE,       // 배치가 가득 참 - 더 읽을 원장이 남아 있을 수 있음
+        DONE,
+        BLOCKED     // 실패한 원장이 pending 으로 남음 - 다음 실행에서 재시도
+    }
+}
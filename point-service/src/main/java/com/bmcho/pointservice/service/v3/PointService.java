@@ -0,0 +1,92 @@
+package com.bmcho.pointservice.service.v3;
+
+import com.bmcho.pointservice.aop.PointMetered;
+import com.bmcho.pointservice.domain.PointBalance;
+import com.bmcho.pointservice.domain.PointType;
+import com.bmcho.pointservice.dto.PointDto;
+import com.bmcho.pointservice.exception.InsufficientPointBalanceException;
+import com.bmcho.pointservice.exception.InvalidPointAmountException;
+import com.bmcho.pointservice.repository.PointBalanceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * 포인트 서비스 V3 구현
+ * - 잔액 확인/변경은 Redis Lua 스크립트 한 번으로 원자적으로 처리 (분산 락 없음)
+ * - 포인트 이력/잔액의 DB 반영은 원장 스트림을 통해 PointLedgerWriter 가 배치로 처리
+ * - 응답은 DB 반영을 기다리지 않고 스크립트가 돌려준 잔액 스냅샷으로 즉시 반환
+ */
+@Slf4j
+@Service("pointServiceV3")
+@RequiredArgsConstructor
+public class PointService {
+
+    private final PointBalanceScript pointBalanceScript;
+    private final PointBalanceRepository pointBalanceRepository;
+
+    /**
+     * 포인트 적립
+     *
+     * @param idempotencyKey 같은 키로 재시도하면 다시 적립하지 않고 처음 결과를 반환 (null 허용)
+     */
+    @PointMetered("v3")
+    public PointDto.LedgerResponse earnPoints(Long userId, Long amount, String description, String idempotencyKey) {
+        return apply(userId, PointType.EARNED, amount, description, idempotencyKey);
+    }
+
+    /**
+     * 포인트 사용
+     *
+     * @param idempotencyKey 같은 키로 재시도하면 다시 차감하지 않고 처음 결과를 반환 (null 허용)
+     */
+    @PointMetered("v3")
+    public PointDto.LedgerResponse usePoints(Long userId, Long amount, String description, String idempotencyKey) {
+        return apply(userId, PointType.USED, amount, description, idempotencyKey);
+    }
+
+    public Long getBalance(Long userId) {
+        Long balance = pointBalanceScript.getBalance(userId);
+        if (balance != null) {
+            return balance;
+        }
+        return getBalanceFromDB(userId);
+    }
+
+    private PointDto.LedgerResponse apply(Long userId, PointType type, Long amount, String description,
+                                          String idempotencyKey) {
+        if (amount == null || amount <= 0) {
+            throw new InvalidPointAmountException(amount);
+        }
+
+        PointBalanceScript.Result result = pointBalanceScript.apply(userId, type, amount, description,
+                idempotencyKey, null);
+        if (result.status() == PointBalanceScript.Status.NOT_LOADED) {
+            // v3 최초 요청 - DB 잔액으로 초기화하며 다시 실행 (동시 요청이 먼저 초기화했다면 스크립트가 기존 값을 사용)
+            result = pointBalanceScript.apply(userId, type, amount, description,
+                    idempotencyKey, getBalanceFromDB(userId));
+        }
+
+        if (result.status() == PointBalanceScript.Status.INSUFFICIENT) {
+            throw new InsufficientPointBalanceException(result.balance(), amount);
+        }
+        if (result.status() == PointBalanceScript.Status.REPLAYED) {
+            log.info("point request replayed - userId: {}, idempotencyKey: {}", userId, idempotencyKey);
+        }
+
+        return PointDto.LedgerResponse.builder()
+                .ledgerId(result.ledgerId())
+                .userId(userId)
+                .amount(amount)
+                .type(type)
+                .balance(result.balance())
+                .replayed(result.status() == PointBalanceScript.Status.REPLAYED)
+                .build();
+    }
+
+    private Long getBalanceFromDB(Long userId) {
+        return pointBalanceRepository.findByUserId(userId)
+                .map(PointBalance::getBalance)
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,56 @@
+package com.bmcho.pointservice.config.interceptor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdminTokenInterceptorTest {
+
+    private final AdminTokenInterceptor adminTokenInterceptor = new AdminTokenInterceptor("admin-token");
+
+    @Test
+    @DisplayName("토큰이 같으면 통과")
+    void preHandle_Success() {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-ADMIN-TOKEN", "admin-token");
+
+        //when
+        boolean passed = adminTokenInterceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+
+        //then
+        assertThat(passed).isTrue();
+    }
+
+    @Test
+    @DisplayName("토큰이 없거나 다르면 403")
+    void preHandle_Forbidden() {
+        //given
+        MockHttpServletRequest missing = new MockHttpServletRequest();
+        MockHttpServletRequest wrong = new MockHttpServletRequest();
+        wrong.addHeader("X-ADMIN-TOKEN", "guess");
+        MockHttpServletResponse missingResponse = new MockHttpServletResponse();
+        MockHttpServletResponse wrongResponse = new MockHttpServletResponse();
+
+        //when
+        boolean missingPassed = adminTokenInterceptor.preHandle(missing, missingResponse, new Object());
+        boolean wrongPassed = adminTokenInterceptor.preHandle(wrong, wrongResponse, new Object());
+
+        //then
+        assertThat(missingPassed).isFalse();
+        assertThat(missingResponse.getStatus()).isEqualTo(403);
+        assertThat(wrongPassed).isFalse();
+        assertThat(wrongResponse.getStatus()).isEqualTo(403);
+    }
+
+    @Test
+    @DisplayName("토큰이 설정되지 않으면 생성 실패")
+    void create_Fail_BlankToken() {
+        assertThatThrownBy(() -> new AdminTokenInterceptor(" "))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,127 @@
+package com.bmcho.pointservice.service;
+
+import com.bmcho.pointcache.PointBalanceCacheSchema;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.LocalCachedMapOptions;
+import org.redisson.api.RLocalCachedMap;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class PointBalanceCacheTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RLocalCachedMap<String, Long> nearCache;
+    @Mock
+    private RMap<String, Long> remoteMap;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PointBalanceCache pointBalanceCache;
+    private final Map<String, Long> localCopy = new HashMap<>();
+
+    private static final Long USER_ID = 1L;
+    private static final String FIELD = "1";
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        given(redissonClient.<String, Long>getLocalCachedMap(eq(PointBalanceCacheSchema.MAP_NAME),
+                eq(PointBalanceCacheSchema.CODEC), any(LocalCachedMapOptions.class))).willReturn(nearCache);
+        pointBalanceCache = new PointBalanceCache(redissonClient, meterRegistry, true, 100, Duration.ofSeconds(2));
+    }
+
+    @Test
+    @DisplayName("near-cache 적중 시 Redis 를 조회하지 않음")
+    void getFromNearCache() {
+        //given
+        given(nearCache.getCachedMap()).willReturn(localCopy);
+        localCopy.put(FIELD, 500L);
+
+        //when
+        Long balance = pointBalanceCache.get(USER_ID);
+
+        //then
+        assertThat(balance).isEqualTo(500L);
+        verify(nearCache, never()).get(any());
+        assertThat(count("point.balance.near_cache.requests", "hit")).isEqualTo(1);
+        assertThat(count("point.balance.cache.requests", "hit")).isZero();
+    }
+
+    @Test
+    @DisplayName("near-cache 미스 시 Redis 에서 읽고 적중/미스를 따로 기록")
+    void getFromRedisOnNearCacheMiss() {
+        //given
+        given(nearCache.getCachedMap()).willReturn(localCopy);
+        given(nearCache.get(FIELD)).willReturn(500L);
+
+        //when
+        Long balance = pointBalanceCache.get(USER_ID);
+
+        //then
+        assertThat(balance).isEqualTo(500L);
+        assertThat(count("point.balance.near_cache.requests", "miss")).isEqualTo(1);
+        assertThat(count("point.balance.cache.requests", "hit")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("잔액 변경 경로 조회는 로컬 사본을 거치지 않음")
+    void getLatestBypassesNearCache() {
+        //given
+        given(redissonClient.<String, Long>getMap(PointBalanceCacheSchema.MAP_NAME, PointBalanceCacheSchema.CODEC))
+                .willReturn(remoteMap);
+        given(remoteMap.get(FIELD)).willReturn(700L);
+
+        //when
+        Long balance = pointBalanceCache.getLatest(USER_ID);
+
+        //then
+        assertThat(balance).isEqualTo(700L);
+        verify(nearCache, never()).getCachedMap();
+    }
+
+    @Test
+    @DisplayName("쓰기는 near-cache 를 통해 반영해 다른 인스턴스에 무효화가 전파됨")
+    void putThroughNearCache() {
+        //when
+        pointBalanceCache.put(USER_ID, 300L);
+
+        //then
+        verify(nearCache).fastPut(FIELD, 300L);
+        verify(redissonClient, never()).getMap(any(String.class), any(Codec.class));
+    }
+
+    @Test
+    @DisplayName("캐시 삭제는 near-cache 를 통해 반영해 다른 인스턴스에 무효화가 전파됨")
+    void evictThroughNearCache() {
+        //when
+        pointBalanceCache.evict(List.of(USER_ID));
+
+        //then
+        verify(nearCache).fastRemove(FIELD);
+    }
+
+    private double count(String name, String result) {
+        return meterRegistry.get(name).tag("result", result).counter().count();
+    }
+}
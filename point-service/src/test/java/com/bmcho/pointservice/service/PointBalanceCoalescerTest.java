@@ -0,0 +1,254 @@
+package com.bmcho.pointservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 대기 변화량은 Redis 해시에 쌓이므로 실제 Redis(Testcontainers)로 검증한다.
+ */
+@ExtendWith(MockitoExtension.class)
+@Testcontainers(disabledWithoutDocker = true)
+class PointBalanceCoalescerTest {
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static RedissonClient redissonClient;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PointBalanceCoalescer pointBalanceCoalescer;
+
+    @BeforeAll
+    static void setUpRedis() {
+        Config config = new Config();
+        config.useSingleServer()
+                .setAddress("redis://" + REDIS.getHost() + ":" + REDIS.getMappedPort(6379));
+        config.setUseScriptCache(true);
+        redissonClient = Redisson.create(config);
+    }
+
+    @AfterAll
+    static void tearDownRedis() {
+        redissonClient.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redissonClient.getKeys().flushall();
+        meterRegistry = new SimpleMeterRegistry();
+        pointBalanceCoalescer = coalescer(meterRegistry);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("같은 유저의 변화량은 UPDATE 한 번으로 합쳐서 반영")
+    @SuppressWarnings("unchecked")
+    void coalescePerUser() {
+        //given
+        pointBalanceCoalescer.add(1L, 100L);
+        pointBalanceCoalescer.add(1L, 200L);
+        pointBalanceCoalescer.add(1L, -50L);
+        pointBalanceCoalescer.add(2L, 10L);
+
+        //when
+        assertThat(pointBalanceCoalescer.pendingDelta(1L)).isEqualTo(250L);
+        assertThat(meterRegistry.get("point.balance.write_behind.queue.depth").gauge().value()).isEqualTo(2);
+        pointBalanceCoalescer.flush();
+
+        //then
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+        Map<Object, Object> deltas = captor.getValue().stream()
+                .collect(Collectors.toMap(params -> params[2], params -> params[0]));
+        assertThat(deltas).containsOnly(entry(1L, 250L), entry(2L, 10L));
+        assertThat(pointBalanceCoalescer.pendingDelta(1L)).isZero();
+        assertThat(meterRegistry.get("point.balance.write_behind.queue.depth").gauge().value()).isZero();
+        assertThat(meterRegistry.get("point.balance.write_behind.flush.lag").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스가 쌓은 변화량도 조회/반영")
+    void sharedAcrossInstances() {
+        //given
+        PointBalanceCoalescer other = coalescer(new SimpleMeterRegistry());
+        other.add(1L, 100L);
+
+        //when
+        long pending = pointBalanceCoalescer.pendingDelta(1L);
+        pointBalanceCoalescer.flush();
+
+        //then
+        assertThat(pending).isEqualTo(100L);
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+        assertThat(other.pendingDelta(1L)).isZero();
+    }
+
+    @Test
+    @DisplayName("반영 실패 시 변화량을 다시 넣어 다음 주기에 재시도")
+    void restoreOnFailure() {
+        //given
+        pointBalanceCoalescer.add(1L, 100L);
+        given(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .willThrow(new IllegalStateException("db down"));
+
+        //when
+        pointBalanceCoalescer.flush();
+
+        //then
+        assertThat(pointBalanceCoalescer.pendingDelta(1L)).isEqualTo(100L);
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안의 변화량은 커밋 후에 적재")
+    void addAfterCommit() {
+        //given
+        TransactionSynchronizationManager.initSynchronization();
+        pointBalanceCoalescer.add(1L, 100L);
+        assertThat(pointBalanceCoalescer.pendingDelta(1L)).isZero();
+
+        //when
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        //then
+        assertThat(pointBalanceCoalescer.pendingDelta(1L)).isEqualTo(100L);
+    }
+
+    @Test
+    @DisplayName("롤백된 트랜잭션의 변화량은 적재하지 않음")
+    void skipOnRollback() {
+        //given
+        TransactionSynchronizationManager.initSynchronization();
+        pointBalanceCoalescer.add(1L, 100L);
+
+        //when
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        //then
+        assertThat(pointBalanceCoalescer.pendingDelta(1L)).isZero();
+    }
+
+    @Test
+    @DisplayName("flushUser 후 트랜잭션이 롤백되면 꺼낸 변화량을 다시 적재")
+    void flushUser_RestoreOnRollback() {
+        //given
+        pointBalanceCoalescer.add(1L, 100L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        //when
+        pointBalanceCoalescer.flushUser(1L);
+        assertThat(pointBalanceCoalescer.pendingDelta(1L)).isZero();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        //then
+        verify(jdbcTemplate).update(anyString(), eq(100L), any(), eq(1L));
+        assertThat(pointBalanceCoalescer.pendingDelta(1L)).isEqualTo(100L);
+    }
+
+    @Test
+    @DisplayName("flushUser 후 트랜잭션이 커밋되면 변화량을 다시 적재하지 않음")
+    void flushUser_Commit() {
+        //given
+        pointBalanceCoalescer.add(1L, 100L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        //when
+        pointBalanceCoalescer.flushUser(1L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        //then
+        assertThat(pointBalanceCoalescer.pendingDelta(1L)).isZero();
+    }
+
+    @Test
+    @DisplayName("flushUser 의 UPDATE 가 실패하면 변화량을 다시 적재하고 예외 전파")
+    void flushUser_RestoreOnUpdateFailure() {
+        //given
+        pointBalanceCoalescer.add(1L, 100L);
+        willThrow(new IllegalStateException("db down"))
+                .given(jdbcTemplate).update(anyString(), eq(100L), any(), eq(1L));
+
+        //when & then
+        assertThatThrownBy(() -> pointBalanceCoalescer.flushUser(1L))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(pointBalanceCoalescer.pendingDelta(1L)).isEqualTo(100L);
+    }
+
+    @Test
+    @DisplayName("종료 시 남은 변화량 반영")
+    void flushOnShutdown() {
+        //given
+        pointBalanceCoalescer.add(1L, 100L);
+
+        //when
+        pointBalanceCoalescer.shutdown();
+
+        //then
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+        assertThat(pointBalanceCoalescer.pendingDelta(1L)).isZero();
+    }
+
+    @Test
+    @DisplayName("쌓인 변화량이 없으면 DB 를 호출하지 않음")
+    void skipEmptyFlush() {
+        //when
+        pointBalanceCoalescer.flush();
+
+        //then
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    private PointBalanceCoalescer coalescer(SimpleMeterRegistry registry) {
+        return new PointBalanceCoalescer(redissonClient, jdbcTemplate, transactionManager, registry, 10_000);
+    }
+}
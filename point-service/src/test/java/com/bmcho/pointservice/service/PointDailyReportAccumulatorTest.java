@@ -0,0 +1,202 @@
+package com.bmcho.pointservice.service;
+
+import com.bmcho.pointservice.domain.PointType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Date;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 대기 합계는 Redis 해시에 쌓이므로 실제 Redis(Testcontainers)로 검증한다.
+ */
+@ExtendWith(MockitoExtension.class)
+@Testcontainers(disabledWithoutDocker = true)
+class PointDailyReportAccumulatorTest {
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static RedissonClient redissonClient;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PointDailyReportAccumulator accumulator;
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 1);
+
+    @BeforeAll
+    static void setUpRedis() {
+        Config config = new Config();
+        config.useSingleServer()
+                .setAddress("redis://" + REDIS.getHost() + ":" + REDIS.getMappedPort(6379));
+        config.setUseScriptCache(true);
+        redissonClient = Redisson.create(config);
+    }
+
+    @AfterAll
+    static void tearDownRedis() {
+        redissonClient.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redissonClient.getKeys().flushall();
+        meterRegistry = new SimpleMeterRegistry();
+        // 자정 직후 - 전날 합계도 아직 cut-off 전
+        accumulator = accumulator(meterRegistry, true, TODAY.atTime(0, 10));
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("같은 유저/날짜의 이력은 upsert 한 건으로 합쳐서 반영")
+    @SuppressWarnings("unchecked")
+    void accumulatePerUserAndDay() {
+        //given
+        accumulator.add(1L, PointType.EARNED, 1000L, TODAY.atTime(9, 0));
+        accumulator.add(1L, PointType.USED, 300L, TODAY.atTime(10, 0));
+        accumulator.add(1L, PointType.CANCELED, 100L, TODAY.atTime(11, 0));
+        // 자정 직전 이력은 전날로 집계
+        accumulator.add(1L, PointType.EARNED, 50L, TODAY.minusDays(1).atTime(23, 59, 59));
+        assertThat(meterRegistry.get("point.report.incremental.queue.depth").gauge().value()).isEqualTo(4);
+
+        //when
+        accumulator.flush();
+
+        //then
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+        List<Object[]> rows = captor.getValue();
+        assertThat(rows).hasSize(2);
+        Object[] today = rows.stream().filter(row -> row[1].equals(Date.valueOf(TODAY))).findFirst().orElseThrow();
+        // user_id, report_date, earn, use, cancel, net
+        assertThat(List.of(today).subList(0, 6))
+                .containsExactly(1L, Date.valueOf(TODAY), 1000L, 300L, 100L, 800L);
+        assertThat(meterRegistry.get("point.report.incremental.queue.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스가 쌓은 합계도 반영")
+    void sharedAcrossInstances() {
+        //given
+        accumulator(new SimpleMeterRegistry(), true, TODAY.atTime(12, 0))
+                .add(PointType.EARNED, Map.of(1L, 500L, 2L, 700L), TODAY.atTime(9, 0));
+
+        //when
+        accumulator.flush();
+
+        //then
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+        assertThat(meterRegistry.get("point.report.incremental.queue.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("반영 실패 시 합계를 되돌려 다음 주기에 재시도")
+    void restoreOnFailure() {
+        //given
+        accumulator.add(1L, PointType.EARNED, 1000L, TODAY.atTime(9, 0));
+        given(jdbcTemplate.batchUpdate(anyString(), anyList())).willThrow(new RuntimeException("db down"));
+
+        //when
+        accumulator.flush();
+
+        //then
+        assertThat(meterRegistry.get("point.report.incremental.queue.depth").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("cut-off 가 지난 날짜의 합계는 반영하지 않고 버림")
+    void dropAfterCutOff() {
+        //given
+        accumulator = accumulator(meterRegistry, true, TODAY.atTime(0, 40));
+        accumulator.add(1L, PointType.EARNED, 1000L, TODAY.minusDays(1).atTime(23, 59));
+
+        //when
+        accumulator.flush();
+
+        //then
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertThat(meterRegistry.get("point.report.incremental.dropped").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("point.report.incremental.queue.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("롤백된 트랜잭션의 이력은 적재하지 않음")
+    void skipOnRollback() {
+        //given
+        TransactionSynchronizationManager.initSynchronization();
+        accumulator.add(1L, PointType.EARNED, 1000L, TODAY.atTime(9, 0));
+
+        //when
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        //then
+        assertThat(meterRegistry.get("point.report.incremental.queue.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("비활성화하면 적재하지 않음")
+    void disabled() {
+        //given
+        accumulator = accumulator(new SimpleMeterRegistry(), false, TODAY.atTime(12, 0));
+
+        //when
+        accumulator.add(1L, PointType.EARNED, 1000L, LocalDateTime.now());
+        accumulator.flush();
+
+        //then
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    private PointDailyReportAccumulator accumulator(SimpleMeterRegistry registry, boolean enabled, LocalDateTime now) {
+        ZoneId zone = ZoneId.systemDefault();
+        Clock clock = Clock.fixed(now.atZone(zone).toInstant(), zone);
+        return new PointDailyReportAccumulator(redissonClient, jdbcTemplate, transactionManager, registry, enabled,
+                Duration.ofMinutes(30), clock);
+    }
+}
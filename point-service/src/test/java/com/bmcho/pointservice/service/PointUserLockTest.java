@@ -0,0 +1,174 @@
+package com.bmcho.pointservice.service;
+
+import com.bmcho.pointservice.exception.LockAcquisitionFailedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.misc.CompletableFutureWrapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class PointUserLockTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RLock rLock;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PointUserLock pointUserLock;
+
+    private static final Long USER_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pointUserLock = new PointUserLock(redissonClient, transactionManager, meterRegistry, Duration.ofSeconds(3),
+                50, Duration.ofSeconds(3));
+        given(redissonClient.getLock(anyString())).willReturn(rLock);
+    }
+
+    @Test
+    @DisplayName("분산 락을 watchdog 으로 잡고 작업 후 해제")
+    void executeWithDistributedLock() {
+        //given
+        given(rLock.tryLockAsync(anyLong(), eq(-1L), any(TimeUnit.class), anyLong()))
+                .willReturn(new CompletableFutureWrapper<>(true));
+        given(rLock.unlockAsync(anyLong())).willReturn(new CompletableFutureWrapper<>((Void) null));
+
+        //when
+        String result = pointUserLock.execute(USER_ID, () -> "done");
+
+        //then
+        assertThat(result).isEqualTo("done");
+        verify(rLock).unlockAsync(anyLong());
+        assertThat(pointUserLock.pendingRequests(USER_ID)).isZero();
+        assertThat(count("distributed")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("같은 유저 요청이 로컬에서 기다리고 있으면 분산 락을 풀지 않고 넘겨줌")
+    void handOffDistributedLockToLocalWaiter() throws Exception {
+        //given
+        given(rLock.tryLockAsync(anyLong(), eq(-1L), any(TimeUnit.class), anyLong()))
+                .willReturn(new CompletableFutureWrapper<>(true));
+        given(rLock.unlockAsync(anyLong())).willReturn(new CompletableFutureWrapper<>((Void) null));
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        //when
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> pointUserLock.execute(USER_ID, () -> {
+            firstStarted.countDown();
+            await(releaseFirst);
+            return "first";
+        }));
+        firstStarted.await(3, TimeUnit.SECONDS);
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> pointUserLock.execute(USER_ID, () -> "second"));
+        waitUntilPending(2);
+        releaseFirst.countDown();
+
+        //then
+        assertThat(first.get(3, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(second.get(3, TimeUnit.SECONDS)).isEqualTo("second");
+        verify(rLock, times(1)).tryLockAsync(anyLong(), eq(-1L), any(TimeUnit.class), anyLong());
+        verify(rLock, times(1)).unlockAsync(anyLong());
+        assertThat(count("distributed")).isEqualTo(1);
+        assertThat(count("handoff")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("넘겨주기 한도를 넘으면 분산 락을 풀고 다시 잡음")
+    void yieldDistributedLockAfterMaxHandoffs() throws Exception {
+        //given
+        pointUserLock = new PointUserLock(redissonClient, transactionManager, meterRegistry, Duration.ofSeconds(3),
+                1, Duration.ofSeconds(3));
+        given(rLock.tryLockAsync(anyLong(), eq(-1L), any(TimeUnit.class), anyLong()))
+                .willReturn(new CompletableFutureWrapper<>(true));
+        given(rLock.unlockAsync(anyLong())).willReturn(new CompletableFutureWrapper<>((Void) null));
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        //when
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> pointUserLock.execute(USER_ID, () -> {
+            firstStarted.countDown();
+            await(releaseFirst);
+            return "first";
+        }));
+        firstStarted.await(3, TimeUnit.SECONDS);
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> pointUserLock.execute(USER_ID, () -> "second"));
+        CompletableFuture<String> third = CompletableFuture.supplyAsync(() -> pointUserLock.execute(USER_ID, () -> "third"));
+        waitUntilPending(3);
+        releaseFirst.countDown();
+
+        //then
+        assertThat(first.get(3, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(second.get(3, TimeUnit.SECONDS)).isEqualTo("second");
+        assertThat(third.get(3, TimeUnit.SECONDS)).isEqualTo("third");
+        verify(rLock, times(2)).tryLockAsync(anyLong(), eq(-1L), any(TimeUnit.class), anyLong());
+        verify(rLock, times(2)).unlockAsync(anyLong());
+        assertThat(count("distributed")).isEqualTo(2);
+        assertThat(count("handoff")).isEqualTo(1);
+        assertThat(meterRegistry.get("point.lock.yields").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("분산 락을 얻지 못하면 작업을 실행하지 않고 예외")
+    void failWhenDistributedLockNotAcquired() {
+        //given
+        given(rLock.tryLockAsync(anyLong(), eq(-1L), any(TimeUnit.class), anyLong()))
+                .willReturn(new CompletableFutureWrapper<>(false));
+        AtomicBoolean executed = new AtomicBoolean();
+
+        //when & then
+        assertThatThrownBy(() -> pointUserLock.execute(USER_ID, () -> executed.getAndSet(true)))
+                .isInstanceOf(LockAcquisitionFailedException.class);
+        assertThat(executed).isFalse();
+        assertThat(pointUserLock.pendingRequests(USER_ID)).isZero();
+        verify(rLock, never()).unlockAsync(anyLong());
+    }
+
+    private void waitUntilPending(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 3000;
+        while (pointUserLock.pendingRequests(USER_ID) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(pointUserLock.pendingRequests(USER_ID)).isEqualTo(expected);
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(3, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double count(String type) {
+        return meterRegistry.get("point.lock.acquisitions").tag("type", type).counter().count();
+    }
+}
@@ -9,6 +9,8 @@ import com.bmcho.pointservice.exception.PointNotFound;
 import com.bmcho.pointservice.exception.UserNotFound;
 import com.bmcho.pointservice.repository.PointBalanceRepository;
 import com.bmcho.pointservice.repository.PointRepository;
+import com.bmcho.pointservice.service.PointBalanceCoalescer;
+import com.bmcho.pointservice.service.PointDailyReportAccumulator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -23,6 +25,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -38,6 +41,11 @@ class PointServiceTest {
     @Mock
     private PointBalanceRepository pointBalanceRepository;
 
+    @Mock
+    private PointBalanceCoalescer pointBalanceCoalescer;
+    @Mock
+    private PointDailyReportAccumulator pointDailyReportAccumulator;
+
 
     private Long userId;
     private Long amount;
@@ -72,8 +80,6 @@ class PointServiceTest {
         //given
         given(pointBalanceRepository.findByUserId(userId))
                 .willReturn(Optional.of(pointBalance));
-        given(pointBalanceRepository.save(any(PointBalance.class)))
-                .willAnswer(invocation -> invocation.getArgument(0));
         given(pointRepository.save(any(Point.class)))
                 .willAnswer(invocation -> {
                     Point savedPoint = invocation.getArgument(0);
@@ -95,7 +101,9 @@ class PointServiceTest {
         assertThat(result.getUserId()).isEqualTo(userId);
         assertThat(result.getAmount()).isEqualTo(amount);
         assertThat(result.getType()).isEqualTo(PointType.EARNED);
-        verify(pointBalanceRepository, times(1)).save(any(PointBalance.class));
+        assertThat(result.getBalanceSnapshot()).isEqualTo(pointBalance.getBalance() + amount);
+        verify(pointBalanceRepository, never()).save(any(PointBalance.class));
+        verify(pointBalanceCoalescer, times(1)).add(userId, amount);
         verify(pointRepository, times(1)).save(any(Point.class));
 
     }
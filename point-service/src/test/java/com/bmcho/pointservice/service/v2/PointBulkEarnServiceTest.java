@@ -0,0 +1,188 @@
+package com.bmcho.pointservice.service.v2;
+
+import com.bmcho.pointservice.domain.PointBulkBatch;
+import com.bmcho.pointservice.domain.PointBulkPartition;
+import com.bmcho.pointservice.domain.PointBulkStatus;
+import com.bmcho.pointservice.dto.PointDto;
+import com.bmcho.pointservice.repository.PointBulkBatchRepository;
+import com.bmcho.pointservice.repository.PointBulkJdbcRepository;
+import com.bmcho.pointservice.repository.PointBulkPartitionRepository;
+import com.bmcho.pointservice.service.PointBalanceCache;
+import com.bmcho.pointservice.exception.LockAcquisitionFailedException;
+import com.bmcho.pointservice.service.PointDailyReportAccumulator;
+import com.bmcho.pointservice.service.PointUserLock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class PointBulkEarnServiceTest {
+
+    @Mock
+    private PointBulkBatchRepository pointBulkBatchRepository;
+    @Mock
+    private PointBulkPartitionRepository pointBulkPartitionRepository;
+    @Mock
+    private PointBulkJdbcRepository pointBulkJdbcRepository;
+    @Mock
+    private PointBalanceCache pointBalanceCache;
+    @Mock
+    private PointDailyReportAccumulator pointDailyReportAccumulator;
+    @Mock
+    private PointUserLock pointUserLock;
+    @Mock
+    private ThreadPoolTaskExecutor pointBulkExecutor;
+
+    private static final Long BATCH_ID = 1L;
+
+    private PointBulkEarnService pointBulkEarnService;
+    private PointBulkBatch batch;
+    private final List<PointBulkPartition> partitions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        pointBulkEarnService = new PointBulkEarnService(pointBulkBatchRepository, pointBulkPartitionRepository,
+                pointBulkJdbcRepository, pointBalanceCache, pointDailyReportAccumulator, pointUserLock, pointBulkExecutor,
+                2, 1000);
+        batch = PointBulkBatch.receive(2);
+        ReflectionTestUtils.setField(batch, "id", BATCH_ID);
+    }
+
+    @Test
+    @DisplayName("업로드 적재 - userId 기준으로 파티션을 나누고 잘못된 줄은 제외")
+    @SuppressWarnings("unchecked")
+    void submitPartitionsByUserId() {
+        //given
+        setupBatchBehavior();
+        setupSyncExecutor();
+        String csv = """
+                userId,amount,description
+                1,500,event
+                2,500,
+                3,500,event, with comma
+                abc,500,invalid user
+                4,-1,invalid amount
+                """;
+
+        //when
+        PointDto.BulkEarnReport report = pointBulkEarnService.submit(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        //then
+        ArgumentCaptor<List<PointBulkJdbcRepository.ItemRow>> captor = ArgumentCaptor.forClass(List.class);
+        verify(pointBulkJdbcRepository).insertItems(eq(BATCH_ID), captor.capture());
+        assertThat(captor.getValue()).containsExactly(
+                new PointBulkJdbcRepository.ItemRow(1, 1, 1L, 500L, "event"),
+                new PointBulkJdbcRepository.ItemRow(0, 1, 2L, 500L, "bulk earn"),
+                new PointBulkJdbcRepository.ItemRow(1, 2, 3L, 500L, "event, with comma"));
+
+        assertThat(report.getTotalCount()).isEqualTo(3L);
+        assertThat(report.getRejectedCount()).isEqualTo(2L);
+        assertThat(report.getPartitions()).extracting(PointDto.BulkPartitionReport::getTotalCount)
+                .containsExactly(1L, 2L);
+        assertThat(report.getStatus()).isEqualTo(PointBulkStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("파티션 처리 - 청크 반영 후 적립된 유저의 캐시를 유저 락 안에서 지움")
+    void runPartitionEvictsCacheUnderUserLock() {
+        //given
+        setupBatchBehavior();
+        setupSyncExecutor();
+        setupChunk();
+        given(pointUserLock.execute(eq(1L), any())).willAnswer(invocation -> {
+            // 락 안에서 실행되기 전에는 캐시를 건드리지 않아야 함
+            verify(pointBalanceCache, never()).evict(any());
+            return invocation.<Supplier<?>>getArgument(1).get();
+        });
+
+        //when
+        PointDto.BulkEarnReport report = pointBulkEarnService.submit(
+                new ByteArrayInputStream("1,500,event".getBytes(StandardCharsets.UTF_8)));
+
+        //then
+        verify(pointBalanceCache).evict(List.of(1L));
+        assertThat(report.getStatus()).isEqualTo(PointBulkStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("파티션 처리 - 유저 락을 얻지 못해도 캐시를 지우고 배치는 계속 진행")
+    void runPartitionEvictsCacheWhenLockFails() {
+        //given
+        setupBatchBehavior();
+        setupSyncExecutor();
+        setupChunk();
+        given(pointUserLock.execute(eq(1L), any())).willThrow(new LockAcquisitionFailedException("point:lock:1"));
+
+        //when
+        PointDto.BulkEarnReport report = pointBulkEarnService.submit(
+                new ByteArrayInputStream("1,500,event".getBytes(StandardCharsets.UTF_8)));
+
+        //then
+        verify(pointBalanceCache).evict(List.of(1L));
+        assertThat(report.getStatus()).isEqualTo(PointBulkStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("완료된 배치는 resume 해도 다시 처리하지 않음")
+    void resumeCompletedBatch() {
+        //given
+        batch.ready(1, 0);
+        batch.changeStatus(PointBulkStatus.COMPLETED);
+        given(pointBulkBatchRepository.findById(BATCH_ID)).willReturn(Optional.of(batch));
+
+        //when
+        PointDto.BulkEarnReport report = pointBulkEarnService.resume(BATCH_ID);
+
+        //then
+        assertThat(report.getStatus()).isEqualTo(PointBulkStatus.COMPLETED);
+        verify(pointBulkExecutor, never()).execute(any(Runnable.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void setupBatchBehavior() {
+        given(pointBulkBatchRepository.save(any(PointBulkBatch.class))).willReturn(batch);
+        given(pointBulkBatchRepository.findById(BATCH_ID)).willReturn(Optional.of(batch));
+        given(pointBulkPartitionRepository.saveAll(anyList())).willAnswer(invocation -> {
+            partitions.addAll(invocation.getArgument(0));
+            return partitions;
+        });
+        given(pointBulkPartitionRepository.findByBatchIdOrderByPartitionNo(BATCH_ID)).willReturn(partitions);
+    }
+
+    private void setupChunk() {
+        List<PointBulkJdbcRepository.ItemRow> chunk = List.of(
+                new PointBulkJdbcRepository.ItemRow(1, 1, 1L, 500L, "event"));
+        given(pointBulkJdbcRepository.findItems(BATCH_ID, 1, 0L, 1000)).willReturn(chunk);
+        given(pointBulkJdbcRepository.findItems(BATCH_ID, 1, 1L, 1000)).willReturn(List.of());
+        given(pointBulkJdbcRepository.applyChunk(BATCH_ID, 1, 0L, chunk)).willReturn(Map.of(1L, 500L));
+    }
+
+    private void setupSyncExecutor() {
+        willAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).given(pointBulkExecutor).execute(any(Runnable.class));
+    }
+}
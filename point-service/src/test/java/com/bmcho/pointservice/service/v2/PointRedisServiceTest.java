@@ -3,22 +3,27 @@ package com.bmcho.pointservice.service.v2;
 import com.bmcho.pointservice.domain.Point;
 import com.bmcho.pointservice.domain.PointBalance;
 import com.bmcho.pointservice.domain.PointType;
+import com.bmcho.pointservice.dto.PointDto;
 import com.bmcho.pointservice.exception.InsufficientPointBalanceException;
 import com.bmcho.pointservice.exception.PointAlreadyCanceled;
 import com.bmcho.pointservice.repository.PointBalanceRepository;
 import com.bmcho.pointservice.repository.PointRepository;
+import com.bmcho.pointservice.service.PointBalanceCache;
+import com.bmcho.pointservice.service.PointBalanceCoalescer;
+import com.bmcho.pointservice.service.PointDailyReportAccumulator;
+import com.bmcho.pointservice.service.PointUserLock;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.redisson.api.RLock;
-import org.redisson.api.RMap;
-import org.redisson.api.RedissonClient;
+import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.useRepresentation;
@@ -39,13 +44,15 @@ class PointRedisServiceTest {
     @Mock
     private PointBalanceRepository pointBalanceRepository;
     @Mock
-    private RedissonClient redissonClient;
+    private PointBalanceCoalescer pointBalanceCoalescer;
+    @Mock
+    private PointDailyReportAccumulator pointDailyReportAccumulator;
 
     @Mock
-    private RLock rLock;
+    private PointUserLock pointUserLock;
 
     @Mock
-    private RMap<String, Long> rMap;
+    private PointBalanceCache pointBalanceCache;
 
     private static final Long USER_ID = 1L;
     private static final Long POINT_ID = 1L;
@@ -55,10 +62,9 @@ class PointRedisServiceTest {
 
     @Test
     @DisplayName("포인트 적립 성공")
-    void earnPointSuccess() throws InterruptedException {
+    void earnPointSuccess() {
         //given
         setupLockBehavior();
-        setupMapBehavior();
 
         PointBalance pointBalance = PointBalance.builder()
                 .userId(USER_ID)
@@ -75,8 +81,6 @@ class PointRedisServiceTest {
 
         given(pointBalanceRepository.findByUserId(USER_ID))
                 .willReturn(Optional.of(pointBalance));
-        given(pointBalanceRepository.save(any(PointBalance.class)))
-                .willAnswer(invocation -> invocation.getArgument(0));
 
         given(pointRepository.save(any(Point.class)))
                 .willAnswer(invocation -> {
@@ -99,16 +103,18 @@ class PointRedisServiceTest {
         assertThat(result.getAmount()).isEqualTo(expectedPoint.getAmount());
         assertThat(result.getType()).isEqualTo(expectedPoint.getType());
         assertThat(result.getDescription()).isEqualTo(expectedPoint.getDescription());
-        verify(rMap).fastPut(eq(USER_ID.toString()), eq(AMOUNT));
+        verify(pointBalanceCache).put(USER_ID, AMOUNT);
+        verify(pointDailyReportAccumulator).add(any(Point.class));
+        verify(pointBalanceCoalescer).add(USER_ID, AMOUNT);
+        verify(pointBalanceRepository, never()).save(any(PointBalance.class));
 
     }
 
     @Test
     @DisplayName("포인트 사용 성공")
-    void usePointSuccess() throws InterruptedException {
+    void usePointSuccess() {
         //given
         setupLockBehavior();
-        setupMapBehavior();
 
         PointBalance pointBalance = PointBalance.builder()
                 .userId(USER_ID)
@@ -123,11 +129,9 @@ class PointRedisServiceTest {
                 .pointBalance(pointBalance)
                 .build();
 
-        given(rMap.get(USER_ID.toString())).willReturn(AMOUNT);
+        given(pointBalanceCache.getLatest(USER_ID)).willReturn(AMOUNT);
         given(pointBalanceRepository.findByUserId(USER_ID))
                 .willReturn(Optional.of(pointBalance));
-        given(pointBalanceRepository.save(any(PointBalance.class)))
-                .willAnswer(invocation -> invocation.getArgument(0));
         given(pointRepository.save(any(Point.class)))
                 .willAnswer(invocation -> {
                     Point point = invocation.getArgument(0);
@@ -148,21 +152,22 @@ class PointRedisServiceTest {
         assertThat(result.getType()).isEqualTo(expectedPoint.getType());
         assertThat(result.getDescription()).isEqualTo(expectedPoint.getDescription());
         assertThat(result.getBalanceSnapshot()).isEqualTo(expectedPoint.getBalanceSnapshot());
-        verify(rMap).fastPut(eq(USER_ID.toString()), eq(0L));
+        verify(pointBalanceCache).put(USER_ID, 0L);
+        verify(pointBalanceCoalescer).add(USER_ID, -AMOUNT);
+        verify(pointBalanceRepository, never()).save(any(PointBalance.class));
     }
 
     @Test
     @DisplayName("포인트 사용 실패 - 포인트 부족")
-    void usePointFailureByInsufficientPoint() throws InterruptedException {
+    void usePointFailureByInsufficientPoint() {
         setupLockBehavior();
-        setupMapBehavior();
 
         PointBalance pointBalance = PointBalance.builder()
                 .userId(USER_ID)
                 .balance(10L)
                 .build();
 
-        given(rMap.get(USER_ID.toString())).willReturn(10L);
+        given(pointBalanceCache.getLatest(USER_ID)).willReturn(10L);
 
         assertThatThrownBy(() -> pointRedisService.usePoints(USER_ID, AMOUNT, DESCRIPTION))
                 .isInstanceOf(InsufficientPointBalanceException.class)
@@ -172,9 +177,8 @@ class PointRedisServiceTest {
 
     @Test
     @DisplayName("포인트 취소 성공")
-    void cancelPointSuccess() throws InterruptedException {
+    void cancelPointSuccess() {
         setupLockBehavior();
-        setupMapBehavior();
 
         PointBalance pointBalance = PointBalance.builder()
                 .userId(USER_ID)
@@ -200,8 +204,6 @@ class PointRedisServiceTest {
 
         given(pointBalanceRepository.findByUserId(originalPoint.getUserId()))
                 .willReturn(Optional.of(pointBalance));
-        given(pointBalanceRepository.save(any(PointBalance.class)))
-                .willAnswer(invocation -> invocation.getArgument(0));
         given(pointRepository.save(any(Point.class)))
                 .willAnswer(invocation -> {
                     Point point = invocation.getArgument(0);
@@ -219,13 +221,15 @@ class PointRedisServiceTest {
         // then
         assertThat(result).isNotNull();
         assertThat(result.getType()).isEqualTo(PointType.CANCELED);
-        verify(rMap).fastPut(eq(USER_ID.toString()), eq(0L));
+        assertThat(result.getBalanceSnapshot()).isEqualTo(expectedPoint.getBalanceSnapshot());
+        verify(pointBalanceCache).put(USER_ID, 0L);
+        verify(pointBalanceCoalescer).add(USER_ID, -AMOUNT);
 
     }
 
     @Test
     @DisplayName("포인트 취소 실패 - 이미 취소된 포인트")
-    void cancelPointFailureByAlreadyCanceled() throws InterruptedException {
+    void cancelPointFailureByAlreadyCanceled() {
         setupLockBehavior();
 
         Point originalPoint = Point.builder()
@@ -249,8 +253,7 @@ class PointRedisServiceTest {
     @DisplayName("redis 잔액 조회 성공")
     void getBalanceFromCache() {
         // given
-        setupMapBehavior();
-        given(rMap.get(USER_ID.toString())).willReturn(AMOUNT);
+        given(pointBalanceCache.get(USER_ID)).willReturn(AMOUNT);
 
         // when
         Long balance = pointRedisService.getBalance(USER_ID);
@@ -264,13 +267,12 @@ class PointRedisServiceTest {
     @DisplayName("DB 잔액 조회 후 캐시 업데이트")
     void getBalanceFromDB() {
         // given
-        setupMapBehavior();
         PointBalance pointBalance = PointBalance.builder()
                 .userId(USER_ID)
                 .balance(AMOUNT)
                 .build();
 
-        given(rMap.get(USER_ID.toString())).willReturn(null);
+        given(pointBalanceCache.get(USER_ID)).willReturn(null);
         given(pointBalanceRepository.findByUserId(USER_ID)).willReturn(Optional.of(pointBalance));
 
         // when
@@ -278,16 +280,55 @@ class PointRedisServiceTest {
 
         // then
         assertThat(balance).isEqualTo(AMOUNT);
-        verify(rMap).fastPut(eq(USER_ID.toString()), eq(AMOUNT));
+        verify(pointBalanceCache).put(USER_ID, AMOUNT);
+    }
+
+    @Test
+    @DisplayName("이력 첫 페이지 - size + 1 건으로 다음 페이지 여부와 커서 계산")
+    void getPointHistoryFirstPage() {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        List<PointDto.HistoryResponse> rows = List.of(
+                history(3L, now),
+                history(2L, now.minusSeconds(1)),
+                history(1L, now.minusSeconds(2)));
+        given(pointRepository.findHistoryFirstPage(eq(USER_ID), argThat(limit -> limit.max() == 3))).willReturn(rows);
+
+        // when
+        PointDto.HistoryPage page = pointRedisService.getPointHistory(USER_ID, null, null, 2);
+
+        // then
+        assertThat(page.getItems()).extracting(PointDto.HistoryResponse::getId).containsExactly(3L, 2L);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getNextCursorId()).isEqualTo(2L);
+        assertThat(page.getNextCursorCreatedAt()).isEqualTo(now.minusSeconds(1));
+        verify(pointRepository, never()).findByUserIdOrderByCreatedAtDesc(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("이력 커서 페이지 - 마지막 페이지는 다음 커서 없음")
+    void getPointHistoryAfterCursor() {
+        // given
+        LocalDateTime cursorCreatedAt = LocalDateTime.now();
+        given(pointRepository.findHistoryAfter(eq(USER_ID), eq(cursorCreatedAt), eq(10L), argThat(limit -> limit.max() == 21)))
+                .willReturn(List.of(history(9L, cursorCreatedAt.minusSeconds(1))));
+
+        // when
+        PointDto.HistoryPage page = pointRedisService.getPointHistory(USER_ID, cursorCreatedAt, 10L, 20);
+
+        // then
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursorId()).isNull();
     }
 
-    private void setupLockBehavior() throws InterruptedException {
-        given(redissonClient.getLock(anyString())).willReturn(rLock);
-        given(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).willReturn(true);
+    private PointDto.HistoryResponse history(Long id, LocalDateTime createdAt) {
+        return new PointDto.HistoryResponse(id, AMOUNT, PointType.EARNED, DESCRIPTION, AMOUNT, createdAt);
     }
 
-    private void setupMapBehavior() {
-        given(redissonClient.<String, Long>getMap(anyString())).willReturn(rMap);
+    private void setupLockBehavior() {
+        given(pointUserLock.execute(eq(USER_ID), any()))
+                .willAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
     }
 
 }
\ No newline at end of file
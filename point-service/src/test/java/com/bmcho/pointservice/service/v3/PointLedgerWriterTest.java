@@ -0,0 +1,145 @@
+package com.bmcho.pointservice.service.v3;
+
+import com.bmcho.pointservice.domain.PointLedgerEntry;
+import com.bmcho.pointservice.repository.PointLedgerJdbcRepository;
+import com.bmcho.pointservice.service.PointDailyReportAccumulator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.PendingEntry;
+import org.redisson.api.RLock;
+import org.redisson.api.RStream;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.api.stream.StreamReadGroupArgs;
+import org.redisson.client.codec.StringCodec;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class PointLedgerWriterTest {
+
+    private static final StreamMessageId GOOD_ID = new StreamMessageId(1, 0);
+    private static final StreamMessageId BAD_ID = new StreamMessageId(2, 0);
+
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private PointLedgerJdbcRepository pointLedgerJdbcRepository;
+    @Mock
+    private PointDailyReportAccumulator pointDailyReportAccumulator;
+    @Mock
+    private RLock lock;
+    @Mock
+    private RStream<String, String> ledger;
+    @Mock
+    private RStream<String, String> deadLetter;
+
+    private PointLedgerWriter pointLedgerWriter;
+
+    @BeforeEach
+    void setUp() {
+        pointLedgerWriter = new PointLedgerWriter(redissonClient, pointLedgerJdbcRepository,
+                pointDailyReportAccumulator, 500, 5);
+        given(redissonClient.getLock(any())).willReturn(lock);
+        given(lock.tryLock()).willReturn(true);
+        doReturn(ledger).when(redissonClient).getStream(PointBalanceScript.LEDGER_STREAM, StringCodec.INSTANCE);
+    }
+
+    @Test
+    @DisplayName("전달 횟수를 넘긴 원장은 dead-letter 스트림으로 옮기고 나머지 원장은 반영")
+    void flush_MovesPoisonEntryToDeadLetter() {
+        //given
+        given(ledger.readGroup(eq(PointLedgerWriter.CONSUMER_GROUP), any(), any(StreamReadGroupArgs.class)))
+                .willReturn(messages())
+                .willReturn(Map.of());
+        failOnBadEntry();
+        givenDeliveries(5);
+        doReturn(deadLetter).when(redissonClient).getStream(PointLedgerWriter.DEAD_LETTER_STREAM, StringCodec.INSTANCE);
+
+        //when
+        pointLedgerWriter.flush();
+
+        //then
+        verify(deadLetter).add(any(StreamAddArgs.class));
+        verify(ledger).ack(PointLedgerWriter.CONSUMER_GROUP, GOOD_ID);
+        verify(ledger).ack(PointLedgerWriter.CONSUMER_GROUP, BAD_ID);
+        verify(ledger).remove(BAD_ID);
+        verify(pointDailyReportAccumulator).add(eq(1L), any(), eq(100L), any());
+        // pending 을 비웠으므로 새 원장도 읽음
+        verify(ledger, times(2)).readGroup(eq(PointLedgerWriter.CONSUMER_GROUP), any(), any(StreamReadGroupArgs.class));
+    }
+
+    @Test
+    @DisplayName("전달 횟수가 남은 실패 원장은 pending 으로 두고 뒤의 원장과 새 원장은 반영하지 않음")
+    void flush_KeepsFailedEntryPendingUntilMaxDeliveries() {
+        //given
+        Map<StreamMessageId, Map<String, String>> messages = new LinkedHashMap<>();
+        messages.put(BAD_ID, fields("100"));
+        messages.put(GOOD_ID, fields("100"));
+        given(ledger.readGroup(eq(PointLedgerWriter.CONSUMER_GROUP), any(), any(StreamReadGroupArgs.class)))
+                .willReturn(messages);
+        failOnBadEntry();
+        givenDeliveries(2);
+
+        //when
+        pointLedgerWriter.flush();
+
+        //then
+        verify(ledger, never()).ack(any(), any(StreamMessageId[].class));
+        verify(redissonClient, never()).getStream(PointLedgerWriter.DEAD_LETTER_STREAM, StringCodec.INSTANCE);
+        verify(ledger, times(1)).readGroup(eq(PointLedgerWriter.CONSUMER_GROUP), any(), any(StreamReadGroupArgs.class));
+        verify(pointDailyReportAccumulator, never()).add(any(), any(), any(), any());
+    }
+
+    private void failOnBadEntry() {
+        // 배치 반영은 실패, 한 건씩 반영하면 GOOD_ID 만 성공
+        given(pointLedgerJdbcRepository.persist(anyList())).willAnswer(invocation -> {
+            List<PointLedgerEntry> entries = invocation.getArgument(0);
+            if (entries.stream().anyMatch(entry -> entry.ledgerId().equals(BAD_ID.toString()))) {
+                throw new IllegalStateException("persist failed");
+            }
+            return entries;
+        });
+    }
+
+    private void givenDeliveries(long deliveries) {
+        PendingEntry pendingEntry = mock(PendingEntry.class);
+        given(pendingEntry.getLastTimeDelivered()).willReturn(deliveries);
+        given(ledger.listPending(PointLedgerWriter.CONSUMER_GROUP, BAD_ID, BAD_ID, 1))
+                .willReturn(List.of(pendingEntry));
+    }
+
+    private Map<StreamMessageId, Map<String, String>> messages() {
+        Map<StreamMessageId, Map<String, String>> messages = new LinkedHashMap<>();
+        messages.put(GOOD_ID, fields("100"));
+        messages.put(BAD_ID, fields("100"));
+        return messages;
+    }
+
+    private Map<String, String> fields(String amount) {
+        return Map.of(
+                "userId", "1",
+                "type", "EARNED",
+                "amount", amount,
+                "description", "적립",
+                "balance", "100",
+                "createdAt", String.valueOf(System.currentTimeMillis()));
+    }
+}
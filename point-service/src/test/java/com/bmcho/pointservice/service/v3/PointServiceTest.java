@@ -0,0 +1,119 @@
+package com.bmcho.pointservice.service.v3;
+
+import com.bmcho.pointservice.domain.PointBalance;
+import com.bmcho.pointservice.domain.PointType;
+import com.bmcho.pointservice.dto.PointDto;
+import com.bmcho.pointservice.exception.InsufficientPointBalanceException;
+import com.bmcho.pointservice.exception.InvalidPointAmountException;
+import com.bmcho.pointservice.repository.PointBalanceRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class PointServiceTest {
+
+    @InjectMocks
+    private PointService pointService;
+    @Mock
+    private PointBalanceScript pointBalanceScript;
+    @Mock
+    private PointBalanceRepository pointBalanceRepository;
+
+    private static final Long USER_ID = 1L;
+    private static final Long AMOUNT = 1000L;
+    private static final String DESCRIPTION = "Test description";
+    private static final String IDEMPOTENCY_KEY = "request-1";
+    private static final String LEDGER_ID = "1700000000000-0";
+
+    @Test
+    @DisplayName("포인트 적립 성공 - 스크립트가 돌려준 잔액 스냅샷을 바로 반환")
+    void earnPointSuccess() {
+        //given
+        given(pointBalanceScript.apply(USER_ID, PointType.EARNED, AMOUNT, DESCRIPTION, IDEMPOTENCY_KEY, null))
+                .willReturn(new PointBalanceScript.Result(PointBalanceScript.Status.APPLIED, LEDGER_ID, 3000L));
+
+        //when
+        PointDto.LedgerResponse response = pointService.earnPoints(USER_ID, AMOUNT, DESCRIPTION, IDEMPOTENCY_KEY);
+
+        //then
+        assertThat(response.getLedgerId()).isEqualTo(LEDGER_ID);
+        assertThat(response.getBalance()).isEqualTo(3000L);
+        assertThat(response.getType()).isEqualTo(PointType.EARNED);
+        assertThat(response.isReplayed()).isFalse();
+        verify(pointBalanceRepository, never()).findByUserId(anyLong());
+    }
+
+    @Test
+    @DisplayName("포인트 적립 - Redis 에 잔액이 없으면 DB 잔액으로 초기화 후 재시도")
+    void earnPointSeedFromDB() {
+        //given
+        PointBalance pointBalance = PointBalance.builder()
+                .userId(USER_ID)
+                .balance(2000L)
+                .build();
+        given(pointBalanceScript.apply(USER_ID, PointType.EARNED, AMOUNT, DESCRIPTION, null, null))
+                .willReturn(new PointBalanceScript.Result(PointBalanceScript.Status.NOT_LOADED, null, null));
+        given(pointBalanceRepository.findByUserId(USER_ID))
+                .willReturn(Optional.of(pointBalance));
+        given(pointBalanceScript.apply(USER_ID, PointType.EARNED, AMOUNT, DESCRIPTION, null, 2000L))
+                .willReturn(new PointBalanceScript.Result(PointBalanceScript.Status.APPLIED, LEDGER_ID, 3000L));
+
+        //when
+        PointDto.LedgerResponse response = pointService.earnPoints(USER_ID, AMOUNT, DESCRIPTION, null);
+
+        //then
+        assertThat(response.getBalance()).isEqualTo(3000L);
+    }
+
+    @Test
+    @DisplayName("포인트 사용 - 같은 멱등키 재시도는 처음 결과를 반환")
+    void usePointReplayed() {
+        //given
+        given(pointBalanceScript.apply(USER_ID, PointType.USED, AMOUNT, DESCRIPTION, IDEMPOTENCY_KEY, null))
+                .willReturn(new PointBalanceScript.Result(PointBalanceScript.Status.REPLAYED, LEDGER_ID, 500L));
+
+        //when
+        PointDto.LedgerResponse response = pointService.usePoints(USER_ID, AMOUNT, DESCRIPTION, IDEMPOTENCY_KEY);
+
+        //then
+        assertThat(response.getLedgerId()).isEqualTo(LEDGER_ID);
+        assertThat(response.getBalance()).isEqualTo(500L);
+        assertThat(response.isReplayed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("포인트 사용 실패 - 잔액 부족")
+    void usePointInsufficientBalance() {
+        //given
+        given(pointBalanceScript.apply(USER_ID, PointType.USED, AMOUNT, DESCRIPTION, null, null))
+                .willReturn(new PointBalanceScript.Result(PointBalanceScript.Status.INSUFFICIENT, null, 500L));
+
+        //when & then
+        assertThatThrownBy(() -> pointService.usePoints(USER_ID, AMOUNT, DESCRIPTION, null))
+                .isInstanceOf(InsufficientPointBalanceException.class);
+    }
+
+    @Test
+    @DisplayName("포인트 적립 실패 - 0 이하 금액")
+    void earnPointInvalidAmount() {
+        //when & then
+        assertThatThrownBy(() -> pointService.earnPoints(USER_ID, 0L, DESCRIPTION, null))
+                .isInstanceOf(InvalidPointAmountException.class);
+        verify(pointBalanceScript, never()).apply(anyLong(), any(), anyLong(), any(), isNull(), isNull());
+    }
+}
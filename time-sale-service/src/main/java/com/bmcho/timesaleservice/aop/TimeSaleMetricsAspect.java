@@ -1,63 +1,42 @@
 package com.bmcho.timesaleservice.aop;
 
-import io.micrometer.core.instrument.Counter;
+import com.bmcho.metering.OperationMeters;
+import com.bmcho.metering.OperationMetrics;
 import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Timer;
-import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.stereotype.Component;
 
 @Aspect
 @Component
-@RequiredArgsConstructor
 public class TimeSaleMetricsAspect {
-    private final MeterRegistry registry;
+    // 미터는 메서드별로 한 번만 등록하고, 호출마다 빌더/태그를 만들지 않음
+    // @TimeSaleMetered("v3") 처럼 value 로 지정한 버전도 @AliasFor 로 읽힘
+    private final OperationMetrics operationMetrics;
+
+    public TimeSaleMetricsAspect(MeterRegistry registry) {
+        this.operationMetrics = new OperationMetrics(registry, "time.sale.operation", method ->
+                AnnotatedElementUtils.findMergedAnnotation(method, TimeSaleMetered.class).version());
+    }
 
     @Around("@annotation(TimeSaleMetered)")
     public Object measureTimeSaleOperation(ProceedingJoinPoint joinPoint) throws Throwable {
-        Timer.Sample sample = Timer.start();
-        String version = extractVersion(joinPoint);
-        String operation = extractOperation(joinPoint);
-        
+        OperationMeters meters = operationMetrics.meters(((MethodSignature) joinPoint.getSignature()).getMethod());
+        long start = meters.start();
+
         try {
             Object result = joinPoint.proceed();
-            
+
             // 타임세일 처리 성공 메트릭
-            Counter.builder("time.sale.operation.success")
-                .tag("version", version)
-                .tag("operation", operation)
-                .register(registry)
-                .increment();
-                
-            sample.stop(Timer.builder("time.sale.operation.duration")
-                .tag("version", version)
-                .tag("operation", operation)
-                .register(registry));
-                
+            meters.success(start);
             return result;
         } catch (Exception e) {
             // 타임세일 처리 실패 메트릭
-            Counter.builder("time.sale.operation.failure")
-                .tag("version", version)
-                .tag("operation", operation)
-                .tag("error", e.getClass().getSimpleName())
-                .register(registry)
-                .increment();
+            meters.failure(e);
             throw e;
         }
     }
-    
-    private String extractVersion(ProceedingJoinPoint joinPoint) {
-        TimeSaleMetered annotation = ((MethodSignature) joinPoint.getSignature())
-            .getMethod()
-            .getAnnotation(TimeSaleMetered.class);
-        return annotation.version();
-    }
-    
-    private String extractOperation(ProceedingJoinPoint joinPoint) {
-        return joinPoint.getSignature().getName();
-    }
-}
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package com.bmcho.timesaleservice.config;
 
 import com.bmcho.timesaleservice.dto.PurchaseRequestMessage;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -8,9 +10,12 @@ import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -19,7 +24,27 @@ import java.util.Map;
 public class KafkaConfig {
     private static final String BOOTSTRAP_SERVERS = "localhost:9091";
     private static final String GROUP_ID = "time-sale-group";
+    private static final String TOPIC = "time-sale-requests";
+    // 구매 요청은 timeSaleId 로 파티셔닝 - 리스너 동시성도 파티션 수에 맞춘다
+    private static final int PARTITIONS = 3;
+    // 리스너 실패 시 배치 재시도 간격 / 횟수 - 모두 실패하면 에러 로그를 남기고 다음 배치로 넘어감
+    private static final long RETRY_INTERVAL_MS = 1000L;
+    private static final long MAX_RETRIES = 5L;
 
+    @Bean
+    public KafkaAdmin kafkaAdmin() {
+        return new KafkaAdmin(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, BOOTSTRAP_SERVERS));
+    }
+
+    /**
+     * 브로커 자동 생성(파티션 1개)에 맡기면 동시성을 올려도 컨슈머 하나만 일하므로 토픽을 직접 생성
+     */
+    @Bean
+    public NewTopic timeSaleRequestsTopic() {
+        return TopicBuilder.name(TOPIC)
+                .partitions(PARTITIONS)
+                .build();
+    }
 
     @Bean
     public ProducerFactory<String, PurchaseRequestMessage> producerFactory() {
@@ -70,6 +95,12 @@ public class KafkaConfig {
     public ConcurrentKafkaListenerContainerFactory<String, PurchaseRequestMessage> kafkaListenerContainerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, PurchaseRequestMessage> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        // poll 한 레코드(MAX_POLL_RECORDS)를 리스너에 한 번에 전달
+        factory.setBatchListener(true);
+        // 파티션마다 컨슈머 스레드 하나 - 같은 타임세일의 요청은 한 스레드에서 순서대로, 다른 타임세일은 병렬로 처리
+        factory.setConcurrency(PARTITIONS);
+        // 리스너가 던진 예외는 배치 전체를 다시 전달해 재시도 (TimeSaleConsumer 의 결과 확정은 멱등)
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(RETRY_INTERVAL_MS, MAX_RETRIES)));
         return factory;
     }
 
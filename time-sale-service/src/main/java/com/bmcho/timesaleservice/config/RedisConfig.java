@@ -21,6 +21,8 @@ public class RedisConfig {
         Config config = new Config();
         config.useSingleServer()
                 .setAddress("redis://" + redisHost + ":" + redisPort);
+        // 스크립트를 EVALSHA 로 실행하고 NOSCRIPT 면 다시 로드 (RScript.eval 포함)
+        config.setUseScriptCache(true);
         return Redisson.create(config);
     }
 
@@ -78,6 +78,13 @@ public class TimeSale {
         this.remainingQuantity -= quantity;
     }
 
+    /**
+     * Redis 재고 카운터 값 반영 - v2 는 재고를 Redis 에서 차감하므로 캐시된 스냅샷의 남은 수량을 맞춰서 응답한다.
+     */
+    public void syncRemainingQuantity(Long remainingQuantity) {
+        this.remainingQuantity = remainingQuantity;
+    }
+
     private void validatePurchase(Long quantity) {
         validateStatus();
         validateQuantity(quantity);
@@ -38,6 +38,10 @@ public class TimeSaleOrder {
     @Column(nullable = false)
     private OrderStatus status;
 
+    // v2 주문 스트림 ID - 배치 반영 시 중복 저장 방지 (v1 은 null)
+    @Column(unique = true, length = 32)
+    private String reservationId;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,26 @@
+package com.bmcho.timesaleservice.domain;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+/**
+ * 주문 스트림(time-sale:orders) 한 건
+ * - reservationId 는 Redis Stream ID 이며 time_sale_orders.reservation_id 에 그대로 저장되어 중복 반영을 막는다.
+ */
+public record TimeSaleOrderEntry(String reservationId, Long timeSaleId, Long userId, Long quantity,
+                                 Long discountPrice, LocalDateTime createdAt) {
+
+    public static TimeSaleOrderEntry of(String reservationId, Map<String, String> fields) {
+        return new TimeSaleOrderEntry(
+                reservationId,
+                Long.parseLong(fields.get("timeSaleId")),
+                Long.parseLong(fields.get("userId")),
+                Long.parseLong(fields.get("quantity")),
+                Long.parseLong(fields.get("discountPrice")),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(fields.get("createdAt"))),
+                        ZoneId.systemDefault())
+        );
+    }
+}
@@ -0,0 +1,106 @@
+package com.bmcho.timesaleservice.repository;
+
+import com.bmcho.timesaleservice.domain.OrderStatus;
+import com.bmcho.timesaleservice.domain.TimeSaleOrderEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * v2 주문 스트림을 DB 에 일괄 반영한다.
+ * 엔티티 단위 save 대신 JDBC batch 로 한 트랜잭션에 time_sales 재고 차감 + time_sale_orders insert 를 수행한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TimeSaleOrderJdbcRepository {
+
+    private static final String SELECT_EXISTING_RESERVATION_IDS = """
+            SELECT reservation_id FROM time_sale_orders WHERE reservation_id IN (:reservationIds)
+            """;
+
+    // 타임세일별 합계를 한 번에 차감 - v1 낙관적 락과 맞추기 위해 version 도 올린다
+    // Redis 재고가 원본이라 DB 가 음수가 될 일은 없지만, v1 과 섞여 쓰인 경우를 대비해 조건부로 차감
+    // 차감되지 않으면 배치를 실패시켜 TimeSaleOrderWriter 가 주문을 한 건씩 다시 반영하고, 계속 실패하면 dead-letter 로 옮긴다
+    private static final String DECREASE_REMAINING_QUANTITY = """
+            UPDATE time_sales
+            SET remaining_quantity = remaining_quantity - :quantity, version = version + 1, updated_at = :now
+            WHERE id = :timeSaleId AND remaining_quantity >= :quantity
+            """;
+
+    private static final String INSERT_ORDER = """
+            INSERT INTO time_sale_orders (user_id, time_sale_id, quantity, discount_price, status, reservation_id,
+                                          created_at, updated_at)
+            VALUES (:userId, :timeSaleId, :quantity, :discountPrice, :status, :reservationId, :createdAt, :createdAt)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * 주문 배치 반영
+     *
+     * @param entries 스트림 순서대로 정렬된 주문
+     * @return 실제로 저장된 주문 (이미 반영된 주문은 제외)
+     * @throws IllegalStateException DB 재고가 부족해 차감되지 않은 타임세일이 있는 경우 (트랜잭션 롤백)
+     */
+    @Transactional
+    public List<TimeSaleOrderEntry> persist(List<TimeSaleOrderEntry> entries) {
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+
+        // 1. ack 전에 장애가 나서 다시 읽힌 주문은 제외
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(SELECT_EXISTING_RESERVATION_IDS,
+                Map.of("reservationIds", entries.stream().map(TimeSaleOrderEntry::reservationId).toList()),
+                String.class));
+        List<TimeSaleOrderEntry> pending = entries.stream()
+                .filter(entry -> !existing.contains(entry.reservationId()))
+                .toList();
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+
+        // 2. 타임세일별 판매 수량 합계만큼 재고 차감
+        Map<Long, Long> soldQuantities = new LinkedHashMap<>();
+        pending.forEach(entry -> soldQuantities.merge(entry.timeSaleId(), entry.quantity(), Long::sum));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        MapSqlParameterSource[] stockParams = soldQuantities.entrySet().stream()
+                .map(e -> new MapSqlParameterSource()
+                        .addValue("timeSaleId", e.getKey())
+                        .addValue("quantity", e.getValue())
+                        .addValue("now", now))
+                .toArray(MapSqlParameterSource[]::new);
+        int[] updated = jdbcTemplate.batchUpdate(DECREASE_REMAINING_QUANTITY, stockParams);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                throw new IllegalStateException("time sale remaining quantity not decreased - timeSaleId: %s, quantity: %s"
+                        .formatted(stockParams[i].getValue("timeSaleId"), stockParams[i].getValue("quantity")));
+            }
+        }
+
+        // 3. 주문 일괄 저장 - 재고가 예약된 주문이므로 바로 완료 상태
+        MapSqlParameterSource[] orderParams = pending.stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("userId", entry.userId())
+                        .addValue("timeSaleId", entry.timeSaleId())
+                        .addValue("quantity", entry.quantity())
+                        .addValue("discountPrice", entry.discountPrice())
+                        .addValue("status", OrderStatus.COMPLETED.name())
+                        .addValue("reservationId", entry.reservationId())
+                        .addValue("createdAt", Timestamp.valueOf(entry.createdAt())))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_ORDER, orderParams);
+
+        return pending;
+    }
+}
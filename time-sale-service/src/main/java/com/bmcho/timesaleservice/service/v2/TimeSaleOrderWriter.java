@@ -0,0 +1,174 @@
+package com.bmcho.timesaleservice.service.v2;
+
+import com.bmcho.timesaleservice.domain.TimeSaleOrderEntry;
+import com.bmcho.timesaleservice.repository.TimeSaleOrderJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.PendingEntry;
+import org.redisson.api.RLock;
+import org.redisson.api.RStream;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.api.stream.StreamCreateGroupArgs;
+import org.redisson.api.stream.StreamReadGroupArgs;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 주문 스트림(time-sale:orders)을 읽어 DB 에 배치 반영한다.
+ * - 구매 요청은 재고 예약 스크립트까지만 기다리고, 주문 저장과 DB 재고 차감은 여기서 모아서 처리한다.
+ * - 여러 인스턴스 중 락을 잡은 하나만 반영한다.
+ * - 반영 후 ack/삭제하며, ack 전에 죽으면 다음 실행에서 pending 부터 다시 읽는다. (reservation_id 로 중복 제거)
+ * - 배치 반영이 실패하면 한 건씩 반영하고, 실패한 주문만 pending 으로 남겨 다음 실행에서 재시도한다.
+ * - 같은 주문이 max-deliveries 번 전달되고도 실패하면 dead-letter 스트림(time-sale:orders:dead-letter)으로 옮기고 ack 한다.
+ *   재고는 예약 스크립트에서 이미 차감됐으므로, 옮긴 주문은 time_sale_orders / remaining_quantity 를 수동으로 보정해야 한다.
+ */
+@Slf4j
+@Component
+public class TimeSaleOrderWriter {
+
+    static final String CONSUMER_GROUP = "time-sale-order-writer";
+    private static final String CONSUMER_NAME = "writer";
+    private static final String WRITER_LOCK = "time-sale-lock:order-writer";
+    static final String DEAD_LETTER_STREAM = "time-sale:orders:dead-letter";
+
+    private final RedissonClient redissonClient;
+    private final TimeSaleOrderJdbcRepository timeSaleOrderJdbcRepository;
+    private final int batchSize;
+    private final long maxDeliveries;
+
+    public TimeSaleOrderWriter(RedissonClient redissonClient,
+                               TimeSaleOrderJdbcRepository timeSaleOrderJdbcRepository,
+                               @Value("${time-sale.order.batch-size:500}") int batchSize,
+                               @Value("${time-sale.order.max-deliveries:5}") long maxDeliveries) {
+        this.redissonClient = redissonClient;
+        this.timeSaleOrderJdbcRepository = timeSaleOrderJdbcRepository;
+        this.batchSize = batchSize;
+        this.maxDeliveries = maxDeliveries;
+    }
+
+    @PostConstruct
+    void createGroup() {
+        try {
+            orderStream().createGroup(StreamCreateGroupArgs.name(CONSUMER_GROUP)
+                    .id(StreamMessageId.ALL)
+                    .makeStream());
+        } catch (RedisException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${time-sale.order.flush-interval-ms:200}")
+    public void flush() {
+        RLock lock = redissonClient.getLock(WRITER_LOCK);
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            // 이전 실행에서 ack 하지 못한 주문부터 처리 - 실패해 pending 으로 남는 주문은 건너뛰며 읽음
+            StreamMessageId lastPendingId = new StreamMessageId(0, 0);
+            while (lastPendingId != null) {
+                lastPendingId = drain(StreamReadGroupArgs.greaterThan(lastPendingId).count(batchSize));
+            }
+            boolean hasMore = true;
+            while (hasMore) {
+                hasMore = drain(StreamReadGroupArgs.neverDelivered().count(batchSize)) != null;
+            }
+        } catch (Exception e) {
+            log.error("time sale order flush failed", e);
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @return 배치가 가득 찼으면 마지막으로 읽은 ID (더 읽을 주문이 남아 있을 수 있음), 아니면 null
+     */
+    private StreamMessageId drain(StreamReadGroupArgs args) {
+        RStream<String, String> stream = orderStream();
+        Map<StreamMessageId, Map<String, String>> messages = stream.readGroup(CONSUMER_GROUP, CONSUMER_NAME, args);
+        if (messages == null || messages.isEmpty()) {
+            return null;
+        }
+
+        try {
+            persist(messages);
+            StreamMessageId[] ids = messages.keySet().toArray(StreamMessageId[]::new);
+            stream.ack(CONSUMER_GROUP, ids);
+            stream.remove(ids);
+        } catch (RuntimeException e) {
+            log.warn("time sale order batch flush failed, retrying one by one - size: {}", messages.size(), e);
+            drainOneByOne(stream, messages);
+        }
+
+        if (messages.size() < batchSize) {
+            return null;
+        }
+        StreamMessageId lastId = null;
+        for (StreamMessageId id : messages.keySet()) {
+            lastId = id;
+        }
+        return lastId;
+    }
+
+    /**
+     * 한 건씩 반영한다. 주문끼리는 순서에 의존하지 않으므로 실패한 주문은 pending 으로 두고 다음 주문을 계속 반영하며,
+     * max-deliveries 번 전달되고도 실패한 주문은 dead-letter 스트림으로 옮기고 ack 한다.
+     */
+    private void drainOneByOne(RStream<String, String> stream, Map<StreamMessageId, Map<String, String>> messages) {
+        for (Map.Entry<StreamMessageId, Map<String, String>> message : messages.entrySet()) {
+            StreamMessageId id = message.getKey();
+            try {
+                persist(Map.of(id, message.getValue()));
+            } catch (RuntimeException e) {
+                long deliveries = deliveryCount(stream, id);
+                if (deliveries < maxDeliveries) {
+                    log.warn("time sale order flush failed - id: {}, deliveries: {}", id, deliveries, e);
+                    continue;
+                }
+                deadLetter(id, message.getValue(), e);
+            }
+            stream.ack(CONSUMER_GROUP, id);
+            stream.remove(id);
+        }
+    }
+
+    private void persist(Map<StreamMessageId, Map<String, String>> messages) {
+        List<TimeSaleOrderEntry> entries = messages.entrySet().stream()
+                .map(e -> TimeSaleOrderEntry.of(e.getKey().toString(), e.getValue()))
+                .toList();
+        List<TimeSaleOrderEntry> persisted = timeSaleOrderJdbcRepository.persist(entries);
+        log.debug("time sale orders flushed - read: {}, persisted: {}", entries.size(), persisted.size());
+    }
+
+    private long deliveryCount(RStream<String, String> stream, StreamMessageId id) {
+        List<PendingEntry> pending = stream.listPending(CONSUMER_GROUP, id, id, 1);
+        // PendingEntry.lastTimeDelivered 는 XPENDING 의 전달 횟수
+        return pending.isEmpty() ? 0 : pending.get(0).getLastTimeDelivered();
+    }
+
+    private void deadLetter(StreamMessageId id, Map<String, String> fields, RuntimeException cause) {
+        Map<String, String> deadLetter = new LinkedHashMap<>(fields);
+        deadLetter.put("reservationId", id.toString());
+        deadLetter.put("error", String.valueOf(cause.getMessage()));
+        redissonClient.<String, String>getStream(DEAD_LETTER_STREAM, StringCodec.INSTANCE)
+                .add(StreamAddArgs.entries(deadLetter));
+        log.error("time sale order moved to dead-letter - id: {}, fields: {}", id, fields, cause);
+    }
+
+    private RStream<String, String> orderStream() {
+        return redissonClient.getStream(TimeSaleStockScript.ORDER_STREAM, StringCodec.INSTANCE);
+    }
+}
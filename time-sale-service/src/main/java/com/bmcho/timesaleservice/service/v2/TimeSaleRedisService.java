@@ -2,22 +2,18 @@ package com.bmcho.timesaleservice.service.v2;
 
 import com.bmcho.timesaleservice.domain.Product;
 import com.bmcho.timesaleservice.domain.TimeSale;
-import com.bmcho.timesaleservice.domain.TimeSaleOrder;
 import com.bmcho.timesaleservice.domain.TimeSaleStatus;
 import com.bmcho.timesaleservice.dto.TimeSaleDto;
 import com.bmcho.timesaleservice.exception.ProductException;
-import com.bmcho.timesaleservice.exception.TimeSaleBasicException;
 import com.bmcho.timesaleservice.exception.TimeSaleException;
 import com.bmcho.timesaleservice.exception.common.ErrorCode;
 import com.bmcho.timesaleservice.repository.ProductRepository;
-import com.bmcho.timesaleservice.repository.TimeSaleOrderRepository;
 import com.bmcho.timesaleservice.repository.TimeSaleRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RBucket;
-import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -25,21 +21,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TimeSaleRedisService {
     private static final String TIME_SALE_KEY = "time-sale:";
-    private static final String TIME_SALE_LOCK = "time-sale-lock:";
-    private static final long WAIT_TIME = 3L;
-    private static final long LEASE_TIME = 3L;
 
     private final TimeSaleRepository timeSaleRepository;
     private final ProductRepository productRepository;
-    private final TimeSaleOrderRepository timeSaleOrderRepository;
+    private final TimeSaleStockScript timeSaleStockScript;
     private final RedissonClient redissonClient;
     private final ObjectMapper objectMapper;
 
@@ -60,6 +52,7 @@ public class TimeSaleRedisService {
 
         TimeSale savedTimeSale = timeSaleRepository.save(timeSale);
         saveToRedis(savedTimeSale);
+        timeSaleStockScript.initStock(savedTimeSale);
         return savedTimeSale;
     }
 
@@ -73,57 +66,75 @@ public class TimeSaleRedisService {
 
     @Transactional(readOnly = true)
     public TimeSale getTimeSale(Long timeSaleId) {
-        return getFromRedis(timeSaleId);
+        TimeSale timeSale = getFromRedis(timeSaleId);
+        Long remaining = timeSaleStockScript.getRemaining(timeSaleId);
+        if (remaining != null) {
+            timeSale.syncRemainingQuantity(remaining);
+        }
+        return timeSale;
     }
 
-    @Transactional
+    /**
+     * 타임세일 구매
+     * - 재고 예약 스크립트 한 번으로 상태/기간/재고 체크와 차감이 끝나므로 타임세일 단위 락을 잡지 않는다.
+     * - 주문 저장과 DB 재고 차감은 TimeSaleOrderWriter 가 주문 스트림을 읽어 뒤따라 반영한다.
+     */
     public TimeSale purchaseTimeSale(Long timeSaleId, TimeSaleDto.PurchaseRequest request) {
-        RLock lock = redissonClient.getLock(TIME_SALE_LOCK + timeSaleId);
-        if (lock == null) {
-            throw TimeSaleException.failedToCreateRedisLock(timeSaleId);
-        }
-
-        boolean isLocked = false;
-        try {
-            isLocked = lock.tryLock(WAIT_TIME, LEASE_TIME, TimeUnit.SECONDS);
-            if (!isLocked) {
-                throw TimeSaleException.failedToAcquireRedisLock();
-            }
-
-            TimeSale timeSale = getFromRedis(timeSaleId);
-            timeSale.purchase(request.getQuantity());
+        long remaining = reserveStock(timeSaleId, request.getUserId(), request.getQuantity());
 
-            // Save changes to DB
-            timeSale = timeSaleRepository.save(timeSale);
+        TimeSale timeSale = getFromRedis(timeSaleId);
+        timeSale.syncRemainingQuantity(remaining);
+        return timeSale;
+    }
 
-            TimeSaleOrder order = TimeSaleOrder.builder()
-                    .userId(request.getUserId())
-                    .timeSale(timeSale)
-                    .quantity(request.getQuantity())
-                    .discountPrice(timeSale.getDiscountPrice())
-                    .build();
+    /**
+     * 재고 예약 - 실패하면 사유에 맞는 예외
+     *
+     * @return 예약 후 남은 수량
+     */
+    public long reserveStock(Long timeSaleId, Long userId, Long quantity) {
+        TimeSaleStockScript.Result result = tryReserveStock(timeSaleId, userId, quantity);
+        return switch (result.status()) {
+            case RESERVED -> result.remaining();
+            case NOT_ACTIVE -> throw TimeSaleException.notActive(timeSaleId);
+            case NOT_IN_PERIOD -> {
+                TimeSale timeSale = getFromRedis(timeSaleId);
+                throw TimeSaleException.notInValidPeriod(timeSale.getStartAt(), timeSale.getEndAt());
+            }
+            case NOT_ENOUGH_QUANTITY -> throw TimeSaleException.notEnoughQuantity(result.remaining(), quantity);
+            case NOT_LOADED -> throw TimeSaleException.notFound(timeSaleId);
+        };
+    }
 
-            timeSaleOrderRepository.save(order);
-            saveToRedis(timeSale);
+    /**
+     * 재고 예약 결과를 그대로 반환 - 재고 해시가 없으면 DB 값으로 적재 후 한 번 더 시도
+     *
+     * @throws TimeSaleException 타임세일이 없는 경우
+     */
+    public TimeSaleStockScript.Result tryReserveStock(Long timeSaleId, Long userId, Long quantity) {
+        return tryReserveStock(timeSaleId, () -> timeSaleStockScript.reserve(timeSaleId, userId, quantity));
+    }
 
-            return timeSale;
+    /**
+     * 재고 예약 + 예약에 성공하면 대기열 등록 (v3) - 재고 해시가 없으면 DB 값으로 적재 후 한 번 더 시도
+     *
+     * @throws TimeSaleException 타임세일이 없는 경우
+     */
+    public TimeSaleStockScript.Result tryReserveStock(Long timeSaleId, Long userId, Long quantity,
+                                                      TimeSaleStockScript.QueueEntry queueEntry) {
+        return tryReserveStock(timeSaleId,
+                () -> timeSaleStockScript.reserve(timeSaleId, userId, quantity, queueEntry));
+    }
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("TimeSale purchase time sale's lock has been interrupted: {}", TIME_SALE_LOCK + timeSaleId, e);
-            throw new TimeSaleException(
-                    ErrorCode.UNHANDLED_SERVER_ERROR,
-                    "imeSale purchase time sale's lock has been interrupted",
-                    null);
-        } finally {
-            if (isLocked) {
-                try {
-                    lock.unlock();
-                } catch (Exception e) {
-                    log.error("Failed to unlock", e);
-                }
-            }
+    private TimeSaleStockScript.Result tryReserveStock(Long timeSaleId, Supplier<TimeSaleStockScript.Result> reserve) {
+        TimeSaleStockScript.Result result = reserve.get();
+        if (result.status() == TimeSaleStockScript.Status.NOT_LOADED) {
+            TimeSale timeSale = timeSaleRepository.findById(timeSaleId)
+                    .orElseThrow(() -> TimeSaleException.notFound(timeSaleId));
+            timeSaleStockScript.loadStock(timeSale);
+            result = reserve.get();
         }
+        return result;
     }
 
     public void saveToRedis(TimeSale timeSale) {
@@ -0,0 +1,217 @@
+package com.bmcho.timesaleservice.service.v2;
+
+import com.bmcho.timesaleservice.domain.TimeSale;
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RMap;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 타임세일 재고 예약과 주문 기록을 하나의 Lua 스크립트로 처리한다.
+ * 상태 체크 → 기간 체크 → 재고 체크 → 재고 차감 → 주문 스트림 XADD 가 Redis 서버에서 원자적으로 실행되므로 분산락이 필요 없다.
+ * v3 는 예약에 성공한 요청의 대기열 등록(QueueEntry)도 같은 스크립트에서 처리해 요청당 왕복이 한 번이다.
+ *
+ * 재고 해시(time-sale:stock:{id})는 타임세일 생성 시 remainingQuantity 로 초기화되고, 이후 재고의 원본(source of truth)이다.
+ * DB(time_sales.remaining_quantity, time_sale_orders)는 TimeSaleOrderWriter 가 주문 스트림을 읽어 뒤따라 반영한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TimeSaleStockScript {
+
+    static final String STOCK_KEY = "time-sale:stock:";
+    static final String ORDER_STREAM = "time-sale:orders";
+
+    private static final long RESERVED = 0;
+    private static final long NOT_LOADED = -1;
+    private static final long NOT_ACTIVE = -2;
+    private static final long NOT_IN_PERIOD = -3;
+    private static final long NOT_ENOUGH = -4;
+
+    /*
+        KEYS[1] = 재고 해시, KEYS[2] = 주문 스트림
+        ARGV[1] = timeSaleId, ARGV[2] = userId, ARGV[3] = quantity
+        대기열 등록 (선택) : KEYS[3] = 결과 키, KEYS[4] = 대기열 순번, KEYS[5] = 대기열, KEYS[6] = 총 대기 수
+                            ARGV[4] = 요청 ID, ARGV[5] = PENDING, ARGV[6] = 결과 키 TTL (초)
+        현재 시각은 Redis 서버 시각(TIME) - 앱 서버 간 시계 차이가 판매 기간 판정과 주문 시각에 영향을 주지 않음
+        반환 : {상태 코드, 남은 수량} - 실패 시에도 현재 남은 수량 반환 (NOT_LOADED 는 -1)
+     */
+    private static final String RESERVE_SCRIPT = """
+            local stock = redis.call('HMGET', KEYS[1], 'remaining', 'status', 'startAt', 'endAt', 'discountPrice')
+            if not stock[1] then
+                return {-1, -1}
+            end
+            local remaining = tonumber(stock[1])
+            if stock[2] ~= 'ACTIVE' then
+                return {-2, remaining}
+            end
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            if now < tonumber(stock[3]) or now > tonumber(stock[4]) then
+                return {-3, remaining}
+            end
+            local quantity = tonumber(ARGV[3])
+            if remaining < quantity then
+                return {-4, remaining}
+            end
+            remaining = redis.call('HINCRBY', KEYS[1], 'remaining', -quantity)
+            redis.call('XADD', KEYS[2], '*',
+                'timeSaleId', ARGV[1], 'userId', ARGV[2], 'quantity', ARGV[3],
+                'discountPrice', stock[5], 'createdAt', now)
+            if #KEYS > 2 then
+                redis.call('SET', KEYS[3], ARGV[5], 'EX', ARGV[6])
+                local seq = redis.call('INCR', KEYS[4])
+                redis.call('ZADD', KEYS[5], seq, ARGV[4])
+                redis.call('INCR', KEYS[6])
+            end
+            return {0, remaining}
+            """;
+
+    /*
+        KEYS[1] = 재고 해시, ARGV[1] = 1 이면 기존 값을 덮어씀 (0 이면 없을 때만 적재)
+        ARGV[2..] = 해시 필드/값 쌍
+     */
+    private static final String LOAD_SCRIPT = """
+            if ARGV[1] == '0' and redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+            return 1
+            """;
+
+    private final RedissonClient redissonClient;
+
+    /**
+     * 타임세일 생성 시 재고 초기화
+     *
+     * @param timeSale 저장된 타임세일
+     */
+    public void initStock(TimeSale timeSale) {
+        load(timeSale, true);
+    }
+
+    /**
+     * 재고 해시가 없을 때만 DB 값으로 적재 (Redis 유실 / 기존 타임세일)
+     *
+     * @param timeSale DB 에서 조회한 타임세일
+     */
+    public void loadStock(TimeSale timeSale) {
+        load(timeSale, false);
+    }
+
+    /**
+     * 재고 예약 (상태/기간/재고 체크 + 재고 차감 + 주문 기록)
+     *
+     * @param timeSaleId 타임세일 ID
+     * @param userId     구매 유저 ID
+     * @param quantity   구매 수량
+     * @return 예약 결과
+     */
+    public Result reserve(Long timeSaleId, Long userId, long quantity) {
+        List<Object> reply = eval(RESERVE_SCRIPT, RScript.ReturnType.MULTI,
+                List.of(STOCK_KEY + timeSaleId, ORDER_STREAM),
+                String.valueOf(timeSaleId), String.valueOf(userId), String.valueOf(quantity));
+        return toResult(reply);
+    }
+
+    /**
+     * 재고 예약 + 예약에 성공하면 대기열 등록까지 스크립트 한 번으로 처리 (v3)
+     *
+     * @param queueEntry 예약에 성공했을 때 등록할 대기열 정보
+     * @return 예약 결과
+     */
+    public Result reserve(Long timeSaleId, Long userId, long quantity, QueueEntry queueEntry) {
+        List<Object> reply = eval(RESERVE_SCRIPT, RScript.ReturnType.MULTI,
+                List.of(STOCK_KEY + timeSaleId, ORDER_STREAM, queueEntry.resultKey(), queueEntry.seqKey(),
+                        queueEntry.queueKey(), queueEntry.totalKey()),
+                String.valueOf(timeSaleId), String.valueOf(userId), String.valueOf(quantity),
+                queueEntry.requestId(), queueEntry.pendingResult(), String.valueOf(queueEntry.resultTtlSeconds()));
+        return toResult(reply);
+    }
+
+    /**
+     * Redis 에 남은 재고
+     *
+     * @return 남은 재고, 재고가 적재되지 않았으면 null
+     */
+    public Long getRemaining(Long timeSaleId) {
+        String remaining = stock(timeSaleId).get("remaining");
+        return remaining == null ? null : Long.parseLong(remaining);
+    }
+
+    private void load(TimeSale timeSale, boolean overwrite) {
+        eval(LOAD_SCRIPT, RScript.ReturnType.INTEGER, List.of(STOCK_KEY + timeSale.getId()),
+                overwrite ? "1" : "0",
+                "remaining", String.valueOf(timeSale.getRemainingQuantity()),
+                "status", timeSale.getStatus().name(),
+                "startAt", String.valueOf(toEpochMillis(timeSale.getStartAt())),
+                "endAt", String.valueOf(toEpochMillis(timeSale.getEndAt())),
+                "discountPrice", String.valueOf(timeSale.getDiscountPrice()));
+    }
+
+    private RMap<String, String> stock(Long timeSaleId) {
+        return redissonClient.getMap(STOCK_KEY + timeSaleId, StringCodec.INSTANCE);
+    }
+
+    private Result toResult(List<Object> reply) {
+        long code = (Long) reply.get(0);
+        Long remaining = (Long) reply.get(1);
+        if (code == RESERVED) {
+            return new Result(Status.RESERVED, remaining);
+        } else if (code == NOT_LOADED) {
+            return new Result(Status.NOT_LOADED, null);
+        } else if (code == NOT_ACTIVE) {
+            return new Result(Status.NOT_ACTIVE, remaining);
+        } else if (code == NOT_IN_PERIOD) {
+            return new Result(Status.NOT_IN_PERIOD, remaining);
+        } else if (code == NOT_ENOUGH) {
+            return new Result(Status.NOT_ENOUGH_QUANTITY, remaining);
+        }
+        throw new IllegalStateException("Unexpected reserve script result: " + code);
+    }
+
+    private <R> R eval(String script, RScript.ReturnType returnType, List<Object> keys, Object... args) {
+        // RedisConfig.useScriptCache - EVALSHA 로 실행되고 스크립트 캐시가 비워졌으면 Redisson 이 다시 로드
+        return redissonClient.getScript(StringCodec.INSTANCE)
+                .eval(RScript.Mode.READ_WRITE, script, returnType, keys, args);
+    }
+
+    private long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * @param status    예약 상태
+     * @param remaining 예약 후 남은 수량 (실패 시 현재 남은 수량, NOT_LOADED 는 null)
+     */
+    public record Result(Status status, Long remaining) {
+    }
+
+    /**
+     * 예약에 성공한 요청의 대기열 등록 - 결과 PENDING 저장 + 대기열 추가 + 총 대기 수 증가 (TimeSaleQueueScript.queueEntry)
+     *
+     * @param resultKey        결과 키
+     * @param seqKey           대기열 순번 키
+     * @param queueKey         대기열 키
+     * @param totalKey         총 대기 수 키
+     * @param requestId        요청 ID
+     * @param pendingResult    결과 키에 저장할 대기 상태
+     * @param resultTtlSeconds 결과 키 TTL (초)
+     */
+    public record QueueEntry(String resultKey, String seqKey, String queueKey, String totalKey,
+                             String requestId, String pendingResult, long resultTtlSeconds) {
+    }
+
+    public enum Status {
+        RESERVED,
+        NOT_LOADED,     // 재고 해시가 없음 - DB 값으로 적재 후 다시 호출 필요
+        NOT_ACTIVE,
+        NOT_IN_PERIOD,
+        NOT_ENOUGH_QUANTITY
+    }
+}
@@ -5,10 +5,7 @@ import com.bmcho.timesaleservice.domain.TimeSale;
 import com.bmcho.timesaleservice.domain.TimeSaleOrderStatus;
 import com.bmcho.timesaleservice.dto.TimeSaleDto;
 import com.bmcho.timesaleservice.service.v2.TimeSaleRedisService;
-import jdk.jshell.Snippet;
 import lombok.RequiredArgsConstructor;
-import org.redisson.api.RBucket;
-import org.redisson.api.RedissonClient;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -19,8 +16,6 @@ public class AsyncTimeSaleService {
 
     private final TimeSaleRedisService timeSaleRedisService;
     private final TimeSaleProducer timeSaleProducer;
-    private final RedissonClient redissonClient;
-    private static final String RESULT_PREFIX = "purchase-result:";
 
     public TimeSale createTimeSale(TimeSaleDto.CreateRequest request) {
         return timeSaleRedisService.createTimeSale(request);
@@ -41,17 +36,17 @@ public class AsyncTimeSaleService {
     }
 
     public TimeSaleDto.AsyncPurchaseResponse getPurchaseResult(Long timeSaleId, String requestId) {
-        RBucket<TimeSaleOrderStatus> resultBucket = redissonClient.getBucket(RESULT_PREFIX + requestId);
-        TimeSaleOrderStatus result = resultBucket.get();
-        TimeSaleOrderStatus status = result != null ? result : TimeSaleOrderStatus.PENDING;
+        // 결과와 대기 순서 정보를 한 번에 조회
+        TimeSaleQueueScript.QueueStatus queueStatus = timeSaleProducer.getPurchaseStatus(timeSaleId, requestId);
+        TimeSaleOrderStatus status = queueStatus.result() != null ? queueStatus.result() : TimeSaleOrderStatus.PENDING;
 
-        // 대기 순서 정보 조회
+        // 대기 순서 정보는 대기 중인 요청만 반환
         Integer queuePosition = null;
         Long totalWaiting = 0L;
 
         if (status.equals(TimeSaleOrderStatus.PENDING)) {
-            queuePosition = timeSaleProducer.getQueuePosition(timeSaleId, requestId);
-            totalWaiting = timeSaleProducer.getTotalWaiting(timeSaleId);
+            queuePosition = queueStatus.position();
+            totalWaiting = queueStatus.totalWaiting();
         }
 
         return TimeSaleDto.AsyncPurchaseResponse.builder()
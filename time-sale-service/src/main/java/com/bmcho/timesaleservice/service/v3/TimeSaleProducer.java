@@ -2,19 +2,26 @@ package com.bmcho.timesaleservice.service.v3;
 
 import com.bmcho.timesaleservice.domain.TimeSaleOrderStatus;
 import com.bmcho.timesaleservice.dto.PurchaseRequestMessage;
+import com.bmcho.timesaleservice.exception.TimeSaleBasicException;
+import com.bmcho.timesaleservice.service.v2.TimeSaleRedisService;
+import com.bmcho.timesaleservice.service.v2.TimeSaleStockScript;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.*;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 타임세일 구매 요청을 처리하는 Producer
- * - Kafka를 통해 비동기로 구매 요청을 처리
- * - Redis를 사용하여 대기열 관리
- * - Redisson을 사용하여 분산 환경에서의 동시성 제어
+ * - 요청 시점에 Redis 재고 예약 스크립트로 재고를 먼저 예약하고, 예약된 요청만 Kafka로 전달
+ * - 재고 예약과 요청 상태 저장/대기열 등록은 같은 스크립트에서 처리 (요청당 Redis 왕복 한 번)
+ * - 예약에 실패하면(매진/기간 외 등) Kafka를 거치지 않고 바로 FAIL 결과를 저장
+ * - Redis를 사용하여 대기열 관리 (TimeSaleQueueScript)
+ * - 메시지 키는 timeSaleId - 타임세일 단위로 파티션이 정해짐
  */
 @Slf4j
 @Service
@@ -22,26 +29,29 @@ import java.util.UUID;
 public class TimeSaleProducer {
     // Kafka 토픽 이름
     private static final String TOPIC = "time-sale-requests";
-    // Redis 키 접두사
-    private static final String QUEUE_KEY = "time-sale-queue:";
-    private static final String QUEUE_SEQ_KEY = "time-sale-queue-seq:";
-    private static final String TOTAL_REQUESTS_KEY = "time-sale-total-requests:";
-    private static final String RESULT_PREFIX = "purchase-result:";
 
     private final KafkaTemplate<String, PurchaseRequestMessage> kafkaTemplate;
-    private final RedissonClient redissonClient;
+    private final TimeSaleQueueScript timeSaleQueueScript;
+    private final TimeSaleRedisService timeSaleRedisService;
+
+    // 매진된 타임세일 - 재고는 다시 늘어나지 않으므로 이후 요청은 Redis 도 거치지 않고 거절
+    private final Set<Long> soldOutTimeSales = ConcurrentHashMap.newKeySet();
 
     /**
      * 타임세일 구매 요청을 처리
      * 1. 요청 ID 생성
-     * 2. Redis에 요청 상태 저장
-     * 3. 대기열에 요청 추가
-     * 4. Kafka로 메시지 전송
+     * 2. 재고 예약 + 요청 상태 저장 + 대기열 추가 (스크립트 한 번, 실패 시 FAIL 저장 후 바로 반환)
+     * 3. Kafka로 메시지 전송
      */
     public String sendPurchaseRequest(Long timeSaleId, Long userId, Long quantity) {
         //고유 ID 생성
         String requestId = UUID.randomUUID().toString();
 
+        if (!reserveStock(timeSaleId, userId, quantity, requestId)) {
+            timeSaleQueueScript.saveResult(requestId, TimeSaleOrderStatus.FAIL);
+            return requestId;
+        }
+
         // 구매 요청 메시지 생성
         PurchaseRequestMessage message = PurchaseRequestMessage.builder()
                 .requestId(requestId)
@@ -50,49 +60,73 @@ public class TimeSaleProducer {
                 .quantity(quantity)
                 .build();
 
-        // Redis에 초기 상태 저장
-        RBucket<TimeSaleOrderStatus> resultBucket = redissonClient.getBucket(RESULT_PREFIX + requestId);
-        resultBucket.set(TimeSaleOrderStatus.PENDING);
+        // Kafka로 메시지 전송 - 재고와 주문은 이미 예약/기록되었으므로 전송에 실패해도 구매는 성공으로 확정
+        // 키는 timeSaleId - 같은 타임세일의 요청은 같은 파티션으로 모여 순서가 유지됨
+        kafkaTemplate.send(TOPIC, String.valueOf(timeSaleId), message).whenComplete((result, e) -> {
+            if (e != null) {
+                log.error("Failed to send purchase request, completing without consumer: {}", message, e);
+                completePurchaseRequests(List.of(message));
+            }
+        });
+        return requestId;
 
-        // 대기열에 추가하고 카운터 증가
-        String queueKey = QUEUE_KEY + timeSaleId;
-        String queueSeqKey = QUEUE_SEQ_KEY + timeSaleId;
-        String totalKey = TOTAL_REQUESTS_KEY + timeSaleId;
+    }
 
-        RAtomicLong queueSeq = redissonClient.getAtomicLong(queueSeqKey);
-        long incremented = queueSeq.incrementAndGet();
-        RScoredSortedSet<String> queueBucket = redissonClient.getScoredSortedSet(queueKey);
-        queueBucket.add(incremented, requestId);
+    /**
+     * 재고 예약 + 대기열 등록 - 매진으로 확인된 타임세일은 Redis 를 거치지 않고 거절
+     *
+     * @return 예약 성공 여부
+     */
+    private boolean reserveStock(Long timeSaleId, Long userId, Long quantity, String requestId) {
+        if (soldOutTimeSales.contains(timeSaleId)) {
+            return false;
+        }
 
-        RAtomicLong totalCounter = redissonClient.getAtomicLong(totalKey);
-        totalCounter.incrementAndGet();
+        TimeSaleStockScript.Result result;
+        try {
+            result = timeSaleRedisService.tryReserveStock(timeSaleId, userId, quantity,
+                    timeSaleQueueScript.queueEntry(timeSaleId, requestId));
+        } catch (TimeSaleBasicException e) {
+            log.warn("Purchase request rejected: timeSaleId={}, userId={}, error={}", timeSaleId, userId, e.getErrorCode());
+            return false;
+        }
 
-        // Kafka로 메시지 전송
-        kafkaTemplate.send(TOPIC, requestId, message);
-        return requestId;
+        if (result.status() == TimeSaleStockScript.Status.RESERVED) {
+            return true;
+        }
+        if (result.remaining() != null && result.remaining() == 0) {
+            soldOutTimeSales.add(timeSaleId);
+        }
+        return false;
+    }
 
+    /**
+     * 처리된 요청들의 결과 저장과 대기열 제거 (파이프라인 한 번)
+     *
+     * @param messages 재고 예약이 끝난 구매 요청
+     */
+    public void completePurchaseRequests(List<PurchaseRequestMessage> messages) {
+        timeSaleQueueScript.complete(messages, TimeSaleOrderStatus.SUCCESS);
+    }
+
+    /**
+     * 결과, 대기열 위치, 총 대기 수 조회 (파이프라인 한 번)
+     */
+    public TimeSaleQueueScript.QueueStatus getPurchaseStatus(Long timeSaleId, String requestId) {
+        return timeSaleQueueScript.status(timeSaleId, requestId);
     }
 
     /**
      * 대기열에서 요청의 위치를 조회
      */
     public Integer getQueuePosition(Long timeSaleId, String requestId) {
-        String queueKey = QUEUE_KEY + timeSaleId;
-        RScoredSortedSet<String> queueBucket = redissonClient.getScoredSortedSet(queueKey);
-
-        if (!queueBucket.contains(requestId) || queueBucket.isEmpty()) {
-            return null;
-        }
-
-        return queueBucket.rank(requestId);
+        return timeSaleQueueScript.rank(timeSaleId, requestId);
     }
 
     /**
      * 총 대기 중인 요청 수를
      */
     public Long getTotalWaiting(Long timeSaleId) {
-        String totalKey = TOTAL_REQUESTS_KEY + timeSaleId;
-        RAtomicLong totalCounter = redissonClient.getAtomicLong(totalKey);
-        return totalCounter.get();
+        return timeSaleQueueScript.totalWaiting(timeSaleId);
     }
 }
@@ -0,0 +1,140 @@
+package com.bmcho.timesaleservice.service.v3;
+
+import com.bmcho.timesaleservice.domain.TimeSaleOrderStatus;
+import com.bmcho.timesaleservice.dto.PurchaseRequestMessage;
+import com.bmcho.timesaleservice.service.v2.TimeSaleStockScript;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.BatchResult;
+import org.redisson.api.RBatch;
+import org.redisson.api.RScript;
+import org.redisson.api.RScriptAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * v3 구매 요청의 결과/대기열 키를 관리한다.
+ * 요청마다 여러 번 나누어 보내던 명령을 요청 등록은 재고 예약 스크립트 한 번(queueEntry), 결과 확정과 상태 조회는 파이프라인 한 번으로 묶는다.
+ * 결과 확정은 대기열에서 실제로 제거한 수만큼만 총 대기 수를 줄이므로, Kafka 재전달로 같은 요청을 다시 확정해도 두 번 줄지 않는다.
+ *
+ * 결과 키(purchase-result:*)는 resultTtl 이 지나면 만료되며, 값은 상태 이름 문자열(StringCodec)로 저장한다.
+ */
+@Component
+public class TimeSaleQueueScript {
+
+    static final String QUEUE_KEY = "time-sale-queue:";
+    static final String QUEUE_SEQ_KEY = "time-sale-queue-seq:";
+    static final String TOTAL_REQUESTS_KEY = "time-sale-total-requests:";
+    static final String RESULT_PREFIX = "purchase-result:";
+
+    /*
+        KEYS[1] = 대기열, KEYS[2] = 총 대기 수
+        ARGV = 요청 ID 목록
+        반환 : 대기열에서 제거한 요청 수
+     */
+    private static final String DEQUEUE_SCRIPT = """
+            local removed = redis.call('ZREM', KEYS[1], unpack(ARGV))
+            if removed > 0 then
+                redis.call('DECRBY', KEYS[2], removed)
+            end
+            return removed
+            """;
+
+    private final RedissonClient redissonClient;
+    private final Duration resultTtl;
+
+    public TimeSaleQueueScript(RedissonClient redissonClient,
+                               @Value("${time-sale.purchase-result.ttl:1h}") Duration resultTtl) {
+        this.redissonClient = redissonClient;
+        this.resultTtl = resultTtl;
+    }
+
+    /**
+     * 요청 등록 정보 - 재고 예약 스크립트가 예약에 성공하면 결과 PENDING 저장 + 대기열 추가 + 총 대기 수 증가를 함께 처리
+     */
+    public TimeSaleStockScript.QueueEntry queueEntry(Long timeSaleId, String requestId) {
+        return new TimeSaleStockScript.QueueEntry(RESULT_PREFIX + requestId, QUEUE_SEQ_KEY + timeSaleId,
+                QUEUE_KEY + timeSaleId, TOTAL_REQUESTS_KEY + timeSaleId,
+                requestId, TimeSaleOrderStatus.PENDING.name(), resultTtl.toSeconds());
+    }
+
+    /**
+     * 대기열을 거치지 않은 요청의 결과 저장 (재고 예약 실패 등)
+     */
+    public void saveResult(String requestId, TimeSaleOrderStatus result) {
+        redissonClient.<String>getBucket(RESULT_PREFIX + requestId, StringCodec.INSTANCE)
+                .set(result.name(), resultTtl.toSeconds(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * 요청들의 결과 저장과 대기열 제거를 한 번의 파이프라인으로 처리
+     * - 대기열 제거와 총 대기 수 감소는 타임세일별로 묶어 스크립트 하나씩만 보낸다. (제거한 수만큼만 감소 - 재전달에도 멱등)
+     *
+     * @param messages 처리가 끝난 구매 요청
+     * @param result   처리 결과
+     */
+    public void complete(List<PurchaseRequestMessage> messages, TimeSaleOrderStatus result) {
+        RBatch batch = redissonClient.createBatch(BatchOptions.defaults().skipResult());
+        Map<Long, List<String>> requestIdsByTimeSale = new LinkedHashMap<>();
+        for (PurchaseRequestMessage message : messages) {
+            batch.<String>getBucket(RESULT_PREFIX + message.getRequestId(), StringCodec.INSTANCE)
+                    .setAsync(result.name(), resultTtl.toSeconds(), TimeUnit.SECONDS);
+            requestIdsByTimeSale.computeIfAbsent(message.getTimeSaleId(), id -> new ArrayList<>())
+                    .add(message.getRequestId());
+        }
+
+        RScriptAsync script = batch.getScript(StringCodec.INSTANCE);
+        requestIdsByTimeSale.forEach((timeSaleId, requestIds) -> script.evalAsync(RScript.Mode.READ_WRITE,
+                DEQUEUE_SCRIPT, RScript.ReturnType.INTEGER,
+                List.of(QUEUE_KEY + timeSaleId, TOTAL_REQUESTS_KEY + timeSaleId), requestIds.toArray()));
+        batch.execute();
+    }
+
+    /**
+     * 결과, 대기열 위치, 총 대기 수를 한 번의 파이프라인으로 조회
+     */
+    public QueueStatus status(Long timeSaleId, String requestId) {
+        RBatch batch = redissonClient.createBatch(BatchOptions.defaults());
+        batch.<String>getBucket(RESULT_PREFIX + requestId, StringCodec.INSTANCE).getAsync();
+        batch.<String>getScoredSortedSet(QUEUE_KEY + timeSaleId, StringCodec.INSTANCE).rankAsync(requestId);
+        batch.getAtomicLong(TOTAL_REQUESTS_KEY + timeSaleId).getAsync();
+        BatchResult<?> responses = batch.execute();
+
+        List<?> values = responses.getResponses();
+        String result = (String) values.get(0);
+        return new QueueStatus(
+                result == null ? null : TimeSaleOrderStatus.valueOf(result),
+                (Integer) values.get(1),
+                (Long) values.get(2));
+    }
+
+    /**
+     * 대기열에서 요청의 위치 (대기열에 없으면 null)
+     */
+    public Integer rank(Long timeSaleId, String requestId) {
+        return redissonClient.<String>getScoredSortedSet(QUEUE_KEY + timeSaleId, StringCodec.INSTANCE).rank(requestId);
+    }
+
+    /**
+     * 총 대기 수
+     */
+    public long totalWaiting(Long timeSaleId) {
+        return redissonClient.getAtomicLong(TOTAL_REQUESTS_KEY + timeSaleId).get();
+    }
+
+    /**
+     * @param result       처리 결과 (결과 키가 없거나 만료되었으면 null)
+     * @param position     대기열 위치 (대기열에 없으면 null)
+     * @param totalWaiting 총 대기 수
+     */
+    public record QueueStatus(TimeSaleOrderStatus result, Integer position, Long totalWaiting) {
+    }
+}
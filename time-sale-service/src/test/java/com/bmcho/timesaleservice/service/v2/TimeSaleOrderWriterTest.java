@@ -0,0 +1,134 @@
+package com.bmcho.timesaleservice.service.v2;
+
+import com.bmcho.timesaleservice.domain.TimeSaleOrderEntry;
+import com.bmcho.timesaleservice.repository.TimeSaleOrderJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.PendingEntry;
+import org.redisson.api.RLock;
+import org.redisson.api.RStream;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.api.stream.StreamReadGroupArgs;
+import org.redisson.client.codec.StringCodec;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TimeSaleOrderWriterTest {
+
+    private static final StreamMessageId BAD_ID = new StreamMessageId(1, 0);
+    private static final StreamMessageId GOOD_ID = new StreamMessageId(2, 0);
+
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private TimeSaleOrderJdbcRepository timeSaleOrderJdbcRepository;
+    @Mock
+    private RLock lock;
+    @Mock
+    private RStream<String, String> orders;
+    @Mock
+    private RStream<String, String> deadLetter;
+
+    private TimeSaleOrderWriter timeSaleOrderWriter;
+
+    @BeforeEach
+    void setUp() {
+        timeSaleOrderWriter = new TimeSaleOrderWriter(redissonClient, timeSaleOrderJdbcRepository, 500, 5);
+        given(redissonClient.getLock(any())).willReturn(lock);
+        given(lock.tryLock()).willReturn(true);
+        doReturn(orders).when(redissonClient).getStream(TimeSaleStockScript.ORDER_STREAM, StringCodec.INSTANCE);
+        given(orders.readGroup(eq(TimeSaleOrderWriter.CONSUMER_GROUP), any(), any(StreamReadGroupArgs.class)))
+                .willReturn(messages())
+                .willReturn(Map.of());
+        failOnBadEntry();
+    }
+
+    @Test
+    @DisplayName("전달 횟수를 넘긴 주문은 dead-letter 스트림으로 옮기고 나머지 주문은 반영")
+    void flush_MovesPoisonEntryToDeadLetter() {
+        // given
+        givenDeliveries(5);
+        doReturn(deadLetter).when(redissonClient)
+                .getStream(TimeSaleOrderWriter.DEAD_LETTER_STREAM, StringCodec.INSTANCE);
+
+        // when
+        timeSaleOrderWriter.flush();
+
+        // then
+        verify(deadLetter).add(any(StreamAddArgs.class));
+        verify(orders).ack(TimeSaleOrderWriter.CONSUMER_GROUP, BAD_ID);
+        verify(orders).remove(BAD_ID);
+        verify(orders).ack(TimeSaleOrderWriter.CONSUMER_GROUP, GOOD_ID);
+        verify(orders, times(2)).readGroup(eq(TimeSaleOrderWriter.CONSUMER_GROUP), any(), any(StreamReadGroupArgs.class));
+    }
+
+    @Test
+    @DisplayName("전달 횟수가 남은 실패 주문만 pending 으로 두고 뒤의 주문과 새 주문은 계속 반영")
+    void flush_KeepsFailedEntryPendingUntilMaxDeliveries() {
+        // given
+        givenDeliveries(2);
+
+        // when
+        timeSaleOrderWriter.flush();
+
+        // then
+        verify(orders, never()).ack(TimeSaleOrderWriter.CONSUMER_GROUP, BAD_ID);
+        verify(orders).ack(TimeSaleOrderWriter.CONSUMER_GROUP, GOOD_ID);
+        verify(orders).remove(GOOD_ID);
+        verify(redissonClient, never()).getStream(TimeSaleOrderWriter.DEAD_LETTER_STREAM, StringCodec.INSTANCE);
+        verify(orders, times(2)).readGroup(eq(TimeSaleOrderWriter.CONSUMER_GROUP), any(), any(StreamReadGroupArgs.class));
+    }
+
+    private void failOnBadEntry() {
+        // 배치 반영은 실패, 한 건씩 반영하면 GOOD_ID 만 성공
+        given(timeSaleOrderJdbcRepository.persist(anyList())).willAnswer(invocation -> {
+            List<TimeSaleOrderEntry> entries = invocation.getArgument(0);
+            if (entries.stream().anyMatch(entry -> entry.reservationId().equals(BAD_ID.toString()))) {
+                throw new IllegalStateException("persist failed");
+            }
+            return entries;
+        });
+    }
+
+    private void givenDeliveries(long deliveries) {
+        PendingEntry pendingEntry = mock(PendingEntry.class);
+        given(pendingEntry.getLastTimeDelivered()).willReturn(deliveries);
+        given(orders.listPending(TimeSaleOrderWriter.CONSUMER_GROUP, BAD_ID, BAD_ID, 1))
+                .willReturn(List.of(pendingEntry));
+    }
+
+    private Map<StreamMessageId, Map<String, String>> messages() {
+        Map<StreamMessageId, Map<String, String>> messages = new LinkedHashMap<>();
+        messages.put(BAD_ID, fields());
+        messages.put(GOOD_ID, fields());
+        return messages;
+    }
+
+    private Map<String, String> fields() {
+        return Map.of(
+                "timeSaleId", "1",
+                "userId", "1",
+                "quantity", "1",
+                "discountPrice", "5000",
+                "createdAt", String.valueOf(System.currentTimeMillis()));
+    }
+}
@@ -8,7 +8,6 @@ import com.bmcho.timesaleservice.dto.TimeSaleDto;
 import com.bmcho.timesaleservice.exception.TimeSaleException;
 import com.bmcho.timesaleservice.exception.common.ErrorCode;
 import com.bmcho.timesaleservice.repository.ProductRepository;
-import com.bmcho.timesaleservice.repository.TimeSaleOrderRepository;
 import com.bmcho.timesaleservice.repository.TimeSaleRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,7 +17,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.redisson.api.RBucket;
-import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -27,7 +25,6 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.as;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -47,14 +44,12 @@ class TimeSaleRedisServiceTest {
     @Mock
     private ProductRepository productRepository;
     @Mock
-    private TimeSaleOrderRepository timeSaleOrderRepository;
+    private TimeSaleStockScript timeSaleStockScript;
     @Mock
     private RedissonClient redissonClient;
     @Mock
     private ObjectMapper objectMapper;
     @Mock
-    private RLock rLock;
-    @Mock
     private RBucket<String> rBucket;
 
     private TimeSale timeSale;
@@ -124,6 +119,7 @@ class TimeSaleRedisServiceTest {
         assertThat(result.getProduct().getId()).isEqualTo(1L);
         verify(timeSaleRepository, times(1)).save(any(TimeSale.class));
         verify(rBucket).set(anyString());
+        verify(timeSaleStockScript).initStock(timeSale);
     }
 
     @Test
@@ -163,16 +159,14 @@ class TimeSaleRedisServiceTest {
     }
 
     @Test
-    @DisplayName("타임세일 구매 성공")
+    @DisplayName("타임세일 구매 성공 - 락 없이 재고 예약 스크립트로 차감")
     void purchaseTimeSale_Success() throws Exception {
         // given
-        given(redissonClient.getLock(anyString())).willReturn(rLock);
-        given(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).willReturn(true);
+        given(timeSaleStockScript.reserve(1L, 1L, 2L))
+                .willReturn(new TimeSaleStockScript.Result(TimeSaleStockScript.Status.RESERVED, 98L));
         given(redissonClient.<String>getBucket(anyString())).willReturn(rBucket);
-        given(rBucket.get()).willReturn(null); // Redis에 데이터가 없는 상황
-        given(timeSaleRepository.findById(1L)).willReturn(Optional.of(timeSale)); // DB에서 조회
-        given(timeSaleRepository.save(any(TimeSale.class))).willReturn(timeSale);
-        given(timeSaleOrderRepository.save(any(TimeSaleOrder.class))).willReturn(order);
+        given(rBucket.get()).willReturn("json");
+        given(objectMapper.readValue(anyString(), eq(TimeSale.class))).willReturn(timeSale);
 
         // when
         TimeSale result = timeSaleRedisService.purchaseTimeSale(1L, purchaseRequest);
@@ -181,35 +175,52 @@ class TimeSaleRedisServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getRemainingQuantity()).isEqualTo(98L);
-        verify(timeSaleOrderRepository).save(any(TimeSaleOrder.class));
-        verify(rLock).unlock();
-        verify(timeSaleRepository).findById(1L); // DB 조회 검증
+        verify(redissonClient, never()).getLock(anyString());
+        verify(timeSaleRepository, never()).save(any(TimeSale.class));
+    }
+
+    @Test
+    @DisplayName("타임세일 구매 - 재고가 Redis 에 없으면 DB 값으로 적재 후 예약")
+    void purchaseTimeSale_LoadStock() throws Exception {
+        // given
+        given(timeSaleStockScript.reserve(1L, 1L, 2L))
+                .willReturn(new TimeSaleStockScript.Result(TimeSaleStockScript.Status.NOT_LOADED, null))
+                .willReturn(new TimeSaleStockScript.Result(TimeSaleStockScript.Status.RESERVED, 98L));
+        given(timeSaleRepository.findById(1L)).willReturn(Optional.of(timeSale));
+        given(redissonClient.<String>getBucket(anyString())).willReturn(rBucket);
+        given(rBucket.get()).willReturn("json");
+        given(objectMapper.readValue(anyString(), eq(TimeSale.class))).willReturn(timeSale);
+
+        // when
+        TimeSale result = timeSaleRedisService.purchaseTimeSale(1L, purchaseRequest);
+
+        // then
+        assertThat(result.getRemainingQuantity()).isEqualTo(98L);
+        verify(timeSaleStockScript).loadStock(timeSale);
+        verify(timeSaleStockScript, times(2)).reserve(1L, 1L, 2L);
     }
 
     @Test
-    @DisplayName("타임세일 구매 실패 - 락 획득 실패")
-    void purchaseTimeSale_LockFailed() throws Exception {
+    @DisplayName("타임세일 구매 실패 - 재고 부족")
+    void purchaseTimeSale_NotEnoughQuantity() {
         // given
-        given(redissonClient.getLock(anyString())).willReturn(rLock);
-        given(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).willReturn(false);
+        given(timeSaleStockScript.reserve(1L, 1L, 2L))
+                .willReturn(new TimeSaleStockScript.Result(TimeSaleStockScript.Status.NOT_ENOUGH_QUANTITY, 1L));
 
         // when & then
         TimeSaleException timeSaleException = assertThrows(TimeSaleException.class,
                 () -> timeSaleRedisService.purchaseTimeSale(1L, purchaseRequest));
 
-        assertThat(timeSaleException.getErrorCode()).isEqualTo(ErrorCode.FAILED_TO_ACQUIRE_REDIS_LOCK);
-        verify(rLock, never()).unlock();
-        verify(timeSaleOrderRepository, never()).save(any(TimeSaleOrder.class));
+        assertThat(timeSaleException.getErrorCode()).isEqualTo(ErrorCode.NOT_ENOUGH_QUANTITY);
+        verify(redissonClient, never()).getBucket(anyString());
     }
 
     @Test
     @DisplayName("타임세일 구매 실패 - 타임세일 없음")
-    void purchaseTimeSale_NotFound() throws Exception {
+    void purchaseTimeSale_NotFound() {
         // given
-        given(redissonClient.getLock(anyString())).willReturn(rLock);
-        given(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).willReturn(true);
-        given(redissonClient.<String>getBucket(anyString())).willReturn(rBucket);
-        given(rBucket.get()).willReturn(null);
+        given(timeSaleStockScript.reserve(1L, 1L, 2L))
+                .willReturn(new TimeSaleStockScript.Result(TimeSaleStockScript.Status.NOT_LOADED, null));
         given(timeSaleRepository.findById(anyLong())).willReturn(Optional.empty());
 
         // when & then
@@ -217,8 +228,7 @@ class TimeSaleRedisServiceTest {
                 () -> timeSaleRedisService.purchaseTimeSale(1L, purchaseRequest));
 
         assertThat(timeSaleException.getErrorCode()).isEqualTo(ErrorCode.TIME_SALE_NOT_FOUND);
-        verify(rLock).unlock();
-        verify(timeSaleOrderRepository, never()).save(any(TimeSaleOrder.class));
+        verify(timeSaleStockScript, never()).loadStock(any(TimeSale.class));
     }
 
 
@@ -8,12 +8,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.redisson.api.RBucket;
-import org.redisson.api.RedissonClient;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
 
@@ -22,17 +19,11 @@ class AsyncTimeSaleServiceTest {
     @Mock
     private TimeSaleProducer timeSaleProducer;
 
-    @Mock
-    private RedissonClient redissonClient;
-
-    @Mock
-    private RBucket<TimeSaleOrderStatus> rBucket;
-
     private AsyncTimeSaleService asyncTimeSaleService;
 
     @BeforeEach
     void setUp() {
-        asyncTimeSaleService = new AsyncTimeSaleService(null, timeSaleProducer, redissonClient);
+        asyncTimeSaleService = new AsyncTimeSaleService(null, timeSaleProducer);
     }
 
     @Test
@@ -60,10 +51,8 @@ class AsyncTimeSaleServiceTest {
         // given
         Long timeSaleId = 1L;
         String requestId = "test-request-id";
-        given(redissonClient.<TimeSaleOrderStatus>getBucket(anyString())).willReturn(rBucket);
-        given(rBucket.get()).willReturn(null);
-        given(timeSaleProducer.getQueuePosition(timeSaleId, requestId)).willReturn(5);
-        given(timeSaleProducer.getTotalWaiting(timeSaleId)).willReturn(10L);
+        given(timeSaleProducer.getPurchaseStatus(timeSaleId, requestId))
+                .willReturn(new TimeSaleQueueScript.QueueStatus(null, 5, 10L));
 
         // when
         TimeSaleDto.AsyncPurchaseResponse response = asyncTimeSaleService.getPurchaseResult(timeSaleId, requestId);
@@ -80,8 +69,8 @@ class AsyncTimeSaleServiceTest {
         // given
         Long timeSaleId = 1L;
         String requestId = "test-request-id";
-        given(redissonClient.<TimeSaleOrderStatus>getBucket(anyString())).willReturn(rBucket);
-        given(rBucket.get()).willReturn(TimeSaleOrderStatus.SUCCESS);
+        given(timeSaleProducer.getPurchaseStatus(timeSaleId, requestId))
+                .willReturn(new TimeSaleQueueScript.QueueStatus(TimeSaleOrderStatus.SUCCESS, null, 10L));
 
         // when
         TimeSaleDto.AsyncPurchaseResponse response = asyncTimeSaleService.getPurchaseResult(timeSaleId, requestId);
@@ -98,8 +87,8 @@ class AsyncTimeSaleServiceTest {
         // given
         Long timeSaleId = 1L;
         String requestId = "test-request-id";
-        given(redissonClient.<TimeSaleOrderStatus>getBucket(anyString())).willReturn(rBucket);
-        given(rBucket.get()).willReturn(TimeSaleOrderStatus.FAIL);
+        given(timeSaleProducer.getPurchaseStatus(timeSaleId, requestId))
+                .willReturn(new TimeSaleQueueScript.QueueStatus(TimeSaleOrderStatus.FAIL, null, 10L));
 
         // when
         TimeSaleDto.AsyncPurchaseResponse response = asyncTimeSaleService.getPurchaseResult(timeSaleId, requestId);
@@ -1,25 +1,27 @@
 package com.bmcho.timesaleservice.service.v3;
 
 import com.bmcho.timesaleservice.domain.TimeSaleOrderStatus;
-import com.bmcho.timesaleservice.domain.TimeSaleStatus;
 import com.bmcho.timesaleservice.dto.PurchaseRequestMessage;
+import com.bmcho.timesaleservice.service.v2.TimeSaleRedisService;
+import com.bmcho.timesaleservice.service.v2.TimeSaleStockScript;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.redisson.api.RAtomicLong;
-import org.redisson.api.RBucket;
-import org.redisson.api.RScoredSortedSet;
-import org.redisson.api.RedissonClient;
 import org.springframework.kafka.core.KafkaTemplate;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,63 +30,98 @@ class TimeSaleProducerTest {
     @Mock
     private KafkaTemplate<String, PurchaseRequestMessage> kafkaTemplate;
     @Mock
-    private RedissonClient redissonClient;
-    @Mock
-    private RBucket<TimeSaleOrderStatus> resultBucket;
-    @Mock
-    private RScoredSortedSet<String> queueBucket;
+    private TimeSaleQueueScript timeSaleQueueScript;
     @Mock
-    private RAtomicLong queueSeq;
-    @Mock
-    private RAtomicLong totalCounter;
+    private TimeSaleRedisService timeSaleRedisService;
     @InjectMocks
     private TimeSaleProducer timeSaleProducer;
 
-//    private final String TOPIC = "time-sale-requests";
-//    // Redis 키 접두사
-//    private final String QUEUE_KEY = "time-sale-queue:";
-//    private final String QUEUE_SEQ_KEY = "time-sale-queue-seq:";
-//    private final String TOTAL_REQUESTS_KEY = "time-sale-total-requests:";
-//    private final String RESULT_PREFIX = "purchase-result:";
-
-
     @Test
-    @DisplayName("구매 요청 전송 성공")
+    @DisplayName("구매 요청 전송 성공 - 재고 예약과 상태 저장/대기열 등록은 스크립트 한 번")
     void sendPurchaseRequest_Success() {
         //given
         Long timeSaleId = 1L;
         Long userId = 1L;
         Long quantity = 2L;
-        when(redissonClient.<TimeSaleOrderStatus>getBucket(matches("purchase-result:.*"))).thenReturn(resultBucket);
-        when(redissonClient.<String>getScoredSortedSet(matches("time-sale-queue:.*"))).thenReturn(queueBucket);
-        when(redissonClient.getAtomicLong(matches("time-sale-total-requests:.*"))).thenReturn(totalCounter);
-        when(redissonClient.getAtomicLong(matches("time-sale-queue-seq:.*"))).thenReturn(queueSeq);
+        when(timeSaleQueueScript.queueEntry(eq(timeSaleId), anyString()))
+                .thenAnswer(invocation -> queueEntry(invocation.getArgument(1)));
+        when(timeSaleRedisService.tryReserveStock(eq(timeSaleId), eq(userId), eq(quantity),
+                any(TimeSaleStockScript.QueueEntry.class)))
+                .thenReturn(new TimeSaleStockScript.Result(TimeSaleStockScript.Status.RESERVED, 98L));
+        when(kafkaTemplate.send(anyString(), anyString(), any(PurchaseRequestMessage.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
 
         //when
         String requestId = timeSaleProducer.sendPurchaseRequest(timeSaleId, userId, quantity);
 
         //then
-        verify(resultBucket).set(TimeSaleOrderStatus.PENDING);
-        verify(queueBucket).add(queueSeq.get(), requestId);
-        verify(totalCounter).incrementAndGet();
-        verify(queueSeq).incrementAndGet();
-        verify(kafkaTemplate).send(eq("time-sale-requests"), eq(requestId), any(PurchaseRequestMessage.class));
         assertThat(requestId).isNotNull();
+        verify(timeSaleRedisService).tryReserveStock(timeSaleId, userId, quantity, queueEntry(requestId));
+        verify(kafkaTemplate).send(eq("time-sale-requests"), eq("1"),
+                argThat((PurchaseRequestMessage message) -> message.getRequestId().equals(requestId)));
+        verify(timeSaleQueueScript, never()).complete(anyList(), any(TimeSaleOrderStatus.class));
+    }
+
+    @Test
+    @DisplayName("Kafka 전송 실패 시 이미 예약된 요청이므로 바로 성공으로 확정")
+    void sendPurchaseRequest_KafkaFailed() {
+        //given
+        when(timeSaleRedisService.tryReserveStock(eq(1L), eq(1L), eq(2L), any()))
+                .thenReturn(new TimeSaleStockScript.Result(TimeSaleStockScript.Status.RESERVED, 98L));
+        when(kafkaTemplate.send(anyString(), anyString(), any(PurchaseRequestMessage.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        //when
+        String requestId = timeSaleProducer.sendPurchaseRequest(1L, 1L, 2L);
+
+        //then
+        verify(timeSaleQueueScript).complete(
+                argThat((List<PurchaseRequestMessage> messages) -> messages.size() == 1
+                        && messages.get(0).getRequestId().equals(requestId)),
+                eq(TimeSaleOrderStatus.SUCCESS));
+    }
+
+    @Test
+    @DisplayName("구매 요청 실패 - 재고 예약 실패 시 Kafka 로 보내지 않고 바로 FAIL")
+    void sendPurchaseRequest_NotEnoughQuantity() {
+        //given
+        when(timeSaleRedisService.tryReserveStock(eq(1L), eq(1L), eq(2L), any()))
+                .thenReturn(new TimeSaleStockScript.Result(TimeSaleStockScript.Status.NOT_ENOUGH_QUANTITY, 1L));
+
+        //when
+        String requestId = timeSaleProducer.sendPurchaseRequest(1L, 1L, 2L);
+
+        //then
+        assertThat(requestId).isNotNull();
+        verify(timeSaleQueueScript).saveResult(requestId, TimeSaleOrderStatus.FAIL);
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    @DisplayName("매진된 타임세일은 이후 요청에서 재고 예약도 시도하지 않음")
+    void sendPurchaseRequest_SoldOutFastPath() {
+        //given
+        when(timeSaleRedisService.tryReserveStock(eq(1L), anyLong(), eq(1L), any()))
+                .thenReturn(new TimeSaleStockScript.Result(TimeSaleStockScript.Status.NOT_ENOUGH_QUANTITY, 0L));
+
+        //when
+        timeSaleProducer.sendPurchaseRequest(1L, 1L, 1L);
+        timeSaleProducer.sendPurchaseRequest(1L, 2L, 1L);
+
+        //then
+        verify(timeSaleRedisService, times(1)).tryReserveStock(anyLong(), anyLong(), anyLong(), any());
+        verify(timeSaleQueueScript, times(2)).saveResult(anyString(), eq(TimeSaleOrderStatus.FAIL));
+        verifyNoInteractions(kafkaTemplate);
     }
 
     @Test
     @DisplayName("대기열 위치 조회 성공")
     void getQueuePosition_Success() {
-        Long timeSaleId = 1L;
-        String requestId = "requestId";
         //given
-        when(redissonClient.<String>getScoredSortedSet("time-sale-queue:%d".formatted(timeSaleId))).thenReturn(queueBucket);
-        when(queueBucket.contains(anyString())).thenReturn(true);
-        when(queueBucket.isEmpty()).thenReturn(false);
-        when(queueBucket.rank(requestId)).thenReturn(1);
+        given(timeSaleQueueScript.rank(1L, "requestId")).willReturn(1);
 
         //when
-        Integer result = timeSaleProducer.getQueuePosition(timeSaleId, requestId);
+        Integer result = timeSaleProducer.getQueuePosition(1L, "requestId");
 
         //then
         assertThat(result).isEqualTo(1);
@@ -93,17 +130,17 @@ class TimeSaleProducerTest {
     @Test
     void getTotalWaiting_Success() {
         //given
-        Long timeSaleId = 1L;
-        Long totalCount = 20L;
-        String timeSaleTotalRequestsKey = "time-sale-total-requests:%d";
-        given(redissonClient.getAtomicLong(timeSaleTotalRequestsKey.formatted(timeSaleId)))
-                .willReturn(totalCounter);
-        when(totalCounter.get()).thenReturn(totalCount);
+        given(timeSaleQueueScript.totalWaiting(1L)).willReturn(20L);
 
         //when
-        Long result = timeSaleProducer.getTotalWaiting(timeSaleId);
+        Long result = timeSaleProducer.getTotalWaiting(1L);
 
         //then
-        assertThat(result).isEqualTo(totalCount);
+        assertThat(result).isEqualTo(20L);
+    }
+
+    private TimeSaleStockScript.QueueEntry queueEntry(String requestId) {
+        return new TimeSaleStockScript.QueueEntry("purchase-result:" + requestId, "time-sale-queue-seq:1",
+                "time-sale-queue:1", "time-sale-total-requests:1", requestId, "PENDING", 3600L);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+package com.bmcho.timesaleservice.service.v3;
+
+import com.bmcho.timesaleservice.domain.TimeSale;
+import com.bmcho.timesaleservice.domain.TimeSaleOrderStatus;
+import com.bmcho.timesaleservice.domain.TimeSaleStatus;
+import com.bmcho.timesaleservice.dto.PurchaseRequestMessage;
+import com.bmcho.timesaleservice.service.v2.TimeSaleStockScript;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 재고 예약 스크립트의 대기열 등록과 결과 확정의 멱등성을 실제 Redis(Testcontainers)로 검증한다.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class TimeSaleQueueScriptRedisTest {
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static RedissonClient redissonClient;
+    private static TimeSaleStockScript timeSaleStockScript;
+    private static TimeSaleQueueScript timeSaleQueueScript;
+
+    @BeforeAll
+    static void setUp() {
+        Config config = new Config();
+        config.useSingleServer()
+                .setAddress("redis://" + REDIS.getHost() + ":" + REDIS.getMappedPort(6379));
+        config.setUseScriptCache(true);
+        redissonClient = Redisson.create(config);
+        timeSaleStockScript = new TimeSaleStockScript(redissonClient);
+        timeSaleQueueScript = new TimeSaleQueueScript(redissonClient, Duration.ofHours(1));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        redissonClient.shutdown();
+    }
+
+    @BeforeEach
+    void flush() {
+        redissonClient.getKeys().flushall();
+    }
+
+    @Test
+    @DisplayName("재고 예약에 성공하면 같은 스크립트에서 결과 PENDING 저장과 대기열 등록까지 처리")
+    void reserve_Enqueue() {
+        //given
+        timeSaleStockScript.initStock(timeSale(1L, 10L));
+
+        //when
+        TimeSaleStockScript.Result result = timeSaleStockScript.reserve(1L, 1L, 1L,
+                timeSaleQueueScript.queueEntry(1L, "request-1"));
+
+        //then
+        assertThat(result.status()).isEqualTo(TimeSaleStockScript.Status.RESERVED);
+        assertThat(result.remaining()).isEqualTo(9L);
+        TimeSaleQueueScript.QueueStatus status = timeSaleQueueScript.status(1L, "request-1");
+        assertThat(status.result()).isEqualTo(TimeSaleOrderStatus.PENDING);
+        assertThat(status.position()).isZero();
+        assertThat(status.totalWaiting()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("재고 예약에 실패하면 대기열에 등록하지 않음")
+    void reserve_NotEnough_NotEnqueued() {
+        //given
+        timeSaleStockScript.initStock(timeSale(1L, 0L));
+
+        //when
+        TimeSaleStockScript.Result result = timeSaleStockScript.reserve(1L, 1L, 1L,
+                timeSaleQueueScript.queueEntry(1L, "request-1"));
+
+        //then
+        assertThat(result.status()).isEqualTo(TimeSaleStockScript.Status.NOT_ENOUGH_QUANTITY);
+        TimeSaleQueueScript.QueueStatus status = timeSaleQueueScript.status(1L, "request-1");
+        assertThat(status.result()).isNull();
+        assertThat(status.position()).isNull();
+        assertThat(status.totalWaiting()).isZero();
+    }
+
+    @Test
+    @DisplayName("판매 시작 전이면 Redis 서버 시각 기준으로 거절하고 대기열에 등록하지 않음")
+    void reserve_BeforeStart_NotInPeriod() {
+        //given
+        LocalDateTime now = LocalDateTime.now();
+        timeSaleStockScript.initStock(TimeSale.builder()
+                .id(1L)
+                .quantity(10L)
+                .remainingQuantity(10L)
+                .discountPrice(5000L)
+                .startAt(now.plusHours(1))
+                .endAt(now.plusHours(2))
+                .status(TimeSaleStatus.ACTIVE)
+                .build());
+
+        //when
+        TimeSaleStockScript.Result result = timeSaleStockScript.reserve(1L, 1L, 1L,
+                timeSaleQueueScript.queueEntry(1L, "request-1"));
+
+        //then
+        assertThat(result.status()).isEqualTo(TimeSaleStockScript.Status.NOT_IN_PERIOD);
+        assertThat(result.remaining()).isEqualTo(10L);
+        assertThat(timeSaleQueueScript.status(1L, "request-1").totalWaiting()).isZero();
+    }
+
+    @Test
+    @DisplayName("같은 요청을 다시 확정해도(재전달) 총 대기 수는 한 번만 감소")
+    void complete_Redelivered_DecrementsOnce() {
+        //given
+        timeSaleStockScript.initStock(timeSale(1L, 10L));
+        timeSaleStockScript.reserve(1L, 1L, 1L, timeSaleQueueScript.queueEntry(1L, "request-1"));
+        timeSaleStockScript.reserve(1L, 2L, 1L, timeSaleQueueScript.queueEntry(1L, "request-2"));
+        List<PurchaseRequestMessage> messages = List.of(message("request-1"));
+
+        //when
+        timeSaleQueueScript.complete(messages, TimeSaleOrderStatus.SUCCESS);
+        timeSaleQueueScript.complete(messages, TimeSaleOrderStatus.SUCCESS);
+
+        //then
+        TimeSaleQueueScript.QueueStatus status = timeSaleQueueScript.status(1L, "request-1");
+        assertThat(status.result()).isEqualTo(TimeSaleOrderStatus.SUCCESS);
+        assertThat(status.position()).isNull();
+        assertThat(status.totalWaiting()).isEqualTo(1L);
+    }
+
+    private TimeSale timeSale(Long id, Long remainingQuantity) {
+        LocalDateTime now = LocalDateTime.now();
+        return TimeSale.builder()
+                .id(id)
+                .quantity(10L)
+                .remainingQuantity(remainingQuantity)
+                .discountPrice(5000L)
+                .startAt(now.minusHours(1))
+                .endAt(now.plusHours(1))
+                .status(TimeSaleStatus.ACTIVE)
+                .build();
+    }
+
+    private PurchaseRequestMessage message(String requestId) {
+        return PurchaseRequestMessage.builder()
+                .requestId(requestId)
+                .timeSaleId(1L)
+                .userId(1L)
+                .quantity(1L)
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.bmcho.timesaleservice.service.v3;
+
+import com.bmcho.timesaleservice.domain.TimeSaleOrderStatus;
+import com.bmcho.timesaleservice.dto.PurchaseRequestMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.BatchResult;
+import org.redisson.api.RAtomicLongAsync;
+import org.redisson.api.RBatch;
+import org.redisson.api.RBucketAsync;
+import org.redisson.api.RScoredSortedSetAsync;
+import org.redisson.api.RScript;
+import org.redisson.api.RScriptAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TimeSaleQueueScriptTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RBatch batch;
+    @Mock
+    private RBucketAsync<Object> resultBucket;
+    @Mock
+    private RScoredSortedSetAsync<Object> queue;
+    @Mock
+    private RAtomicLongAsync totalCounter;
+    @Mock
+    private RScriptAsync script;
+
+    private TimeSaleQueueScript timeSaleQueueScript;
+
+    @BeforeEach
+    void setUp() {
+        timeSaleQueueScript = new TimeSaleQueueScript(redissonClient, Duration.ofHours(1));
+        given(redissonClient.createBatch(any(BatchOptions.class))).willReturn(batch);
+        given(batch.getBucket(anyString(), any(Codec.class))).willReturn(resultBucket);
+    }
+
+    @Test
+    @DisplayName("결과 확정 - 결과는 TTL 과 함께 저장하고 대기열 제거/대기 수 감소는 타임세일별로 스크립트 한 번씩 파이프라인에 담음")
+    void complete() {
+        //given
+        given(batch.getScript(any(Codec.class))).willReturn(script);
+        List<PurchaseRequestMessage> messages = List.of(message("request-1"), message("request-2"));
+
+        //when
+        timeSaleQueueScript.complete(messages, TimeSaleOrderStatus.SUCCESS);
+
+        //then
+        verify(resultBucket, times(2)).setAsync("SUCCESS", 3600L, TimeUnit.SECONDS);
+        verify(script).evalAsync(eq(RScript.Mode.READ_WRITE), anyString(), eq(RScript.ReturnType.INTEGER),
+                eq(List.of("time-sale-queue:1", "time-sale-total-requests:1")), eq("request-1"), eq("request-2"));
+        verify(batch, times(1)).execute();
+    }
+
+    @Test
+    @DisplayName("상태 조회 - 결과/위치/대기 수를 한 번의 파이프라인으로 읽음")
+    void status() {
+        //given
+        given(batch.getScoredSortedSet(eq("time-sale-queue:1"), any(Codec.class))).willReturn(queue);
+        given(batch.getAtomicLong("time-sale-total-requests:1")).willReturn(totalCounter);
+        BatchResult<Object> responses = new BatchResult<>(Arrays.asList("PENDING", 3, 10L), 0);
+        given(batch.execute()).willReturn((BatchResult) responses);
+
+        //when
+        TimeSaleQueueScript.QueueStatus status = timeSaleQueueScript.status(1L, "request-1");
+
+        //then
+        assertThat(status.result()).isEqualTo(TimeSaleOrderStatus.PENDING);
+        assertThat(status.position()).isEqualTo(3);
+        assertThat(status.totalWaiting()).isEqualTo(10L);
+        verify(batch, times(1)).execute();
+    }
+
+    private PurchaseRequestMessage message(String requestId) {
+        return PurchaseRequestMessage.builder()
+                .requestId(requestId)
+                .timeSaleId(1L)
+                .userId(1L)
+                .quantity(1L)
+                .build();
+    }
+}